@@ -0,0 +1,146 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.codegen.CodeGenRunner;
+import io.confluent.ksql.execution.codegen.ExpressionMetadata;
+import io.confluent.ksql.execution.expression.tree.ColumnReferenceExp;
+import io.confluent.ksql.execution.streams.GroupByMapper;
+import io.confluent.ksql.execution.util.StructKeyUtil;
+import io.confluent.ksql.function.InternalFunctionRegistry;
+import io.confluent.ksql.name.ColumnName;
+import io.confluent.ksql.schema.ksql.ColumnRef;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import io.confluent.ksql.util.KsqlConfig;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.apache.kafka.connect.data.Struct;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares computing GROUP BY keys with {@link GroupByMapper} against the previous approach of
+ * converting each value to a string and joining them through a stream pipeline.
+ *
+ * <p>The row is grouped by its first {@code keyColumnCount} columns, which cycle through the
+ * BIGINT, INT and STRING types. Both approaches produce identical keys, so the size of the
+ * repartitioned keys is unchanged.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 6, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(4)
+@Fork(3)
+public class GroupByKeyBenchmark {
+
+  private static final String GROUP_BY_VALUE_SEPARATOR = "|+|";
+
+  @State(Scope.Thread)
+  public static class GroupByState {
+
+    @Param({"1", "2", "4"})
+    public int keyColumnCount;
+
+    private GenericRow row;
+    private List<ExpressionMetadata> expressions;
+    private GroupByMapper<Struct> mapper;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+      final LogicalSchema.Builder schemaBuilder = LogicalSchema.builder();
+      final List<ColumnReferenceExp> groupBys = new ArrayList<>(keyColumnCount);
+      final List<Object> values = new ArrayList<>(keyColumnCount);
+
+      for (int i = 0; i < keyColumnCount; i++) {
+        final ColumnName name = ColumnName.of("COL" + i);
+        groupBys.add(new ColumnReferenceExp(ColumnRef.withoutSource(name)));
+
+        switch (i % 3) {
+          case 0:
+            schemaBuilder.valueColumn(name, SqlTypes.BIGINT);
+            values.add(1_000_000L + i);
+            break;
+          case 1:
+            schemaBuilder.valueColumn(name, SqlTypes.INTEGER);
+            values.add(1_000 + i);
+            break;
+          default:
+            schemaBuilder.valueColumn(name, SqlTypes.STRING);
+            values.add("value " + i);
+            break;
+        }
+      }
+
+      final CodeGenRunner codeGenRunner = new CodeGenRunner(
+          schemaBuilder.build(),
+          new KsqlConfig(Collections.emptyMap()),
+          new InternalFunctionRegistry()
+      );
+
+      expressions = new ArrayList<>(keyColumnCount);
+      for (final ColumnReferenceExp groupBy : groupBys) {
+        expressions.add(codeGenRunner.buildCodeGenFromParseTree(groupBy, "Group By"));
+      }
+
+      mapper = new GroupByMapper<>(expressions);
+      row = new GenericRow(values);
+    }
+  }
+
+  @Benchmark
+  public Struct joined(final GroupByState state) {
+    final String stringRowKey = IntStream.range(0, state.expressions.size())
+        .mapToObj(idx -> String.valueOf(state.expressions.get(idx).evaluate(state.row)))
+        .collect(Collectors.joining(GROUP_BY_VALUE_SEPARATOR));
+
+    return StructKeyUtil.asStructKey(stringRowKey);
+  }
+
+  @Benchmark
+  public Struct mapper(final GroupByState state) {
+    return state.mapper.apply(null, state.row);
+  }
+
+  public static void main(final String[] args) throws RunnerException {
+    final Options opt = new OptionsBuilder()
+        .include(GroupByKeyBenchmark.class.getSimpleName())
+        .build();
+
+    new Runner(opt).run();
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.codegen.CodeGenRunner;
+import io.confluent.ksql.execution.codegen.ExpressionMetadata;
+import io.confluent.ksql.execution.codegen.RowProjector;
+import io.confluent.ksql.execution.codegen.RowProjector.ErrorHandler;
+import io.confluent.ksql.execution.expression.tree.ArithmeticBinaryExpression;
+import io.confluent.ksql.execution.expression.tree.ColumnReferenceExp;
+import io.confluent.ksql.execution.expression.tree.DoubleLiteral;
+import io.confluent.ksql.execution.expression.tree.Expression;
+import io.confluent.ksql.execution.expression.tree.FunctionCall;
+import io.confluent.ksql.execution.expression.tree.LongLiteral;
+import io.confluent.ksql.function.InternalFunctionRegistry;
+import io.confluent.ksql.name.ColumnName;
+import io.confluent.ksql.name.FunctionName;
+import io.confluent.ksql.schema.Operator;
+import io.confluent.ksql.schema.ksql.ColumnRef;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import io.confluent.ksql.util.KsqlConfig;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares evaluating the expressions of a SELECT one {@link ExpressionMetadata} at a time with
+ * evaluating them all through a single generated {@link RowProjector}.
+ *
+ * <p>Each column of the schema is projected through one expression. Columns cycle through the
+ * BIGINT, DOUBLE and STRING types, with the expressions being {@code COLn + 1},
+ * {@code COLn * 1.5} and {@code UCASE(COLn)} respectively.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 6, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(4)
+@Fork(3)
+public class ProjectionBenchmark {
+
+  private static final ErrorHandler THROWING_HANDLER = (index, e) -> {
+    throw new RuntimeException("Expression " + index + " failed", e);
+  };
+
+  @State(Scope.Thread)
+  public static class ProjectionState {
+
+    @Param({"5", "20", "50"})
+    public int columnCount;
+
+    private GenericRow row;
+    private List<ExpressionMetadata> expressions;
+    private RowProjector projector;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+      final LogicalSchema.Builder schemaBuilder = LogicalSchema.builder();
+      final List<Expression> selects = new ArrayList<>(columnCount);
+      final List<Object> values = new ArrayList<>(columnCount);
+
+      for (int i = 0; i < columnCount; i++) {
+        final ColumnName name = ColumnName.of("COL" + i);
+        final Expression column = new ColumnReferenceExp(ColumnRef.withoutSource(name));
+
+        switch (i % 3) {
+          case 0:
+            schemaBuilder.valueColumn(name, SqlTypes.BIGINT);
+            selects.add(new ArithmeticBinaryExpression(Operator.ADD, column, new LongLiteral(1)));
+            values.add((long) i);
+            break;
+          case 1:
+            schemaBuilder.valueColumn(name, SqlTypes.DOUBLE);
+            selects.add(new ArithmeticBinaryExpression(
+                Operator.MULTIPLY, column, new DoubleLiteral(1.5)));
+            values.add(i * 0.5);
+            break;
+          default:
+            schemaBuilder.valueColumn(name, SqlTypes.STRING);
+            selects.add(new FunctionCall(FunctionName.of("UCASE"), ImmutableList.of(column)));
+            values.add("value " + i);
+            break;
+        }
+      }
+
+      final CodeGenRunner codeGenRunner = new CodeGenRunner(
+          schemaBuilder.build(),
+          new KsqlConfig(Collections.emptyMap()),
+          new InternalFunctionRegistry()
+      );
+
+      expressions = new ArrayList<>(columnCount);
+      for (final Expression select : selects) {
+        expressions.add(codeGenRunner.buildCodeGenFromParseTree(select, "Select"));
+      }
+
+      projector = codeGenRunner.buildRowProjector(selects, "Select");
+      row = new GenericRow(values);
+    }
+  }
+
+  @Benchmark
+  public List<Object> perExpression(final ProjectionState state) {
+    final List<Object> results = new ArrayList<>(state.expressions.size());
+    for (final ExpressionMetadata expression : state.expressions) {
+      results.add(expression.evaluate(state.row));
+    }
+    return results;
+  }
+
+  @Benchmark
+  public List<Object> fused(final ProjectionState state) {
+    return state.projector.project(state.row, THROWING_HANDLER);
+  }
+
+  public static void main(final String[] args) throws RunnerException {
+    final Options opt = new OptionsBuilder()
+        .include(ProjectionBenchmark.class.getSimpleName())
+        .build();
+
+    new Runner(opt).run();
+  }
+}
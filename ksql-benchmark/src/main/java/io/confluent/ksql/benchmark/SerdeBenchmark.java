@@ -15,6 +15,7 @@
 
 package io.confluent.ksql.benchmark;
 
+import com.google.common.collect.ImmutableMap;
 import io.confluent.avro.random.generator.Generator;
 import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
@@ -114,7 +115,7 @@ public class SerdeBenchmark {
     GenericRow row;
     byte[] bytes;
 
-    @Param({"JSON", "Avro"})
+    @Param({"JSON", "JSON-Streaming", "Avro"})
     public String serializationFormat;
 
     @Setup(Level.Iteration)
@@ -122,7 +123,10 @@ public class SerdeBenchmark {
       final Serde<GenericRow> serde;
       switch (serializationFormat) {
         case "JSON":
-          serde = getJsonSerde(rowState.schema);
+          serde = getJsonSerde(rowState.schema, false);
+          break;
+        case "JSON-Streaming":
+          serde = getJsonSerde(rowState.schema, true);
           break;
         case "Avro":
           serde = getAvroSerde(rowState.schema);
@@ -137,11 +141,13 @@ public class SerdeBenchmark {
     }
 
     private static Serde<GenericRow> getJsonSerde(
-        final org.apache.kafka.connect.data.Schema schema) {
-      final Serializer<GenericRow> serializer = getJsonSerdeHelper(schema).serializer();
+        final org.apache.kafka.connect.data.Schema schema,
+        final boolean streaming
+    ) {
+      final Serializer<GenericRow> serializer = getJsonSerdeHelper(schema, streaming).serializer();
       // KsqlJsonDeserializer requires schema field names to be uppercase
       final Deserializer<GenericRow> deserializer =
-          getJsonSerdeHelper(convertFieldNamesToUppercase(schema)).deserializer();
+          getJsonSerdeHelper(convertFieldNamesToUppercase(schema), streaming).deserializer();
       return Serdes.serdeFrom(serializer, deserializer);
     }
 
@@ -155,11 +161,16 @@ public class SerdeBenchmark {
     }
 
     private static Serde<GenericRow> getJsonSerdeHelper(
-        final org.apache.kafka.connect.data.Schema schema
+        final org.apache.kafka.connect.data.Schema schema,
+        final boolean streaming
     ) {
       return getGenericRowSerde(
           FormatInfo.of(Format.JSON),
           schema,
+          new KsqlConfig(ImmutableMap.of(
+              KsqlConfig.KSQL_JSON_STREAMING_DESERIALIZER_ENABLE_CONFIG, streaming,
+              KsqlConfig.KSQL_JSON_STREAMING_SERIALIZER_ENABLE_CONFIG, streaming
+          )),
           () -> null
       );
     }
@@ -172,6 +183,7 @@ public class SerdeBenchmark {
       return getGenericRowSerde(
           FormatInfo.of(Format.AVRO, Optional.of("benchmarkSchema"), Optional.empty()),
           schema,
+          new KsqlConfig(Collections.emptyMap()),
           () -> schemaRegistryClient
       );
     }
@@ -179,12 +191,13 @@ public class SerdeBenchmark {
     private static Serde<GenericRow> getGenericRowSerde(
         final FormatInfo format,
         final org.apache.kafka.connect.data.Schema schema,
+        final KsqlConfig ksqlConfig,
         final Supplier<SchemaRegistryClient> schemaRegistryClientFactory
     ) {
       return GenericRowSerDe.from(
           format,
           PersistenceSchema.from((ConnectSchema) schema, false),
-          new KsqlConfig(Collections.emptyMap()),
+          ksqlConfig,
           schemaRegistryClientFactory,
           "benchmark",
           ProcessingLogContext.create()
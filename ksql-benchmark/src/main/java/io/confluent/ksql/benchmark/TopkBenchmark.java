@@ -0,0 +1,145 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+
+import io.confluent.ksql.function.AggregateFunctionInitArguments;
+import io.confluent.ksql.function.KsqlAggregateFunction;
+import io.confluent.ksql.function.udaf.topk.TopKAggregateFunctionFactory;
+import io.confluent.ksql.function.udaf.topkdistinct.TopkDistinctAggFunctionFactory;
+import io.confluent.ksql.schema.ksql.types.SqlType;
+import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares adding a value to the state of TOPK and TOPKDISTINCT against the previous approach of
+ * appending or overwriting the smallest value and then re-sorting the list.
+ *
+ * <p>Values rise steadily, with random jitter, like scores on a busy leaderboard, so that most
+ * values are accepted into the top k at a random position.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 6, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(4)
+@Fork(3)
+public class TopkBenchmark {
+
+  private static final int JITTER_COUNT = 4096;
+
+  @State(Scope.Thread)
+  public static class TopkState {
+
+    @Param({"10", "100", "1000"})
+    public int k;
+
+    private KsqlAggregateFunction<Long, List<Long>, List<Long>> topk;
+    private KsqlAggregateFunction<Long, List<Long>, List<Long>> topkDistinct;
+    private List<Long> sortedAggregate;
+    private List<Long> topkAggregate;
+    private List<Long> topkDistinctAggregate;
+    private int[] jitter;
+    private long counter;
+
+    @SuppressWarnings("unchecked")
+    @Setup(Level.Iteration)
+    public void setUp() {
+      final List<SqlType> argTypes = Collections.singletonList(SqlTypes.BIGINT);
+      final AggregateFunctionInitArguments initArgs = new AggregateFunctionInitArguments(0, k);
+
+      topk = new TopKAggregateFunctionFactory().createAggregateFunction(argTypes, initArgs);
+      topkDistinct = new TopkDistinctAggFunctionFactory()
+          .createAggregateFunction(argTypes, initArgs);
+
+      sortedAggregate = new ArrayList<>(k);
+      topkAggregate = new ArrayList<>(k);
+      topkDistinctAggregate = new ArrayList<>(k);
+
+      final Random random = new Random(k);
+      jitter = new int[JITTER_COUNT];
+      for (int i = 0; i < jitter.length; i++) {
+        jitter[i] = random.nextInt(k);
+      }
+      counter = 0;
+    }
+
+    private Long nextValue() {
+      final long value = counter + jitter[(int) (counter % JITTER_COUNT)];
+      counter++;
+      return value;
+    }
+  }
+
+  @Benchmark
+  public List<Long> sort(final TopkState state) {
+    final Long value = state.nextValue();
+    final List<Long> aggregate = state.sortedAggregate;
+
+    final int currentSize = aggregate.size();
+    if (currentSize == state.k && value.compareTo(aggregate.get(currentSize - 1)) <= 0) {
+      return aggregate;
+    }
+
+    if (currentSize == state.k) {
+      aggregate.set(currentSize - 1, value);
+    } else {
+      aggregate.add(value);
+    }
+
+    aggregate.sort(Comparator.reverseOrder());
+    return aggregate;
+  }
+
+  @Benchmark
+  public List<Long> topk(final TopkState state) {
+    return state.topk.aggregate(state.nextValue(), state.topkAggregate);
+  }
+
+  @Benchmark
+  public List<Long> topkDistinct(final TopkState state) {
+    return state.topkDistinct.aggregate(state.nextValue(), state.topkDistinctAggregate);
+  }
+
+  public static void main(final String[] args) throws RunnerException {
+    final Options opt = new OptionsBuilder()
+        .include(TopkBenchmark.class.getSimpleName())
+        .build();
+
+    new Runner(opt).run();
+  }
+}
@@ -33,7 +33,7 @@ import org.junit.runners.Parameterized;
 public class SerdeBenchmarkTest {
 
   private static final List<String> SCHEMAS = ImmutableList.of("impressions", "metrics");
-  private static final List<String> FORMATS = ImmutableList.of("JSON", "Avro");
+  private static final List<String> FORMATS = ImmutableList.of("JSON", "JSON-Streaming", "Avro");
   private static final String TOPIC_NAME = "serde_benchmark";
 
   private final String schemaName;
@@ -220,6 +220,145 @@ public class KsqlConfig extends AbstractConfig {
   public static final String KSQL_QUERY_PULL_STREAMSTORE_REBALANCING_TIMEOUT_MS_DOC = "Timeout in "
       + "milliseconds when waiting for rebalancing of the stream store during a pull query";
 
+  public static final String KSQL_QUERY_PULL_FORWARDING_THREADS_CONFIG =
+      "ksql.query.pull.forwarding.threads";
+  public static final int KSQL_QUERY_PULL_FORWARDING_THREADS_DEFAULT = 64;
+  public static final String KSQL_QUERY_PULL_FORWARDING_THREADS_DOC = "The maximum number of "
+      + "threads a server uses to forward the keys of pull queries to the other servers that own "
+      + "them. When all of them are busy, the thread serving the request forwards to its "
+      + "remaining owners itself.";
+
+  public static final String KSQL_JSON_STREAMING_DESERIALIZER_ENABLE_CONFIG =
+      "ksql.json.streaming.deserializer.enable";
+  public static final boolean KSQL_JSON_STREAMING_DESERIALIZER_ENABLE_DEFAULT = true;
+  public static final String KSQL_JSON_STREAMING_DESERIALIZER_ENABLE_DOC = "If \"true\", "
+      + "JSON values are deserialized directly from the token stream, skipping any properties "
+      + "not required by the schema. If \"false\", each value is first read into a JSON tree, "
+      + "which is then coerced into the required schema.";
+
+  public static final String KSQL_JSON_STREAMING_SERIALIZER_ENABLE_CONFIG =
+      "ksql.json.streaming.serializer.enable";
+  public static final boolean KSQL_JSON_STREAMING_SERIALIZER_ENABLE_DEFAULT = true;
+  public static final String KSQL_JSON_STREAMING_SERIALIZER_ENABLE_DOC = "If \"true\", "
+      + "JSON values are written directly to the output buffer. If \"false\", values are "
+      + "serialized via Connect's JsonConverter. Both produce identical output.";
+
+  public static final String KSQL_QUERY_PROJECTION_PUSHDOWN_ENABLE_CONFIG =
+      "ksql.query.projection.pushdown.enable";
+  public static final String KSQL_QUERY_PROJECTION_PUSHDOWN_ENABLE_DOC = "If \"true\", "
+      + "persistent and push queries only deserialize the source value columns they reference. "
+      + "Unreferenced columns are left null and are not validated, so a malformed value in such "
+      + "a column no longer causes the record to be dropped. If \"false\", every value column "
+      + "is deserialized.";
+
+  public static final String KSQL_QUERY_PROJECTION_FUSED_ENABLE_CONFIG =
+      "ksql.query.projection.fused.enable";
+  public static final boolean KSQL_QUERY_PROJECTION_FUSED_ENABLE_DEFAULT = true;
+  public static final String KSQL_QUERY_PROJECTION_FUSED_ENABLE_DOC = "If \"true\", the "
+      + "expressions in a SELECT are compiled into a single generated class that evaluates them "
+      + "all in one call. If \"false\", each expression is compiled and evaluated separately.";
+
+  public static final String KSQL_QUERY_CODEGEN_CACHE_ENABLE_CONFIG =
+      "ksql.query.codegen.cache.enable";
+  public static final boolean KSQL_QUERY_CODEGEN_CACHE_ENABLE_DEFAULT = true;
+  public static final String KSQL_QUERY_CODEGEN_CACHE_ENABLE_DOC = "If \"true\", the code "
+      + "generated for expressions is compiled once and shared by all queries that use the same "
+      + "expression, e.g. when the command topic is replayed on startup. If \"false\", the code "
+      + "is compiled separately for every use.";
+
+  public static final String KSQL_QUERY_CODEGEN_CACHE_MAX_ENTRIES_CONFIG =
+      "ksql.query.codegen.cache.max.entries";
+  public static final int KSQL_QUERY_CODEGEN_CACHE_MAX_ENTRIES_DEFAULT = 10_000;
+  public static final String KSQL_QUERY_CODEGEN_CACHE_MAX_ENTRIES_DOC = "The maximum number of "
+      + "compiled expressions kept in the cache enabled by "
+      + KSQL_QUERY_CODEGEN_CACHE_ENABLE_CONFIG + ". The least recently used entries are evicted "
+      + "once the cache is full.";
+
+  public static final String KSQL_QUERY_CODEGEN_CACHE_DISK_ENABLE_CONFIG =
+      "ksql.query.codegen.cache.disk.enable";
+  public static final boolean KSQL_QUERY_CODEGEN_CACHE_DISK_ENABLE_DEFAULT = false;
+  public static final String KSQL_QUERY_CODEGEN_CACHE_DISK_ENABLE_DOC = "If \"true\", and "
+      + KSQL_QUERY_CODEGEN_CACHE_ENABLE_CONFIG + " is enabled, the compiled classes of SELECT "
+      + "projections are also written to the ksql-codegen-cache directory under the streams "
+      + "state dir, so that they are loaded rather than compiled again after a restart.";
+
+  public static final String KSQL_QUERY_PULL_PLAN_CACHE_ENABLE_CONFIG =
+      "ksql.query.pull.plan.cache.enable";
+  public static final boolean KSQL_QUERY_PULL_PLAN_CACHE_ENABLE_DEFAULT = true;
+  public static final String KSQL_QUERY_PULL_PLAN_CACHE_ENABLE_DOC = "If \"true\", the plan "
+      + "of a pull query is cached, keyed on the text of the statement with the literals in its "
+      + "WHERE clause replaced by placeholders. Repeats of the query with different keys then "
+      + "skip parsing, analysis and compiling the projection. If \"false\", every pull query "
+      + "is planned from scratch.";
+
+  public static final String KSQL_QUERY_PULL_PLAN_CACHE_MAX_ENTRIES_CONFIG =
+      "ksql.query.pull.plan.cache.max.entries";
+  public static final int KSQL_QUERY_PULL_PLAN_CACHE_MAX_ENTRIES_DEFAULT = 1_000;
+  public static final String KSQL_QUERY_PULL_PLAN_CACHE_MAX_ENTRIES_DOC = "The maximum number "
+      + "of pull query plans kept in the cache enabled by "
+      + KSQL_QUERY_PULL_PLAN_CACHE_ENABLE_CONFIG + ". The least recently used plans are evicted "
+      + "once the cache is full.";
+
+  public static final String KSQL_QUERY_PUSH_QUEUE_CAPACITY_CONFIG =
+      "ksql.query.push.queue.capacity";
+  public static final int KSQL_QUERY_PUSH_QUEUE_CAPACITY_DEFAULT = 100;
+  public static final String KSQL_QUERY_PUSH_QUEUE_CAPACITY_DOC = "The maximum number of result "
+      + "rows a push query buffers while waiting for the client to consume them.";
+
+  public static final String KSQL_QUERY_PUSH_QUEUE_OVERFLOW_BLOCK = "block";
+  public static final String KSQL_QUERY_PUSH_QUEUE_OVERFLOW_DROP_OLDEST = "drop_oldest";
+  public static final String KSQL_QUERY_PUSH_QUEUE_OVERFLOW_FAIL = "fail";
+  public static final String KSQL_QUERY_PUSH_QUEUE_OVERFLOW_POLICY_CONFIG =
+      "ksql.query.push.queue.overflow.policy";
+  public static final String KSQL_QUERY_PUSH_QUEUE_OVERFLOW_POLICY_DOC = "What a push query does "
+      + "when a result row is produced while its buffer is full. \"block\" pauses the query "
+      + "until the client catches up, \"drop_oldest\" discards the oldest buffered row to make "
+      + "room, and \"fail\" terminates the query with an error.";
+
+  public static final String KSQL_QUERY_SHARED_ADMIN_CLIENT_ENABLE_CONFIG =
+      "ksql.query.shared.admin.client.enable";
+  public static final boolean KSQL_QUERY_SHARED_ADMIN_CLIENT_ENABLE_DEFAULT = false;
+  public static final String KSQL_QUERY_SHARED_ADMIN_CLIENT_ENABLE_DOC = "If \"true\", the "
+      + "Kafka Streams instances of all queries with the same admin client configuration share a "
+      + "single admin client, rather than each query creating its own, with its own network "
+      + "thread and broker connections. The shared client is closed once the last query using "
+      + "it is closed.";
+
+  public static final String KSQL_QUERY_PUSH_SHARED_SCAN_ENABLE_CONFIG =
+      "ksql.query.push.shared.scan.enable";
+  public static final boolean KSQL_QUERY_PUSH_SHARED_SCAN_ENABLE_DEFAULT = false;
+  public static final String KSQL_QUERY_PUSH_SHARED_SCAN_ENABLE_DOC = "If \"true\", push "
+      + "queries that only filter and project a single stream, and that set no properties of "
+      + "their own, share a single scan of the stream's topic with other such queries over the "
+      + "same stream, rather than each reading the topic in its own Kafka Streams app. Queries "
+      + "joining a running scan receive rows from its current position. A query whose buffer "
+      + "overflows with the \"block\" overflow policy pauses the scan for all its queries.";
+
+  public static final String KSQL_QUERY_FILTER_PROJECTION_FUSED_ENABLE_CONFIG =
+      "ksql.query.filter.projection.fused.enable";
+  public static final String KSQL_QUERY_FILTER_PROJECTION_FUSED_ENABLE_DOC = "If \"true\", a "
+      + "WHERE clause on a stream and the SELECT that follows it are evaluated by a single "
+      + "processor that reads each column once. If \"false\", they are evaluated by separate "
+      + "filter and projection processors. Queries started before this setting existed keep "
+      + "the separate processors, so that their topology is unchanged.";
+
+  public static final String KSQL_QUERY_ROWKEY_ALIAS_KEY_FIELD_ENABLE_CONFIG =
+      "ksql.query.rowkey.alias.key.field.enable";
+  public static final String KSQL_QUERY_ROWKEY_ALIAS_KEY_FIELD_ENABLE_DOC = "If \"true\", a "
+      + "column that is a copy of ROWKEY, e.g. 'SELECT ROWKEY AS ID', becomes the key field of "
+      + "the projection when the source's own key field is not selected. Later GROUP BY, "
+      + "PARTITION BY and joins on that column then use the existing partitioning rather than "
+      + "repartitioning. Queries started before this setting existed keep their repartition "
+      + "steps, so that their topology is unchanged.";
+
+  public static final String KSQL_QUERY_AGGREGATE_STATE_COMPACT_ENABLE_CONFIG =
+      "ksql.query.aggregate.state.compact.enable";
+  public static final String KSQL_QUERY_AGGREGATE_STATE_COMPACT_ENABLE_DOC = "If \"true\", "
+      + "the state of aggregations is stored in a compact binary format, where numeric columns "
+      + "are fixed width slots, rather than in the value format of the query. If \"false\", "
+      + "the value format of the query is used. Queries started before this setting existed "
+      + "keep the value format, so that their existing state can still be read.";
+
   public static final Collection<CompatibilityBreakingConfigDef> COMPATIBLY_BREAKING_CONFIG_DEFS
       = ImmutableList.of(
           new CompatibilityBreakingConfigDef(
@@ -304,6 +443,42 @@ public class KsqlConfig extends AbstractConfig {
               "Ensures legacy queries that perform a 'GROUP BY ROWKEY' continue to "
                   + "perform an unnecessary repartition step"
           ),
+          new CompatibilityBreakingConfigDef(
+              KSQL_QUERY_FILTER_PROJECTION_FUSED_ENABLE_CONFIG,
+              ConfigDef.Type.BOOLEAN,
+              false,
+              true,
+              ConfigDef.Importance.LOW,
+              Optional.empty(),
+              KSQL_QUERY_FILTER_PROJECTION_FUSED_ENABLE_DOC
+          ),
+          new CompatibilityBreakingConfigDef(
+              KSQL_QUERY_ROWKEY_ALIAS_KEY_FIELD_ENABLE_CONFIG,
+              ConfigDef.Type.BOOLEAN,
+              false,
+              true,
+              ConfigDef.Importance.LOW,
+              Optional.empty(),
+              KSQL_QUERY_ROWKEY_ALIAS_KEY_FIELD_ENABLE_DOC
+          ),
+          new CompatibilityBreakingConfigDef(
+              KSQL_QUERY_AGGREGATE_STATE_COMPACT_ENABLE_CONFIG,
+              ConfigDef.Type.BOOLEAN,
+              false,
+              true,
+              ConfigDef.Importance.LOW,
+              Optional.empty(),
+              KSQL_QUERY_AGGREGATE_STATE_COMPACT_ENABLE_DOC
+          ),
+          new CompatibilityBreakingConfigDef(
+              KSQL_QUERY_PROJECTION_PUSHDOWN_ENABLE_CONFIG,
+              ConfigDef.Type.BOOLEAN,
+              false,
+              true,
+              ConfigDef.Importance.LOW,
+              Optional.empty(),
+              KSQL_QUERY_PROJECTION_PUSHDOWN_ENABLE_DOC
+          ),
           new CompatibilityBreakingConfigDef(
               KSQL_INJECT_LEGACY_MAP_VALUES_NODE,
               ConfigDef.Type.BOOLEAN,
@@ -602,12 +777,99 @@ public class KsqlConfig extends AbstractConfig {
             KSQL_QUERY_PULL_STREAMSTORE_REBALANCING_TIMEOUT_MS_DEFAULT,
             Importance.LOW,
             KSQL_QUERY_PULL_STREAMSTORE_REBALANCING_TIMEOUT_MS_DOC
+        ).define(
+            KSQL_QUERY_PULL_FORWARDING_THREADS_CONFIG,
+            Type.INT,
+            KSQL_QUERY_PULL_FORWARDING_THREADS_DEFAULT,
+            ConfigDef.Range.atLeast(1),
+            Importance.LOW,
+            KSQL_QUERY_PULL_FORWARDING_THREADS_DOC
         ).define(
             KSQL_PULL_QUERIES_SKIP_ACCESS_VALIDATOR_CONFIG,
             Type.BOOLEAN,
             KSQL_PULL_QUERIES_SKIP_ACCESS_VALIDATOR_DEFAULT,
             Importance.LOW,
             KSQL_PULL_QUERIES_SKIP_ACCESS_VALIDATOR_DOC
+        ).define(
+            KSQL_JSON_STREAMING_DESERIALIZER_ENABLE_CONFIG,
+            Type.BOOLEAN,
+            KSQL_JSON_STREAMING_DESERIALIZER_ENABLE_DEFAULT,
+            Importance.LOW,
+            KSQL_JSON_STREAMING_DESERIALIZER_ENABLE_DOC
+        ).define(
+            KSQL_JSON_STREAMING_SERIALIZER_ENABLE_CONFIG,
+            Type.BOOLEAN,
+            KSQL_JSON_STREAMING_SERIALIZER_ENABLE_DEFAULT,
+            Importance.LOW,
+            KSQL_JSON_STREAMING_SERIALIZER_ENABLE_DOC
+        ).define(
+            KSQL_QUERY_PROJECTION_FUSED_ENABLE_CONFIG,
+            Type.BOOLEAN,
+            KSQL_QUERY_PROJECTION_FUSED_ENABLE_DEFAULT,
+            Importance.LOW,
+            KSQL_QUERY_PROJECTION_FUSED_ENABLE_DOC
+        ).define(
+            KSQL_QUERY_CODEGEN_CACHE_ENABLE_CONFIG,
+            Type.BOOLEAN,
+            KSQL_QUERY_CODEGEN_CACHE_ENABLE_DEFAULT,
+            Importance.LOW,
+            KSQL_QUERY_CODEGEN_CACHE_ENABLE_DOC
+        ).define(
+            KSQL_QUERY_CODEGEN_CACHE_MAX_ENTRIES_CONFIG,
+            Type.INT,
+            KSQL_QUERY_CODEGEN_CACHE_MAX_ENTRIES_DEFAULT,
+            ConfigDef.Range.atLeast(1),
+            Importance.LOW,
+            KSQL_QUERY_CODEGEN_CACHE_MAX_ENTRIES_DOC
+        ).define(
+            KSQL_QUERY_CODEGEN_CACHE_DISK_ENABLE_CONFIG,
+            Type.BOOLEAN,
+            KSQL_QUERY_CODEGEN_CACHE_DISK_ENABLE_DEFAULT,
+            Importance.LOW,
+            KSQL_QUERY_CODEGEN_CACHE_DISK_ENABLE_DOC
+        ).define(
+            KSQL_QUERY_PULL_PLAN_CACHE_ENABLE_CONFIG,
+            Type.BOOLEAN,
+            KSQL_QUERY_PULL_PLAN_CACHE_ENABLE_DEFAULT,
+            Importance.LOW,
+            KSQL_QUERY_PULL_PLAN_CACHE_ENABLE_DOC
+        ).define(
+            KSQL_QUERY_PULL_PLAN_CACHE_MAX_ENTRIES_CONFIG,
+            Type.INT,
+            KSQL_QUERY_PULL_PLAN_CACHE_MAX_ENTRIES_DEFAULT,
+            ConfigDef.Range.atLeast(1),
+            Importance.LOW,
+            KSQL_QUERY_PULL_PLAN_CACHE_MAX_ENTRIES_DOC
+        ).define(
+            KSQL_QUERY_PUSH_QUEUE_CAPACITY_CONFIG,
+            Type.INT,
+            KSQL_QUERY_PUSH_QUEUE_CAPACITY_DEFAULT,
+            ConfigDef.Range.atLeast(1),
+            Importance.LOW,
+            KSQL_QUERY_PUSH_QUEUE_CAPACITY_DOC
+        ).define(
+            KSQL_QUERY_PUSH_QUEUE_OVERFLOW_POLICY_CONFIG,
+            Type.STRING,
+            KSQL_QUERY_PUSH_QUEUE_OVERFLOW_BLOCK,
+            ValidString.in(
+                KSQL_QUERY_PUSH_QUEUE_OVERFLOW_BLOCK,
+                KSQL_QUERY_PUSH_QUEUE_OVERFLOW_DROP_OLDEST,
+                KSQL_QUERY_PUSH_QUEUE_OVERFLOW_FAIL
+            ),
+            Importance.LOW,
+            KSQL_QUERY_PUSH_QUEUE_OVERFLOW_POLICY_DOC
+        ).define(
+            KSQL_QUERY_SHARED_ADMIN_CLIENT_ENABLE_CONFIG,
+            Type.BOOLEAN,
+            KSQL_QUERY_SHARED_ADMIN_CLIENT_ENABLE_DEFAULT,
+            Importance.LOW,
+            KSQL_QUERY_SHARED_ADMIN_CLIENT_ENABLE_DOC
+        ).define(
+            KSQL_QUERY_PUSH_SHARED_SCAN_ENABLE_CONFIG,
+            Type.BOOLEAN,
+            KSQL_QUERY_PUSH_SHARED_SCAN_ENABLE_DEFAULT,
+            Importance.LOW,
+            KSQL_QUERY_PUSH_SHARED_SCAN_ENABLE_DOC
         )
         .withClientSslSupport();
     for (final CompatibilityBreakingConfigDef compatibilityBreakingConfigDef
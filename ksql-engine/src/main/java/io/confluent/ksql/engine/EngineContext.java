@@ -32,6 +32,8 @@ import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
 import io.confluent.ksql.parser.tree.ExecutableDdlStatement;
 import io.confluent.ksql.query.QueryExecutor;
 import io.confluent.ksql.query.QueryId;
+import io.confluent.ksql.query.SharedAdminClients;
+import io.confluent.ksql.query.SharedSourceScans;
 import io.confluent.ksql.query.id.QueryIdGenerator;
 import io.confluent.ksql.services.SandboxedServiceContext;
 import io.confluent.ksql.services.ServiceContext;
@@ -62,6 +64,8 @@ final class EngineContext {
   private final KsqlParser parser;
   private final BiConsumer<ServiceContext, QueryMetadata> outerOnQueryCloseCallback;
   private final Map<QueryId, PersistentQueryMetadata> persistentQueries;
+  private final SharedAdminClients sharedAdminClients;
+  private final SharedSourceScans sharedSourceScans;
 
   static EngineContext create(
       final ServiceContext serviceContext,
@@ -97,6 +101,8 @@ final class EngineContext {
     this.persistentQueries = new ConcurrentHashMap<>();
     this.processingLogContext = requireNonNull(processingLogContext, "processingLogContext");
     this.parser = requireNonNull(parser, "parser");
+    this.sharedAdminClients = new SharedAdminClients();
+    this.sharedSourceScans = new SharedSourceScans();
   }
 
   EngineContext createSandbox(final ServiceContext serviceContext) {
@@ -168,7 +174,9 @@ final class EngineContext {
         processingLogContext,
         serviceContext,
         metaStore,
-        this::unregisterQuery
+        this::unregisterQuery,
+        sharedAdminClients,
+        sharedSourceScans
     );
   }
 
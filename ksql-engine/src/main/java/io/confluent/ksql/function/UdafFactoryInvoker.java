@@ -26,9 +26,11 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import org.apache.kafka.common.Configurable;
 import org.apache.kafka.common.metrics.Metrics;
 
 class UdafFactoryInvoker implements FunctionSignature {
@@ -37,6 +39,7 @@ class UdafFactoryInvoker implements FunctionSignature {
   private final ParamType aggregateArgType;
   private final ParamType aggregateReturnType;
   private final Optional<Metrics> metrics;
+  private final Map<String, ?> config;
   private final List<ParamType> paramTypes;
   private final List<ParameterInfo> params;
   private final Method method;
@@ -50,7 +53,8 @@ class UdafFactoryInvoker implements FunctionSignature {
       final String aggregateSchema,
       final String outputSchema,
       final SqlTypeParser typeParser,
-      final Optional<Metrics> metrics
+      final Optional<Metrics> metrics,
+      final Map<String, ?> config
   ) {
     if (!(Udaf.class.equals(method.getReturnType())
         || TableUdaf.class.equals(method.getReturnType()))) {
@@ -68,6 +72,7 @@ class UdafFactoryInvoker implements FunctionSignature {
     this.aggregateArgType = Objects.requireNonNull(types.getAggregateSchema(aggregateSchema));
     this.aggregateReturnType = Objects.requireNonNull(types.getOutputSchema(outputSchema));
     this.metrics = Objects.requireNonNull(metrics);
+    this.config = Objects.requireNonNull(config);
     this.params =
         Collections.singletonList(types.getInputSchema(Objects.requireNonNull(inputSchema)));
     this.paramTypes = params.stream().map(ParameterInfo::type).collect(Collectors.toList());
@@ -80,6 +85,9 @@ class UdafFactoryInvoker implements FunctionSignature {
     final Object[] factoryArgs = initArgs.args().toArray();
     try {
       final Udaf udaf = (Udaf)method.invoke(null, factoryArgs);
+      if (udaf instanceof Configurable) {
+        ((Configurable) udaf).configure(config);
+      }
       final KsqlAggregateFunction function;
       if (TableUdaf.class.isAssignableFrom(method.getReturnType())) {
         function = new UdafTableAggregateFunction(
@@ -20,10 +20,12 @@ import io.confluent.ksql.function.udaf.UdafFactory;
 import io.confluent.ksql.function.udf.UdfMetadata;
 import io.confluent.ksql.name.FunctionName;
 import io.confluent.ksql.schema.ksql.SqlTypeParser;
+import io.confluent.ksql.util.KsqlConfig;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import org.apache.kafka.common.metrics.Metrics;
 import org.slf4j.Logger;
@@ -39,15 +41,18 @@ class UdafLoader {
   private final MutableFunctionRegistry functionRegistry;
   private final Optional<Metrics> metrics;
   private final SqlTypeParser typeParser;
+  private final KsqlConfig ksqlConfig;
 
   UdafLoader(
       final MutableFunctionRegistry functionRegistry,
       final Optional<Metrics> metrics,
-      final SqlTypeParser typeParser
+      final SqlTypeParser typeParser,
+      final KsqlConfig ksqlConfig
   ) {
     this.functionRegistry = functionRegistry;
     this.metrics = metrics;
     this.typeParser = typeParser;
+    this.ksqlConfig = Objects.requireNonNull(ksqlConfig, "ksqlConfig");
   }
 
   void loadUdafFromClass(final Class<?> theClass, final String path) {
@@ -118,7 +123,8 @@ class UdafLoader {
       final String outputSchema
   ) {
     return new UdafFactoryInvoker(method, functionName, description, inputSchema,
-        aggregateSchema, outputSchema, typeParser, metrics
+        aggregateSchema, outputSchema, typeParser, metrics,
+        ksqlConfig.getKsqlFunctionsConfigProps(functionName.name())
     );
   }
 }
@@ -16,7 +16,9 @@
 package io.confluent.ksql.function;
 
 import io.confluent.ksql.function.udf.UdfMetadata;
+import io.confluent.ksql.util.KsqlConfig;
 import java.io.File;
+import java.util.Collections;
 import java.util.Optional;
 
 public final class UdfLoaderUtil {
@@ -27,7 +29,7 @@ public final class UdfLoaderUtil {
         functionRegistry,
         new File("src/test/resources/udf-example.jar"),
         UdfLoaderUtil.class.getClassLoader(),
-        value -> false, Optional.empty(), true
+        value -> false, Optional.empty(), true, new KsqlConfig(Collections.emptyMap())
     )
         .load();
 
@@ -60,7 +60,8 @@ public class UserFunctionLoader {
       final ClassLoader parentClassLoader,
       final Predicate<String> blacklist,
       final Optional<Metrics> metrics,
-      final boolean loadCustomerUdfs
+      final boolean loadCustomerUdfs,
+      final KsqlConfig ksqlConfig
   ) {
     Objects.requireNonNull(functionRegistry, "functionRegistry can't be null");
     this.pluginDir = Objects.requireNonNull(pluginDir, "pluginDir can't be null");
@@ -70,10 +71,11 @@ public class UserFunctionLoader {
     );
     this.blacklist = Objects.requireNonNull(blacklist, "blacklist can't be null");
     Objects.requireNonNull(metrics, "metrics can't be null");
+    Objects.requireNonNull(ksqlConfig, "ksqlConfig can't be null");
     this.loadCustomerUdfs = loadCustomerUdfs;
     final SqlTypeParser typeParser = SqlTypeParser.create(TypeRegistry.EMPTY);
     this.udfLoader = new UdfLoader(functionRegistry, metrics, typeParser, false);
-    this.udafLoader = new UdafLoader(functionRegistry, metrics, typeParser);
+    this.udafLoader = new UdafLoader(functionRegistry, metrics, typeParser, ksqlConfig);
     this.udtfLoader = new UdtfLoader(functionRegistry, metrics, typeParser, false);
   }
 
@@ -160,7 +162,8 @@ public class UserFunctionLoader {
         Thread.currentThread().getContextClassLoader(),
         new Blacklist(new File(pluginDir, "resource-blacklist.txt")),
         metrics,
-        loadCustomerUdfs
+        loadCustomerUdfs,
+        config
     );
   }
 }
@@ -19,54 +19,77 @@ import com.google.common.collect.Lists;
 import io.confluent.ksql.function.udaf.Udaf;
 import io.confluent.ksql.function.udaf.UdafDescription;
 import io.confluent.ksql.function.udaf.UdafFactory;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.kafka.common.Configurable;
+import org.apache.kafka.common.config.ConfigDef;
 
 @UdafDescription(name = "collect_set", 
     description = "Gather all of the distinct values from an input grouping into a single Array."
         + "\nNot available for aggregating values from an input Table."
         + "\nThis version limits the size of the resultant Array to 1000 entries, beyond which"
-        + " any further values will be silently ignored.")
+        + " any further values will be silently ignored. The limit can be changed by setting "
+        + CollectSetUdaf.LIMIT_CONFIG + ".")
 public final class CollectSetUdaf {
 
-  private static final int LIMIT = 1000;
+  public static final String LIMIT_CONFIG = "ksql.functions.collect_set.limit";
+
+  private static final int DEFAULT_LIMIT = 1000;
 
   private CollectSetUdaf() {
     // just to make the checkstyle happy
   }
-  
+
   private static <T> Udaf<T, List<T>, List<T>> setCollector() {
-    return new Udaf<T, List<T>, List<T>>() {
-      @Override
-      public List<T> initialize() {
-        return Lists.newArrayList();
+    return new Collector<>();
+  }
+
+  private static final class Collector<T> implements Udaf<T, List<T>, List<T>>, Configurable {
+
+    private int limit = DEFAULT_LIMIT;
+
+    @Override
+    public void configure(final Map<String, ?> map) {
+      final Object configured = map.get(LIMIT_CONFIG);
+      if (configured != null) {
+        this.limit = (Integer) ConfigDef.parseType(LIMIT_CONFIG, configured, ConfigDef.Type.INT);
+        ConfigDef.Range.atLeast(1).ensureValid(LIMIT_CONFIG, this.limit);
       }
+    }
 
-      @Override
-      public List<T> aggregate(final T thisValue, final List<T> aggregate) {
-        if (aggregate.size() < LIMIT && !aggregate.contains(thisValue)) {
-          aggregate.add(thisValue);
-        }
-        return aggregate;
+    @Override
+    public List<T> initialize() {
+      return Lists.newArrayList();
+    }
+
+    @Override
+    public List<T> aggregate(final T thisValue, final List<T> aggregate) {
+      // The aggregate is deserialized into a fresh list for every record, so building a set
+      // here would cost as much as the single scan it replaces:
+      if (aggregate.size() < limit && !aggregate.contains(thisValue)) {
+        aggregate.add(thisValue);
       }
+      return aggregate;
+    }
 
-      @Override
-      public List<T> merge(final List<T> aggOne, final List<T> aggTwo) {
-        for (final T thisEntry : aggTwo) {
-          if (aggOne.size() == LIMIT) {
-            break;
-          }
-          if (!aggOne.contains(thisEntry)) {
-            aggOne.add(thisEntry);
-          }
+    @Override
+    public List<T> merge(final List<T> aggOne, final List<T> aggTwo) {
+      final Set<T> merged = new LinkedHashSet<>(aggOne);
+      for (final T thisEntry : aggTwo) {
+        if (merged.size() >= limit) {
+          break;
         }
-        return aggOne;
+        merged.add(thisEntry);
       }
+      return Lists.newArrayList(merged);
+    }
 
-      @Override
-      public List<T> map(final List<T> agg) {
-        return agg;
-      }
-    };
+    @Override
+    public List<T> map(final List<T> agg) {
+      return agg;
+    }
   }
 
   @UdafFactory(description = "collect distinct values of a Bigint field into a single Array")
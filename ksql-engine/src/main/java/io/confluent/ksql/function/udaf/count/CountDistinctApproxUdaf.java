@@ -0,0 +1,88 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf.count;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import io.confluent.ksql.function.udaf.Udaf;
+import io.confluent.ksql.function.udaf.UdafDescription;
+import io.confluent.ksql.function.udaf.UdafFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+@UdafDescription(name = "count_distinct_approx",
+    description = "Returns an estimate of the number of distinct non-null values of the column,"
+        + " computed with a HyperLogLog sketch."
+        + "\nThe estimate has a standard error of about 2.3% and is near exact for small counts."
+        + " The state per grouping is 2KB regardless of the number of distinct values."
+        + "\nNot available for aggregating values from an input Table.")
+public final class CountDistinctApproxUdaf {
+
+  private static final HashFunction HASH = Hashing.murmur3_128();
+
+  private CountDistinctApproxUdaf() {
+  }
+
+  private static <T> Udaf<T, List<Long>, Long> countDistinct(final ToLongFunction<T> hasher) {
+    return new Udaf<T, List<Long>, Long>() {
+
+      @Override
+      public List<Long> initialize() {
+        return new ArrayList<>();
+      }
+
+      @Override
+      public List<Long> aggregate(final T value, final List<Long> aggregate) {
+        if (value == null) {
+          return aggregate;
+        }
+        return HyperLogLog.add(hasher.applyAsLong(value), aggregate);
+      }
+
+      @Override
+      public List<Long> merge(final List<Long> aggOne, final List<Long> aggTwo) {
+        return HyperLogLog.merge(aggOne, aggTwo);
+      }
+
+      @Override
+      public Long map(final List<Long> aggregate) {
+        return HyperLogLog.estimate(aggregate);
+      }
+    };
+  }
+
+  @UdafFactory(description = "estimate the number of distinct values of a Bigint field")
+  public static Udaf<Long, List<Long>, Long> countDistinctApproxLong() {
+    return countDistinct(value -> HASH.hashLong(value).asLong());
+  }
+
+  @UdafFactory(description = "estimate the number of distinct values of an Integer field")
+  public static Udaf<Integer, List<Long>, Long> countDistinctApproxInt() {
+    return countDistinct(value -> HASH.hashInt(value).asLong());
+  }
+
+  @UdafFactory(description = "estimate the number of distinct values of a Double field")
+  public static Udaf<Double, List<Long>, Long> countDistinctApproxDouble() {
+    return countDistinct(value -> HASH.hashLong(Double.doubleToLongBits(value)).asLong());
+  }
+
+  @UdafFactory(description = "estimate the number of distinct values of a String field")
+  public static Udaf<String, List<Long>, Long> countDistinctApproxString() {
+    return countDistinct(value -> HASH.hashString(value, StandardCharsets.UTF_8).asLong());
+  }
+}
@@ -19,58 +19,116 @@ import com.google.common.collect.Maps;
 import io.confluent.ksql.function.udaf.TableUdaf;
 import io.confluent.ksql.function.udaf.UdafDescription;
 import io.confluent.ksql.function.udaf.UdafFactory;
+import java.util.Collections;
 import java.util.Map;
+import org.apache.kafka.common.Configurable;
+import org.apache.kafka.common.config.ConfigDef;
 
 @UdafDescription(name = "histogram",
     description = "Returns a map of each distinct String from the"
     + " input Stream or Table and how many times each occurs."
     + " \nThis version limits the size of the resultant Map to 1000 entries. Any entries added"
-    + " beyond this limit will be ignored.")
+    + " beyond this limit will be ignored. The limit can be changed by setting "
+    + HistogramUdaf.LIMIT_CONFIG + ". Setting " + HistogramUdaf.APPROXIMATE_CONFIG
+    + " to true instead keeps the most frequent values once the limit is reached, with counts"
+    + " that may be overestimated.")
 public final class HistogramUdaf {
 
-  private static final int LIMIT = 1000;
-  
+  public static final String LIMIT_CONFIG = "ksql.functions.histogram.limit";
+  public static final String APPROXIMATE_CONFIG = "ksql.functions.histogram.approximate";
+
+  private static final int DEFAULT_LIMIT = 1000;
+
   private HistogramUdaf() {
   }
-  
+
   private static <T> TableUdaf<T, Map<T, Long>, Map<T, Long>> histogram() {
-    return new TableUdaf<T, Map<T, Long>, Map<T, Long>>() {
+    return new Histogram<>();
+  }
+
+  /**
+   * Counts values exactly until the limit is reached.
+   *
+   * <p>Once the limit is reached, new values are either ignored or, in approximate mode, replace
+   * the least frequent value and inherit its count, as in the Space-Saving heavy-hitter
+   * algorithm. This keeps the most frequent values of a high-cardinality input, at the cost of
+   * counts that may be overestimated by at most the count of the replaced value.
+   */
+  private static final class Histogram<T>
+      implements TableUdaf<T, Map<T, Long>, Map<T, Long>>, Configurable {
+
+    private int limit = DEFAULT_LIMIT;
+    private boolean approximate = false;
 
-      @Override
-      public Map<T, Long> initialize() {
-        return Maps.newHashMap();
+    @Override
+    public void configure(final Map<String, ?> map) {
+      final Object configuredLimit = map.get(LIMIT_CONFIG);
+      if (configuredLimit != null) {
+        limit = (Integer) ConfigDef.parseType(LIMIT_CONFIG, configuredLimit, ConfigDef.Type.INT);
+        ConfigDef.Range.atLeast(1).ensureValid(LIMIT_CONFIG, limit);
       }
 
-      @Override
-      public Map<T, Long> aggregate(final T current, final Map<T, Long> aggregate) {
-        if (aggregate.size() < LIMIT || aggregate.containsKey(current)) {
-          aggregate.merge(current, 1L, Long::sum);
-        }
-        return aggregate;
+      final Object configuredApproximate = map.get(APPROXIMATE_CONFIG);
+      if (configuredApproximate != null) {
+        approximate = (Boolean) ConfigDef
+            .parseType(APPROXIMATE_CONFIG, configuredApproximate, ConfigDef.Type.BOOLEAN);
       }
+    }
 
-      @Override
-      public Map<T, Long> merge(final Map<T, Long> agg1, final Map<T, Long> agg2) {
+    @Override
+    public Map<T, Long> initialize() {
+      return Maps.newHashMap();
+    }
+
+    @Override
+    public Map<T, Long> aggregate(final T current, final Map<T, Long> aggregate) {
+      if (aggregate.size() < limit || aggregate.containsKey(current)) {
+        aggregate.merge(current, 1L, Long::sum);
+      } else if (approximate) {
+        final Map.Entry<T, Long> least = Collections.min(
+            aggregate.entrySet(), Map.Entry.comparingByValue());
+        final long count = least.getValue();
+        aggregate.remove(least.getKey());
+        aggregate.put(current, count + 1);
+      }
+      return aggregate;
+    }
+
+    @Override
+    public Map<T, Long> merge(final Map<T, Long> agg1, final Map<T, Long> agg2) {
+      if (!approximate) {
         agg2.forEach((k, v) -> {
-          if (agg1.size() < LIMIT || agg1.containsKey(k)) {
+          if (agg1.size() < limit || agg1.containsKey(k)) {
             agg1.merge(k, v, Long::sum);
           }
         });
         return agg1;
       }
 
-      @Override
-      public Map<T, Long> undo(final T valueToUndo, final Map<T, Long> aggregate) {
-        aggregate.compute(valueToUndo, (k, v) -> (--v < 1) ? null : v);
-        return aggregate;
+      agg2.forEach((k, v) -> agg1.merge(k, v, Long::sum));
+      if (agg1.size() <= limit) {
+        return agg1;
       }
 
-      @Override
-      public Map<T, Long> map(final Map<T, Long> aggregate) {
-        return aggregate;
-      }
+      final Map<T, Long> merged = Maps.newHashMapWithExpectedSize(limit);
+      agg1.entrySet().stream()
+          .sorted(Map.Entry.<T, Long>comparingByValue().reversed())
+          .limit(limit)
+          .forEach(e -> merged.put(e.getKey(), e.getValue()));
+      return merged;
+    }
+
+    @Override
+    public Map<T, Long> undo(final T valueToUndo, final Map<T, Long> aggregate) {
+      // Values ignored, or evicted, once the limit was reached have nothing to undo:
+      aggregate.computeIfPresent(valueToUndo, (k, v) -> (--v < 1) ? null : v);
+      return aggregate;
+    }
 
-    };
+    @Override
+    public Map<T, Long> map(final Map<T, Long> aggregate) {
+      return aggregate;
+    }
   }
 
   @UdafFactory(description = "Build a value-to-count histogram of input Strings")
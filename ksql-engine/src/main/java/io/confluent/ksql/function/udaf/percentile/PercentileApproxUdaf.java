@@ -0,0 +1,86 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf.percentile;
+
+import io.confluent.ksql.function.udaf.Udaf;
+import io.confluent.ksql.function.udaf.UdafDescription;
+import io.confluent.ksql.function.udaf.UdafFactory;
+import io.confluent.ksql.util.KsqlException;
+import org.apache.kafka.connect.data.Struct;
+
+@UdafDescription(name = "percentile_approx",
+    description = "Returns an estimate of the given percentile of the non-null values of the"
+        + " column, computed with a t-digest sketch. The percentile is a literal between 0.0"
+        + " and 1.0, e.g. PERCENTILE_APPROX(latency, 0.99) for the 99th percentile."
+        + "\nEstimates are most accurate for extreme percentiles. The state per grouping is a"
+        + " few KB regardless of the number of values."
+        + "\nNot available for aggregating values from an input Table.")
+public final class PercentileApproxUdaf {
+
+  private PercentileApproxUdaf() {
+  }
+
+  private static <T extends Number> Udaf<T, Struct, Double> percentile(final double percentile) {
+    if (!(percentile >= 0.0 && percentile <= 1.0)) {
+      throw new KsqlException(
+          "The percentile must be between 0.0 and 1.0, but was: " + percentile);
+    }
+
+    return new Udaf<T, Struct, Double>() {
+
+      @Override
+      public Struct initialize() {
+        return TDigest.empty();
+      }
+
+      @Override
+      public Struct aggregate(final T value, final Struct aggregate) {
+        if (value == null || Double.isNaN(value.doubleValue())) {
+          return aggregate;
+        }
+        return TDigest.add(aggregate, value.doubleValue());
+      }
+
+      @Override
+      public Struct merge(final Struct aggOne, final Struct aggTwo) {
+        return TDigest.merge(aggOne, aggTwo);
+      }
+
+      @Override
+      public Double map(final Struct aggregate) {
+        return TDigest.quantile(aggregate, percentile);
+      }
+    };
+  }
+
+  @UdafFactory(description = "estimate a percentile of a Double field",
+      aggregateSchema = TDigest.SCHEMA_DESCRIPTOR)
+  public static Udaf<Double, Struct, Double> percentileApproxDouble(final double percentile) {
+    return percentile(percentile);
+  }
+
+  @UdafFactory(description = "estimate a percentile of a Bigint field",
+      aggregateSchema = TDigest.SCHEMA_DESCRIPTOR)
+  public static Udaf<Long, Struct, Double> percentileApproxLong(final double percentile) {
+    return percentile(percentile);
+  }
+
+  @UdafFactory(description = "estimate a percentile of an Integer field",
+      aggregateSchema = TDigest.SCHEMA_DESCRIPTOR)
+  public static Udaf<Integer, Struct, Double> percentileApproxInt(final double percentile) {
+    return percentile(percentile);
+  }
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf.percentile;
+
+import io.confluent.ksql.util.KsqlException;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+
+/**
+ * A merging t-digest sketch of the distribution of the values seen, stored as a struct so that
+ * it can be persisted.
+ *
+ * <p>The digest keeps the exact min and max and a list of centroids, each the mean and count of
+ * a run of adjacent values, sorted by mean. Centroids near the tails are kept small, so extreme
+ * quantiles are the most accurate. New values are added as single value centroids until there
+ * are more than twice {@link #COMPRESSION} centroids, at which point adjacent centroids are
+ * merged, leaving at most about {@link #COMPRESSION}. This bounds the state at a few KB
+ * regardless of the number of values.
+ *
+ * <p>Digests are merged by combining and compressing their centroids. Values can not be removed
+ * from a digest.
+ */
+final class TDigest {
+
+  static final int COMPRESSION = 100;
+
+  static final String MIN = "MIN";
+  static final String MAX = "MAX";
+  static final String MEANS = "MEANS";
+  static final String COUNTS = "COUNTS";
+
+  static final String SCHEMA_DESCRIPTOR =
+      "STRUCT<MIN double, MAX double, MEANS ARRAY<double>, COUNTS ARRAY<bigint>>";
+
+  static final Schema STATE_SCHEMA = SchemaBuilder.struct().optional()
+      .field(MIN, Schema.OPTIONAL_FLOAT64_SCHEMA)
+      .field(MAX, Schema.OPTIONAL_FLOAT64_SCHEMA)
+      .field(MEANS, SchemaBuilder.array(Schema.OPTIONAL_FLOAT64_SCHEMA).optional().build())
+      .field(COUNTS, SchemaBuilder.array(Schema.OPTIONAL_INT64_SCHEMA).optional().build())
+      .build();
+
+  private static final int MAX_CENTROIDS = 2 * COMPRESSION;
+
+  private final double min;
+  private final double max;
+  private final double[] means;
+  private final long[] counts;
+  private final int size;
+
+  private TDigest(
+      final double min,
+      final double max,
+      final double[] means,
+      final long[] counts,
+      final int size
+  ) {
+    this.min = min;
+    this.max = max;
+    this.means = means;
+    this.counts = counts;
+    this.size = size;
+  }
+
+  static Struct empty() {
+    return new Struct(STATE_SCHEMA)
+        .put(MEANS, new ArrayList<Double>())
+        .put(COUNTS, new ArrayList<Long>());
+  }
+
+  static Struct add(final Struct state, final double value) {
+    final TDigest digest = from(state);
+    if (digest.size == 0) {
+      return new TDigest(value, value, new double[]{value}, new long[]{1}, 1).toStruct();
+    }
+
+    int insertAt = 0;
+    while (insertAt < digest.size && digest.means[insertAt] <= value) {
+      insertAt++;
+    }
+
+    final double[] means = new double[digest.size + 1];
+    final long[] counts = new long[digest.size + 1];
+    System.arraycopy(digest.means, 0, means, 0, insertAt);
+    System.arraycopy(digest.counts, 0, counts, 0, insertAt);
+    means[insertAt] = value;
+    counts[insertAt] = 1;
+    System.arraycopy(digest.means, insertAt, means, insertAt + 1, digest.size - insertAt);
+    System.arraycopy(digest.counts, insertAt, counts, insertAt + 1, digest.size - insertAt);
+
+    final TDigest added = new TDigest(
+        Math.min(digest.min, value), Math.max(digest.max, value), means, counts, means.length);
+
+    return added.size > MAX_CENTROIDS
+        ? added.compress().toStruct()
+        : added.toStruct();
+  }
+
+  static Struct merge(final Struct one, final Struct two) {
+    final TDigest digestOne = from(one);
+    final TDigest digestTwo = from(two);
+    if (digestOne.size == 0) {
+      return two;
+    }
+    if (digestTwo.size == 0) {
+      return one;
+    }
+
+    final int size = digestOne.size + digestTwo.size;
+    final double[] means = new double[size];
+    final long[] counts = new long[size];
+
+    int idxOne = 0;
+    int idxTwo = 0;
+    for (int idx = 0; idx < size; idx++) {
+      final boolean takeOne = idxTwo == digestTwo.size
+          || (idxOne < digestOne.size && digestOne.means[idxOne] <= digestTwo.means[idxTwo]);
+      if (takeOne) {
+        means[idx] = digestOne.means[idxOne];
+        counts[idx] = digestOne.counts[idxOne++];
+      } else {
+        means[idx] = digestTwo.means[idxTwo];
+        counts[idx] = digestTwo.counts[idxTwo++];
+      }
+    }
+
+    return new TDigest(
+        Math.min(digestOne.min, digestTwo.min),
+        Math.max(digestOne.max, digestTwo.max),
+        means,
+        counts,
+        size
+    ).compress().toStruct();
+  }
+
+  static Double quantile(final Struct state, final double quantile) {
+    final TDigest digest = from(state);
+    if (digest.size == 0) {
+      return null;
+    }
+
+    long total = 0;
+    for (int idx = 0; idx < digest.size; idx++) {
+      total += digest.counts[idx];
+    }
+
+    // Each centroid's values are assumed to be spread evenly around its mean, so its mean sits
+    // at the rank half way through the centroid. Interpolate between these ranks, and out to the
+    // exact min and max at the ends:
+    final double rank = quantile * total;
+    double previousMean = digest.min;
+    double previousRank = 0;
+    long countBefore = 0;
+    for (int idx = 0; idx < digest.size; idx++) {
+      final double meanRank = countBefore + digest.counts[idx] / 2.0;
+      if (rank <= meanRank) {
+        return interpolate(rank, previousRank, previousMean, meanRank, digest.means[idx]);
+      }
+
+      previousMean = digest.means[idx];
+      previousRank = meanRank;
+      countBefore += digest.counts[idx];
+    }
+
+    return interpolate(rank, previousRank, previousMean, total, digest.max);
+  }
+
+  private static double interpolate(
+      final double rank,
+      final double lowerRank,
+      final double lowerValue,
+      final double upperRank,
+      final double upperValue
+  ) {
+    if (upperRank <= lowerRank) {
+      return upperValue;
+    }
+    final double fraction = (rank - lowerRank) / (upperRank - lowerRank);
+    return lowerValue + fraction * (upperValue - lowerValue);
+  }
+
+  private TDigest compress() {
+    long total = 0;
+    for (int idx = 0; idx < size; idx++) {
+      total += counts[idx];
+    }
+
+    final double[] compressedMeans = new double[size];
+    final long[] compressedCounts = new long[size];
+    int compressedSize = 0;
+
+    double mean = means[0];
+    long count = counts[0];
+    long countBefore = 0;
+    for (int idx = 1; idx < size; idx++) {
+      final double lowerLimit = scale((double) countBefore / total);
+      final double upperLimit = scale((double) (countBefore + count + counts[idx]) / total);
+      if (upperLimit - lowerLimit <= 1) {
+        count += counts[idx];
+        mean += (means[idx] - mean) * counts[idx] / count;
+      } else {
+        compressedMeans[compressedSize] = mean;
+        compressedCounts[compressedSize++] = count;
+        countBefore += count;
+        mean = means[idx];
+        count = counts[idx];
+      }
+    }
+
+    compressedMeans[compressedSize] = mean;
+    compressedCounts[compressedSize++] = count;
+
+    return new TDigest(min, max, compressedMeans, compressedCounts, compressedSize);
+  }
+
+  /**
+   * The k1 scale function, which limits each centroid to a unit of k, so that centroids get
+   * smaller towards the tails of the distribution.
+   */
+  private static double scale(final double quantile) {
+    return COMPRESSION / (2 * Math.PI) * Math.asin(2 * quantile - 1);
+  }
+
+  private static TDigest from(final Struct state) {
+    final List<Double> means = state.getArray(MEANS);
+    final List<Long> counts = state.getArray(COUNTS);
+    if (means.size() != counts.size()) {
+      throw new KsqlException("Invalid t-digest. Centroid count mismatch. "
+          + "means: " + means.size() + ", counts: " + counts.size());
+    }
+
+    final int size = means.size();
+    if (size == 0) {
+      return new TDigest(0, 0, new double[0], new long[0], 0);
+    }
+
+    final double[] meanArray = new double[size];
+    final long[] countArray = new long[size];
+    for (int idx = 0; idx < size; idx++) {
+      meanArray[idx] = means.get(idx);
+      countArray[idx] = counts.get(idx);
+    }
+
+    return new TDigest(
+        state.getFloat64(MIN), state.getFloat64(MAX), meanArray, countArray, size);
+  }
+
+  private Struct toStruct() {
+    final List<Double> meanList = new ArrayList<>(size);
+    final List<Long> countList = new ArrayList<>(size);
+    for (int idx = 0; idx < size; idx++) {
+      meanList.add(means[idx]);
+      countList.add(counts[idx]);
+    }
+
+    return new Struct(STATE_SCHEMA)
+        .put(MIN, min)
+        .put(MAX, max)
+        .put(MEANS, meanList)
+        .put(COUNTS, countList);
+  }
+}
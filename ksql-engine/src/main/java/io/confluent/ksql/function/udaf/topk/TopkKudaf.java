@@ -20,6 +20,7 @@ import io.confluent.ksql.function.ParameterInfo;
 import io.confluent.ksql.function.types.ParamType;
 import io.confluent.ksql.schema.ksql.types.SqlType;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
@@ -69,21 +70,27 @@ public class TopkKudaf<T extends Comparable<? super T>>
     }
 
     final int currentSize = aggregateValue.size();
-    if (!aggregateValue.isEmpty()) {
-      final T last = aggregateValue.get(currentSize - 1);
-      if (currentValue.compareTo(last) <= 0
-          && currentSize == topKSize) {
-        return aggregateValue;
-      }
+    if (currentSize == topKSize
+        && currentValue.compareTo(aggregateValue.get(currentSize - 1)) <= 0) {
+      return aggregateValue;
     }
 
-    if (currentSize == topKSize) {
-      aggregateValue.set(currentSize - 1, currentValue);
-    } else {
-      aggregateValue.add(currentValue);
+    // The list is kept in descending order, so binary search for the insertion point
+    // rather than re-sorting the whole list:
+    final int idx = Collections.binarySearch(
+        aggregateValue, currentValue, Comparator.reverseOrder());
+    final int insertAt = idx < 0 ? -idx - 1 : idx;
+
+    if (currentSize != topKSize) {
+      aggregateValue.add(insertAt, currentValue);
+      return aggregateValue;
     }
 
-    aggregateValue.sort(Comparator.reverseOrder());
+    // The list is full, so shift the smaller values down, dropping the smallest:
+    for (int i = currentSize - 1; i > insertAt; i--) {
+      aggregateValue.set(i, aggregateValue.get(i - 1));
+    }
+    aggregateValue.set(insertAt, currentValue);
     return aggregateValue;
   }
 
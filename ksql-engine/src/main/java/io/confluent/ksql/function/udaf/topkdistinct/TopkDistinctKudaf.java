@@ -71,17 +71,26 @@ public class TopkDistinctKudaf<T extends Comparable<? super T>>
       return aggregateValue;
     }
 
-    if (aggregateValue.contains(currentValue)) {
+    // The list is kept in descending order, so a binary search finds both any existing copy of
+    // the value and the insertion point, rather than scanning and then re-sorting the list:
+    final int idx = Collections.binarySearch(
+        aggregateValue, currentValue, Comparator.reverseOrder());
+
+    if (idx >= 0) {
       return aggregateValue;
     }
 
-    if (currentSize == tkVal) {
-      aggregateValue.set(currentSize - 1, currentValue);
-    } else {
-      aggregateValue.add(currentValue);
+    final int insertAt = -idx - 1;
+    if (currentSize != tkVal) {
+      aggregateValue.add(insertAt, currentValue);
+      return aggregateValue;
     }
 
-    aggregateValue.sort(Comparator.reverseOrder());
+    // The list is full, so shift the smaller values down, dropping the smallest:
+    for (int i = currentSize - 1; i > insertAt; i--) {
+      aggregateValue.set(i, aggregateValue.get(i - 1));
+    }
+    aggregateValue.set(insertAt, currentValue);
     return aggregateValue;
   }
 
@@ -15,7 +15,9 @@
 
 package io.confluent.ksql.internal;
 
+import com.google.common.cache.CacheStats;
 import io.confluent.ksql.engine.KsqlEngine;
+import io.confluent.ksql.execution.codegen.CompiledExpressionCache;
 import io.confluent.ksql.metrics.MetricCollectors;
 import io.confluent.ksql.util.KsqlConstants;
 import io.confluent.ksql.util.QueryMetadata;
@@ -28,6 +30,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
 import java.util.function.Supplier;
 import org.apache.kafka.common.MetricName;
 import org.apache.kafka.common.metrics.Gauge;
@@ -101,6 +105,7 @@ public class KsqlEngineMetrics implements Closeable {
     configureLivenessIndicator();
     configureNumActiveQueries();
     configureNumPersistentQueries();
+    configureCodegenCacheMetrics();
     this.messagesIn = configureMessagesIn();
     this.totalMessagesIn = configureTotalMessagesIn();
     this.totalBytesIn = configureTotalBytesIn();
@@ -250,6 +255,57 @@ public class KsqlEngineMetrics implements Closeable {
     createSensor(KsqlMetric.of(metricName, description, statSupplier));
   }
 
+  private void configureCodegenCacheMetrics() {
+    configureGauge(
+        "codegen-cache-hit-count",
+        "The number of compilations of generated code avoided by the codegen cache",
+        () -> CompiledExpressionCache.sharedStats().hitCount()
+    );
+    configureGauge(
+        "codegen-cache-miss-count",
+        "The number of compilations of generated code not found in the codegen cache",
+        () -> CompiledExpressionCache.sharedStats().missCount()
+    );
+    configureGauge(
+        "codegen-cache-disk-hit-count",
+        "The number of compilations of generated code avoided by loading classes from disk",
+        CompiledExpressionCache::sharedDiskHitCount
+    );
+    configureGauge(
+        "codegen-cache-compile-time-ms-total",
+        "The total time spent compiling generated code not found in the codegen cache",
+        () -> {
+          final CacheStats stats = CompiledExpressionCache.sharedStats();
+          return TimeUnit.NANOSECONDS.toMillis(stats.totalLoadTime());
+        }
+    );
+    configureGauge(
+        "codegen-cache-size",
+        "The number of compiled expressions in the codegen cache",
+        CompiledExpressionCache::sharedSize
+    );
+  }
+
+  private void configureGauge(
+      final String metricName,
+      final String description,
+      final LongSupplier value
+  ) {
+    final Supplier<MeasurableStat> statSupplier =
+        () -> new MeasurableStat() {
+          @Override
+          public double measure(final MetricConfig metricConfig, final long l) {
+            return value.getAsLong();
+          }
+
+          @Override
+          public void record(final MetricConfig metricConfig, final double v, final long l) {
+            // Nothing to record, the value is read from the codegen cache
+          }
+        };
+    createSensor(KsqlMetric.of(metricName, description, statSupplier));
+  }
+
   private Sensor configureIdleQueriesSensor() {
     final String metricName = "num-idle-queries";
     final String description = "Number of inactive queries";
@@ -22,6 +22,7 @@ import io.confluent.ksql.analyzer.Analysis.Into;
 import io.confluent.ksql.analyzer.Analysis.JoinInfo;
 import io.confluent.ksql.execution.expression.tree.ColumnReferenceExp;
 import io.confluent.ksql.execution.expression.tree.Expression;
+import io.confluent.ksql.execution.expression.tree.TraversalExpressionVisitor;
 import io.confluent.ksql.execution.plan.SelectExpression;
 import io.confluent.ksql.execution.util.ExpressionTypeManager;
 import io.confluent.ksql.function.FunctionRegistry;
@@ -49,8 +50,10 @@ import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.SchemaUtil;
 import io.confluent.ksql.util.timestamp.TimestampExtractionPolicy;
 import io.confluent.ksql.util.timestamp.TimestampExtractionPolicyFactory;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.BiFunction;
 
 // CHECKSTYLE_RULES.OFF: ClassDataAbstractionCoupling
@@ -208,12 +211,16 @@ public class LogicalPlanner {
 
     final LogicalSchema schema = buildProjectionSchema(sourcePlanNode);
 
-    final Optional<ColumnName> keyFieldName = getSelectAliasMatching((expression, alias) ->
+    final Optional<ColumnName> selectedKeyFieldName = getSelectAliasMatching((expression, alias) ->
         expression instanceof ColumnReferenceExp
             && ((ColumnReferenceExp) expression).getReference().equals(sourceKeyFieldName),
         sourcePlanNode
     );
 
+    final Optional<ColumnName> keyFieldName = selectedKeyFieldName.isPresent()
+        ? selectedKeyFieldName
+        : getRowKeyAlias(sourcePlanNode);
+
     return new ProjectNode(
         new PlanNodeId("Project"),
         sourcePlanNode,
@@ -222,6 +229,26 @@ public class LogicalPlanner {
     );
   }
 
+  private Optional<ColumnName> getRowKeyAlias(final PlanNode sourcePlanNode) {
+    if (!ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_ROWKEY_ALIAS_KEY_FIELD_ENABLE_CONFIG)
+        || ksqlConfig.getBoolean(KsqlConfig.KSQL_LEGACY_REPARTITION_ON_GROUP_BY_ROWKEY)
+        || analysis.getJoin().isPresent()
+        || analysis.getFromDataSources().get(0).getDataSource()
+            .getKsqlTopic().getKeyFormat().isWindowed()) {
+      return Optional.empty();
+    }
+
+    // A copy of ROWKEY holds the same value as the key, so can act as the key field:
+    return getSelectAliasMatching((expression, alias) ->
+        expression instanceof ColumnReferenceExp
+            && ((ColumnReferenceExp) expression).getReference().name()
+                .equals(SchemaUtil.ROWKEY_NAME)
+            && !SchemaUtil.isFieldName(alias.name(), SchemaUtil.ROWTIME_NAME.name())
+            && !SchemaUtil.isFieldName(alias.name(), SchemaUtil.ROWKEY_NAME.name()),
+        sourcePlanNode
+    );
+  }
+
   private static FilterNode buildFilterNode(
       final PlanNode sourcePlanNode,
       final Expression filterExpression
@@ -253,14 +280,16 @@ public class LogicalPlanner {
         new PlanNodeId("KafkaTopic_Left"),
         left.getDataSource(),
         left.getAlias(),
-        analysis.getSelectExpressions()
+        analysis.getSelectExpressions(),
+        getReferencedColumns()
     );
 
     final DataSourceNode rightSourceNode = new DataSourceNode(
         new PlanNodeId("KafkaTopic_Right"),
         right.getDataSource(),
         right.getAlias(),
-        analysis.getSelectExpressions()
+        analysis.getSelectExpressions(),
+        getReferencedColumns()
     );
 
     return new JoinNode(
@@ -285,10 +314,53 @@ public class LogicalPlanner {
         new PlanNodeId("KsqlTopic"),
         dataSource.getDataSource(),
         dataSource.getAlias(),
-        analysis.getSelectExpressions()
+        analysis.getSelectExpressions(),
+        getReferencedColumns()
     );
   }
 
+  /**
+   * Get the columns the query references, so that sources need only deserialize those.
+   *
+   * @return the referenced columns, or empty if all columns should be deserialized.
+   */
+  private Optional<Set<ColumnRef>> getReferencedColumns() {
+    if (!ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_PROJECTION_PUSHDOWN_ENABLE_CONFIG)) {
+      return Optional.empty();
+    }
+
+    final Set<ColumnRef> columnRefs = new HashSet<>();
+    final TraversalExpressionVisitor<Void> visitor = new TraversalExpressionVisitor<Void>() {
+      @Override
+      public Void visitColumnReference(
+          final ColumnReferenceExp node,
+          final Void context
+      ) {
+        columnRefs.add(node.getReference());
+        return null;
+      }
+    };
+
+    analysis.getSelectExpressions()
+        .forEach(select -> visitor.process(select.getExpression(), null));
+    analysis.getWhereExpression()
+        .ifPresent(where -> visitor.process(where, null));
+    analysis.getGroupByExpressions()
+        .forEach(groupBy -> visitor.process(groupBy, null));
+
+    // Includes columns only referenced from the HAVING clause:
+    aggregateAnalysis.getRequiredColumns()
+        .forEach(column -> columnRefs.add(column.getReference()));
+
+    analysis.getJoin().ifPresent(join -> {
+      columnRefs.add(join.getLeftJoinField());
+      columnRefs.add(join.getRightJoinField());
+    });
+    analysis.getPartitionBy().ifPresent(columnRefs::add);
+
+    return Optional.of(columnRefs);
+  }
+
   private Optional<ColumnName> getSelectAliasMatching(
       final BiFunction<Expression, ColumnName, Boolean> matcher,
       final PlanNode sourcePlanNode
@@ -27,7 +27,9 @@ import io.confluent.ksql.execution.plan.StreamSource;
 import io.confluent.ksql.metastore.model.DataSource;
 import io.confluent.ksql.metastore.model.DataSource.DataSourceType;
 import io.confluent.ksql.metastore.model.KeyField;
+import io.confluent.ksql.name.ColumnName;
 import io.confluent.ksql.name.SourceName;
+import io.confluent.ksql.schema.ksql.Column;
 import io.confluent.ksql.schema.ksql.ColumnRef;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.services.KafkaTopicClient;
@@ -35,6 +37,8 @@ import io.confluent.ksql.structured.SchemaKStream;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 import javax.annotation.concurrent.Immutable;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.config.ConfigException;
@@ -53,6 +57,7 @@ public class DataSourceNode extends PlanNode {
   private final KeyField keyField;
   private final SchemaKStreamFactory schemaKStreamFactory;
   private final List<SelectExpression> selectExpressions;
+  private final Optional<List<ColumnName>> requiredColumns;
 
   public DataSourceNode(
       final PlanNodeId id,
@@ -60,7 +65,28 @@ public class DataSourceNode extends PlanNode {
       final SourceName alias,
       final List<SelectExpression> selectExpressions
   ) {
-    this(id, dataSource, alias, selectExpressions, SchemaKStream::forSource);
+    this(id, dataSource, alias, selectExpressions, Optional.empty());
+  }
+
+  /**
+   * @param referencedColumns the columns the query references, if known. Value columns of this
+   *                          source that are not referenced are not deserialized.
+   */
+  public DataSourceNode(
+      final PlanNodeId id,
+      final DataSource<?> dataSource,
+      final SourceName alias,
+      final List<SelectExpression> selectExpressions,
+      final Optional<Set<ColumnRef>> referencedColumns
+  ) {
+    this(
+        id,
+        dataSource,
+        alias,
+        selectExpressions,
+        referencedColumns,
+        SchemaKStream::forSource
+    );
   }
 
   DataSourceNode(
@@ -68,6 +94,7 @@ public class DataSourceNode extends PlanNode {
       final DataSource<?> dataSource,
       final SourceName alias,
       final List<SelectExpression> selectExpressions,
+      final Optional<Set<ColumnRef>> referencedColumns,
       final SchemaKStreamFactory schemaKStreamFactory
   ) {
     super(id, dataSource.getDataSourceType());
@@ -85,6 +112,9 @@ public class DataSourceNode extends PlanNode {
         .withAlias(alias)
         .validateKeyExistsIn(schema.getSchema());
 
+    this.requiredColumns = requireNonNull(referencedColumns, "referencedColumns")
+        .flatMap(referenced -> requiredColumns(dataSource, alias, referenced));
+
     this.schemaKStreamFactory = requireNonNull(schemaKStreamFactory, "schemaKStreamFactory");
   }
 
@@ -106,6 +136,10 @@ public class DataSourceNode extends PlanNode {
     return alias;
   }
 
+  Optional<List<ColumnName>> getRequiredColumns() {
+    return requiredColumns;
+  }
+
   public DataSourceType getDataSourceType() {
     return dataSource.getDataSourceType();
   }
@@ -145,7 +179,8 @@ public class DataSourceNode extends PlanNode {
         timestampIndex(),
         getAutoOffsetReset(builder.getKsqlConfig().getKsqlStreamConfigProps()),
         keyField,
-        alias
+        alias,
+        requiredColumns
     );
     if (getDataSourceType() == DataSourceType.KSTREAM) {
       return schemaKStream;
@@ -167,10 +202,43 @@ public class DataSourceNode extends PlanNode {
         int timestampIndex,
         Optional<AutoOffsetReset> offsetReset,
         KeyField keyField,
-        SourceName alias
+        SourceName alias,
+        Optional<List<ColumnName>> requiredColumns
     );
   }
 
+  private static Optional<List<ColumnName>> requiredColumns(
+      final DataSource<?> dataSource,
+      final SourceName alias,
+      final Set<ColumnRef> referencedColumns
+  ) {
+    final Set<ColumnName> required = referencedColumns.stream()
+        .filter(ref -> ref.source().map(alias::equals).orElse(true))
+        .map(ColumnRef::name)
+        .collect(Collectors.toSet());
+
+    // The source itself reads the timestamp column and the key field:
+    Optional.ofNullable(dataSource.getTimestampExtractionPolicy().getTimestampField())
+        .map(ColumnRef::name)
+        .ifPresent(required::add);
+
+    dataSource.getKeyField().ref()
+        .map(ColumnRef::name)
+        .ifPresent(required::add);
+
+    final List<Column> valueColumns = dataSource.getSchema().value();
+    final List<ColumnName> requiredValueColumns = valueColumns.stream()
+        .map(Column::name)
+        .filter(required::contains)
+        .collect(Collectors.toList());
+
+    if (requiredValueColumns.size() == valueColumns.size()) {
+      return Optional.empty();
+    }
+
+    return Optional.of(requiredValueColumns);
+  }
+
   private int timestampIndex() {
     final LogicalSchema originalSchema = dataSource.getSchema();
     final ColumnRef timestampField = dataSource.getTimestampExtractionPolicy().getTimestampField();
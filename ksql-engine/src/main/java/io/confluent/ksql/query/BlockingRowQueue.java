@@ -0,0 +1,59 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.query;
+
+import io.confluent.ksql.GenericRow;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.streams.KeyValue;
+
+/**
+ * The queue between a transient query and the consumer of its results.
+ */
+public interface BlockingRowQueue {
+
+  /**
+   * Retrieves and removes the head of the queue, waiting up to the specified wait time if
+   * necessary for a row to become available.
+   *
+   * @param timeout how long to wait before giving up, in units of {@code unit}.
+   * @param unit the unit of {@code timeout}.
+   * @return the head of the queue, or {@code null} if the timeout elapsed first.
+   * @throws InterruptedException if interrupted while waiting.
+   */
+  KeyValue<String, GenericRow> poll(long timeout, TimeUnit unit) throws InterruptedException;
+
+  /**
+   * Removes all available rows from the queue and adds them to the supplied collection.
+   *
+   * @param collection the collection to add the rows to.
+   * @return the number of rows transferred.
+   */
+  int drainTo(Collection<? super KeyValue<String, GenericRow>> collection);
+
+  /**
+   * @return the number of rows currently in the queue.
+   */
+  int size();
+
+  /**
+   * Close the queue.
+   *
+   * <p>Any producer blocked waiting for space is released and any further rows are discarded.
+   * Rows already in the queue can still be retrieved.
+   */
+  void close();
+}
@@ -24,7 +24,10 @@ import io.confluent.ksql.execution.plan.ExecutionStep;
 import io.confluent.ksql.execution.plan.KStreamHolder;
 import io.confluent.ksql.execution.plan.KTableHolder;
 import io.confluent.ksql.execution.plan.PlanBuilder;
+import io.confluent.ksql.execution.plan.StreamSource;
 import io.confluent.ksql.execution.streams.KSPlanBuilder;
+import io.confluent.ksql.execution.streams.PushQueryMapper;
+import io.confluent.ksql.execution.streams.StreamSourceBuilder;
 import io.confluent.ksql.execution.streams.materialization.KsqlMaterializationFactory;
 import io.confluent.ksql.execution.streams.materialization.MaterializationProvider;
 import io.confluent.ksql.execution.streams.materialization.ks.KsMaterialization;
@@ -63,16 +66,21 @@ import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.streams.KafkaClientSupplier;
 import org.apache.kafka.streams.KafkaStreams;
 import org.apache.kafka.streams.StreamsBuilder;
 import org.apache.kafka.streams.StreamsConfig;
 import org.apache.kafka.streams.Topology;
+import org.apache.kafka.streams.Topology.AutoOffsetReset;
+import org.apache.kafka.streams.kstream.ForeachAction;
 import org.apache.kafka.streams.kstream.KStream;
 import org.apache.kafka.streams.kstream.KTable;
 
 // CHECKSTYLE_RULES.OFF: ClassDataAbstractionCoupling
 public final class QueryExecutor {
   // CHECKSTYLE_RULES.ON: ClassDataAbstractionCoupling
+  private static final String EARLIEST = "earliest";
+
   private final KsqlConfig ksqlConfig;
   private final Map<String, Object> overrides;
   private final ProcessingLogContext processingLogContext;
@@ -83,6 +91,7 @@ public final class QueryExecutor {
   private final KsMaterializationFactory ksMaterializationFactory;
   private final KsqlMaterializationFactory ksqlMaterializationFactory;
   private final StreamsBuilder streamsBuilder;
+  private final SharedSourceScans sharedSourceScans;
 
   public QueryExecutor(
       final KsqlConfig ksqlConfig,
@@ -90,7 +99,9 @@ public final class QueryExecutor {
       final ProcessingLogContext processingLogContext,
       final ServiceContext serviceContext,
       final FunctionRegistry functionRegistry,
-      final Consumer<QueryMetadata> queryCloseCallback) {
+      final Consumer<QueryMetadata> queryCloseCallback,
+      final SharedAdminClients sharedAdminClients,
+      final SharedSourceScans sharedSourceScans) {
     this(
         ksqlConfig,
         overrides,
@@ -99,14 +110,15 @@ public final class QueryExecutor {
         functionRegistry,
         queryCloseCallback,
         new KafkaStreamsBuilderImpl(
-            Objects.requireNonNull(serviceContext, "serviceContext").getKafkaClientSupplier()),
+            clientSupplier(ksqlConfig, serviceContext, sharedAdminClients)),
         new StreamsBuilder(),
         new KsqlMaterializationFactory(
             Objects.requireNonNull(ksqlConfig, "ksqlConfig"),
             Objects.requireNonNull(functionRegistry, "functionRegistry"),
             Objects.requireNonNull(processingLogContext, "processingLogContext")
         ),
-        new KsMaterializationFactory()
+        new KsMaterializationFactory(),
+        sharedSourceScans
     );
   }
 
@@ -120,7 +132,8 @@ public final class QueryExecutor {
       final KafkaStreamsBuilder kafkaStreamsBuilder,
       final StreamsBuilder streamsBuilder,
       final KsqlMaterializationFactory ksqlMaterializationFactory,
-      final KsMaterializationFactory ksMaterializationFactory) {
+      final KsMaterializationFactory ksMaterializationFactory,
+      final SharedSourceScans sharedSourceScans) {
     this.ksqlConfig = Objects.requireNonNull(ksqlConfig, "ksqlConfig");
     this.overrides = Objects.requireNonNull(overrides, "overrides");
     this.processingLogContext = Objects.requireNonNull(
@@ -143,6 +156,20 @@ public final class QueryExecutor {
     );
     this.kafkaStreamsBuilder = Objects.requireNonNull(kafkaStreamsBuilder);
     this.streamsBuilder = Objects.requireNonNull(streamsBuilder, "builder");
+    this.sharedSourceScans = Objects.requireNonNull(sharedSourceScans, "sharedSourceScans");
+  }
+
+  private static KafkaClientSupplier clientSupplier(
+      final KsqlConfig ksqlConfig,
+      final ServiceContext serviceContext,
+      final SharedAdminClients sharedAdminClients
+  ) {
+    final KafkaClientSupplier clientSupplier =
+        Objects.requireNonNull(serviceContext, "serviceContext").getKafkaClientSupplier();
+
+    return ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_SHARED_ADMIN_CLIENT_ENABLE_CONFIG)
+        ? sharedAdminClients.wrap(clientSupplier)
+        : clientSupplier;
   }
 
   public TransientQueryMetadata buildTransientQuery(
@@ -154,6 +181,18 @@ public final class QueryExecutor {
       final LogicalSchema schema,
       final OptionalInt limit
   ) {
+    final Optional<PushQueryMapper> sharedScanMapper = sharedScanMapper(queryId, physicalPlan);
+    if (sharedScanMapper.isPresent()) {
+      return buildSharedScanQuery(
+          statementText,
+          sources,
+          sharedScanMapper.get(),
+          planSummary,
+          schema,
+          limit
+      );
+    }
+
     final TransientQueryQueue queue = buildTransientQueryQueue(queryId, physicalPlan, limit);
 
     final String applicationId = addTimeSuffix(getQueryApplicationId(
@@ -178,7 +217,7 @@ public final class QueryExecutor {
         sources,
         queue::setLimitHandler,
         planSummary,
-        queue.getQueue(),
+        queue,
         applicationId,
         streamsBuilder.build(),
         streamsProperties,
@@ -187,6 +226,99 @@ public final class QueryExecutor {
     );
   }
 
+  private Optional<PushQueryMapper> sharedScanMapper(
+      final QueryId queryId,
+      final ExecutionStep<?> physicalPlan
+  ) {
+    // A query that sets its own properties, e.g. to read from the earliest offset, may need a
+    // differently configured app to the scan's:
+    if (!ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_PUSH_SHARED_SCAN_ENABLE_CONFIG)
+        || !overrides.isEmpty()) {
+      return Optional.empty();
+    }
+
+    // Queries joining a running scan only see new rows, so those reading the whole topic can not:
+    final Object offsetReset =
+        ksqlConfig.getKsqlStreamConfigProps().get(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG);
+    if (EARLIEST.equalsIgnoreCase(String.valueOf(offsetReset))) {
+      return Optional.empty();
+    }
+
+    return PushQueryMapper.of(physicalPlan, queryBuilder(queryId))
+        .filter(mapper -> !mapper.getSource().getOffsetReset()
+            .filter(reset -> reset == AutoOffsetReset.EARLIEST)
+            .isPresent());
+  }
+
+  private TransientQueryMetadata buildSharedScanQuery(
+      final String statementText,
+      final Set<SourceName> sources,
+      final PushQueryMapper mapper,
+      final String planSummary,
+      final LogicalSchema schema,
+      final OptionalInt limit
+  ) {
+    final TransientQueryQueue queue = new TransientQueryQueue(
+        limit,
+        pushQueueCapacity(),
+        pushQueueOverflowPolicy()
+    );
+
+    final SharedSourceScans.Scan scan = sharedSourceScans.acquire(
+        mapper.getSource(),
+        serviceContext.getKafkaClientSupplier(),
+        this::buildScanApp
+    );
+
+    return new SharedScanQueryMetadata(
+        statementText,
+        buildTransientQuerySchema(schema),
+        sources,
+        planSummary,
+        queue,
+        mapper,
+        scan,
+        overrides,
+        queryCloseCallback
+    );
+  }
+
+  private SharedSourceScans.ScanApp buildScanApp(
+      final QueryId scanId,
+      final StreamSource source,
+      final ForeachAction<Struct, GenericRow> fanOut
+  ) {
+    final StreamsBuilder scanBuilder = new StreamsBuilder();
+    final KsqlQueryBuilder ksqlQueryBuilder = KsqlQueryBuilder.of(
+        scanBuilder,
+        ksqlConfig,
+        serviceContext,
+        processingLogContext,
+        functionRegistry,
+        scanId
+    );
+
+    StreamSourceBuilder.build(ksqlQueryBuilder, source).getStream().foreach(fanOut);
+
+    final String applicationId = addTimeSuffix(getQueryApplicationId(
+        getServiceId(),
+        ksqlConfig.getString(KsqlConfig.KSQL_TRANSIENT_QUERY_NAME_PREFIX_CONFIG),
+        scanId
+    ));
+
+    final Map<String, Object> streamsProperties = buildStreamsProperties(applicationId, scanId);
+
+    final KafkaStreams streams =
+        kafkaStreamsBuilder.buildKafkaStreams(scanBuilder, streamsProperties);
+
+    return new SharedSourceScans.ScanApp(
+        streams,
+        applicationId,
+        scanBuilder.build(),
+        streamsProperties
+    );
+  }
+
   private static Optional<MaterializationInfo> getMaterializationInfo(final Object result) {
     if (result instanceof KTableHolder) {
       return ((KTableHolder<?>) result).getMaterializationBuilder().map(Builder::build);
@@ -220,15 +352,18 @@ public final class QueryExecutor {
         sinkDataSource.getSchema(),
         sinkDataSource.getSerdeOptions()
     );
-    final Optional<MaterializationProvider> materializationBuilder = getMaterializationInfo(result)
-        .flatMap(info -> buildMaterializationProvider(
+    final Optional<MaterializationInfo> materializationInfo = getMaterializationInfo(result);
+    final Optional<KsMaterialization> ksMaterialization = materializationInfo
+        .flatMap(info -> buildKsMaterialization(
             info,
             streams,
             querySchema,
             sinkDataSource.getKsqlTopic().getKeyFormat(),
             streamsProperties
         ));
-    return new PersistentQueryMetadata(
+    final Optional<MaterializationProvider> materializationBuilder = materializationInfo
+        .flatMap(info -> ksMaterialization.map(ksMat -> buildMaterializationProvider(ksMat, info)));
+    final PersistentQueryMetadata query = new PersistentQueryMetadata(
         statementText,
         streams,
         querySchema,
@@ -246,6 +381,8 @@ public final class QueryExecutor {
         overrides,
         queryCloseCallback
     );
+    ksMaterialization.ifPresent(query::registerStateListener);
+    return query;
   }
 
   private TransientQueryQueue buildTransientQueryQueue(
@@ -264,7 +401,21 @@ public final class QueryExecutor {
     } else {
       throw new IllegalStateException("Unexpected type built from exection plan");
     }
-    return new TransientQueryQueue(kstream, limit);
+    return new TransientQueryQueue(
+        kstream,
+        limit,
+        pushQueueCapacity(),
+        pushQueueOverflowPolicy()
+    );
+  }
+
+  private int pushQueueCapacity() {
+    return ksqlConfig.getInt(KsqlConfig.KSQL_QUERY_PUSH_QUEUE_CAPACITY_CONFIG);
+  }
+
+  private TransientQueryQueue.OverflowPolicy pushQueueOverflowPolicy() {
+    return TransientQueryQueue.OverflowPolicy.parse(
+        ksqlConfig.getString(KsqlConfig.KSQL_QUERY_PUSH_QUEUE_OVERFLOW_POLICY_CONFIG));
   }
 
   private KsqlQueryBuilder queryBuilder(final QueryId queryId) {
@@ -345,7 +496,7 @@ public final class QueryExecutor {
     return String.format("%s_%d", original, System.currentTimeMillis());
   }
 
-  private Optional<MaterializationProvider> buildMaterializationProvider(
+  private Optional<KsMaterialization> buildKsMaterialization(
       final MaterializationInfo info,
       final KafkaStreams kafkaStreams,
       final PhysicalSchema schema,
@@ -361,7 +512,7 @@ public final class QueryExecutor {
         NoopProcessingLogContext.INSTANCE
     ).serializer();
 
-    final Optional<KsMaterialization> ksMaterialization = ksMaterializationFactory
+    return ksMaterializationFactory
         .create(
             info.stateStoreName(),
             kafkaStreams,
@@ -371,14 +522,19 @@ public final class QueryExecutor {
             streamsProperties,
             ksqlConfig
         );
+  }
 
-    return ksMaterialization.map(ksMat -> (queryId, contextStacker) -> ksqlMaterializationFactory
+  private MaterializationProvider buildMaterializationProvider(
+      final KsMaterialization ksMat,
+      final MaterializationInfo info
+  ) {
+    return (queryId, contextStacker) -> ksqlMaterializationFactory
         .create(
             ksMat,
             info,
             queryId,
             contextStacker
-        ));
+        );
   }
 
   /*
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.query;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.confluent.ksql.errors.ProductionExceptionHandlerUtil;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.streams.KafkaClientSupplier;
+
+/**
+ * Admin clients shared by the Kafka Streams instances of queries.
+ *
+ * <p>Each Kafka Streams instance creates an admin client, with its own network thread and
+ * broker connections, though it only uses it to manage internal topics. Streams built with a
+ * client supplier wrapped by {@link #wrap} instead share one admin client between all instances
+ * whose admin configs match, other than in their client id.
+ *
+ * <p>Each instance is handed its own handle on the shared client. Closing the handle, as the
+ * instance does when it is closed, releases it, and the shared client is closed once the last
+ * handle is released.
+ */
+public final class SharedAdminClients {
+
+  private static final String CLIENT_ID_PREFIX = "ksql-shared-admin-";
+  private static final AtomicInteger CLIENT_IDS = new AtomicInteger();
+
+  private final Map<Key, SharedAdmin> admins = new HashMap<>();
+
+  /**
+   * Wrap the supplied client supplier so that the admin clients it supplies are shared.
+   *
+   * @param delegate the supplier to wrap.
+   * @return the wrapped supplier.
+   */
+  public KafkaClientSupplier wrap(final KafkaClientSupplier delegate) {
+    return new SharingSupplier(delegate);
+  }
+
+  @VisibleForTesting
+  synchronized int size() {
+    return admins.size();
+  }
+
+  private synchronized Admin acquire(
+      final KafkaClientSupplier delegate,
+      final Map<String, Object> config
+  ) {
+    final Map<String, Object> sharedConfig = new HashMap<>(config);
+
+    // Set per query, but not used by the admin client:
+    sharedConfig.remove(AdminClientConfig.CLIENT_ID_CONFIG);
+    sharedConfig.remove(ProductionExceptionHandlerUtil.KSQL_PRODUCTION_ERROR_LOGGER);
+
+    final Key key = new Key(delegate, sharedConfig);
+    final SharedAdmin admin = admins.computeIfAbsent(key, k -> {
+      final Map<String, Object> clientConfig = new HashMap<>(sharedConfig);
+      clientConfig.put(
+          AdminClientConfig.CLIENT_ID_CONFIG,
+          CLIENT_ID_PREFIX + CLIENT_IDS.incrementAndGet()
+      );
+      return new SharedAdmin(k, delegate.getAdmin(clientConfig));
+    });
+
+    admin.refCount++;
+    return (Admin) Proxy.newProxyInstance(
+        Admin.class.getClassLoader(),
+        new Class<?>[]{Admin.class},
+        new Handle(admin)
+    );
+  }
+
+  /**
+   * Release a handle on the shared client.
+   *
+   * @return {@code true} if this was the last handle, and the client should be closed.
+   */
+  private synchronized boolean release(final SharedAdmin admin) {
+    admin.refCount--;
+    if (admin.refCount > 0) {
+      return false;
+    }
+
+    admins.remove(admin.key);
+    return true;
+  }
+
+  private final class SharingSupplier implements KafkaClientSupplier {
+
+    private final KafkaClientSupplier delegate;
+
+    private SharingSupplier(final KafkaClientSupplier delegate) {
+      this.delegate = requireNonNull(delegate, "delegate");
+    }
+
+    @Override
+    public Admin getAdmin(final Map<String, Object> config) {
+      return acquire(delegate, config);
+    }
+
+    @Override
+    public Producer<byte[], byte[]> getProducer(final Map<String, Object> config) {
+      return delegate.getProducer(config);
+    }
+
+    @Override
+    public Consumer<byte[], byte[]> getConsumer(final Map<String, Object> config) {
+      return delegate.getConsumer(config);
+    }
+
+    @Override
+    public Consumer<byte[], byte[]> getRestoreConsumer(final Map<String, Object> config) {
+      return delegate.getRestoreConsumer(config);
+    }
+
+    @Override
+    public Consumer<byte[], byte[]> getGlobalConsumer(final Map<String, Object> config) {
+      return delegate.getGlobalConsumer(config);
+    }
+  }
+
+  /**
+   * Handle on a shared client, forwarding all calls to it other than {@code close}.
+   */
+  private final class Handle implements InvocationHandler {
+
+    private final SharedAdmin admin;
+    private boolean closed;
+
+    private Handle(final SharedAdmin admin) {
+      this.admin = requireNonNull(admin, "admin");
+    }
+
+    @Override
+    public Object invoke(
+        final Object proxy,
+        final Method method,
+        final Object[] args
+    ) throws Throwable {
+      switch (method.getName()) {
+        case "close":
+          close(method, args);
+          return null;
+        case "equals":
+          return proxy == args[0];
+        case "hashCode":
+          return System.identityHashCode(proxy);
+        default:
+          break;
+      }
+
+      try {
+        return method.invoke(admin.client, args);
+      } catch (final InvocationTargetException e) {
+        throw e.getCause();
+      }
+    }
+
+    private void close(final Method method, final Object[] args) throws Throwable {
+      synchronized (this) {
+        if (closed) {
+          return;
+        }
+        closed = true;
+      }
+
+      if (!release(admin)) {
+        return;
+      }
+
+      try {
+        // Close with the same timeout, if any, that the handle was closed with:
+        method.invoke(admin.client, args);
+      } catch (final InvocationTargetException e) {
+        throw e.getCause();
+      }
+    }
+  }
+
+  private static final class SharedAdmin {
+
+    private final Key key;
+    private final Admin client;
+    private int refCount;
+
+    private SharedAdmin(final Key key, final Admin client) {
+      this.key = requireNonNull(key, "key");
+      this.client = requireNonNull(client, "client");
+    }
+  }
+
+  private static final class Key {
+
+    private final KafkaClientSupplier supplier;
+    private final Map<String, Object> config;
+
+    private Key(final KafkaClientSupplier supplier, final Map<String, Object> config) {
+      this.supplier = requireNonNull(supplier, "supplier");
+      this.config = requireNonNull(config, "config");
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final Key that = (Key) o;
+      // Clients from different suppliers may differ, e.g. in their credentials:
+      return supplier == that.supplier
+          && Objects.equals(config, that.config);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(System.identityHashCode(supplier), config);
+    }
+  }
+}
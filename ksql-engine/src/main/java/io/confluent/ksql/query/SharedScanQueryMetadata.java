@@ -0,0 +1,125 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.query;
+
+import static java.util.Objects.requireNonNull;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.streams.PushQueryMapper;
+import io.confluent.ksql.name.SourceName;
+import io.confluent.ksql.query.SharedSourceScans.Scan;
+import io.confluent.ksql.query.SharedSourceScans.Subscriber;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.util.QueryMetadata;
+import io.confluent.ksql.util.TransientQueryMetadata;
+import java.lang.Thread.UncaughtExceptionHandler;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.streams.kstream.ForeachAction;
+
+/**
+ * Metadata of a push query that reads its source via a scan shared with other queries.
+ *
+ * <p>Starting the query attaches it to the scan, and closing it releases the scan, rather than
+ * starting and closing a Kafka Streams app of its own.
+ */
+final class SharedScanQueryMetadata extends TransientQueryMetadata {
+
+  private final Scan scan;
+  private final Subscriber subscriber;
+  private final AtomicBoolean released = new AtomicBoolean();
+  private volatile Optional<UncaughtExceptionHandler> exceptionHandler = Optional.empty();
+
+  // CHECKSTYLE_RULES.OFF: ParameterNumberCheck
+  SharedScanQueryMetadata(
+      final String statementString,
+      final LogicalSchema logicalSchema,
+      final Set<SourceName> sourceNames,
+      final String executionPlan,
+      final TransientQueryQueue rowQueue,
+      final PushQueryMapper mapper,
+      final Scan scan,
+      final Map<String, Object> overriddenProperties,
+      final Consumer<QueryMetadata> closeCallback
+  ) {
+    // CHECKSTYLE_RULES.ON: ParameterNumberCheck
+    super(
+        statementString,
+        scan.getApp().getKafkaStreams(),
+        logicalSchema,
+        sourceNames,
+        rowQueue::setLimitHandler,
+        executionPlan,
+        rowQueue,
+        scan.getApp().getApplicationId(),
+        scan.getApp().getTopology(),
+        scan.getApp().getStreamsProperties(),
+        overriddenProperties,
+        closeCallback
+    );
+    this.scan = requireNonNull(scan, "scan");
+    this.subscriber = new QuerySubscriber(requireNonNull(mapper, "mapper"), rowQueue.populator());
+  }
+
+  @Override
+  public void setUncaughtExceptionHandler(final UncaughtExceptionHandler handler) {
+    // The scan's app is shared, so errors are reported to each of its queries' own handlers:
+    exceptionHandler = Optional.of(handler);
+  }
+
+  @Override
+  protected void startKafkaStreams() {
+    scan.attach(subscriber);
+  }
+
+  @Override
+  protected void closeKafkaStreams() {
+    if (released.compareAndSet(false, true)) {
+      scan.release(subscriber);
+    }
+  }
+
+  private final class QuerySubscriber implements Subscriber {
+
+    private final PushQueryMapper mapper;
+    private final ForeachAction<Struct, GenericRow> populator;
+
+    private QuerySubscriber(
+        final PushQueryMapper mapper,
+        final ForeachAction<Struct, GenericRow> populator
+    ) {
+      this.mapper = requireNonNull(mapper, "mapper");
+      this.populator = requireNonNull(populator, "populator");
+    }
+
+    @Override
+    public void accept(final Struct key, final GenericRow row) {
+      final GenericRow result = mapper.apply(key, row);
+      if (result != null) {
+        populator.apply(key, result);
+      }
+    }
+
+    @Override
+    public void onError(final Thread thread, final Throwable e) {
+      exceptionHandler.ifPresent(handler -> handler.uncaughtException(thread, e));
+    }
+  }
+}
@@ -0,0 +1,319 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.query;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.plan.DefaultExecutionStepProperties;
+import io.confluent.ksql.execution.plan.StreamSource;
+import io.confluent.ksql.name.SourceName;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.streams.KafkaClientSupplier;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.Topology;
+import org.apache.kafka.streams.kstream.ForeachAction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Scans of streams shared by push queries.
+ *
+ * <p>Push queries that only filter and project a single stream need nothing from Kafka Streams
+ * beyond reading the stream's topic. Rather than each such query reading the topic in its own
+ * Kafka Streams app, queries over the same stream subscribe to a single scan of it: one app, with
+ * one consumer and deserializer, that hands each row to every subscribed query to filter, project
+ * and queue.
+ *
+ * <p>Queries attach to a scan when started, starting its app if they are the first, and detach
+ * when closed. The scan's app is closed once the last query using it is closed. Queries attaching
+ * to a running scan receive rows from its current position.
+ *
+ * <p>A scan reads its topic with the clients of the query that started it, so is only shared
+ * with queries using the same client supplier, and hence the same credentials.
+ */
+public final class SharedSourceScans {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SharedSourceScans.class);
+
+  private static final String SCAN_ID_PREFIX = "SHARED_SCAN_";
+  private static final SourceName SCAN_ALIAS = SourceName.of("SHARED_SCAN");
+
+  private final AtomicInteger scanIds = new AtomicInteger();
+  private final Map<Key, Scan> scans = new HashMap<>();
+
+  /**
+   * Acquire a scan of the supplied stream, building one if there is no running scan of it.
+   *
+   * <p>The caller must {@link Scan#release release} the scan once done with it.
+   *
+   * @param source the stream to scan.
+   * @param clientSupplier the supplier of the clients the caller's queries use.
+   * @param appBuilder builds the Kafka Streams app of a new scan, with clients from the supplier.
+   * @return the scan.
+   */
+  synchronized Scan acquire(
+      final StreamSource source,
+      final KafkaClientSupplier clientSupplier,
+      final ScanAppBuilder appBuilder
+  ) {
+    final Key key = new Key(clientSupplier, normalize(source));
+
+    final Scan existing = scans.get(key);
+    final Scan scan;
+    if (existing == null || existing.failed) {
+      final QueryId scanId = new QueryId(SCAN_ID_PREFIX + scanIds.incrementAndGet());
+      scan = new Scan(key, scanId, appBuilder);
+      scans.put(key, scan);
+    } else {
+      scan = existing;
+    }
+
+    scan.refCount++;
+    return scan;
+  }
+
+  @VisibleForTesting
+  synchronized int size() {
+    return scans.size();
+  }
+
+  private void release(final Scan scan) {
+    synchronized (this) {
+      scan.refCount--;
+      if (scan.refCount > 0) {
+        return;
+      }
+
+      scans.remove(scan.key, scan);
+    }
+
+    LOG.info("Closing shared scan with application id: {}", scan.app.getApplicationId());
+    scan.app.getKafkaStreams().close();
+    scan.app.getKafkaStreams().cleanUp();
+  }
+
+  /**
+   * Strip the source of anything specific to the query reading it, so that all queries over the
+   * same stream share a scan of it.
+   */
+  private static StreamSource normalize(final StreamSource source) {
+    // Scans read all the stream's columns, whatever columns each query requires, and rows are
+    // passed to queries by column index, whatever alias each query reads the stream under:
+    final LogicalSchema schema = StreamSource
+        .getSchemaWithMetaAndKeyFields(SCAN_ALIAS, source.getSourceSchema())
+        .getSchema();
+
+    return new StreamSource(
+        new DefaultExecutionStepProperties(schema, source.getProperties().getQueryContext()),
+        source.getTopicName(),
+        source.getFormats(),
+        source.getTimestampPolicy(),
+        source.getTimestampIndex(),
+        source.getOffsetReset(),
+        source.getSourceSchema(),
+        SCAN_ALIAS,
+        Optional.empty()
+    );
+  }
+
+  /**
+   * Builds the Kafka Streams app of a scan, which must pass every row read from the stream to the
+   * supplied fan out.
+   */
+  interface ScanAppBuilder {
+
+    ScanApp build(QueryId scanId, StreamSource source, ForeachAction<Struct, GenericRow> fanOut);
+  }
+
+  /**
+   * A query subscribed to a scan.
+   */
+  interface Subscriber {
+
+    /**
+     * Called with each row read by the scan. Any exception thrown detaches the subscriber.
+     */
+    void accept(Struct key, GenericRow row);
+
+    /**
+     * Called if the subscriber is detached due to an error, either its own or the scan's.
+     */
+    void onError(Thread thread, Throwable e);
+  }
+
+  /**
+   * The Kafka Streams app of a scan.
+   */
+  static final class ScanApp {
+
+    private final KafkaStreams kafkaStreams;
+    private final String applicationId;
+    private final Topology topology;
+    private final Map<String, Object> streamsProperties;
+
+    ScanApp(
+        final KafkaStreams kafkaStreams,
+        final String applicationId,
+        final Topology topology,
+        final Map<String, Object> streamsProperties
+    ) {
+      this.kafkaStreams = requireNonNull(kafkaStreams, "kafkaStreams");
+      this.applicationId = requireNonNull(applicationId, "applicationId");
+      this.topology = requireNonNull(topology, "topology");
+      this.streamsProperties =
+          ImmutableMap.copyOf(requireNonNull(streamsProperties, "streamsProperties"));
+    }
+
+    KafkaStreams getKafkaStreams() {
+      return kafkaStreams;
+    }
+
+    String getApplicationId() {
+      return applicationId;
+    }
+
+    Topology getTopology() {
+      return topology;
+    }
+
+    Map<String, Object> getStreamsProperties() {
+      return streamsProperties;
+    }
+  }
+
+  /**
+   * A scan of a stream, shared by all the queries that acquired it.
+   */
+  final class Scan {
+
+    private final Key key;
+    private final FanOut fanOut = new FanOut();
+    private final ScanApp app;
+    private int refCount;
+    private boolean started;
+    private volatile boolean failed;
+
+    private Scan(
+        final Key key,
+        final QueryId scanId,
+        final ScanAppBuilder appBuilder
+    ) {
+      this.key = requireNonNull(key, "key");
+      this.app = requireNonNull(appBuilder.build(scanId, key.source, fanOut), "app");
+    }
+
+    ScanApp getApp() {
+      return app;
+    }
+
+    /**
+     * Attach a subscriber, starting the scan if it has not yet been started.
+     */
+    synchronized void attach(final Subscriber subscriber) {
+      fanOut.subscribers.add(subscriber);
+
+      if (started) {
+        return;
+      }
+
+      LOG.info("Starting shared scan with application id: {}", app.getApplicationId());
+      started = true;
+      app.getKafkaStreams().setUncaughtExceptionHandler(this::onUncaughtException);
+      app.getKafkaStreams().start();
+    }
+
+    /**
+     * Detach the subscriber, if attached, and release this scan.
+     */
+    void release(final Subscriber subscriber) {
+      fanOut.subscribers.remove(subscriber);
+      SharedSourceScans.this.release(this);
+    }
+
+    private void onUncaughtException(final Thread thread, final Throwable e) {
+      LOG.error("Unhandled exception in shared scan with application id: {}",
+          app.getApplicationId(), e);
+
+      // Later queries over the stream start a new scan:
+      failed = true;
+
+      final List<Subscriber> subscribers = fanOut.subscribers;
+      subscribers.forEach(subscriber -> {
+        subscribers.remove(subscriber);
+        subscriber.onError(thread, e);
+      });
+    }
+  }
+
+  private static final class FanOut implements ForeachAction<Struct, GenericRow> {
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void apply(final Struct key, final GenericRow row) {
+      for (final Subscriber subscriber : subscribers) {
+        try {
+          subscriber.accept(key, row);
+        } catch (final RuntimeException e) {
+          // Fail only the subscriber, not the scan and every other subscriber with it:
+          subscribers.remove(subscriber);
+          subscriber.onError(Thread.currentThread(), e);
+        }
+      }
+    }
+  }
+
+  private static final class Key {
+
+    private final KafkaClientSupplier clientSupplier;
+    private final StreamSource source;
+
+    private Key(final KafkaClientSupplier clientSupplier, final StreamSource source) {
+      this.clientSupplier = requireNonNull(clientSupplier, "clientSupplier");
+      this.source = requireNonNull(source, "source");
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final Key that = (Key) o;
+      // Clients from different suppliers may differ, e.g. in their credentials:
+      return clientSupplier == that.clientSupplier
+          && Objects.equals(source, that.source);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(System.identityHashCode(clientSupplier), source);
+    }
+  }
+}
@@ -17,10 +17,15 @@ package io.confluent.ksql.query;
 
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.util.KsqlException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Locale;
 import java.util.Objects;
 import java.util.OptionalInt;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.annotation.concurrent.ThreadSafe;
 import org.apache.kafka.streams.KeyValue;
 import org.apache.kafka.streams.kstream.ForeachAction;
 import org.apache.kafka.streams.kstream.KStream;
@@ -28,37 +33,234 @@ import org.apache.kafka.streams.kstream.Windowed;
 
 /**
  * A queue of rows for transient queries.
+ *
+ * <p>Rows are held in a fixed size ring buffer, so queueing a row does not allocate. Keys are
+ * held as-is and only converted to strings as rows are taken from the queue, and consumers can
+ * take every available row in one go via {@link #drainTo}.
+ *
+ * <p>A query may have several stream threads, so producers are serialized by a lock.
  */
-class TransientQueryQueue {
+@ThreadSafe
+class TransientQueryQueue implements BlockingRowQueue {
+
+  /**
+   * What to do with a row when the queue is full.
+   */
+  enum OverflowPolicy {
+    /**
+     * Wait for the consumer to make space, pausing the stream thread.
+     */
+    BLOCK,
+
+    /**
+     * Discard the oldest row in the queue to make space.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Fail the query.
+     */
+    FAIL;
+
+    static OverflowPolicy parse(final String policy) {
+      return valueOf(policy.toUpperCase(Locale.ROOT));
+    }
+  }
 
   private final LimitQueueCallback callback;
-  private final BlockingQueue<KeyValue<String, GenericRow>> rowQueue =
-      new LinkedBlockingQueue<>(100);
+  private final OverflowPolicy overflowPolicy;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notEmpty = lock.newCondition();
+  private final Condition notFull = lock.newCondition();
+  private final Object[] keys;
+  private final GenericRow[] rows;
+  private int head;
+  private int size;
+  private boolean closed;
+
+  TransientQueryQueue(
+      final KStream<?, GenericRow> kstream,
+      final OptionalInt limit,
+      final int capacity,
+      final OverflowPolicy overflowPolicy
+  ) {
+    this(limit, capacity, overflowPolicy);
+
+    kstream.foreach(populator());
+  }
+
+  /**
+   * Create a queue that is populated by the caller, via its {@link #populator}.
+   */
+  TransientQueryQueue(
+      final OptionalInt limit,
+      final int capacity,
+      final OverflowPolicy overflowPolicy
+  ) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be positive, was:" + capacity);
+    }
 
-  TransientQueryQueue(final KStream<?, GenericRow> kstream, final OptionalInt limit) {
     this.callback = limit.isPresent()
         ? new LimitedQueueCallback(limit.getAsInt())
         : new UnlimitedQueueCallback();
-
-    kstream.foreach(new TransientQueryQueue.QueuePopulator<>(rowQueue, callback));
+    this.overflowPolicy = Objects.requireNonNull(overflowPolicy, "overflowPolicy");
+    this.keys = new Object[capacity];
+    this.rows = new GenericRow[capacity];
   }
 
-  BlockingQueue<KeyValue<String, GenericRow>> getQueue() {
-    return rowQueue;
+  <K> ForeachAction<K, GenericRow> populator() {
+    return new QueuePopulator<>(this, callback);
   }
 
   void setLimitHandler(final LimitHandler limitHandler) {
     callback.setLimitHandler(limitHandler);
   }
 
-  @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+  @Override
+  public KeyValue<String, GenericRow> poll(final long timeout, final TimeUnit unit)
+      throws InterruptedException {
+    final Object key;
+    final GenericRow row;
+
+    long nanos = unit.toNanos(timeout);
+    lock.lockInterruptibly();
+    try {
+      while (size == 0) {
+        if (nanos <= 0) {
+          return null;
+        }
+        nanos = notEmpty.awaitNanos(nanos);
+      }
+
+      key = keys[head];
+      row = rows[head];
+      removeHead();
+    } finally {
+      lock.unlock();
+    }
+
+    return new KeyValue<>(getStringKey(key), row);
+  }
+
+  @Override
+  public int drainTo(final Collection<? super KeyValue<String, GenericRow>> collection) {
+    final Object[] drainedKeys;
+    final GenericRow[] drainedRows;
+
+    lock.lock();
+    try {
+      if (size == 0) {
+        return 0;
+      }
+
+      drainedKeys = new Object[size];
+      drainedRows = new GenericRow[size];
+
+      final int first = Math.min(size, rows.length - head);
+      final int second = size - first;
+      System.arraycopy(keys, head, drainedKeys, 0, first);
+      System.arraycopy(rows, head, drainedRows, 0, first);
+      System.arraycopy(keys, 0, drainedKeys, first, second);
+      System.arraycopy(rows, 0, drainedRows, first, second);
+      Arrays.fill(keys, head, head + first, null);
+      Arrays.fill(rows, head, head + first, null);
+      Arrays.fill(keys, 0, second, null);
+      Arrays.fill(rows, 0, second, null);
+
+      head = 0;
+      size = 0;
+      notFull.signalAll();
+    } finally {
+      lock.unlock();
+    }
+
+    for (int i = 0; i < drainedRows.length; i++) {
+      collection.add(new KeyValue<>(getStringKey(drainedKeys[i]), drainedRows[i]));
+    }
+    return drainedRows.length;
+  }
+
+  @Override
+  public int size() {
+    lock.lock();
+    try {
+      return size;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void close() {
+    lock.lock();
+    try {
+      closed = true;
+      notFull.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void put(final Object key, final GenericRow row) throws InterruptedException {
+    lock.lockInterruptibly();
+    try {
+      while (size == rows.length && !closed) {
+        switch (overflowPolicy) {
+          case DROP_OLDEST:
+            removeHead();
+            break;
+          case FAIL:
+            throw new KsqlException("Push query result queue is full, as the client is not "
+                + "consuming rows fast enough. capacity:" + rows.length);
+          default:
+            notFull.await();
+            break;
+        }
+      }
+
+      if (closed) {
+        return;
+      }
+
+      final int tail = index(head + size);
+      keys[tail] = key;
+      rows[tail] = row;
+      size++;
+      notEmpty.signal();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void removeHead() {
+    keys[head] = null;
+    rows[head] = null;
+    head = index(head + 1);
+    size--;
+    notFull.signal();
+  }
+
+  private int index(final int position) {
+    return position < rows.length ? position : position - rows.length;
+  }
+
+  private static String getStringKey(final Object key) {
+    if (key instanceof Windowed) {
+      final Windowed<?> windowedKey = (Windowed<?>) key;
+      return windowedKey.key() + " : " + windowedKey.window();
+    }
+
+    return Objects.toString(key);
+  }
+
   static final class QueuePopulator<K> implements ForeachAction<K, GenericRow> {
 
-    private final BlockingQueue<KeyValue<String, GenericRow>> queue;
+    private final TransientQueryQueue queue;
     private final QueueCallback callback;
 
     QueuePopulator(
-        final BlockingQueue<KeyValue<String, GenericRow>> queue,
+        final TransientQueryQueue queue,
         final QueueCallback callback
     ) {
       this.queue = Objects.requireNonNull(queue, "queue");
@@ -76,22 +278,12 @@ class TransientQueryQueue {
           return;
         }
 
-        final String keyString = getStringKey(key);
-        queue.put(new KeyValue<>(keyString, row));
+        queue.put(key, row);
 
         callback.onQueued();
       } catch (final InterruptedException exception) {
         throw new KsqlException("InterruptedException while enqueueing:" + key);
       }
     }
-
-    private String getStringKey(final K key) {
-      if (key instanceof Windowed) {
-        final Windowed windowedKey = (Windowed) key;
-        return String.format("%s : %s", windowedKey.key(), windowedKey.window());
-      }
-
-      return Objects.toString(key);
-    }
   }
 }
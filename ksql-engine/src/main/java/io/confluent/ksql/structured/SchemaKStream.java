@@ -122,7 +122,8 @@ public class SchemaKStream<K> {
       final int timestampIndex,
       final Optional<AutoOffsetReset> offsetReset,
       final KeyField keyField,
-      final SourceName alias
+      final SourceName alias,
+      final Optional<List<ColumnName>> requiredColumns
   ) {
     final KsqlTopic topic = dataSource.getKsqlTopic();
     if (topic.getKeyFormat().isWindowed()) {
@@ -134,7 +135,8 @@ public class SchemaKStream<K> {
           dataSource.getTimestampExtractionPolicy(),
           timestampIndex,
           offsetReset,
-          alias
+          alias,
+          requiredColumns
       );
       return forSource(
           builder,
@@ -150,7 +152,8 @@ public class SchemaKStream<K> {
           dataSource.getTimestampExtractionPolicy(),
           timestampIndex,
           offsetReset,
-          alias
+          alias,
+          requiredColumns
       );
       return forSource(
           builder,
@@ -302,6 +305,15 @@ public class SchemaKStream<K> {
   }
 
   KeyField findKeyField(final List<SelectExpression> selectExpressions) {
+    final KeyField selectedKeyField = findSelectedKeyField(selectExpressions);
+    if (selectedKeyField.ref().isPresent() || !canUseRowKeyAliasAsKeyField()) {
+      return selectedKeyField;
+    }
+
+    return findRowKeyAlias(selectExpressions);
+  }
+
+  private KeyField findSelectedKeyField(final List<SelectExpression> selectExpressions) {
     if (!getKeyField().ref().isPresent()) {
       return KeyField.none();
     }
@@ -334,6 +346,36 @@ public class SchemaKStream<K> {
     return KeyField.of(filtered);
   }
 
+  private static KeyField findRowKeyAlias(final List<SelectExpression> selectExpressions) {
+    // A copy of ROWKEY holds the same value as the key, so can act as the key field:
+    for (final SelectExpression select : selectExpressions) {
+      final ColumnName alias = select.getAlias();
+      if (select.getExpression() instanceof ColumnReferenceExp
+          && isRowKey(((ColumnReferenceExp) select.getExpression()).getReference())
+          && !SchemaUtil.isFieldName(alias.name(), SchemaUtil.ROWTIME_NAME.name())
+          && !SchemaUtil.isFieldName(alias.name(), SchemaUtil.ROWKEY_NAME.name())) {
+        return KeyField.of(ColumnRef.withoutSource(alias));
+      }
+    }
+
+    return KeyField.none();
+  }
+
+  private boolean canUseRowKeyAliasAsKeyField() {
+    // The ROWKEY copies of the sides of a join need not match the key of the result, and
+    // aggregations track their own key field:
+    return ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_ROWKEY_ALIAS_KEY_FIELD_ENABLE_CONFIG)
+        && !ksqlConfig.getBoolean(KsqlConfig.KSQL_LEGACY_REPARTITION_ON_GROUP_BY_ROWKEY)
+        && !keyFormat.isWindowed()
+        && !isResultOf(Type.JOIN)
+        && !isResultOf(Type.AGGREGATE);
+  }
+
+  private boolean isResultOf(final Type stepType) {
+    return type == stepType
+        || sourceSchemaKStreams.stream().anyMatch(source -> source.isResultOf(stepType));
+  }
+
 
   public SchemaKStream<K> leftJoin(
       final SchemaKTable<K> schemaKTable,
@@ -20,12 +20,16 @@ import io.confluent.ksql.internal.QueryStateListener;
 import io.confluent.ksql.name.SourceName;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import java.lang.Thread.UncaughtExceptionHandler;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Consumer;
 import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.KafkaStreams.State;
+import org.apache.kafka.streams.KafkaStreams.StateListener;
 import org.apache.kafka.streams.Topology;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,6 +48,7 @@ public class QueryMetadata {
   private final Consumer<QueryMetadata> closeCallback;
   private final Set<SourceName> sourceNames;
   private final LogicalSchema logicalSchema;
+  private final List<StateListener> stateListeners = new CopyOnWriteArrayList<>();
 
   private Optional<QueryStateListener> queryStateListener = Optional.empty();
   private boolean everStarted = false;
@@ -96,6 +101,18 @@ public class QueryMetadata {
     queryStateListener.onChange(kafkaStreams.state(), kafkaStreams.state());
   }
 
+  /**
+   * Register a listener to be notified of state changes of the query's Kafka Streams app.
+   *
+   * <p>Kafka Streams supports only a single state listener, so the query's own listeners are
+   * multiplexed onto it. Listeners must be registered before the query is started.
+   *
+   * @param listener the listener to register.
+   */
+  public void registerStateListener(final StateListener listener) {
+    stateListeners.add(Objects.requireNonNull(listener, "listener"));
+  }
+
   public Map<String, Object> getOverriddenProperties() {
     return overriddenProperties;
   }
@@ -141,9 +158,7 @@ public class QueryMetadata {
   }
 
   public void close() {
-    kafkaStreams.close();
-
-    kafkaStreams.cleanUp();
+    closeKafkaStreams();
 
     queryStateListener.ifPresent(QueryStateListener::close);
 
@@ -153,10 +168,35 @@ public class QueryMetadata {
   public void start() {
     LOG.info("Starting query with application id: {}", queryApplicationId);
     everStarted = true;
-    queryStateListener.ifPresent(kafkaStreams::setStateListener);
+    startKafkaStreams();
+  }
+
+  /**
+   * Start the query's Kafka Streams app.
+   *
+   * <p>Queries that share their app with other queries override this to attach to it.
+   */
+  protected void startKafkaStreams() {
+    kafkaStreams.setStateListener(this::onStateChange);
     kafkaStreams.start();
   }
 
+  /**
+   * Close the query's Kafka Streams app.
+   *
+   * <p>Queries that share their app with other queries override this to detach from it.
+   */
+  protected void closeKafkaStreams() {
+    kafkaStreams.close();
+
+    kafkaStreams.cleanUp();
+  }
+
+  private void onStateChange(final State newState, final State oldState) {
+    queryStateListener.ifPresent(listener -> listener.onChange(newState, oldState));
+    stateListeners.forEach(listener -> listener.onChange(newState, oldState));
+  }
+
   public String getTopologyDescription() {
     return topology.describe().toString();
   }
@@ -15,18 +15,16 @@
 
 package io.confluent.ksql.util;
 
-import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.name.SourceName;
+import io.confluent.ksql.query.BlockingRowQueue;
 import io.confluent.ksql.query.LimitHandler;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import org.apache.kafka.streams.KafkaStreams;
-import org.apache.kafka.streams.KeyValue;
 import org.apache.kafka.streams.Topology;
 
 /**
@@ -34,7 +32,7 @@ import org.apache.kafka.streams.Topology;
  */
 public class TransientQueryMetadata extends QueryMetadata {
 
-  private final BlockingQueue<KeyValue<String, GenericRow>> rowQueue;
+  private final BlockingRowQueue rowQueue;
   private final AtomicBoolean isRunning = new AtomicBoolean(true);
   private final Consumer<LimitHandler> limitHandlerSetter;
 
@@ -46,7 +44,7 @@ public class TransientQueryMetadata extends QueryMetadata {
       final Set<SourceName> sourceNames,
       final Consumer<LimitHandler> limitHandlerSetter,
       final String executionPlan,
-      final BlockingQueue<KeyValue<String, GenericRow>> rowQueue,
+      final BlockingRowQueue rowQueue,
       final String queryApplicationId,
       final Topology topology,
       final Map<String, Object> streamsProperties,
@@ -77,7 +75,7 @@ public class TransientQueryMetadata extends QueryMetadata {
     return isRunning.get();
   }
 
-  public BlockingQueue<KeyValue<String, GenericRow>> getRowQueue() {
+  public BlockingRowQueue getRowQueue() {
     return rowQueue;
   }
 
@@ -103,6 +101,8 @@ public class TransientQueryMetadata extends QueryMetadata {
 
   @Override
   public void close() {
+    // Release any stream thread blocked on a full queue, so the streams app can shut down:
+    rowQueue.close();
     super.close();
     isRunning.set(false);
   }
@@ -51,6 +51,7 @@ import io.confluent.ksql.parser.tree.Sink;
 import io.confluent.ksql.schema.ksql.ColumnRef;
 import io.confluent.ksql.serde.Format;
 import io.confluent.ksql.serde.SerdeOption;
+import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.MetaStoreFixture;
 import java.io.File;
@@ -202,7 +203,7 @@ public class QueryAnalyzerFunctionalTest {
     UserFunctionLoader loader = new UserFunctionLoader(functionRegistry, new File(""),
         Thread.currentThread().getContextClassLoader(),
         s -> false,
-        Optional.empty(), true
+        Optional.empty(), true, new KsqlConfig(Collections.emptyMap())
     );
     loader.load();
 
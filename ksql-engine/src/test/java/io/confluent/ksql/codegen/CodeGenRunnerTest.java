@@ -35,8 +35,10 @@ import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.analyzer.Analysis;
 import io.confluent.ksql.execution.codegen.CodeGenRunner;
 import io.confluent.ksql.execution.codegen.ExpressionMetadata;
+import io.confluent.ksql.execution.codegen.RowProjector;
 import io.confluent.ksql.execution.ddl.commands.KsqlTopic;
 import io.confluent.ksql.execution.expression.tree.Expression;
+import io.confluent.ksql.execution.plan.SelectExpression;
 import io.confluent.ksql.function.InternalFunctionRegistry;
 import io.confluent.ksql.function.KsqlScalarFunction;
 import io.confluent.ksql.function.MutableFunctionRegistry;
@@ -639,6 +641,120 @@ public class CodeGenRunnerTest {
         assertThat(columns, contains(" hello ", " HELLO ", "Hello", " Hello _test", "Hell"));
     }
 
+    @Test
+    public void shouldProjectSameResultsAsIndividualExpressions() {
+        // Given:
+        final Analysis analysis = analyzeQuery(
+            "SELECT col0 + 1, LCASE(col1), SUBSTRING(col1, 2, 4), col3 * col5, col15->A,"
+                + " col14[0][0], CASE WHEN col6 THEN col11['key1'] ELSE col2 END, col0 + 1"
+                + " FROM codegen_test EMIT CHANGES;",
+            metaStore
+        );
+
+        final List<Expression> expressions = analysis.getSelectExpressions().stream()
+            .map(SelectExpression::getExpression)
+            .collect(Collectors.toList());
+
+        final GenericRow row = buildRow(ImmutableMap.of(1, " Hello "));
+
+        final List<Object> expected = expressions.stream()
+            .map(exp -> codeGenRunner.buildCodeGenFromParseTree(exp, "Select"))
+            .map(md -> md.evaluate(row))
+            .collect(Collectors.toList());
+
+        // When:
+        final List<Object> result = codeGenRunner
+            .buildRowProjector(expressions, "Select")
+            .project(row, (idx, e) -> { throw new AssertionError("unexpected error", e); });
+
+        // Then:
+        assertThat(result, is(expected));
+    }
+
+    @Test
+    public void shouldProjectNullAndReportErrorForFailedExpression() {
+        // Given:
+        final Analysis analysis = analyzeQuery(
+            "SELECT col0, WHENCONDITION(col6, col7), col1 FROM codegen_test EMIT CHANGES;",
+            metaStore
+        );
+
+        final List<Expression> expressions = analysis.getSelectExpressions().stream()
+            .map(SelectExpression::getExpression)
+            .collect(Collectors.toList());
+
+        final List<Integer> failed = new ArrayList<>();
+        final List<Exception> errors = new ArrayList<>();
+
+        // When:
+        final List<Object> result = codeGenRunner
+            .buildRowProjector(expressions, "Select")
+            .project(genericRow(ONE_ROW), (idx, e) -> {
+                failed.add(idx);
+                errors.add(e);
+            });
+
+        // Then:
+        assertThat(result, contains(0L, null, "S1"));
+        assertThat(failed, contains(1));
+        assertThat(errors.get(0).getMessage(), is("When condition in case is not running lazily!"));
+    }
+
+    @Test
+    public void shouldProjectRowThatPassesFilter() {
+        // Given:
+        final Analysis analysis = analyzeQuery(
+            "SELECT col0, col1 FROM codegen_test WHERE col6 AND col5 > 4 EMIT CHANGES;",
+            metaStore
+        );
+
+        // When:
+        final List<Object> result = buildFilteredProjector(analysis)
+            .project(genericRow(ONE_ROW), (idx, e) -> {
+                throw new AssertionError("unexpected error", e);
+            });
+
+        // Then:
+        assertThat(result, contains(0L, "S1"));
+    }
+
+    @Test
+    public void shouldNotProjectRowThatFailsFilter() {
+        // Given:
+        final Analysis analysis = analyzeQuery(
+            "SELECT col0, col1 FROM codegen_test WHERE col7 EMIT CHANGES;",
+            metaStore
+        );
+
+        // When:
+        final List<Object> result = buildFilteredProjector(analysis)
+            .project(genericRow(ONE_ROW), (idx, e) -> {
+                throw new AssertionError("unexpected error", e);
+            });
+
+        // Then:
+        assertThat(result, is(nullValue()));
+    }
+
+    @Test
+    public void shouldNotProjectAndReportErrorIfFilterThrows() {
+        // Given:
+        final Analysis analysis = analyzeQuery(
+            "SELECT col0 FROM codegen_test WHERE WHENCONDITION(col6, col7) EMIT CHANGES;",
+            metaStore
+        );
+
+        final List<Integer> failed = new ArrayList<>();
+
+        // When:
+        final List<Object> result = buildFilteredProjector(analysis)
+            .project(genericRow(ONE_ROW), (idx, e) -> failed.add(idx));
+
+        // Then:
+        assertThat(result, is(nullValue()));
+        assertThat(failed, contains(RowProjector.FILTER_INDEX));
+    }
+
     @Test
     public void shouldHandleNestedUdfs() {
         final String query =
@@ -983,6 +1099,18 @@ public class CodeGenRunnerTest {
         return new GenericRow(columns);
     }
 
+    private RowProjector buildFilteredProjector(final Analysis analysis) {
+        final List<Expression> expressions = analysis.getSelectExpressions().stream()
+            .map(SelectExpression::getExpression)
+            .collect(Collectors.toList());
+
+        return codeGenRunner.buildRowProjector(
+            analysis.getWhereExpression(),
+            expressions,
+            "Select"
+        );
+    }
+
     public static final class WhenCondition implements Kudf {
 
         @Override
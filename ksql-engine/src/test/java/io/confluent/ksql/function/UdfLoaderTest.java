@@ -33,6 +33,7 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.confluent.ksql.execution.function.TableAggregationFunction;
 import io.confluent.ksql.function.udaf.TestUdaf;
 import io.confluent.ksql.function.udaf.Udaf;
+import io.confluent.ksql.function.udaf.array.CollectSetUdaf;
 import io.confluent.ksql.function.udf.Kudf;
 import io.confluent.ksql.function.udf.PluggableUdf;
 import io.confluent.ksql.function.udf.Udf;
@@ -81,6 +82,7 @@ public class UdfLoaderTest {
 
   private static final ClassLoader PARENT_CLASS_LOADER = UdfLoaderTest.class.getClassLoader();
   private static final Metrics METRICS = new Metrics();
+  private static final KsqlConfig KSQL_CONFIG = new KsqlConfig(Collections.emptyMap());
 
   private static final FunctionRegistry FUNC_REG =
       initializeFunctionRegistry(true, Optional.empty());
@@ -376,7 +378,8 @@ public class UdfLoaderTest {
         PARENT_CLASS_LOADER,
         value -> false,
         Optional.empty(),
-        true)
+        true,
+        KSQL_CONFIG)
         ;
 
     udfLoader.load();
@@ -765,6 +768,37 @@ public class UdfLoaderTest {
     assertThat(instance, not(instanceOf(TableAggregationFunction.class)));
   }
 
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shouldConfigureConfigurableUdafsWithFunctionConfig() throws Exception {
+    // Given:
+    final KsqlConfig config = new KsqlConfig(ImmutableMap.of(
+        CollectSetUdaf.LIMIT_CONFIG, 2,
+        KSQL_FUNCTIONS_PROPERTY_PREFIX + "other_udaf.limit", 1
+    ));
+
+    final UdafFactoryInvoker creator
+        = createUdafLoader(Optional.empty(), config).createUdafFactoryInvoker(
+        CollectSetUdaf.class.getMethod("createCollectSetInt"),
+        FunctionName.of("collect_set"),
+        "desc",
+        "",
+        "",
+        "");
+
+    final KsqlAggregateFunction<Integer, List<Integer>, List<Integer>> executable =
+        creator.createFunction(AggregateFunctionInitArguments.EMPTY_ARGS);
+
+    // When:
+    List<Integer> agg = executable.getInitialValueSupplier().get();
+    for (int i = 0; i < 5; i++) {
+      agg = executable.aggregate(i, agg);
+    }
+
+    // Then:
+    assertThat(agg, equalTo(ImmutableList.of(0, 1)));
+  }
+
   @SuppressFBWarnings("RV_RETURN_VALUE_IGNORED_NO_SIDE_EFFECT")
   @SuppressWarnings("unchecked")
   @Test
@@ -1196,8 +1230,15 @@ public class UdfLoaderTest {
   }
 
   private static UdafLoader createUdafLoader(Optional<Metrics> metrics) {
+    return createUdafLoader(metrics, KSQL_CONFIG);
+  }
+
+  private static UdafLoader createUdafLoader(
+      final Optional<Metrics> metrics,
+      final KsqlConfig ksqlConfig
+  ) {
     return new UdafLoader(new InternalFunctionRegistry(), metrics, SqlTypeParser.create(
-        TypeRegistry.EMPTY));
+        TypeRegistry.EMPTY), ksqlConfig);
   }
 
   private static FunctionRegistry initializeFunctionRegistry(
@@ -1222,7 +1263,8 @@ public class UdfLoaderTest {
         PARENT_CLASS_LOADER,
         value -> false,
         metrics,
-        loadCustomerUdfs
+        loadCustomerUdfs,
+        KSQL_CONFIG
     );
   }
 
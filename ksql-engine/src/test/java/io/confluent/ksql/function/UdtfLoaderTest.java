@@ -26,10 +26,12 @@ import io.confluent.ksql.metastore.TypeRegistry;
 import io.confluent.ksql.schema.ksql.SqlTypeParser;
 import io.confluent.ksql.schema.ksql.types.SqlType;
 import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
 import java.io.File;
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -319,7 +321,8 @@ public class UdtfLoaderTest {
         PARENT_CLASS_LOADER,
         value -> false,
         Optional.empty(),
-        true
+        true,
+        new KsqlConfig(Collections.emptyMap())
     );
   }
 
@@ -21,8 +21,12 @@ import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertThat;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
 import io.confluent.ksql.function.udaf.Udaf;
 import java.util.List;
+import org.apache.kafka.common.Configurable;
+import org.apache.kafka.common.config.ConfigException;
 import org.junit.Test;
 
 public class CollectSetUdafTest {
@@ -73,4 +77,35 @@ public class CollectSetUdafTest {
     assertThat(runningList, not(hasItem(1001)));
   }
 
+  @Test
+  public void shouldRespectConfiguredSizeLimit() {
+    final Udaf<Integer, List<Integer>, List<Integer>> udaf = CollectSetUdaf.createCollectSetInt();
+    ((Configurable) udaf).configure(ImmutableMap.of(CollectSetUdaf.LIMIT_CONFIG, "10"));
+    List<Integer> runningList = udaf.initialize();
+    for (int i = 1; i < 25; i++) {
+      runningList = udaf.aggregate(i, runningList);
+    }
+    assertThat(runningList, hasSize(10));
+    assertThat(runningList, hasItem(10));
+    assertThat(runningList, not(hasItem(11)));
+  }
+
+  @Test
+  public void shouldRespectConfiguredSizeLimitOnMerge() {
+    final Udaf<Integer, List<Integer>, List<Integer>> udaf = CollectSetUdaf.createCollectSetInt();
+    ((Configurable) udaf).configure(ImmutableMap.of(CollectSetUdaf.LIMIT_CONFIG, 4));
+
+    final List<Integer> merged = udaf.merge(
+        Lists.newArrayList(1, 2, 3),
+        Lists.newArrayList(3, 2, 4, 5, 6));
+
+    assertThat(merged, contains(1, 2, 3, 4));
+  }
+
+  @Test(expected = ConfigException.class)
+  public void shouldThrowOnInvalidSizeLimit() {
+    final Udaf<Integer, List<Integer>, List<Integer>> udaf = CollectSetUdaf.createCollectSetInt();
+    ((Configurable) udaf).configure(ImmutableMap.of(CollectSetUdaf.LIMIT_CONFIG, 0));
+  }
+
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf.count;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+import io.confluent.ksql.function.udaf.Udaf;
+import io.confluent.ksql.util.KsqlException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+public class CountDistinctApproxUdafTest {
+
+  @Test
+  public void shouldCountNothingInitially() {
+    final Udaf<String, List<Long>, Long> udaf = CountDistinctApproxUdaf.countDistinctApproxString();
+    assertThat(udaf.map(udaf.initialize()), is(0L));
+  }
+
+  @Test
+  public void shouldCountSmallNumberOfDistinctValuesExactly() {
+    final Udaf<String, List<Long>, Long> udaf = CountDistinctApproxUdaf.countDistinctApproxString();
+    List<Long> agg = udaf.initialize();
+    final String[] values = new String[] {"foo", "bar", "foo", null, "baz", "bar"};
+    for (final String thisValue : values) {
+      agg = udaf.aggregate(thisValue, agg);
+    }
+    assertThat(udaf.map(agg), is(3L));
+  }
+
+  @Test
+  public void shouldEstimateLargeNumberOfDistinctValues() {
+    final Udaf<Long, List<Long>, Long> udaf = CountDistinctApproxUdaf.countDistinctApproxLong();
+    List<Long> agg = udaf.initialize();
+    for (long i = 0; i < 100_000; i++) {
+      agg = udaf.aggregate(i, agg);
+      agg = udaf.aggregate(i, agg);
+    }
+    assertThat((double) udaf.map(agg), is(closeTo(100_000, 5_000)));
+  }
+
+  @Test
+  public void shouldKeepStateSizeFixed() {
+    final Udaf<Integer, List<Long>, Long> udaf = CountDistinctApproxUdaf.countDistinctApproxInt();
+    List<Long> agg = udaf.initialize();
+    for (int i = 0; i < 10_000; i++) {
+      agg = udaf.aggregate(i, agg);
+    }
+    assertThat(agg, hasSize(HyperLogLog.REGISTER_COUNT / Long.BYTES));
+  }
+
+  @Test
+  public void shouldMergeOverlappingSketches() {
+    final Udaf<Double, List<Long>, Long> udaf = CountDistinctApproxUdaf.countDistinctApproxDouble();
+    List<Long> lhs = udaf.initialize();
+    List<Long> rhs = udaf.initialize();
+    for (int i = 0; i < 20; i++) {
+      lhs = udaf.aggregate((double) i, lhs);
+      rhs = udaf.aggregate(i + 10.0, rhs);
+    }
+
+    final List<Long> merged = udaf.merge(lhs, rhs);
+
+    assertThat(udaf.map(merged), is(30L));
+  }
+
+  @Test
+  public void shouldMergeWithEmptySketch() {
+    final Udaf<Integer, List<Long>, Long> udaf = CountDistinctApproxUdaf.countDistinctApproxInt();
+    final List<Long> agg = udaf.aggregate(1, udaf.initialize());
+
+    assertThat(udaf.map(udaf.merge(agg, udaf.initialize())), is(1L));
+    assertThat(udaf.map(udaf.merge(udaf.initialize(), agg)), is(1L));
+  }
+
+  @Test(expected = KsqlException.class)
+  public void shouldThrowOnInvalidSketch() {
+    final Udaf<Integer, List<Long>, Long> udaf = CountDistinctApproxUdaf.countDistinctApproxInt();
+    udaf.aggregate(1, new ArrayList<>(Collections.nCopies(3, 0L)));
+  }
+}
@@ -16,12 +16,17 @@
 package io.confluent.ksql.function.udaf.map;
 
 import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.hasKey;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertThat;
 
+import com.google.common.collect.ImmutableMap;
 import io.confluent.ksql.function.udaf.TableUdaf;
+import java.util.HashMap;
 import java.util.Map;
+import org.apache.kafka.common.Configurable;
 import org.junit.Test;
 
 public class HistogramUdafTest {
@@ -110,4 +115,76 @@ public class HistogramUdafTest {
     assertThat(agg, not(hasEntry("1001", 1L)));
   }
 
+  @Test
+  public void shouldNotExceedConfiguredSizeLimit() {
+    final TableUdaf<String, Map<String, Long>, Map<String, Long>> udaf = HistogramUdaf.histogramString();
+    ((Configurable) udaf).configure(ImmutableMap.of(HistogramUdaf.LIMIT_CONFIG, "10"));
+    Map<String, Long> agg = udaf.initialize();
+    for (int thisValue = 1; thisValue < 25; thisValue++) {
+      agg = udaf.aggregate(String.valueOf(thisValue), agg);
+    }
+    assertThat(agg.entrySet(), hasSize(10));
+    assertThat(agg, hasEntry("10", 1L));
+    assertThat(agg, not(hasKey("11")));
+  }
+
+  @Test
+  public void shouldIgnoreUndoOfValueBeyondSizeLimit() {
+    final TableUdaf<String, Map<String, Long>, Map<String, Long>> udaf = HistogramUdaf.histogramString();
+    ((Configurable) udaf).configure(ImmutableMap.of(HistogramUdaf.LIMIT_CONFIG, 1));
+    Map<String, Long> agg = udaf.initialize();
+    agg = udaf.aggregate("foo", agg);
+    agg = udaf.aggregate("bar", agg);
+
+    agg = udaf.undo("bar", agg);
+
+    assertThat(agg, is(ImmutableMap.of("foo", 1L)));
+  }
+
+  @Test
+  public void shouldKeepHeavyHittersInApproximateMode() {
+    final TableUdaf<String, Map<String, Long>, Map<String, Long>> udaf = HistogramUdaf.histogramString();
+    ((Configurable) udaf).configure(ImmutableMap.of(
+        HistogramUdaf.LIMIT_CONFIG, 3,
+        HistogramUdaf.APPROXIMATE_CONFIG, true));
+    Map<String, Long> agg = udaf.initialize();
+    for (int i = 0; i < 100; i++) {
+      agg = udaf.aggregate("hot", agg);
+      agg = udaf.aggregate("cold" + i, agg);
+    }
+    assertThat(agg.entrySet(), hasSize(3));
+    assertThat(agg, hasEntry("hot", 100L));
+    assertThat(agg, hasKey("cold99"));
+  }
+
+  @Test
+  public void shouldReplaceLeastFrequentValueInApproximateMode() {
+    final TableUdaf<String, Map<String, Long>, Map<String, Long>> udaf = HistogramUdaf.histogramString();
+    ((Configurable) udaf).configure(ImmutableMap.of(
+        HistogramUdaf.LIMIT_CONFIG, 2,
+        HistogramUdaf.APPROXIMATE_CONFIG, "true"));
+    Map<String, Long> agg = udaf.initialize();
+    agg = udaf.aggregate("foo", agg);
+    agg = udaf.aggregate("foo", agg);
+    agg = udaf.aggregate("bar", agg);
+
+    agg = udaf.aggregate("baz", agg);
+
+    assertThat(agg, is(ImmutableMap.of("foo", 2L, "baz", 2L)));
+  }
+
+  @Test
+  public void shouldKeepMostFrequentValuesOnMergeInApproximateMode() {
+    final TableUdaf<String, Map<String, Long>, Map<String, Long>> udaf = HistogramUdaf.histogramString();
+    ((Configurable) udaf).configure(ImmutableMap.of(
+        HistogramUdaf.LIMIT_CONFIG, 2,
+        HistogramUdaf.APPROXIMATE_CONFIG, true));
+
+    final Map<String, Long> merged = udaf.merge(
+        new HashMap<>(ImmutableMap.of("a", 5L, "b", 1L)),
+        new HashMap<>(ImmutableMap.of("b", 1L, "c", 3L)));
+
+    assertThat(merged, is(ImmutableMap.of("a", 5L, "c", 3L)));
+  }
+
 }
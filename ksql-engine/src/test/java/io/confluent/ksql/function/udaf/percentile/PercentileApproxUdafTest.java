@@ -0,0 +1,109 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf.percentile;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.nullValue;
+
+import io.confluent.ksql.function.udaf.Udaf;
+import io.confluent.ksql.util.KsqlException;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class PercentileApproxUdafTest {
+
+  @Rule
+  public final ExpectedException expectedException = ExpectedException.none();
+
+  @Test
+  public void shouldReturnNullIfNoValues() {
+    final Udaf<Double, Struct, Double> udaf = PercentileApproxUdaf.percentileApproxDouble(0.5);
+    assertThat(udaf.map(udaf.initialize()), is(nullValue()));
+  }
+
+  @Test
+  public void shouldComputeExactPercentilesOfFewValues() {
+    // Given:
+    Struct agg = PercentileApproxUdaf.percentileApproxInt(0.5).initialize();
+    final Integer[] values = new Integer[] {5, 1, null, 4, 2, 3};
+    for (final Integer thisValue : values) {
+      agg = PercentileApproxUdaf.percentileApproxInt(0.5).aggregate(thisValue, agg);
+    }
+
+    // Then:
+    assertThat(PercentileApproxUdaf.percentileApproxInt(0.0).map(agg), is(1.0));
+    assertThat(PercentileApproxUdaf.percentileApproxInt(0.5).map(agg), is(3.0));
+    assertThat(PercentileApproxUdaf.percentileApproxInt(1.0).map(agg), is(5.0));
+  }
+
+  @Test
+  public void shouldEstimatePercentilesOfManyValues() {
+    // Given:
+    final Udaf<Long, Struct, Double> udaf = PercentileApproxUdaf.percentileApproxLong(0.99);
+    Struct agg = udaf.initialize();
+    for (long i = 0; i < 100_000; i++) {
+      agg = udaf.aggregate((i * 7919) % 100_000, agg);
+    }
+
+    // Then:
+    assertThat(udaf.map(agg), is(closeTo(99_000, 200)));
+    assertThat(agg.getArray(TDigest.MEANS).size(), is(lessThanOrEqualTo(2 * TDigest.COMPRESSION)));
+  }
+
+  @Test
+  public void shouldMergeDigests() {
+    // Given:
+    final Udaf<Double, Struct, Double> udaf = PercentileApproxUdaf.percentileApproxDouble(0.5);
+    Struct lhs = udaf.initialize();
+    Struct rhs = udaf.initialize();
+    for (int i = 0; i < 10_000; i++) {
+      lhs = udaf.aggregate((double) i, lhs);
+      rhs = udaf.aggregate(i + 10_000.0, rhs);
+    }
+
+    // When:
+    final Struct merged = udaf.merge(lhs, rhs);
+
+    // Then:
+    assertThat(udaf.map(merged), is(closeTo(10_000, 100)));
+    assertThat(merged.getFloat64(TDigest.MIN), is(0.0));
+    assertThat(merged.getFloat64(TDigest.MAX), is(19_999.0));
+  }
+
+  @Test
+  public void shouldMergeWithEmptyDigest() {
+    final Udaf<Double, Struct, Double> udaf = PercentileApproxUdaf.percentileApproxDouble(0.5);
+    final Struct agg = udaf.aggregate(42.0, udaf.initialize());
+
+    assertThat(udaf.map(udaf.merge(agg, udaf.initialize())), is(42.0));
+    assertThat(udaf.map(udaf.merge(udaf.initialize(), agg)), is(42.0));
+  }
+
+  @Test
+  public void shouldThrowOnInvalidPercentile() {
+    // Then:
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage("The percentile must be between 0.0 and 1.0, but was: 99.0");
+
+    // When:
+    PercentileApproxUdaf.percentileApproxDouble(99);
+  }
+}
@@ -103,6 +103,30 @@ public class IntTopkKudafTest {
     assertThat(agg2, equalTo(ImmutableList.of(100, 1)));
   }
 
+  @Test
+  public void shouldInsertIntoMiddleOfFullTopK() {
+    // Given:
+    final List<Integer> aggregate = new ArrayList<>(ImmutableList.of(50, 40, 30));
+
+    // When:
+    final List<Integer> result = topkKudaf.aggregate(45, aggregate);
+
+    // Then:
+    assertThat(result, equalTo(ImmutableList.of(50, 45, 40)));
+  }
+
+  @Test
+  public void shouldKeepDuplicatesInTopK() {
+    // Given:
+    final List<Integer> aggregate = new ArrayList<>(ImmutableList.of(50, 40, 30));
+
+    // When:
+    final List<Integer> result = topkKudaf.aggregate(40, aggregate);
+
+    // Then:
+    assertThat(result, equalTo(ImmutableList.of(50, 40, 40)));
+  }
+
   @SuppressWarnings("unchecked")
   @Test
   public void shouldWorkWithLargeValuesOfKay() {
@@ -101,6 +101,30 @@ public class IntTopkDistinctKudafTest {
     assertThat(agg2, equalTo(ImmutableList.of(100, 1)));
   }
 
+  @Test
+  public void shouldInsertIntoMiddleOfFullTopK() {
+    // Given:
+    final List<Integer> aggregate = new ArrayList<>(ImmutableList.of(50, 40, 30));
+
+    // When:
+    final List<Integer> result = intTopkDistinctKudaf.aggregate(45, aggregate);
+
+    // Then:
+    assertThat(result, equalTo(ImmutableList.of(50, 45, 40)));
+  }
+
+  @Test
+  public void shouldIgnoreValueAlreadyInTopK() {
+    // Given:
+    final List<Integer> aggregate = new ArrayList<>(ImmutableList.of(50, 40, 30));
+
+    // When:
+    final List<Integer> result = intTopkDistinctKudaf.aggregate(40, aggregate);
+
+    // Then:
+    assertThat(result, equalTo(ImmutableList.of(50, 40, 30)));
+  }
+
   @Test
   public void shouldBeThreadSafe() {
     // Given:
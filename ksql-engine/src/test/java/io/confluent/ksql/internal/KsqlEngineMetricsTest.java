@@ -28,6 +28,7 @@ import static org.mockito.Mockito.when;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import io.confluent.ksql.engine.KsqlEngine;
+import io.confluent.ksql.execution.codegen.CompiledExpressionCache;
 import io.confluent.ksql.metrics.ConsumerCollector;
 import io.confluent.ksql.metrics.MetricCollectors;
 import io.confluent.ksql.metrics.ProducerCollector;
@@ -123,6 +124,15 @@ public class KsqlEngineMetricsTest {
     assertThat(legacyValue, equalTo(3.0));
   }
 
+  @Test
+  public void shouldRecordCodegenCacheMetrics() {
+    final double size = getMetricValue("codegen-cache-size");
+    final double hits = getMetricValue("codegen-cache-hit-count");
+
+    assertThat(size, equalTo((double) CompiledExpressionCache.sharedSize()));
+    assertThat(hits, equalTo((double) CompiledExpressionCache.sharedStats().hitCount()));
+  }
+
   @Test
   public void shouldRecordNumberOfQueriesInCREATEDState() {
     when(ksqlEngine.getPersistentQueries())
@@ -332,7 +332,12 @@ public class AggregateNodeTest {
     buildQuery(node, KSQL_CONFIG);
 
     // Then:
-    verify(ksqlStreamBuilder, times(3)).buildValueSerde(
+    verify(ksqlStreamBuilder, times(2)).buildValueSerde(
+        any(),
+        any(),
+        queryContextCaptor.capture()
+    );
+    verify(ksqlStreamBuilder).buildStateSerde(
         any(),
         any(),
         queryContextCaptor.capture()
@@ -63,6 +63,7 @@ import io.confluent.ksql.util.timestamp.TimestampExtractionPolicy;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.common.serialization.Serde;
@@ -175,7 +176,7 @@ public class DataSourceNodeTest {
     when(ksqlTopic.getKeyFormat()).thenReturn(KeyFormat.nonWindowed(FormatInfo.of(Format.KAFKA)));
     when(ksqlTopic.getValueFormat()).thenReturn(ValueFormat.of(FormatInfo.of(Format.JSON)));
     when(timestampExtractionPolicy.getTimestampField()).thenReturn(TIMESTAMP_FIELD);
-    when(schemaKStreamFactory.create(any(), any(), any(), any(), anyInt(), any(), any(), any()))
+    when(schemaKStreamFactory.create(any(), any(), any(), any(), anyInt(), any(), any(), any(), any()))
         .thenReturn(stream);
     when(stream.toTable(any(), any(), any())).thenReturn(table);
   }
@@ -280,7 +281,7 @@ public class DataSourceNodeTest {
     node.buildStream(ksqlStreamBuilder);
 
     // Then:
-    verify(schemaKStreamFactory).create(any(), any(), any(), any(), eq(1), any(), any(), any());
+    verify(schemaKStreamFactory).create(any(), any(), any(), any(), eq(1), any(), any(), any(), any());
   }
 
   // should this even be possible? if you are using a timestamp extractor then shouldn't the name
@@ -297,7 +298,7 @@ public class DataSourceNodeTest {
     node.buildStream(ksqlStreamBuilder);
 
     // Then:
-    verify(schemaKStreamFactory).create(any(), any(), any(), any(), eq(1), any(), any(), any());
+    verify(schemaKStreamFactory).create(any(), any(), any(), any(), eq(1), any(), any(), any(), any());
   }
 
   @Test
@@ -319,7 +320,8 @@ public class DataSourceNodeTest {
         eq(3),
         eq(OFFSET_RESET),
         same(node.getKeyField()),
-        eq(SourceName.of("name"))
+        eq(SourceName.of("name")),
+        eq(Optional.empty())
     );
     assertThat(
         stackerCaptor.getValue().getQueryContext().getContext(),
@@ -344,7 +346,8 @@ public class DataSourceNodeTest {
         eq(3),
         eq(OFFSET_RESET),
         same(node.getKeyField()),
-        eq(SourceName.of("name"))
+        eq(SourceName.of("name")),
+        eq(Optional.empty())
     );
     assertThat(
         stackerCaptor.getValue().getQueryContext().getContext(),
@@ -380,7 +383,73 @@ public class DataSourceNodeTest {
         equalTo(ImmutableList.of("0", "reduce")));
   }
 
+  @Test
+  public void shouldPassReferencedColumnsAndColumnsReadBySourceAsRequiredColumns() {
+    // Given:
+    final DataSourceNode node = buildNodeWithMockSource(Optional.of(ImmutableSet.of(
+        ColumnRef.withoutSource(FIELD2),
+        ColumnRef.of(SourceName.of("other"), FIELD3),
+        ColumnRef.withoutSource(SchemaUtil.ROWKEY_NAME)
+    )));
+
+    // When:
+    node.buildStream(ksqlStreamBuilder);
+
+    // Then:
+    verify(schemaKStreamFactory).create(
+        any(),
+        any(),
+        any(),
+        any(),
+        anyInt(),
+        any(),
+        any(),
+        any(),
+        eq(Optional.of(ImmutableList.of(FIELD1, FIELD2, TIMESTAMP_FIELD.name())))
+    );
+  }
+
+  @Test
+  public void shouldMatchReferencedColumnsQualifiedWithAlias() {
+    // Given:
+    final DataSourceNode node = buildNodeWithMockSource(Optional.of(ImmutableSet.of(
+        ColumnRef.of(SourceName.of("name"), FIELD3)
+    )));
+
+    // Then:
+    assertThat(node.getRequiredColumns(),
+        is(Optional.of(ImmutableList.of(FIELD1, FIELD3, TIMESTAMP_FIELD.name()))));
+  }
+
+  @Test
+  public void shouldNotPassRequiredColumnsIfAllColumnsReferenced() {
+    // Given:
+    final DataSourceNode node = buildNodeWithMockSource(Optional.of(
+        REAL_SCHEMA.value().stream()
+            .map(column -> ColumnRef.withoutSource(column.name()))
+            .collect(Collectors.toSet())
+    ));
+
+    // Then:
+    assertThat(node.getRequiredColumns(), is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldNotPassRequiredColumnsIfReferencedColumnsNotKnown() {
+    // Given:
+    final DataSourceNode node = buildNodeWithMockSource();
+
+    // Then:
+    assertThat(node.getRequiredColumns(), is(Optional.empty()));
+  }
+
   private DataSourceNode buildNodeWithMockSource() {
+    return buildNodeWithMockSource(Optional.empty());
+  }
+
+  private DataSourceNode buildNodeWithMockSource(
+      final Optional<Set<ColumnRef>> referencedColumns
+  ) {
     when(dataSource.getSchema()).thenReturn(REAL_SCHEMA);
     when(dataSource.getKeyField()).thenReturn(KEY_FIELD);
     return new DataSourceNode(
@@ -388,6 +457,7 @@ public class DataSourceNodeTest {
         dataSource,
         SourceName.of("name"),
         Collections.emptyList(),
+        referencedColumns,
         schemaKStreamFactory
     );
   }
@@ -2,7 +2,9 @@ package io.confluent.ksql.query;
 
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -65,6 +67,8 @@ import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.clients.producer.RecordMetadata;
 import org.apache.kafka.connect.data.Struct;
 import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.KafkaStreams.State;
+import org.apache.kafka.streams.KafkaStreams.StateListener;
 import org.apache.kafka.streams.StreamsBuilder;
 import org.apache.kafka.streams.StreamsConfig;
 import org.apache.kafka.streams.Topology;
@@ -191,7 +195,8 @@ public class QueryExecutorTest {
         kafkaStreamsBuilder,
         streamsBuilder,
         ksqlMaterializationFactory,
-        ksMaterializationFactory
+        ksMaterializationFactory,
+        new SharedSourceScans()
     );
   }
 
@@ -221,6 +226,29 @@ public class QueryExecutorTest {
     assertThat(queryMetadata.getStreamsProperties(), equalTo(propertyCaptor.getValue()));
   }
 
+  @Test
+  public void shouldNotShareScanIfQueryDoesMoreThanFilterAndProject() {
+    // Given:
+    givenTransientQuery();
+    when(ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_PUSH_SHARED_SCAN_ENABLE_CONFIG))
+        .thenReturn(true);
+
+    // When:
+    final TransientQueryMetadata queryMetadata = queryBuilder.buildTransientQuery(
+        STATEMENT_TEXT,
+        QUERY_ID,
+        SOURCES,
+        physicalPlan,
+        SUMMARY,
+        SINK_SCHEMA,
+        LIMIT
+    );
+
+    // Then:
+    assertThat(queryMetadata, not(instanceOf(SharedScanQueryMetadata.class)));
+    verify(kafkaStreamsBuilder).buildKafkaStreams(any(), any());
+  }
+
   @Test
   public void shouldBuildPersistentQueryCorrectly() {
     // When:
@@ -306,6 +334,28 @@ public class QueryExecutorTest {
     );
   }
 
+  @Test
+  public void shouldConnectKsMaterializationToStreamsStateChanges() {
+    // Given:
+    final PersistentQueryMetadata queryMetadata = queryBuilder.buildQuery(
+        STATEMENT_TEXT,
+        QUERY_ID,
+        sink,
+        SOURCES,
+        physicalPlan,
+        SUMMARY
+    );
+
+    // When:
+    queryMetadata.start();
+
+    // Then:
+    final ArgumentCaptor<StateListener> captor = ArgumentCaptor.forClass(StateListener.class);
+    verify(kafkaStreams).setStateListener(captor.capture());
+    captor.getValue().onChange(State.REBALANCING, State.RUNNING);
+    verify(ksMaterialization).onChange(State.REBALANCING, State.RUNNING);
+  }
+
   @Test
   public void shouldMaterializeCorrectly() {
     // When:
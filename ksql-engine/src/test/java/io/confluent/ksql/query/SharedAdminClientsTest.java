@@ -0,0 +1,162 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.query;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.errors.ProductionExceptionHandlerUtil;
+import java.time.Duration;
+import java.util.Map;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.streams.KafkaClientSupplier;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SharedAdminClientsTest {
+
+  private static final Map<String, Object> CONFIG_A = ImmutableMap.of(
+      AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, "broker:9092",
+      AdminClientConfig.CLIENT_ID_CONFIG, "query_a-admin",
+      ProductionExceptionHandlerUtil.KSQL_PRODUCTION_ERROR_LOGGER, new Object()
+  );
+
+  private static final Map<String, Object> CONFIG_B = ImmutableMap.of(
+      AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, "broker:9092",
+      AdminClientConfig.CLIENT_ID_CONFIG, "query_b-admin",
+      ProductionExceptionHandlerUtil.KSQL_PRODUCTION_ERROR_LOGGER, new Object()
+  );
+
+  @Mock
+  private KafkaClientSupplier delegate;
+  @Mock
+  private Admin admin;
+
+  private SharedAdminClients sharedAdminClients;
+  private KafkaClientSupplier supplier;
+
+  @Before
+  public void setUp() {
+    when(delegate.getAdmin(any())).thenReturn(admin);
+
+    sharedAdminClients = new SharedAdminClients();
+    supplier = sharedAdminClients.wrap(delegate);
+  }
+
+  @Test
+  public void shouldShareClientBetweenQueriesWithSameConfig() {
+    // When:
+    supplier.getAdmin(CONFIG_A);
+    supplier.getAdmin(CONFIG_B);
+
+    // Then:
+    verify(delegate, times(1)).getAdmin(any());
+    assertThat(sharedAdminClients.size(), is(1));
+  }
+
+  @Test
+  public void shouldNotShareClientBetweenQueriesWithDifferentConfig() {
+    // When:
+    supplier.getAdmin(CONFIG_A);
+    supplier.getAdmin(ImmutableMap.of(
+        AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, "other:9092"
+    ));
+
+    // Then:
+    verify(delegate, times(2)).getAdmin(any());
+    assertThat(sharedAdminClients.size(), is(2));
+  }
+
+  @Test
+  public void shouldNotShareClientBetweenSuppliers() {
+    // Given:
+    final KafkaClientSupplier otherDelegate = mock(KafkaClientSupplier.class);
+    when(otherDelegate.getAdmin(any())).thenReturn(mock(Admin.class));
+
+    // When:
+    supplier.getAdmin(CONFIG_A);
+    sharedAdminClients.wrap(otherDelegate).getAdmin(CONFIG_B);
+
+    // Then:
+    assertThat(sharedAdminClients.size(), is(2));
+  }
+
+  @Test
+  public void shouldForwardCallsToSharedClient() {
+    // Given:
+    final Admin handle = supplier.getAdmin(CONFIG_A);
+
+    // When:
+    handle.listTopics();
+
+    // Then:
+    verify(admin).listTopics();
+  }
+
+  @Test
+  public void shouldNotCloseSharedClientWhileInUse() {
+    // Given:
+    final Admin handleA = supplier.getAdmin(CONFIG_A);
+    supplier.getAdmin(CONFIG_B);
+
+    // When:
+    handleA.close();
+    handleA.close();
+
+    // Then:
+    verify(admin, never()).close();
+    assertThat(sharedAdminClients.size(), is(1));
+  }
+
+  @Test
+  public void shouldCloseSharedClientOnceLastHandleClosed() {
+    // Given:
+    final Admin handleA = supplier.getAdmin(CONFIG_A);
+    final Admin handleB = supplier.getAdmin(CONFIG_B);
+    handleA.close();
+
+    // When:
+    handleB.close(Duration.ofSeconds(1));
+
+    // Then:
+    verify(admin).close(Duration.ofSeconds(1));
+    assertThat(sharedAdminClients.size(), is(0));
+  }
+
+  @Test
+  public void shouldCreateNewClientAfterSharedClientClosed() {
+    // Given:
+    supplier.getAdmin(CONFIG_A).close();
+
+    // When:
+    supplier.getAdmin(CONFIG_B);
+
+    // Then:
+    verify(delegate, times(2)).getAdmin(any());
+  }
+}
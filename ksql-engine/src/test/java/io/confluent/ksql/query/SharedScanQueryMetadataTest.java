@@ -0,0 +1,182 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.query;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.streams.PushQueryMapper;
+import io.confluent.ksql.name.ColumnName;
+import io.confluent.ksql.name.SourceName;
+import io.confluent.ksql.query.SharedSourceScans.Scan;
+import io.confluent.ksql.query.SharedSourceScans.ScanApp;
+import io.confluent.ksql.query.SharedSourceScans.Subscriber;
+import io.confluent.ksql.query.TransientQueryQueue.OverflowPolicy;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import io.confluent.ksql.util.QueryMetadata;
+import java.lang.Thread.UncaughtExceptionHandler;
+import java.util.Collections;
+import java.util.OptionalInt;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.Topology;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SharedScanQueryMetadataTest {
+
+  private static final LogicalSchema SCHEMA = LogicalSchema.builder()
+      .noImplicitColumns()
+      .valueColumn(ColumnName.of("col0"), SqlTypes.STRING)
+      .build();
+
+  private static final GenericRow ROW = new GenericRow(ImmutableList.of("a", 1L));
+  private static final GenericRow RESULT = new GenericRow(ImmutableList.of("a"));
+
+  @Mock
+  private Scan scan;
+  @Mock
+  private PushQueryMapper mapper;
+  @Mock
+  private KafkaStreams kafkaStreams;
+  @Mock
+  private Topology topology;
+  @Mock
+  private Consumer<QueryMetadata> closeCallback;
+  @Mock
+  private UncaughtExceptionHandler exceptionHandler;
+  @Mock
+  private Struct key;
+  @Captor
+  private ArgumentCaptor<Subscriber> subscriberCaptor;
+
+  private TransientQueryQueue queue;
+  private SharedScanQueryMetadata query;
+
+  @Before
+  public void setUp() {
+    when(scan.getApp()).thenReturn(new ScanApp(
+        kafkaStreams,
+        "app-id",
+        topology,
+        Collections.emptyMap()
+    ));
+
+    queue = new TransientQueryQueue(OptionalInt.empty(), 10, OverflowPolicy.BLOCK);
+
+    query = new SharedScanQueryMetadata(
+        "statement",
+        SCHEMA,
+        ImmutableSet.of(SourceName.of("S")),
+        "plan",
+        queue,
+        mapper,
+        scan,
+        Collections.emptyMap(),
+        closeCallback
+    );
+  }
+
+  @Test
+  public void shouldAttachToScanOnStart() {
+    // When:
+    query.start();
+
+    // Then:
+    verify(scan).attach(any());
+    verify(kafkaStreams, never()).start();
+  }
+
+  @Test
+  public void shouldQueueMappedRows() throws Exception {
+    // Given:
+    when(mapper.apply(key, ROW)).thenReturn(RESULT);
+    query.start();
+
+    // When:
+    subscriber().accept(key, ROW);
+
+    // Then:
+    assertThat(queue.poll(1, TimeUnit.SECONDS).value, is(RESULT));
+  }
+
+  @Test
+  public void shouldNotQueueFilteredRows() {
+    // Given:
+    when(mapper.apply(key, ROW)).thenReturn(null);
+    query.start();
+
+    // When:
+    subscriber().accept(key, ROW);
+
+    // Then:
+    assertThat(queue.size(), is(0));
+  }
+
+  @Test
+  public void shouldReportErrorsToOwnHandler() {
+    // Given:
+    query.setUncaughtExceptionHandler(exceptionHandler);
+    query.start();
+    final Thread thread = new Thread();
+    final RuntimeException e = new RuntimeException("Boom");
+
+    // When:
+    subscriber().onError(thread, e);
+
+    // Then:
+    verify(exceptionHandler).uncaughtException(thread, e);
+    verify(kafkaStreams, never()).setUncaughtExceptionHandler(any());
+  }
+
+  @Test
+  public void shouldReleaseScanOnceOnClose() {
+    // Given:
+    query.start();
+    final Subscriber subscriber = subscriber();
+
+    // When:
+    query.close();
+    query.close();
+
+    // Then:
+    verify(scan, times(1)).release(subscriber);
+    verify(kafkaStreams, never()).close();
+    assertThat(query.isRunning(), is(false));
+  }
+
+  private Subscriber subscriber() {
+    verify(scan).attach(subscriberCaptor.capture());
+    return subscriberCaptor.getValue();
+  }
+}
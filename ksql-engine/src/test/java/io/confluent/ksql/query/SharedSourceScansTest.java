@@ -0,0 +1,373 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.query;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.context.QueryContext;
+import io.confluent.ksql.execution.plan.DefaultExecutionStepProperties;
+import io.confluent.ksql.execution.plan.Formats;
+import io.confluent.ksql.execution.plan.StreamSource;
+import io.confluent.ksql.name.ColumnName;
+import io.confluent.ksql.name.SourceName;
+import io.confluent.ksql.query.SharedSourceScans.Scan;
+import io.confluent.ksql.query.SharedSourceScans.ScanApp;
+import io.confluent.ksql.query.SharedSourceScans.ScanAppBuilder;
+import io.confluent.ksql.query.SharedSourceScans.Subscriber;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import io.confluent.ksql.serde.KeyFormat;
+import io.confluent.ksql.serde.ValueFormat;
+import io.confluent.ksql.util.timestamp.TimestampExtractionPolicy;
+import java.lang.Thread.UncaughtExceptionHandler;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.streams.KafkaClientSupplier;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.Topology;
+import org.apache.kafka.streams.kstream.ForeachAction;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SharedSourceScansTest {
+
+  private static final LogicalSchema SCHEMA = LogicalSchema.builder()
+      .valueColumn(ColumnName.of("field1"), SqlTypes.STRING)
+      .valueColumn(ColumnName.of("field2"), SqlTypes.BIGINT)
+      .build();
+
+  private static final GenericRow ROW = new GenericRow(ImmutableList.of("a", 1L));
+
+  @Mock
+  private KeyFormat keyFormat;
+  @Mock
+  private ValueFormat valueFormat;
+  @Mock
+  private TimestampExtractionPolicy timestampPolicy;
+  @Mock
+  private KafkaClientSupplier clientSupplier;
+  @Mock
+  private KafkaClientSupplier otherClientSupplier;
+  @Mock
+  private ScanAppBuilder appBuilder;
+  @Mock
+  private KafkaStreams kafkaStreams;
+  @Mock
+  private Topology topology;
+  @Mock
+  private Subscriber subscriber1;
+  @Mock
+  private Subscriber subscriber2;
+  @Mock
+  private Struct key;
+  @Captor
+  private ArgumentCaptor<ForeachAction<Struct, GenericRow>> fanOutCaptor;
+  @Captor
+  private ArgumentCaptor<UncaughtExceptionHandler> handlerCaptor;
+
+  private SharedSourceScans scans;
+
+  @Before
+  public void setUp() {
+    when(appBuilder.build(any(), any(), any())).thenAnswer(inv -> new ScanApp(
+        kafkaStreams,
+        "app-" + inv.getArgument(0),
+        topology,
+        Collections.emptyMap()
+    ));
+
+    scans = new SharedSourceScans();
+  }
+
+  @Test
+  public void shouldShareScanOfSameStream() {
+    // When:
+    final Scan scan1 = scans.acquire(source("topic", Optional.empty()), clientSupplier, appBuilder);
+    final Scan scan2 = scans.acquire(source("topic", Optional.empty()), clientSupplier, appBuilder);
+
+    // Then:
+    assertThat(scan1, is(sameInstance(scan2)));
+    verify(appBuilder, times(1)).build(any(), any(), any());
+    assertThat(scans.size(), is(1));
+  }
+
+  @Test
+  public void shouldShareScanBetweenQueriesRequiringDifferentColumns() {
+    // When:
+    final Scan scan1 = scans.acquire(
+        source("topic", Optional.of(ImmutableList.of(ColumnName.of("field1")))),
+        clientSupplier,
+        appBuilder
+    );
+    final Scan scan2 = scans.acquire(
+        source("topic", Optional.of(ImmutableList.of(ColumnName.of("field2")))),
+        clientSupplier,
+        appBuilder
+    );
+
+    // Then:
+    assertThat(scan1, is(sameInstance(scan2)));
+    verify(appBuilder).build(any(), any(), any());
+  }
+
+  @Test
+  public void shouldScanAllColumns() {
+    // When:
+    scans.acquire(
+        source("topic", Optional.of(ImmutableList.of(ColumnName.of("field1")))),
+        clientSupplier,
+        appBuilder
+    );
+
+    // Then:
+    verify(appBuilder).build(
+        any(),
+        eq(source("topic", SourceName.of("SHARED_SCAN"), Optional.empty())),
+        any()
+    );
+  }
+
+  @Test
+  public void shouldShareScanOfStreamReadUnderDifferentAliases() {
+    // When:
+    final Scan scan1 = scans.acquire(
+        source("topic", SourceName.of("a"), Optional.empty()),
+        clientSupplier,
+        appBuilder
+    );
+    final Scan scan2 = scans.acquire(
+        source("topic", SourceName.of("b"), Optional.empty()),
+        clientSupplier,
+        appBuilder
+    );
+
+    // Then:
+    assertThat(scan1, is(sameInstance(scan2)));
+    verify(appBuilder).build(any(), any(), any());
+  }
+
+  @Test
+  public void shouldNotShareScanBetweenClientSuppliers() {
+    // When:
+    final Scan scan1 = scans.acquire(source("topic", Optional.empty()), clientSupplier, appBuilder);
+    final Scan scan2 =
+        scans.acquire(source("topic", Optional.empty()), otherClientSupplier, appBuilder);
+
+    // Then:
+    assertThat(scan1, is(not(sameInstance(scan2))));
+    verify(appBuilder, times(2)).build(any(), any(), any());
+    assertThat(scans.size(), is(2));
+  }
+
+  @Test
+  public void shouldNotShareScanOfDifferentStreams() {
+    // When:
+    final Scan scan1 = scans.acquire(source("topic", Optional.empty()), clientSupplier, appBuilder);
+    final Scan scan2 = scans.acquire(source("other", Optional.empty()), clientSupplier, appBuilder);
+
+    // Then:
+    assertThat(scan1, is(not(sameInstance(scan2))));
+    assertThat(scans.size(), is(2));
+  }
+
+  @Test
+  public void shouldStartScanOnFirstAttachOnly() {
+    // Given:
+    final Scan scan = scans.acquire(source("topic", Optional.empty()), clientSupplier, appBuilder);
+
+    // When:
+    scan.attach(subscriber1);
+    scan.attach(subscriber2);
+
+    // Then:
+    verify(kafkaStreams, times(1)).start();
+  }
+
+  @Test
+  public void shouldFanOutRowsToAttachedSubscribers() {
+    // Given:
+    final Scan scan = scans.acquire(source("topic", Optional.empty()), clientSupplier, appBuilder);
+    scan.attach(subscriber1);
+    scan.attach(subscriber2);
+
+    // When:
+    fanOut().apply(key, ROW);
+
+    // Then:
+    verify(subscriber1).accept(key, ROW);
+    verify(subscriber2).accept(key, ROW);
+  }
+
+  @Test
+  public void shouldStopFanningOutRowsToReleasedSubscribers() {
+    // Given:
+    final Scan scan = scans.acquire(source("topic", Optional.empty()), clientSupplier, appBuilder);
+    scans.acquire(source("topic", Optional.empty()), clientSupplier, appBuilder);
+    scan.attach(subscriber1);
+    scan.attach(subscriber2);
+
+    // When:
+    scan.release(subscriber1);
+    fanOut().apply(key, ROW);
+
+    // Then:
+    verify(subscriber1, never()).accept(any(), any());
+    verify(subscriber2).accept(key, ROW);
+  }
+
+  @Test
+  public void shouldDetachOnlyTheSubscriberThatFails() {
+    // Given:
+    final Scan scan = scans.acquire(source("topic", Optional.empty()), clientSupplier, appBuilder);
+    scan.attach(subscriber1);
+    scan.attach(subscriber2);
+    final RuntimeException e = new RuntimeException("Boom");
+    doThrow(e).when(subscriber1).accept(key, ROW);
+
+    // When:
+    fanOut().apply(key, ROW);
+    fanOut().apply(key, ROW);
+
+    // Then:
+    verify(subscriber1, times(1)).accept(key, ROW);
+    verify(subscriber1).onError(Thread.currentThread(), e);
+    verify(subscriber2, times(2)).accept(key, ROW);
+  }
+
+  @Test
+  public void shouldNotifySubscribersIfScanFails() {
+    // Given:
+    final Scan scan = scans.acquire(source("topic", Optional.empty()), clientSupplier, appBuilder);
+    scan.attach(subscriber1);
+    scan.attach(subscriber2);
+    final Thread thread = new Thread();
+    final RuntimeException e = new RuntimeException("Boom");
+
+    // When:
+    uncaughtExceptionHandler().uncaughtException(thread, e);
+
+    // Then:
+    verify(subscriber1).onError(thread, e);
+    verify(subscriber2).onError(thread, e);
+  }
+
+  @Test
+  public void shouldStartNewScanIfScanFailed() {
+    // Given:
+    final Scan failed =
+        scans.acquire(source("topic", Optional.empty()), clientSupplier, appBuilder);
+    failed.attach(subscriber1);
+    uncaughtExceptionHandler().uncaughtException(new Thread(), new RuntimeException());
+
+    // When:
+    final Scan scan = scans.acquire(source("topic", Optional.empty()), clientSupplier, appBuilder);
+
+    // Then:
+    assertThat(scan, is(not(sameInstance(failed))));
+    verify(appBuilder, times(2)).build(any(), any(), any());
+  }
+
+  @Test
+  public void shouldNotCloseScanWhileInUse() {
+    // Given:
+    final Scan scan = scans.acquire(source("topic", Optional.empty()), clientSupplier, appBuilder);
+    scans.acquire(source("topic", Optional.empty()), clientSupplier, appBuilder);
+    scan.attach(subscriber1);
+
+    // When:
+    scan.release(subscriber1);
+
+    // Then:
+    verify(kafkaStreams, never()).close();
+    assertThat(scans.size(), is(1));
+  }
+
+  @Test
+  public void shouldCloseScanOnceLastSubscriberReleased() {
+    // Given:
+    final Scan scan = scans.acquire(source("topic", Optional.empty()), clientSupplier, appBuilder);
+    scans.acquire(source("topic", Optional.empty()), clientSupplier, appBuilder);
+    scan.attach(subscriber1);
+    scan.attach(subscriber2);
+    scan.release(subscriber1);
+
+    // When:
+    scan.release(subscriber2);
+
+    // Then:
+    verify(kafkaStreams).close();
+    verify(kafkaStreams).cleanUp();
+    assertThat(scans.size(), is(0));
+  }
+
+  private ForeachAction<Struct, GenericRow> fanOut() {
+    verify(appBuilder).build(any(), any(), fanOutCaptor.capture());
+    return fanOutCaptor.getValue();
+  }
+
+  private UncaughtExceptionHandler uncaughtExceptionHandler() {
+    verify(kafkaStreams).setUncaughtExceptionHandler(handlerCaptor.capture());
+    return handlerCaptor.getValue();
+  }
+
+  private StreamSource source(
+      final String topicName,
+      final Optional<List<ColumnName>> requiredColumns
+  ) {
+    return source(topicName, SourceName.of("alias"), requiredColumns);
+  }
+
+  private StreamSource source(
+      final String topicName,
+      final SourceName alias,
+      final Optional<List<ColumnName>> requiredColumns
+  ) {
+    return new StreamSource(
+        new DefaultExecutionStepProperties(
+            StreamSource.getSchemaWithMetaAndKeyFields(alias, SCHEMA).getSchema(),
+            new QueryContext.Stacker().getQueryContext()
+        ),
+        topicName,
+        Formats.of(keyFormat, valueFormat, Collections.emptySet()),
+        timestampPolicy,
+        1,
+        Optional.empty(),
+        SCHEMA,
+        alias,
+        requiredColumns
+    );
+  }
+}
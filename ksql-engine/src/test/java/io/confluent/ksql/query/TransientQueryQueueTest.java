@@ -16,21 +16,30 @@
 package io.confluent.ksql.query;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.empty;
-import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.query.TransientQueryQueue.OverflowPolicy;
 import io.confluent.ksql.query.TransientQueryQueue.QueuePopulator;
+import io.confluent.ksql.util.KsqlException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.OptionalInt;
-import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import org.apache.kafka.streams.KeyValue;
 import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.Windowed;
+import org.apache.kafka.streams.kstream.internals.TimeWindow;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -44,43 +53,38 @@ import org.mockito.junit.MockitoJUnitRunner;
 public class TransientQueryQueueTest {
 
   private static final int SOME_LIMIT = 4;
+  private static final int SOME_CAPACITY = 100;
   private static final GenericRow ROW_ONE = mock(GenericRow.class);
   private static final GenericRow ROW_TWO = mock(GenericRow.class);
 
   @Mock
   private LimitHandler limitHandler;
   @Mock
-  private KStream<String, GenericRow> kStreamsApp;
+  private KStream<Object, GenericRow> kStreamsApp;
   @Captor
-  private ArgumentCaptor<QueuePopulator<String>> queuePopulatorCaptor;
-  private Queue<KeyValue<String, GenericRow>> queue;
-  private QueuePopulator<String> queuePopulator;
+  private ArgumentCaptor<QueuePopulator<Object>> queuePopulatorCaptor;
+  private TransientQueryQueue queue;
+  private QueuePopulator<Object> queuePopulator;
 
   @Before
   public void setUp() {
-    final TransientQueryQueue queuer =
-        new TransientQueryQueue(kStreamsApp, OptionalInt.of(SOME_LIMIT));
-
-    queuer.setLimitHandler(limitHandler);
-
-    queue = queuer.getQueue();
-
-    verify(kStreamsApp).foreach(queuePopulatorCaptor.capture());
-    queuePopulator = queuePopulatorCaptor.getValue();
+    givenQueue(OptionalInt.of(SOME_LIMIT), SOME_CAPACITY, OverflowPolicy.BLOCK);
   }
 
   @Test
-  public void shouldQueue() {
+  public void shouldQueue() throws Exception {
     // When:
     queuePopulator.apply("key1", ROW_ONE);
     queuePopulator.apply("key2", ROW_TWO);
 
     // Then:
-    assertThat(queue, hasSize(2));
-    assertThat(queue.peek().key, is("key1"));
-    assertThat(queue.remove().value, is(ROW_ONE));
-    assertThat(queue.peek().key, is("key2"));
-    assertThat(queue.remove().value, is(ROW_TWO));
+    assertThat(queue.size(), is(2));
+    final KeyValue<String, GenericRow> first = queue.poll(1, TimeUnit.SECONDS);
+    assertThat(first.key, is("key1"));
+    assertThat(first.value, is(ROW_ONE));
+    final KeyValue<String, GenericRow> second = queue.poll(1, TimeUnit.SECONDS);
+    assertThat(second.key, is("key2"));
+    assertThat(second.value, is(ROW_TWO));
   }
 
   @Test
@@ -89,7 +93,7 @@ public class TransientQueryQueueTest {
     queuePopulator.apply("key1", null);
 
     // Then:
-    assertThat(queue, is(empty()));
+    assertThat(queue.size(), is(0));
   }
 
   @Test
@@ -99,7 +103,7 @@ public class TransientQueryQueueTest {
         .forEach(idx -> queuePopulator.apply("key1", ROW_ONE));
 
     // Then:
-    assertThat(queue, hasSize(SOME_LIMIT));
+    assertThat(queue.size(), is(SOME_LIMIT));
   }
 
   @Test
@@ -131,4 +135,120 @@ public class TransientQueryQueueTest {
     // Then:
     verify(limitHandler, times(1)).limitReached();
   }
-}
\ No newline at end of file
+
+  @Test
+  public void shouldReturnNullIfNoRowQueuedBeforeTimeout() throws Exception {
+    assertThat(queue.poll(1, TimeUnit.MILLISECONDS), is(nullValue()));
+  }
+
+  @Test
+  public void shouldDrainRowsInOrderAfterWrapping() throws Exception {
+    // Given:
+    givenQueue(OptionalInt.empty(), 3, OverflowPolicy.BLOCK);
+    queuePopulator.apply("key0", ROW_ONE);
+    queuePopulator.apply("key1", ROW_ONE);
+    queue.poll(1, TimeUnit.SECONDS);
+    queue.poll(1, TimeUnit.SECONDS);
+    queuePopulator.apply("key2", ROW_ONE);
+    queuePopulator.apply("key3", ROW_ONE);
+    queuePopulator.apply("key4", ROW_TWO);
+
+    // When:
+    final List<KeyValue<String, GenericRow>> drained = new ArrayList<>();
+    final int count = queue.drainTo(drained);
+
+    // Then:
+    assertThat(count, is(3));
+    assertThat(keys(drained), contains("key2", "key3", "key4"));
+    assertThat(drained.get(2).value, is(ROW_TWO));
+    assertThat(queue.size(), is(0));
+  }
+
+  @Test
+  public void shouldDropOldestRowsWhenFull() {
+    // Given:
+    givenQueue(OptionalInt.empty(), 2, OverflowPolicy.DROP_OLDEST);
+
+    // When:
+    queuePopulator.apply("key1", ROW_ONE);
+    queuePopulator.apply("key2", ROW_ONE);
+    queuePopulator.apply("key3", ROW_ONE);
+
+    // Then:
+    final List<KeyValue<String, GenericRow>> drained = new ArrayList<>();
+    queue.drainTo(drained);
+    assertThat(keys(drained), contains("key2", "key3"));
+  }
+
+  @Test(expected = KsqlException.class)
+  public void shouldFailWhenFullIfConfiguredTo() {
+    // Given:
+    givenQueue(OptionalInt.empty(), 1, OverflowPolicy.FAIL);
+    queuePopulator.apply("key1", ROW_ONE);
+
+    // When:
+    queuePopulator.apply("key2", ROW_ONE);
+  }
+
+  @Test
+  public void shouldReleaseBlockedProducerOnClose() throws Exception {
+    // Given:
+    givenQueue(OptionalInt.empty(), 1, OverflowPolicy.BLOCK);
+    queuePopulator.apply("key1", ROW_ONE);
+
+    final Thread producer = new Thread(() -> queuePopulator.apply("key2", ROW_TWO));
+    producer.start();
+
+    // When:
+    queue.close();
+
+    // Then:
+    producer.join(TimeUnit.SECONDS.toMillis(30));
+    assertThat(producer.isAlive(), is(false));
+    assertThat(queue.size(), is(1));
+  }
+
+  @Test
+  public void shouldDiscardRowsQueuedAfterClose() {
+    // Given:
+    queue.close();
+
+    // When:
+    queuePopulator.apply("key1", ROW_ONE);
+
+    // Then:
+    final List<KeyValue<String, GenericRow>> drained = new ArrayList<>();
+    assertThat(queue.drainTo(drained), is(0));
+    assertThat(drained, is(empty()));
+  }
+
+  @Test
+  public void shouldStringifyWindowedKeys() throws Exception {
+    // Given:
+    final Windowed<String> key = new Windowed<>("key1", new TimeWindow(10, 20));
+
+    // When:
+    queuePopulator.apply(key, ROW_ONE);
+
+    // Then:
+    assertThat(queue.poll(1, TimeUnit.SECONDS).key, is("key1 : " + key.window()));
+  }
+
+  private void givenQueue(
+      final OptionalInt limit,
+      final int capacity,
+      final OverflowPolicy overflowPolicy
+  ) {
+    queue = new TransientQueryQueue(kStreamsApp, limit, capacity, overflowPolicy);
+    queue.setLimitHandler(limitHandler);
+
+    verify(kStreamsApp, atLeastOnce()).foreach(queuePopulatorCaptor.capture());
+    queuePopulator = queuePopulatorCaptor.getValue();
+  }
+
+  private static List<String> keys(final List<KeyValue<String, GenericRow>> rows) {
+    return rows.stream()
+        .map(row -> row.key)
+        .collect(Collectors.toList());
+  }
+}
@@ -260,6 +260,23 @@ public class SchemaKStreamTest {
         is(KeyField.of(ColumnRef.withoutSource(ColumnName.of("NEWKEY")))));
   }
 
+  @Test
+  public void shouldUseRowKeyAliasAsKeyIfKeyFieldNotSelected() {
+    // Given:
+    final PlanNode logicalPlan = givenInitialKStreamOf(
+        "SELECT ROWKEY as NEWKEY, col2, col3 FROM test1 EMIT CHANGES;");
+    final ProjectNode projectNode = (ProjectNode) logicalPlan.getSources().get(0);
+    final List<SelectExpression> selectExpressions = projectNode.getSelectExpressions();
+
+    // When:
+    final SchemaKStream result = initialSchemaKStream
+        .select(selectExpressions, SELECT_NODE_NAME, childContextStacker, queryBuilder);
+
+    // Then:
+    assertThat(result.getKeyField(),
+        is(KeyField.of(ColumnRef.withoutSource(ColumnName.of("NEWKEY")))));
+  }
+
   @Test
   public void shouldPreserveKeyOnSelectStar() {
     // Given:
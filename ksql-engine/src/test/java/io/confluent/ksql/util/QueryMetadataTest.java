@@ -33,10 +33,12 @@ import java.util.Set;
 import java.util.function.Consumer;
 import org.apache.kafka.streams.KafkaStreams;
 import org.apache.kafka.streams.KafkaStreams.State;
+import org.apache.kafka.streams.KafkaStreams.StateListener;
 import org.apache.kafka.streams.Topology;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
@@ -57,6 +59,8 @@ public class QueryMetadataTest {
   @Mock
   private QueryStateListener listener;
   @Mock
+  private StateListener otherListener;
+  @Mock
   private Consumer<QueryMetadata> closeCallback;
   private QueryMetadata query;
 
@@ -97,7 +101,25 @@ public class QueryMetadataTest {
     query.start();
 
     // Then:
-    verify(kafkaStreams).setStateListener(listener);
+    final StateListener streamsListener = captureStreamsListener();
+    streamsListener.onChange(State.RUNNING, State.REBALANCING);
+    verify(listener).onChange(State.RUNNING, State.REBALANCING);
+  }
+
+  @Test
+  public void shouldConnectAllRegisteredListenersToStreamAppOnStart() {
+    // Given:
+    query.registerQueryStateListener(listener);
+    query.registerStateListener(otherListener);
+
+    // When:
+    query.start();
+
+    // Then:
+    final StateListener streamsListener = captureStreamsListener();
+    streamsListener.onChange(State.REBALANCING, State.RUNNING);
+    verify(listener).onChange(State.REBALANCING, State.RUNNING);
+    verify(otherListener).onChange(State.REBALANCING, State.RUNNING);
   }
 
   @Test
@@ -155,4 +177,10 @@ public class QueryMetadataTest {
   public void shouldReturnSchema() {
     assertThat(query.getLogicalSchema(), is(SOME_SCHEMA));
   }
+
+  private StateListener captureStreamsListener() {
+    final ArgumentCaptor<StateListener> captor = ArgumentCaptor.forClass(StateListener.class);
+    verify(kafkaStreams).setStateListener(captor.capture());
+    return captor.getValue();
+  }
 }
@@ -23,6 +23,7 @@ import io.confluent.ksql.execution.context.QueryContext;
 import io.confluent.ksql.execution.context.QueryLoggerUtil;
 import io.confluent.ksql.function.FunctionRegistry;
 import io.confluent.ksql.logging.processing.ProcessingLogContext;
+import io.confluent.ksql.name.ColumnName;
 import io.confluent.ksql.query.QueryId;
 import io.confluent.ksql.schema.ksql.PersistenceSchema;
 import io.confluent.ksql.schema.ksql.PhysicalSchema;
@@ -33,11 +34,14 @@ import io.confluent.ksql.serde.KeySerde;
 import io.confluent.ksql.serde.KeySerdeFactory;
 import io.confluent.ksql.serde.ValueSerdeFactory;
 import io.confluent.ksql.serde.WindowInfo;
+import io.confluent.ksql.serde.compact.CompactRowSerdeFactory;
 import io.confluent.ksql.services.ServiceContext;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.QuerySchemas;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.connect.data.Struct;
 import org.apache.kafka.streams.StreamsBuilder;
@@ -52,6 +56,7 @@ public final class KsqlQueryBuilder {
   private final FunctionRegistry functionRegistry;
   private final KeySerdeFactory keySerdeFactory;
   private final ValueSerdeFactory valueSerdeFactory;
+  private final ValueSerdeFactory stateSerdeFactory;
   private final QueryId queryId;
   private final LinkedHashMap<String, PersistenceSchema> schemas = new LinkedHashMap<>();
   private final AtomicInteger nodeIdGenerator = new AtomicInteger();
@@ -68,7 +73,8 @@ public final class KsqlQueryBuilder {
         functionRegistry,
         queryId,
         new GenericKeySerDe(),
-        new GenericRowSerDe()
+        new GenericRowSerDe(),
+        new CompactRowSerdeFactory()
     );
   }
 
@@ -76,7 +82,8 @@ public final class KsqlQueryBuilder {
   KsqlQueryBuilder(
       StreamsBuilder streamsBuilder, KsqlConfig ksqlConfig, ServiceContext serviceContext,
       ProcessingLogContext processingLogContext, FunctionRegistry functionRegistry, QueryId queryId,
-      KeySerdeFactory keySerdeFactory, ValueSerdeFactory valueSerdeFactory
+      KeySerdeFactory keySerdeFactory, ValueSerdeFactory valueSerdeFactory,
+      ValueSerdeFactory stateSerdeFactory
   ) {
     this.streamsBuilder = requireNonNull(streamsBuilder, "streamsBuilder");
     this.ksqlConfig = requireNonNull(ksqlConfig, "ksqlConfig");
@@ -86,6 +93,7 @@ public final class KsqlQueryBuilder {
     this.queryId = requireNonNull(queryId, "queryId");
     this.keySerdeFactory = requireNonNull(keySerdeFactory, "keySerdeFactory");
     this.valueSerdeFactory = requireNonNull(valueSerdeFactory, "valueSerdeFactory");
+    this.stateSerdeFactory = requireNonNull(stateSerdeFactory, "stateSerdeFactory");
   }
 
   public ProcessingLogContext getProcessingLogContext() {
@@ -180,6 +188,50 @@ public final class KsqlQueryBuilder {
     );
   }
 
+  public Serde<GenericRow> buildValueSerde(
+      FormatInfo format,
+      PhysicalSchema schema,
+      QueryContext queryContext,
+      List<ColumnName> requiredColumns
+  ) {
+    String loggerNamePrefix = QueryLoggerUtil.queryLoggerName(queryId, queryContext);
+
+    track(loggerNamePrefix, schema.valueSchema());
+
+    return valueSerdeFactory.create(
+        format,
+        schema.valueSchema(),
+        ksqlConfig,
+        serviceContext.getSchemaRegistryClientFactory(),
+        loggerNamePrefix,
+        processingLogContext,
+        requiredColumns.stream()
+            .map(ColumnName::name)
+            .collect(Collectors.toSet())
+    );
+  }
+
+  public Serde<GenericRow> buildStateSerde(
+      FormatInfo format, PhysicalSchema schema, QueryContext queryContext
+  ) {
+    if (!ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_AGGREGATE_STATE_COMPACT_ENABLE_CONFIG)) {
+      return buildValueSerde(format, schema, queryContext);
+    }
+
+    String loggerNamePrefix = QueryLoggerUtil.queryLoggerName(queryId, queryContext);
+
+    track(loggerNamePrefix, schema.valueSchema());
+
+    return stateSerdeFactory.create(
+        format,
+        schema.valueSchema(),
+        ksqlConfig,
+        serviceContext.getSchemaRegistryClientFactory(),
+        loggerNamePrefix,
+        processingLogContext
+    );
+  }
+
   private void track(String loggerNamePrefix, PersistenceSchema schema) {
     if (schemas.containsKey(loggerNamePrefix)) {
       throw new IllegalStateException("Schema with tracked:" + loggerNamePrefix);
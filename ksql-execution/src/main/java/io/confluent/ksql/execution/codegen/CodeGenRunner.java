@@ -16,6 +16,9 @@
 package io.confluent.ksql.execution.codegen;
 
 import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.execution.codegen.CodeGenSpec.ArgumentSpec;
+import io.confluent.ksql.execution.codegen.RowProjector.CompiledProjection;
+import io.confluent.ksql.execution.codegen.RowProjector.ErrorHandler;
 import io.confluent.ksql.execution.expression.tree.ColumnReferenceExp;
 import io.confluent.ksql.execution.expression.tree.DereferenceExpression;
 import io.confluent.ksql.execution.expression.tree.Expression;
@@ -28,6 +31,7 @@ import io.confluent.ksql.execution.util.ExpressionTypeManager;
 import io.confluent.ksql.function.FunctionRegistry;
 import io.confluent.ksql.function.KsqlScalarFunction;
 import io.confluent.ksql.function.UdfFactory;
+import io.confluent.ksql.function.udf.Kudf;
 import io.confluent.ksql.name.FunctionName;
 import io.confluent.ksql.schema.ksql.Column;
 import io.confluent.ksql.schema.ksql.ColumnRef;
@@ -39,12 +43,14 @@ import io.confluent.ksql.schema.ksql.types.SqlTypes;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.codehaus.commons.compiler.CompileException;
-import org.codehaus.commons.compiler.CompilerFactoryFactory;
 import org.codehaus.commons.compiler.IExpressionEvaluator;
 
 public class CodeGenRunner {
@@ -52,9 +58,16 @@ public class CodeGenRunner {
   private static final SqlToJavaTypeConverter SQL_TO_JAVA_TYPE_CONVERTER =
       SchemaConverters.sqlToJavaConverter();
 
+  private static final List<String> PROJECTOR_IMPORTS = ImmutableList.<String>builder()
+      .addAll(SqlToJavaVisitor.JAVA_IMPORTS)
+      .add(Kudf.class.getCanonicalName())
+      .add(ErrorHandler.class.getCanonicalName())
+      .build();
+
   private final LogicalSchema schema;
   private final FunctionRegistry functionRegistry;
   private final ExpressionTypeManager expressionTypeManager;
+  private final CompiledExpressionCache compiledExpressionCache;
   private final KsqlConfig ksqlConfig;
 
   public static List<ExpressionMetadata> compileExpressions(
@@ -75,6 +88,7 @@ public class CodeGenRunner {
     this.schema = Objects.requireNonNull(schema, "schema");
     this.ksqlConfig = Objects.requireNonNull(ksqlConfig, "ksqlConfig");
     this.expressionTypeManager = new ExpressionTypeManager(schema, functionRegistry);
+    this.compiledExpressionCache = CompiledExpressionCache.of(ksqlConfig);
   }
 
   public CodeGenSpec getCodeGenSpec(Expression expression) {
@@ -85,6 +99,16 @@ public class CodeGenRunner {
     return visitor.spec.build();
   }
 
+  /**
+   * Resolve the type of the supplied expression, without compiling it.
+   *
+   * @param expression the expression.
+   * @return the type the expression evaluates to.
+   */
+  public SqlType getExpressionType(Expression expression) {
+    return expressionTypeManager.getExpressionSqlType(expression);
+  }
+
   public ExpressionMetadata buildCodeGenFromParseTree(Expression expression, String type) {
     try {
       CodeGenSpec spec = getCodeGenSpec(expression);
@@ -94,17 +118,16 @@ public class CodeGenRunner {
           spec
       ).process(expression);
 
-      IExpressionEvaluator ee =
-          CompilerFactoryFactory.getDefaultCompilerFactory().newExpressionEvaluator();
-      ee.setDefaultImports(SqlToJavaVisitor.JAVA_IMPORTS.toArray(new String[0]));
-      ee.setParameters(spec.argumentNames(), spec.argumentTypes());
-
       SqlType expressionType = expressionTypeManager
           .getExpressionSqlType(expression);
 
-      ee.setExpressionType(SQL_TO_JAVA_TYPE_CONVERTER.toJavaType(expressionType));
-
-      ee.cook(javaCode);
+      IExpressionEvaluator ee = compiledExpressionCache.expressionEvaluator(
+          javaCode,
+          SqlToJavaVisitor.JAVA_IMPORTS,
+          spec.argumentNames(),
+          spec.argumentTypes(),
+          SQL_TO_JAVA_TYPE_CONVERTER.toJavaType(expressionType)
+      );
 
       return new ExpressionMetadata(
           ee,
@@ -122,6 +145,161 @@ public class CodeGenRunner {
     }
   }
 
+  /**
+   * Compile the supplied expressions into a single class that evaluates them all.
+   *
+   * @param expressions the expressions to compile.
+   * @param type the type of the expressions, used in error messages.
+   * @return the projector.
+   */
+  public RowProjector buildRowProjector(List<Expression> expressions, String type) {
+    return buildRowProjector(Optional.empty(), expressions, type);
+  }
+
+  /**
+   * Compile the supplied filter and expressions into a single class that evaluates them all.
+   *
+   * <p>The expressions are only evaluated for rows that pass the filter. Each column is read from
+   * the row once and shared between the filter and the expressions.
+   *
+   * @param filter the optional filter to apply before evaluating the expressions.
+   * @param expressions the expressions to compile.
+   * @param type the type of the expressions, used in error messages.
+   * @return the projector.
+   */
+  public RowProjector buildRowProjector(
+      Optional<Expression> filter,
+      List<Expression> expressions,
+      String type
+  ) {
+    try {
+      StringBuilder columns = new StringBuilder();
+      StringBuilder body = new StringBuilder();
+      StringBuilder methods = new StringBuilder();
+      Set<Integer> columnsRead = new HashSet<>();
+      List<Kudf> functions = new ArrayList<>();
+
+      if (filter.isPresent()) {
+        String call = generateMethod(
+            filter.get(), "filter", boolean.class, methods, columns, columnsRead, functions);
+
+        body
+            .append("  try {\n")
+            .append("    if (!").append(call).append(") {\n")
+            .append("      return false;\n")
+            .append("    }\n")
+            .append("  } catch (Exception e) {\n")
+            .append("    errorHandler.onError(").append(RowProjector.FILTER_INDEX).append(", e);\n")
+            .append("    return false;\n")
+            .append("  }\n");
+      }
+
+      for (int idx = 0; idx < expressions.size(); idx++) {
+        Expression expression = expressions.get(idx);
+        Class<?> expressionType = SQL_TO_JAVA_TYPE_CONVERTER.toJavaType(
+            expressionTypeManager.getExpressionSqlType(expression));
+
+        String call = generateMethod(
+            expression, "expression" + idx, expressionType, methods, columns, columnsRead,
+            functions);
+
+        body
+            .append("  try {\n")
+            .append("    results.add(").append(call).append(");\n")
+            .append("  } catch (Exception e) {\n")
+            .append("    results.add(null);\n")
+            .append("    errorHandler.onError(").append(idx).append(", e);\n")
+            .append("  }\n");
+      }
+
+      String code = "public boolean project(java.util.List columns, Kudf[] functions, "
+          + "java.util.List results, ErrorHandler errorHandler) {\n"
+          + columns
+          + body
+          + "  return true;\n"
+          + "}\n\n"
+          + methods;
+
+      CompiledProjection projection = (CompiledProjection) compiledExpressionCache
+          .classBody(code, PROJECTOR_IMPORTS, CompiledProjection.class)
+          .getDeclaredConstructor()
+          .newInstance();
+
+      return new RowProjector(
+          projection,
+          functions.toArray(new Kudf[0]),
+          expressions.size()
+      );
+    } catch (KsqlException | CompileException e) {
+      throw new KsqlException("Code generation failed for " + type
+          + ": " + e.getMessage()
+          + ". filter:" + filter.orElse(null)
+          + ", expressions:" + expressions + ", schema:" + schema, e);
+    } catch (Exception e) {
+      throw new RuntimeException("Unexpected error generating code for " + type
+          + ". filter:" + filter.orElse(null)
+          + ", expressions:" + expressions, e);
+    }
+  }
+
+  /**
+   * Generate a static method that evaluates the supplied expression.
+   *
+   * <p>Each expression is compiled into its own method, as the argument names used within the
+   * code of different expressions can clash. Any column the method needs that has not already
+   * been read from the row is read into a local variable, so that it can be shared with later
+   * expressions. Columns are read as objects and only cast within the call, so that a failed
+   * cast is handled like any other failure of the expression.
+   *
+   * @return the code to call the method.
+   */
+  private String generateMethod(
+      Expression expression,
+      String methodName,
+      Class<?> returnType,
+      StringBuilder methods,
+      StringBuilder columns,
+      Set<Integer> columnsRead,
+      List<Kudf> functions
+  ) {
+    CodeGenSpec spec = getCodeGenSpec(expression);
+    String javaCode = SqlToJavaVisitor.of(
+        schema,
+        functionRegistry,
+        spec
+    ).process(expression);
+
+    List<String> params = new ArrayList<>();
+    List<String> args = new ArrayList<>();
+    for (ArgumentSpec arg : spec.arguments()) {
+      if (arg.colIndex().isPresent()) {
+        int colIndex = arg.colIndex().getAsInt();
+        if (columnsRead.add(colIndex)) {
+          columns
+              .append("  Object column").append(colIndex)
+              .append(" = columns.get(").append(colIndex).append(");\n");
+        }
+
+        String javaType = arg.type().getCanonicalName();
+        params.add(javaType + " " + arg.name());
+        args.add("(" + javaType + ") column" + colIndex);
+      } else {
+        params.add("Kudf " + arg.name());
+        args.add("functions[" + functions.size() + "]");
+        functions.add(arg.kudf().get());
+      }
+    }
+
+    methods
+        .append("private static ").append(returnType.getCanonicalName())
+        .append(" ").append(methodName)
+        .append("(").append(String.join(", ", params)).append(") {\n")
+        .append("  return ").append(javaCode).append(";\n")
+        .append("}\n\n");
+
+    return methodName + "(" + String.join(", ", args) + ")";
+  }
+
   private static final class Visitor extends TraversalExpressionVisitor<Void> {
 
     private final CodeGenSpec.Builder spec;
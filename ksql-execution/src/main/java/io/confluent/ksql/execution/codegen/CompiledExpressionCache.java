@@ -0,0 +1,386 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.codegen;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.confluent.ksql.util.KsqlConfig;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.kafka.streams.StreamsConfig;
+import org.codehaus.commons.compiler.CompileException;
+import org.codehaus.commons.compiler.CompilerFactoryFactory;
+import org.codehaus.commons.compiler.IClassBodyEvaluator;
+import org.codehaus.commons.compiler.IExpressionEvaluator;
+import org.codehaus.janino.ByteArrayClassLoader;
+import org.codehaus.janino.ClassLoaderIClassLoader;
+import org.codehaus.janino.Java;
+import org.codehaus.janino.Parser;
+import org.codehaus.janino.Scanner;
+import org.codehaus.janino.UnitCompiler;
+import org.codehaus.janino.util.ClassFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A cache of compiled code, shared by all queries.
+ *
+ * <p>Compiling generated code with Janino is relatively expensive, and the same expressions are
+ * frequently compiled many times, e.g. by different queries over the same source, or when the
+ * statements in the command topic are replayed on startup. Cooked evaluators are immutable and
+ * safe to share between threads, so identical code need only be compiled once.
+ *
+ * <p>Entries are keyed on the generated source code along with everything else passed to the
+ * compiler, i.e. the parameter names and types and the result type. The least recently used
+ * entries are evicted once the cache is full.
+ *
+ * <p>If enabled, the bytecode of compiled classes is also written to a directory under the
+ * streams state dir, so that a restarted server can load it rather than compiling it again.
+ * Only classes compiled from a class body are written: a cooked expression evaluator holds its
+ * compiled method internally and can not be rebuilt from bytecode.
+ */
+public final class CompiledExpressionCache {
+
+  private static final Logger LOG = LoggerFactory.getLogger(CompiledExpressionCache.class);
+
+  private static final String DISK_CACHE_DIR = "ksql-codegen-cache";
+  private static final String GENERATED_CLASS_NAME = "KsqlGeneratedClass";
+  private static final int DISK_FORMAT_VERSION = 1;
+
+  private static final CompiledExpressionCache DISABLED =
+      new CompiledExpressionCache(0, Optional.empty());
+
+  private static final Map<List<Object>, CompiledExpressionCache> SHARED =
+      new ConcurrentHashMap<>();
+
+  private final Cache<List<Object>, Object> cache;
+  private final Optional<Path> diskDir;
+  private final AtomicLong diskHits = new AtomicLong();
+
+  /**
+   * Get the cache to use for the supplied config.
+   *
+   * <p>Configs with the same cache settings share the same cache.
+   *
+   * @param ksqlConfig the config.
+   * @return the shared cache, or one that caches nothing if caching is disabled.
+   */
+  public static CompiledExpressionCache of(KsqlConfig ksqlConfig) {
+    if (!ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_CODEGEN_CACHE_ENABLE_CONFIG)) {
+      return DISABLED;
+    }
+
+    int maxEntries = ksqlConfig.getInt(KsqlConfig.KSQL_QUERY_CODEGEN_CACHE_MAX_ENTRIES_CONFIG);
+    Optional<Path> diskDir =
+        ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_CODEGEN_CACHE_DISK_ENABLE_CONFIG)
+            ? Optional.of(Paths.get(stateDir(ksqlConfig), DISK_CACHE_DIR))
+            : Optional.empty();
+
+    return SHARED.computeIfAbsent(
+        ImmutableList.of(maxEntries, diskDir),
+        k -> new CompiledExpressionCache(maxEntries, diskDir)
+    );
+  }
+
+  /**
+   * @return the stats of all shared caches combined.
+   */
+  public static CacheStats sharedStats() {
+    return SHARED.values().stream()
+        .map(CompiledExpressionCache::stats)
+        .reduce(new CacheStats(0, 0, 0, 0, 0, 0), CacheStats::plus);
+  }
+
+  /**
+   * @return the number of entries in all shared caches combined.
+   */
+  public static long sharedSize() {
+    return SHARED.values().stream()
+        .mapToLong(CompiledExpressionCache::size)
+        .sum();
+  }
+
+  /**
+   * @return the number of compilations of all shared caches that were avoided by loading the
+   *     class from disk.
+   */
+  public static long sharedDiskHitCount() {
+    return SHARED.values().stream()
+        .mapToLong(CompiledExpressionCache::diskHitCount)
+        .sum();
+  }
+
+  @VisibleForTesting
+  CompiledExpressionCache(int maxEntries, Optional<Path> diskDir) {
+    this.cache = CacheBuilder.newBuilder()
+        .maximumSize(maxEntries)
+        .recordStats()
+        .build();
+    this.diskDir = diskDir;
+  }
+
+  /**
+   * Get a cooked expression evaluator for the supplied expression, compiling it if required.
+   *
+   * @param javaCode the code of the expression.
+   * @param imports the default imports.
+   * @param parameterNames the names of the expression's parameters.
+   * @param parameterTypes the types of the expression's parameters.
+   * @param expressionType the type the expression evaluates to.
+   * @return the evaluator.
+   * @throws CompileException if the expression fails to compile.
+   */
+  public IExpressionEvaluator expressionEvaluator(
+      String javaCode,
+      List<String> imports,
+      String[] parameterNames,
+      Class<?>[] parameterTypes,
+      Class<?> expressionType
+  ) throws CompileException {
+    List<Object> key = ImmutableList.of(
+        javaCode,
+        imports,
+        Arrays.asList(parameterNames),
+        Arrays.asList(parameterTypes),
+        expressionType
+    );
+
+    return (IExpressionEvaluator) get(key, () -> {
+      IExpressionEvaluator ee =
+          CompilerFactoryFactory.getDefaultCompilerFactory().newExpressionEvaluator();
+      ee.setDefaultImports(imports.toArray(new String[0]));
+      ee.setParameters(parameterNames, parameterTypes);
+      ee.setExpressionType(expressionType);
+      ee.cook(javaCode);
+      return ee;
+    });
+  }
+
+  /**
+   * Get the class compiled from the supplied class body, compiling it if required.
+   *
+   * @param classBody the body of the class.
+   * @param imports the default imports.
+   * @param implementedInterface the interface the class implements.
+   * @return the class.
+   * @throws CompileException if the class fails to compile.
+   */
+  public Class<?> classBody(
+      String classBody,
+      List<String> imports,
+      Class<?> implementedInterface
+  ) throws CompileException {
+    List<Object> key = ImmutableList.of(classBody, imports, implementedInterface);
+
+    return (Class<?>) get(key, () -> {
+      if (diskDir.isPresent()) {
+        return loadOrCompile(diskDir.get(), classBody, imports, implementedInterface);
+      }
+
+      IClassBodyEvaluator cbe =
+          CompilerFactoryFactory.getDefaultCompilerFactory().newClassBodyEvaluator();
+      cbe.setDefaultImports(imports.toArray(new String[0]));
+      cbe.setImplementedInterfaces(new Class<?>[]{implementedInterface});
+      cbe.cook(classBody);
+      return cbe.getClazz();
+    });
+  }
+
+  @VisibleForTesting
+  CacheStats stats() {
+    return cache.stats();
+  }
+
+  @VisibleForTesting
+  long size() {
+    return cache.size();
+  }
+
+  @VisibleForTesting
+  long diskHitCount() {
+    return diskHits.get();
+  }
+
+  private Object get(
+      List<Object> key,
+      Callable<Object> compiler
+  ) throws CompileException {
+    try {
+      return cache.get(key, compiler);
+    } catch (ExecutionException | UncheckedExecutionException | ExecutionError e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof CompileException) {
+        throw (CompileException) cause;
+      }
+      Throwables.throwIfUnchecked(cause);
+      throw new RuntimeException(cause);
+    }
+  }
+
+  private Class<?> loadOrCompile(
+      Path dir,
+      String classBody,
+      List<String> imports,
+      Class<?> implementedInterface
+  ) throws CompileException, IOException, ClassNotFoundException {
+    String source = compilationUnit(classBody, imports, implementedInterface);
+    Path file = dir.resolve(Hashing.sha256().hashString(source, StandardCharsets.UTF_8) + ".bin");
+    ClassLoader parent = Thread.currentThread().getContextClassLoader();
+
+    Optional<Map<String, byte[]>> stored = read(file, source);
+    if (stored.isPresent()) {
+      diskHits.incrementAndGet();
+      return new ByteArrayClassLoader(stored.get(), parent).loadClass(GENERATED_CLASS_NAME);
+    }
+
+    Map<String, byte[]> classes = compile(source, parent);
+    write(file, source, classes);
+    return new ByteArrayClassLoader(classes, parent).loadClass(GENERATED_CLASS_NAME);
+  }
+
+  private static String compilationUnit(
+      String classBody,
+      List<String> imports,
+      Class<?> implementedInterface
+  ) {
+    StringBuilder source = new StringBuilder();
+    imports.forEach(i -> source.append("import ").append(i).append(";\n"));
+    return source
+        .append("\npublic final class ").append(GENERATED_CLASS_NAME)
+        .append(" implements ").append(implementedInterface.getCanonicalName()).append(" {\n")
+        .append(classBody)
+        .append("\n}\n")
+        .toString();
+  }
+
+  private static Map<String, byte[]> compile(
+      String source,
+      ClassLoader parent
+  ) throws CompileException, IOException {
+    Java.CompilationUnit unit =
+        new Parser(new Scanner(null, new StringReader(source))).parseCompilationUnit();
+
+    ClassFile[] classFiles = new UnitCompiler(unit, new ClassLoaderIClassLoader(parent))
+        .compileUnit(false, true, false);
+
+    Map<String, byte[]> classes = new HashMap<>();
+    for (ClassFile classFile : classFiles) {
+      classes.put(classFile.getThisClassName(), classFile.toByteArray());
+    }
+    return classes;
+  }
+
+  /**
+   * Read the classes stored in {@code file}, if it exists and was compiled from {@code source}.
+   *
+   * <p>Unreadable files are ignored, as the classes can always be compiled again.
+   */
+  private static Optional<Map<String, byte[]>> read(Path file, String source) {
+    if (!Files.exists(file)) {
+      return Optional.empty();
+    }
+
+    try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+      if (in.readInt() != DISK_FORMAT_VERSION || !source.equals(readString(in))) {
+        return Optional.empty();
+      }
+
+      int count = in.readInt();
+      Map<String, byte[]> classes = new HashMap<>();
+      for (int i = 0; i < count; i++) {
+        String name = readString(in);
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        classes.put(name, bytes);
+      }
+      return Optional.of(classes);
+    } catch (IOException e) {
+      LOG.warn("Failed to read compiled classes from {}. They will be recompiled.", file, e);
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Write the compiled classes to {@code file}.
+   *
+   * <p>The file is written to a temporary file first and moved into place, so that a concurrent
+   * or later reader never sees a partial file. Failures are logged and otherwise ignored.
+   */
+  private static void write(Path file, String source, Map<String, byte[]> classes) {
+    Path tmp = null;
+    try {
+      Files.createDirectories(file.getParent());
+      tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+      try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(tmp))) {
+        out.writeInt(DISK_FORMAT_VERSION);
+        writeString(out, source);
+        out.writeInt(classes.size());
+        for (Map.Entry<String, byte[]> e : classes.entrySet()) {
+          writeString(out, e.getKey());
+          out.writeInt(e.getValue().length);
+          out.write(e.getValue());
+        }
+      }
+      Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      LOG.warn("Failed to write compiled classes to {}", file, e);
+      if (tmp != null) {
+        tmp.toFile().delete();
+      }
+    }
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    byte[] bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String stateDir(KsqlConfig ksqlConfig) {
+    return ksqlConfig.getKsqlStreamConfigProps().getOrDefault(
+        StreamsConfig.STATE_DIR_CONFIG,
+        StreamsConfig.configDef().defaultValues().get(StreamsConfig.STATE_DIR_CONFIG)).toString();
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.codegen;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.function.udf.Kudf;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Evaluates a list of expressions against a row in a single call to generated code.
+ *
+ * <p>Where each {@link ExpressionMetadata} is evaluated by invoking its own compiled expression
+ * reflectively, with its arguments first resolved into an {@code Object[]}, a projector compiles
+ * all the expressions into a single class. The class reads the columns each expression needs
+ * straight from the row and calls a statically typed method per expression.
+ *
+ * <p>A projector may also include a filter, in which case the expressions are only evaluated for
+ * rows that pass the filter.
+ *
+ * <p>See {@link CodeGenRunner#buildRowProjector}.
+ */
+public final class RowProjector {
+
+  /**
+   * The index passed to the {@link ErrorHandler} if the filter throws.
+   */
+  public static final int FILTER_INDEX = -1;
+
+  private final CompiledProjection projection;
+  private final Kudf[] functions;
+  private final int expressionCount;
+
+  RowProjector(CompiledProjection projection, Kudf[] functions, int expressionCount) {
+    this.projection = Objects.requireNonNull(projection, "projection");
+    this.functions = Objects.requireNonNull(functions, "functions");
+    this.expressionCount = expressionCount;
+  }
+
+  /**
+   * Evaluate the expressions against the supplied row.
+   *
+   * <p>An expression that throws evaluates to {@code null}, and the exception is passed to the
+   * supplied {@code errorHandler}. Any remaining expressions are still evaluated.
+   *
+   * <p>If the projector has a filter and the row does not pass it, or the filter throws, no
+   * expressions are evaluated and {@code null} is returned. A filter that throws is reported to
+   * the {@code errorHandler} with an index of {@link #FILTER_INDEX}.
+   *
+   * @param row the row to evaluate the expressions against.
+   * @param errorHandler the handler for any failed expressions.
+   * @return the result of each expression, in order, or {@code null} if the row was filtered out.
+   */
+  public List<Object> project(GenericRow row, ErrorHandler errorHandler) {
+    List<Object> results = new ArrayList<>(expressionCount);
+    if (!projection.project(row.getColumns(), functions, results, errorHandler)) {
+      return null;
+    }
+    return results;
+  }
+
+  public interface ErrorHandler {
+
+    /**
+     * Called if an expression throws.
+     *
+     * @param index the index of the expression, or {@link #FILTER_INDEX} for the filter.
+     * @param e the exception it threw.
+     */
+    void onError(int index, Exception e);
+  }
+
+  /**
+   * The interface implemented by the generated code.
+   *
+   * <p>Public only so that the generated class, which is loaded by its own class loader, can
+   * implement it.
+   */
+  public interface CompiledProjection {
+
+    /**
+     * @return {@code false} if the row was filtered out.
+     */
+    boolean project(
+        List<?> columns,
+        Kudf[] functions,
+        List<Object> results,
+        ErrorHandler errorHandler
+    );
+  }
+}
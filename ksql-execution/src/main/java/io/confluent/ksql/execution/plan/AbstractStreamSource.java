@@ -16,6 +16,8 @@
 package io.confluent.ksql.execution.plan;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.name.ColumnName;
 import io.confluent.ksql.name.SourceName;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.util.timestamp.TimestampExtractionPolicy;
@@ -34,6 +36,7 @@ public abstract class AbstractStreamSource<K> implements ExecutionStep<K> {
   private final Optional<AutoOffsetReset> offsetReset;
   private final LogicalSchema sourceSchema;
   private final SourceName alias;
+  private final Optional<List<ColumnName>> requiredColumns;
 
   public static LogicalSchemaWithMetaAndKeyFields getSchemaWithMetaAndKeyFields(
       SourceName alias,
@@ -50,7 +53,8 @@ public abstract class AbstractStreamSource<K> implements ExecutionStep<K> {
       int timestampIndex,
       Optional<AutoOffsetReset> offsetReset,
       LogicalSchema sourceSchema,
-      SourceName alias) {
+      SourceName alias,
+      Optional<List<ColumnName>> requiredColumns) {
     this.properties = Objects.requireNonNull(properties, "properties");
     this.topicName = Objects.requireNonNull(topicName, "topicName");
     this.formats = Objects.requireNonNull(formats, "formats");
@@ -59,6 +63,8 @@ public abstract class AbstractStreamSource<K> implements ExecutionStep<K> {
     this.offsetReset = Objects.requireNonNull(offsetReset, "offsetReset");
     this.sourceSchema = Objects.requireNonNull(sourceSchema, "sourceSchema");
     this.alias = Objects.requireNonNull(alias, "alias");
+    this.requiredColumns = Objects.requireNonNull(requiredColumns, "requiredColumns")
+        .map(ImmutableList::copyOf);
   }
 
   @Override
@@ -99,6 +105,16 @@ public abstract class AbstractStreamSource<K> implements ExecutionStep<K> {
     return alias;
   }
 
+  /**
+   * The value columns of the source schema the query reads, if not all of them.
+   *
+   * <p>Value columns not in the list are not deserialized and are {@code null} in the rows
+   * the source produces.
+   */
+  public Optional<List<ColumnName>> getRequiredColumns() {
+    return requiredColumns;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -114,7 +130,8 @@ public abstract class AbstractStreamSource<K> implements ExecutionStep<K> {
         && Objects.equals(timestampPolicy, that.timestampPolicy)
         && Objects.equals(timestampIndex, that.timestampIndex)
         && Objects.equals(offsetReset, that.offsetReset)
-        && Objects.equals(sourceSchema, that.sourceSchema);
+        && Objects.equals(sourceSchema, that.sourceSchema)
+        && Objects.equals(requiredColumns, that.requiredColumns);
   }
 
   @Override
@@ -126,7 +143,8 @@ public abstract class AbstractStreamSource<K> implements ExecutionStep<K> {
         timestampPolicy,
         timestampIndex,
         offsetReset,
-        sourceSchema
+        sourceSchema,
+        requiredColumns
     );
   }
 }
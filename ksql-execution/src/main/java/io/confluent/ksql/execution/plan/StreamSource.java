@@ -16,9 +16,11 @@ package io.confluent.ksql.execution.plan;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.errorprone.annotations.Immutable;
+import io.confluent.ksql.name.ColumnName;
 import io.confluent.ksql.name.SourceName;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.util.timestamp.TimestampExtractionPolicy;
+import java.util.List;
 import java.util.Optional;
 import org.apache.kafka.connect.data.Struct;
 import org.apache.kafka.streams.Topology.AutoOffsetReset;
@@ -35,7 +37,9 @@ public final class StreamSource extends AbstractStreamSource<KStreamHolder<Struc
       @JsonProperty(value = "offsetReset", required = true)
       Optional<AutoOffsetReset> offsetReset,
       @JsonProperty(value = "sourceSchema", required = true) LogicalSchema sourceSchema,
-      @JsonProperty(value = "alias", required = true) SourceName alias) {
+      @JsonProperty(value = "alias", required = true) SourceName alias,
+      @JsonProperty(value = "requiredColumns", required = false)
+      Optional<List<ColumnName>> requiredColumns) {
     super(
         properties,
         topicName,
@@ -44,7 +48,8 @@ public final class StreamSource extends AbstractStreamSource<KStreamHolder<Struc
         timestampIndex,
         offsetReset,
         sourceSchema,
-        alias
+        alias,
+        requiredColumns
     );
   }
 
@@ -16,9 +16,11 @@
 package io.confluent.ksql.execution.plan;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import io.confluent.ksql.name.ColumnName;
 import io.confluent.ksql.name.SourceName;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.util.timestamp.TimestampExtractionPolicy;
+import java.util.List;
 import java.util.Optional;
 import org.apache.kafka.connect.data.Struct;
 import org.apache.kafka.streams.Topology.AutoOffsetReset;
@@ -36,7 +38,9 @@ public final class WindowedStreamSource
       @JsonProperty(value = "offsetReset", required = true)
       Optional<AutoOffsetReset> offsetReset,
       @JsonProperty(value = "sourceSchema", required = true) LogicalSchema sourceSchema,
-      @JsonProperty(value = "alias", required = true) SourceName alias) {
+      @JsonProperty(value = "alias", required = true) SourceName alias,
+      @JsonProperty(value = "requiredColumns", required = false)
+      Optional<List<ColumnName>> requiredColumns) {
     super(
         properties,
         topicName,
@@ -45,7 +49,8 @@ public final class WindowedStreamSource
         timestampIndex,
         offsetReset,
         sourceSchema,
-        alias
+        alias,
+        requiredColumns
     );
   }
 
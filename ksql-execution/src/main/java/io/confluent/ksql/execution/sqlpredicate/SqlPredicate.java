@@ -22,6 +22,7 @@ import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.execution.codegen.CodeGenRunner;
 import io.confluent.ksql.execution.codegen.CodeGenSpec;
 import io.confluent.ksql.execution.codegen.CodeGenSpec.ArgumentSpec;
+import io.confluent.ksql.execution.codegen.CompiledExpressionCache;
 import io.confluent.ksql.execution.codegen.SqlToJavaVisitor;
 import io.confluent.ksql.execution.expression.tree.Expression;
 import io.confluent.ksql.execution.util.EngineProcessingLogMessageFactory;
@@ -31,7 +32,6 @@ import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
 import org.apache.kafka.streams.kstream.Predicate;
-import org.codehaus.commons.compiler.CompilerFactoryFactory;
 import org.codehaus.commons.compiler.IExpressionEvaluator;
 
 public final class SqlPredicate {
@@ -55,19 +55,19 @@ public final class SqlPredicate {
     spec = codeGenRunner.getCodeGenSpec(this.filterExpression);
 
     try {
-      ee = CompilerFactoryFactory.getDefaultCompilerFactory().newExpressionEvaluator();
-      ee.setDefaultImports(SqlToJavaVisitor.JAVA_IMPORTS.toArray(new String[0]));
-      ee.setParameters(spec.argumentNames(), spec.argumentTypes());
-
-      ee.setExpressionType(boolean.class);
-
       String expressionStr = SqlToJavaVisitor.of(
           schema,
           functionRegistry,
           spec
       ).process(this.filterExpression);
 
-      ee.cook(expressionStr);
+      ee = CompiledExpressionCache.of(ksqlConfig).expressionEvaluator(
+          expressionStr,
+          SqlToJavaVisitor.JAVA_IMPORTS,
+          spec.argumentNames(),
+          spec.argumentTypes(),
+          boolean.class
+      );
     } catch (Exception e) {
       throw new KsqlException(
           "Failed to generate code for SqlPredicate."
@@ -95,7 +95,27 @@ public final class SqlPredicate {
     };
   }
 
-  private void logProcessingError(Exception e, GenericRow row) {
+  /**
+   * Log an error evaluating the predicate against the supplied row to the processing log.
+   *
+   * <p>Exposed so that fused operators that evaluate the predicate themselves report errors in
+   * the same way.
+   */
+  public void logProcessingError(Exception e, GenericRow row) {
+    logProcessingError(processingLogger, filterExpression, e, row);
+  }
+
+  /**
+   * Log an error evaluating the supplied filter expression against the supplied row.
+   *
+   * <p>For fused operators that compile the filter themselves, rather than via a predicate.
+   */
+  public static void logProcessingError(
+      ProcessingLogger processingLogger,
+      Expression filterExpression,
+      Exception e,
+      GenericRow row
+  ) {
     processingLogger.error(
         EngineProcessingLogMessageFactory.recordProcessingError(
             String.format(
@@ -17,8 +17,10 @@ package io.confluent.ksql.execution.builder;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -99,6 +101,8 @@ public class KsqlQueryBuilderTest {
   private KeySerdeFactory keySerdeFactory;
   @Mock
   private ValueSerdeFactory valueSerdeFactory;
+  @Mock
+  private ValueSerdeFactory stateSerdeFactory;
   private QueryContext queryContext;
   private KsqlQueryBuilder ksqlQueryBuilder;
 
@@ -126,7 +130,8 @@ public class KsqlQueryBuilderTest {
         functionRegistry,
         QUERY_ID,
         keySerdeFactory,
-        valueSerdeFactory
+        valueSerdeFactory,
+        stateSerdeFactory
     );
   }
 
@@ -226,6 +231,60 @@ public class KsqlQueryBuilderTest {
     );
   }
 
+  @Test
+  public void shouldBuildStateSerdeInValueFormatIfCompactStateDisabled() {
+    // Given:
+    when(ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_AGGREGATE_STATE_COMPACT_ENABLE_CONFIG))
+        .thenReturn(false);
+
+    // When:
+    Serde<GenericRow> result = ksqlQueryBuilder.buildStateSerde(
+        FORMAT_INFO,
+        SOME_SCHEMA,
+        queryContext
+    );
+
+    // Then:
+    assertThat(result, is(sameInstance(valueSerde)));
+    verify(valueSerdeFactory).create(
+        FORMAT_INFO,
+        SOME_SCHEMA.valueSchema(),
+        ksqlConfig,
+        srClientFactory,
+        QueryLoggerUtil.queryLoggerName(QUERY_ID, queryContext),
+        processingLogContext
+    );
+    verify(stateSerdeFactory, never()).create(any(), any(), any(), any(), any(), any());
+  }
+
+  @Test
+  public void shouldBuildCompactStateSerdeIfEnabled() {
+    // Given:
+    when(ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_AGGREGATE_STATE_COMPACT_ENABLE_CONFIG))
+        .thenReturn(true);
+
+    // When:
+    ksqlQueryBuilder.buildStateSerde(
+        FORMAT_INFO,
+        SOME_SCHEMA,
+        queryContext
+    );
+
+    // Then:
+    verify(stateSerdeFactory).create(
+        FORMAT_INFO,
+        SOME_SCHEMA.valueSchema(),
+        ksqlConfig,
+        srClientFactory,
+        QueryLoggerUtil.queryLoggerName(QUERY_ID, queryContext),
+        processingLogContext
+    );
+    verify(valueSerdeFactory, never()).create(any(), any(), any(), any(), any(), any());
+    assertThat(
+        ksqlQueryBuilder.getSchemas().toString(),
+        is("fred.context = STRUCT<f0 BOOLEAN> NOT NULL"));
+  }
+
   @Test
   public void shouldTrackSchemasUsed() {
     // When:
@@ -0,0 +1,235 @@
+package io.confluent.ksql.execution.codegen;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.util.KsqlConfig;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+import org.codehaus.commons.compiler.CompileException;
+import org.codehaus.commons.compiler.IExpressionEvaluator;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+public class CompiledExpressionCacheTest {
+
+  private static final List<String> IMPORTS = ImmutableList.of("java.util.Map");
+  private static final String[] PARAM_NAMES = {"a", "b"};
+  private static final Class<?>[] PARAM_TYPES = {Long.class, Long.class};
+  private static final String CLASS_BODY = "public Object call() { return \"x\"; }";
+
+  @Rule
+  public final ExpectedException expectedException = ExpectedException.none();
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private CompiledExpressionCache cache;
+
+  @Before
+  public void setUp() {
+    cache = new CompiledExpressionCache(10, Optional.empty());
+  }
+
+  @Test
+  public void shouldCompileExpression() throws Exception {
+    // When:
+    IExpressionEvaluator ee = cache.expressionEvaluator(
+        "a + b", IMPORTS, PARAM_NAMES, PARAM_TYPES, Long.class);
+
+    // Then:
+    assertThat(ee.evaluate(new Object[]{1L, 2L}), is(3L));
+  }
+
+  @Test
+  public void shouldReuseEvaluatorForSameExpression() throws Exception {
+    // Given:
+    IExpressionEvaluator first = cache.expressionEvaluator(
+        "a + b", IMPORTS, PARAM_NAMES, PARAM_TYPES, Long.class);
+
+    // When:
+    IExpressionEvaluator second = cache.expressionEvaluator(
+        "a + b", IMPORTS, PARAM_NAMES.clone(), PARAM_TYPES.clone(), Long.class);
+
+    // Then:
+    assertThat(second, is(sameInstance(first)));
+    assertThat(cache.stats().hitCount(), is(1L));
+    assertThat(cache.stats().missCount(), is(1L));
+  }
+
+  @Test
+  public void shouldNotReuseEvaluatorIfParameterTypesDiffer() throws Exception {
+    // Given:
+    IExpressionEvaluator first = cache.expressionEvaluator(
+        "a + b", IMPORTS, PARAM_NAMES, PARAM_TYPES, Long.class);
+
+    // When:
+    IExpressionEvaluator second = cache.expressionEvaluator(
+        "a + b", IMPORTS, PARAM_NAMES, new Class<?>[]{Integer.class, Integer.class},
+        Integer.class);
+
+    // Then:
+    assertThat(second, is(not(sameInstance(first))));
+    assertThat(second.evaluate(new Object[]{1, 2}), is(3));
+  }
+
+  @Test
+  public void shouldReuseClassForSameClassBody() throws Exception {
+    // Given:
+    Class<?> first = cache.classBody(
+        CLASS_BODY, Collections.emptyList(), Callable.class);
+
+    // When:
+    Class<?> second = cache.classBody(
+        CLASS_BODY, Collections.emptyList(), Callable.class);
+
+    // Then:
+    assertThat(second, is(sameInstance(first)));
+  }
+
+  @Test
+  public void shouldNotCacheIfMaxEntriesIsZero() throws Exception {
+    // Given:
+    cache = new CompiledExpressionCache(0, Optional.empty());
+    IExpressionEvaluator first = cache.expressionEvaluator(
+        "a + b", IMPORTS, PARAM_NAMES, PARAM_TYPES, Long.class);
+
+    // When:
+    IExpressionEvaluator second = cache.expressionEvaluator(
+        "a + b", IMPORTS, PARAM_NAMES, PARAM_TYPES, Long.class);
+
+    // Then:
+    assertThat(second, is(not(sameInstance(first))));
+  }
+
+  @Test
+  public void shouldThrowCompileExceptionOnInvalidCode() throws Exception {
+    // Then:
+    expectedException.expect(CompileException.class);
+
+    // When:
+    cache.expressionEvaluator("a +", IMPORTS, PARAM_NAMES, PARAM_TYPES, Long.class);
+  }
+
+  @Test
+  public void shouldNotCacheFailures() throws Exception {
+    // Given:
+    try {
+      cache.expressionEvaluator("a +", IMPORTS, PARAM_NAMES, PARAM_TYPES, Long.class);
+    } catch (CompileException e) {
+      // expected
+    }
+
+    // Then:
+    expectedException.expect(CompileException.class);
+
+    // When:
+    cache.expressionEvaluator("a +", IMPORTS, PARAM_NAMES, PARAM_TYPES, Long.class);
+  }
+
+  @Test
+  public void shouldTrackSize() throws Exception {
+    // When:
+    cache.expressionEvaluator("a + b", IMPORTS, PARAM_NAMES, PARAM_TYPES, Long.class);
+    cache.expressionEvaluator("a - b", IMPORTS, PARAM_NAMES, PARAM_TYPES, Long.class);
+
+    // Then:
+    assertThat(cache.size(), is(2L));
+  }
+
+  @Test
+  public void shouldWriteCompiledClassToDisk() throws Exception {
+    // Given:
+    Path dir = folder.getRoot().toPath();
+    cache = new CompiledExpressionCache(10, Optional.of(dir));
+
+    // When:
+    Class<?> clazz = cache.classBody(CLASS_BODY, Collections.emptyList(), Callable.class);
+
+    // Then:
+    assertThat(call(clazz), is("x"));
+    assertThat(Files.list(dir).collect(Collectors.toList()), hasSize(1));
+    assertThat(cache.diskHitCount(), is(0L));
+  }
+
+  @Test
+  public void shouldLoadCompiledClassFromDisk() throws Exception {
+    // Given:
+    Path dir = folder.getRoot().toPath();
+    new CompiledExpressionCache(10, Optional.of(dir))
+        .classBody(CLASS_BODY, Collections.emptyList(), Callable.class);
+    cache = new CompiledExpressionCache(10, Optional.of(dir));
+
+    // When:
+    Class<?> clazz = cache.classBody(CLASS_BODY, Collections.emptyList(), Callable.class);
+
+    // Then:
+    assertThat(call(clazz), is("x"));
+    assertThat(cache.diskHitCount(), is(1L));
+  }
+
+  @Test
+  public void shouldRecompileIfFileOnDiskIsCorrupt() throws Exception {
+    // Given:
+    Path dir = folder.getRoot().toPath();
+    new CompiledExpressionCache(10, Optional.of(dir))
+        .classBody(CLASS_BODY, Collections.emptyList(), Callable.class);
+    for (File file : folder.getRoot().listFiles()) {
+      Files.write(file.toPath(), new byte[]{0, 0, 0, 1, 0});
+    }
+    cache = new CompiledExpressionCache(10, Optional.of(dir));
+
+    // When:
+    Class<?> clazz = cache.classBody(CLASS_BODY, Collections.emptyList(), Callable.class);
+
+    // Then:
+    assertThat(call(clazz), is("x"));
+    assertThat(cache.diskHitCount(), is(0L));
+  }
+
+  @Test
+  public void shouldShareCacheBetweenConfigsWithSameSettings() {
+    // Given:
+    KsqlConfig config = new KsqlConfig(ImmutableMap.of());
+
+    // When:
+    CompiledExpressionCache first = CompiledExpressionCache.of(config);
+    CompiledExpressionCache second = CompiledExpressionCache.of(config.cloneWithPropertyOverwrite(
+        ImmutableMap.of(KsqlConfig.KSQL_QUERY_PROJECTION_FUSED_ENABLE_CONFIG, false)));
+
+    // Then:
+    assertThat(second, is(sameInstance(first)));
+  }
+
+  @Test
+  public void shouldNotShareCacheBetweenConfigsWithDifferentMaxEntries() {
+    // Given:
+    KsqlConfig config = new KsqlConfig(ImmutableMap.of());
+
+    // When:
+    CompiledExpressionCache first = CompiledExpressionCache.of(config);
+    CompiledExpressionCache second = CompiledExpressionCache.of(config.cloneWithPropertyOverwrite(
+        ImmutableMap.of(KsqlConfig.KSQL_QUERY_CODEGEN_CACHE_MAX_ENTRIES_CONFIG, 5)));
+
+    // Then:
+    assertThat(second, is(not(sameInstance(first))));
+  }
+
+  private static Object call(Class<?> clazz) throws Exception {
+    return ((Callable<?>) clazz.getDeclaredConstructor().newInstance()).call();
+  }
+}
@@ -109,11 +109,28 @@ public class CommandTopic {
   }
 
   public List<QueuedCommand> getRestoreCommands(final Duration duration) {
-    final List<QueuedCommand> restoreCommands = Lists.newArrayList();
-
     commandConsumer.seekToBeginning(
         Collections.singletonList(commandTopicPartition));
 
+    return readRestoreCommands(duration);
+  }
+
+  /**
+   * Read all commands from the supplied offset to the end of the topic.
+   *
+   * @param duration the poll timeout.
+   * @param fromOffset the offset of the first command to read.
+   * @return the commands.
+   */
+  public List<QueuedCommand> getRestoreCommands(final Duration duration, final long fromOffset) {
+    commandConsumer.seek(commandTopicPartition, fromOffset);
+
+    return readRestoreCommands(duration);
+  }
+
+  private List<QueuedCommand> readRestoreCommands(final Duration duration) {
+    final List<QueuedCommand> restoreCommands = Lists.newArrayList();
+
     log.debug("Reading prior command records");
     ConsumerRecords<CommandId, Command> records =
         commandConsumer.poll(duration);
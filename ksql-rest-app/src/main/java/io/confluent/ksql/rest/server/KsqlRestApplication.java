@@ -42,9 +42,11 @@ import io.confluent.ksql.query.id.HybridQueryIdGenerator;
 import io.confluent.ksql.rest.entity.KsqlErrorMessage;
 import io.confluent.ksql.rest.server.computation.CommandQueue;
 import io.confluent.ksql.rest.server.computation.CommandRunner;
+import io.confluent.ksql.rest.server.computation.CommandSnapshotStore;
 import io.confluent.ksql.rest.server.computation.CommandStore;
 import io.confluent.ksql.rest.server.computation.InteractiveStatementExecutor;
 import io.confluent.ksql.rest.server.context.KsqlRestServiceContextBinder;
+import io.confluent.ksql.rest.server.execution.PullQueryExecutor;
 import io.confluent.ksql.rest.server.filters.KsqlAuthorizationFilter;
 import io.confluent.ksql.rest.server.resources.HealthCheckResource;
 import io.confluent.ksql.rest.server.resources.KsqlConfigurable;
@@ -133,6 +135,7 @@ public final class KsqlRestApplication extends ExecutableApplication<KsqlRestCon
   private final StatusResource statusResource;
   private final StreamedQueryResource streamedQueryResource;
   private final KsqlResource ksqlResource;
+  private final PullQueryExecutor pullQueryExecutor;
   private final VersionCheckerAgent versionCheckerAgent;
   private final ServiceContext serviceContext;
   private final BiFunction<KsqlConfig, KsqlSecurityExtension, Binder> serviceContextBinderFactory;
@@ -161,6 +164,7 @@ public final class KsqlRestApplication extends ExecutableApplication<KsqlRestCon
       final StatusResource statusResource,
       final StreamedQueryResource streamedQueryResource,
       final KsqlResource ksqlResource,
+      final PullQueryExecutor pullQueryExecutor,
       final VersionCheckerAgent versionCheckerAgent,
       final BiFunction<KsqlConfig, KsqlSecurityExtension, Binder> serviceContextBinderFactory,
       final KsqlSecurityExtension securityExtension,
@@ -180,6 +184,7 @@ public final class KsqlRestApplication extends ExecutableApplication<KsqlRestCon
     this.statusResource = requireNonNull(statusResource, "statusResource");
     this.streamedQueryResource = requireNonNull(streamedQueryResource, "streamedQueryResource");
     this.ksqlResource = requireNonNull(ksqlResource, "ksqlResource");
+    this.pullQueryExecutor = requireNonNull(pullQueryExecutor, "pullQueryExecutor");
     this.commandStore = requireNonNull(commandStore, "commandStore");
     this.serverState = requireNonNull(serverState, "serverState");
     this.processingLogContext = requireNonNull(processingLogContext, "processingLogContext");
@@ -298,6 +303,12 @@ public final class KsqlRestApplication extends ExecutableApplication<KsqlRestCon
       log.error("Exception while waiting for CommandRunner thread to complete", e);
     }
 
+    try {
+      pullQueryExecutor.close();
+    } catch (final Exception e) {
+      log.error("Exception while closing pull query executor", e);
+    }
+
     try {
       serviceContext.close();
     } catch (final Exception e) {
@@ -400,7 +411,8 @@ public final class KsqlRestApplication extends ExecutableApplication<KsqlRestCon
                           KsqlRestConfig.DISTRIBUTED_COMMAND_RESPONSE_TIMEOUT_MS_CONFIG)),
                       authorizationValidator,
                       securityExtension,
-                      serverState
+                      serverState,
+                      pullQueryExecutor
                   );
                 }
               })
@@ -473,7 +485,13 @@ public final class KsqlRestApplication extends ExecutableApplication<KsqlRestCon
     final CommandStore commandStore = CommandStore.Factory.create(
         commandTopic,
         restConfig.getCommandConsumerProperties(),
-        restConfig.getCommandProducerProperties());
+        restConfig.getCommandProducerProperties(),
+        CommandSnapshotStore.create(
+            restConfig.getString(KsqlRestConfig.KSQL_COMMAND_SNAPSHOT_DIR_CONFIG),
+            commandTopic),
+        Duration.ofMillis(
+            restConfig.getLong(KsqlRestConfig.KSQL_COMMAND_SNAPSHOT_INTERVAL_MS_CONFIG)),
+        restConfig.getBoolean(KsqlRestConfig.KSQL_COMMAND_REPLAY_COMPACT_ENABLE_CONFIG));
 
     final InteractiveStatementExecutor statementExecutor =
         new InteractiveStatementExecutor(serviceContext, ksqlEngine, hybridQueryIdGenerator);
@@ -491,6 +509,9 @@ public final class KsqlRestApplication extends ExecutableApplication<KsqlRestCon
     final Optional<KsqlAuthorizationValidator> authorizationValidator =
         KsqlAuthorizationValidatorFactory.create(ksqlConfig, serviceContext);
 
+    final PullQueryExecutor pullQueryExecutor = new PullQueryExecutor(
+        ksqlConfig, MetricCollectors.getMetrics());
+
     final StreamedQueryResource streamedQueryResource = new StreamedQueryResource(
         ksqlEngine,
         commandStore,
@@ -498,7 +519,8 @@ public final class KsqlRestApplication extends ExecutableApplication<KsqlRestCon
             restConfig.getLong(KsqlRestConfig.STREAMED_QUERY_DISCONNECT_CHECK_MS_CONFIG)),
         Duration.ofMillis(restConfig.getLong(DISTRIBUTED_COMMAND_RESPONSE_TIMEOUT_MS_CONFIG)),
         versionChecker::updateLastRequestTime,
-        authorizationValidator
+        authorizationValidator,
+        pullQueryExecutor
     );
 
     final KsqlResource ksqlResource = new KsqlResource(
@@ -519,7 +541,9 @@ public final class KsqlRestApplication extends ExecutableApplication<KsqlRestCon
         commandStore,
         maxStatementRetries,
         new ClusterTerminator(ksqlEngine, serviceContext, managedTopics),
-        serverState
+        serverState,
+        restConfig.getBoolean(KsqlRestConfig.KSQL_COMMAND_REPLAY_COMPACT_ENABLE_CONFIG),
+        restConfig.getInt(KsqlRestConfig.KSQL_COMMAND_REPLAY_QUERY_START_THREADS_CONFIG)
     );
 
     final List<KsqlServerPrecondition> preconditions = restConfig.getConfiguredInstances(
@@ -547,6 +571,7 @@ public final class KsqlRestApplication extends ExecutableApplication<KsqlRestCon
         statusResource,
         streamedQueryResource,
         ksqlResource,
+        pullQueryExecutor,
         versionChecker,
         serviceContextBinderFactory,
         securityExtension,
@@ -77,6 +77,35 @@ public class KsqlRestConfig extends RestConfig {
       "Minimum time between consecutive health check evaluations. Health check queries before "
           + "the interval has elapsed will receive cached responses.";
 
+  static final String KSQL_COMMAND_REPLAY_COMPACT_ENABLE_CONFIG =
+      KSQL_CONFIG_PREFIX + "server.command.replay.compact.enable";
+  private static final String KSQL_COMMAND_REPLAY_COMPACT_ENABLE_DOC =
+      "Whether or not to skip statements in the command topic whose effects are undone by later "
+          + "statements, e.g. the creation of a stream that is later dropped, when the server "
+          + "replays the command topic on startup.";
+
+  static final String KSQL_COMMAND_REPLAY_QUERY_START_THREADS_CONFIG =
+      KSQL_CONFIG_PREFIX + "server.command.replay.query.start.threads";
+  private static final String KSQL_COMMAND_REPLAY_QUERY_START_THREADS_DOC =
+      "The number of threads used to start the persistent queries restored from the command "
+          + "topic on startup.";
+
+  static final String KSQL_COMMAND_SNAPSHOT_DIR_CONFIG =
+      KSQL_CONFIG_PREFIX + "server.command.snapshot.dir";
+  private static final String KSQL_COMMAND_SNAPSHOT_DIR_DOC =
+      "The directory in which to store a snapshot of the command topic. On startup, the server "
+          + "restores the commands in the snapshot and only reads the commands written to the "
+          + "command topic after the snapshot was taken. If "
+          + KSQL_COMMAND_REPLAY_COMPACT_ENABLE_CONFIG + " is enabled, commands whose effects are "
+          + "undone by later commands are removed from the snapshot. If empty, the default, no "
+          + "snapshot is stored and the command topic is read from the beginning on startup.";
+
+  static final String KSQL_COMMAND_SNAPSHOT_INTERVAL_MS_CONFIG =
+      KSQL_CONFIG_PREFIX + "server.command.snapshot.interval.ms";
+  private static final String KSQL_COMMAND_SNAPSHOT_INTERVAL_MS_DOC =
+      "The minimum time between snapshots of the command topic. A snapshot is only taken if "
+          + "new commands have been written to the command topic since the last one.";
+
   private static final ConfigDef CONFIG_DEF;
 
   static {
@@ -122,6 +151,32 @@ public class KsqlRestConfig extends RestConfig {
         5000L,
         Importance.LOW,
         KSQL_HEALTHCHECK_INTERVAL_MS_DOC
+    ).define(
+        KSQL_COMMAND_REPLAY_COMPACT_ENABLE_CONFIG,
+        Type.BOOLEAN,
+        false,
+        Importance.LOW,
+        KSQL_COMMAND_REPLAY_COMPACT_ENABLE_DOC
+    ).define(
+        KSQL_COMMAND_REPLAY_QUERY_START_THREADS_CONFIG,
+        Type.INT,
+        1,
+        ConfigDef.Range.atLeast(1),
+        Importance.LOW,
+        KSQL_COMMAND_REPLAY_QUERY_START_THREADS_DOC
+    ).define(
+        KSQL_COMMAND_SNAPSHOT_DIR_CONFIG,
+        Type.STRING,
+        "",
+        Importance.LOW,
+        KSQL_COMMAND_SNAPSHOT_DIR_DOC
+    ).define(
+        KSQL_COMMAND_SNAPSHOT_INTERVAL_MS_CONFIG,
+        Type.LONG,
+        600000L,
+        ConfigDef.Range.atLeast(0),
+        Importance.LOW,
+        KSQL_COMMAND_SNAPSHOT_INTERVAL_MS_DOC
     );
   }
 
@@ -16,11 +16,15 @@
 package io.confluent.ksql.rest.server.computation;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.confluent.ksql.engine.KsqlEngine;
+import io.confluent.ksql.metrics.MetricCollectors;
 import io.confluent.ksql.rest.entity.ClusterTerminateRequest;
 import io.confluent.ksql.rest.server.state.ServerState;
 import io.confluent.ksql.rest.util.ClusterTerminator;
 import io.confluent.ksql.rest.util.TerminateCluster;
+import io.confluent.ksql.util.KsqlServerException;
 import io.confluent.ksql.util.PersistentQueryMetadata;
 import io.confluent.ksql.util.RetryUtil;
 import java.io.Closeable;
@@ -29,10 +33,18 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.apache.kafka.common.MetricName;
 import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.common.metrics.stats.Value;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -51,6 +63,22 @@ public class CommandRunner implements Closeable {
   private static final Duration NEW_CMDS_TIMEOUT = Duration.ofMillis(MAX_STATEMENT_RETRY_MS);
   private static final int SHUTDOWN_TIMEOUT_MS = 3 * MAX_STATEMENT_RETRY_MS;
 
+  private static final String METRIC_GROUP = "ksql-command-replay";
+  private static final String COMPACT_TIME_METRIC = "compact-time-ms";
+  private static final String COMPACT_TIME_METRIC_DESCRIPTION =
+      "The time taken to find the redundant commands in the command topic on the last startup.";
+  private static final String RESTORE_TIME_METRIC = "restore-time-ms";
+  private static final String RESTORE_TIME_METRIC_DESCRIPTION =
+      "The time taken to execute the commands in the command topic, building the metastore "
+          + "and persistent queries, on the last startup.";
+  private static final String START_TIME_METRIC = "start-queries-time-ms";
+  private static final String START_TIME_METRIC_DESCRIPTION =
+      "The time taken to start the restored persistent queries on the last startup.";
+  private static final String SKIPPED_COMMANDS_METRIC = "skipped-commands";
+  private static final String SKIPPED_COMMANDS_METRIC_DESCRIPTION =
+      "The number of redundant commands skipped when restoring the command topic on the last "
+          + "startup.";
+
   private final InteractiveStatementExecutor statementExecutor;
   private final CommandQueue commandStore;
   private final ExecutorService executor;
@@ -58,13 +86,17 @@ public class CommandRunner implements Closeable {
   private final int maxRetries;
   private final ClusterTerminator clusterTerminator;
   private final ServerState serverState;
+  private final boolean compactOnRestore;
+  private final int queryStartThreads;
 
   public CommandRunner(
       final InteractiveStatementExecutor statementExecutor,
       final CommandQueue commandStore,
       final int maxRetries,
       final ClusterTerminator clusterTerminator,
-      final ServerState serverState
+      final ServerState serverState,
+      final boolean compactOnRestore,
+      final int queryStartThreads
   ) {
     this(
         statementExecutor,
@@ -72,7 +104,9 @@ public class CommandRunner implements Closeable {
         maxRetries,
         clusterTerminator,
         Executors.newSingleThreadExecutor(r -> new Thread(r, "CommandRunner")),
-        serverState
+        serverState,
+        compactOnRestore,
+        queryStartThreads
     );
   }
 
@@ -83,7 +117,9 @@ public class CommandRunner implements Closeable {
       final int maxRetries,
       final ClusterTerminator clusterTerminator,
       final ExecutorService executor,
-      final ServerState serverState
+      final ServerState serverState,
+      final boolean compactOnRestore,
+      final int queryStartThreads
   ) {
     this.statementExecutor = Objects.requireNonNull(statementExecutor, "statementExecutor");
     this.commandStore = Objects.requireNonNull(commandStore, "commandStore");
@@ -91,6 +127,8 @@ public class CommandRunner implements Closeable {
     this.clusterTerminator = Objects.requireNonNull(clusterTerminator, "clusterTerminator");
     this.executor = Objects.requireNonNull(executor, "executor");
     this.serverState = Objects.requireNonNull(serverState, "serverState");
+    this.compactOnRestore = compactOnRestore;
+    this.queryStartThreads = queryStartThreads;
   }
 
   /**
@@ -119,6 +157,11 @@ public class CommandRunner implements Closeable {
 
   /**
    * Read and execute all commands on the command topic, starting at the earliest offset.
+   *
+   * <p>Restore happens in three phases: if enabled, commands that have no effect on the final
+   * state of the server are identified, then the remaining commands are executed in order, which
+   * builds the metastore and the persistent queries, and finally the persistent queries are
+   * started. The time taken by each phase is logged and recorded in the server's metrics.
    */
   public void processPriorCommands() {
     final List<QueuedCommand> restoreCommands = commandStore.getRestoreCommands();
@@ -127,17 +170,42 @@ public class CommandRunner implements Closeable {
       terminateCluster(terminateCmd.get().getCommand());
       return;
     }
-    restoreCommands.forEach(
-        command -> RetryUtil.retryWithBackoff(
-            maxRetries,
-            STATEMENT_RETRY_MS,
-            MAX_STATEMENT_RETRY_MS,
-            () -> statementExecutor.handleRestore(command),
-            WakeupException.class
-        )
-    );
+
+    long start = System.nanoTime();
+    final Set<QueuedCommand> redundant = compactOnRestore
+        ? RestoreCommandCompactor.findRedundant(restoreCommands)
+        : Collections.emptySet();
+    final long compactMs = recordPhase(COMPACT_TIME_METRIC, COMPACT_TIME_METRIC_DESCRIPTION, start);
+
+    start = System.nanoTime();
+    restoreCommands.forEach(command -> {
+      if (redundant.contains(command)) {
+        log.debug("Skipping redundant statement: " + command.getCommand().getStatement());
+        statementExecutor.handleSkippedRestore(command);
+        return;
+      }
+
+      RetryUtil.retryWithBackoff(
+          maxRetries,
+          STATEMENT_RETRY_MS,
+          MAX_STATEMENT_RETRY_MS,
+          () -> statementExecutor.handleRestore(command),
+          WakeupException.class
+      );
+    });
+    final long restoreMs = recordPhase(RESTORE_TIME_METRIC, RESTORE_TIME_METRIC_DESCRIPTION, start);
+
+    start = System.nanoTime();
     final KsqlEngine ksqlEngine = statementExecutor.getKsqlEngine();
-    ksqlEngine.getPersistentQueries().forEach(PersistentQueryMetadata::start);
+    startQueries(ksqlEngine.getPersistentQueries());
+    final long startMs = recordPhase(START_TIME_METRIC, START_TIME_METRIC_DESCRIPTION, start);
+
+    recordMetric(SKIPPED_COMMANDS_METRIC, SKIPPED_COMMANDS_METRIC_DESCRIPTION, redundant.size());
+
+    log.info("Restored {} of {} commands from the command topic, skipping {} redundant commands. "
+            + "Compaction took {}ms, restore took {}ms, starting queries took {}ms.",
+        restoreCommands.size() - redundant.size(), restoreCommands.size(), redundant.size(),
+        compactMs, restoreMs, startMs);
   }
 
   void fetchAndRunCommands() {
@@ -183,6 +251,60 @@ public class CommandRunner implements Closeable {
     );
   }
 
+  private void startQueries(final List<PersistentQueryMetadata> queries) {
+    if (queryStartThreads == 1 || queries.size() <= 1) {
+      queries.forEach(PersistentQueryMetadata::start);
+      return;
+    }
+
+    final ExecutorService startExecutor = Executors.newFixedThreadPool(
+        Math.min(queryStartThreads, queries.size()),
+        new ThreadFactoryBuilder().setNameFormat("CommandRunner-QueryStart-%d").build()
+    );
+
+    try {
+      final List<Future<?>> started = queries.stream()
+          .map(query -> startExecutor.submit(query::start))
+          .collect(Collectors.toList());
+
+      for (final Future<?> future : started) {
+        future.get();
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new KsqlServerException("Interrupted while starting persistent queries", e);
+    } catch (final ExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new KsqlServerException("Failed to start persistent query", e.getCause());
+    } finally {
+      startExecutor.shutdownNow();
+    }
+  }
+
+  private static long recordPhase(
+      final String name,
+      final String description,
+      final long startNs
+  ) {
+    final long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNs);
+    recordMetric(name, description, durationMs);
+    return durationMs;
+  }
+
+  private static void recordMetric(
+      final String name,
+      final String description,
+      final long value
+  ) {
+    final Metrics metrics = MetricCollectors.getMetrics();
+    final MetricName metricName = metrics.metricName(name, METRIC_GROUP, description);
+    final Sensor sensor = metrics.sensor(METRIC_GROUP + "-" + name);
+    if (metrics.metric(metricName) == null) {
+      sensor.add(metricName, new Value());
+    }
+    sensor.record(value);
+  }
+
   private static Optional<QueuedCommand> findTerminateCommand(
       final List<QueuedCommand> restoreCommands
   ) {
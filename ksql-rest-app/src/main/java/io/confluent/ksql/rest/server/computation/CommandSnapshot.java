@@ -0,0 +1,175 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.computation;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.rest.entity.CommandId;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * A snapshot of the command topic, up to and including a specific command.
+ *
+ * <p>The snapshot holds the commands required to rebuild the state of the server as of the
+ * last command it covers, which may be fewer than the commands in the command topic, as
+ * redundant commands are removed when the snapshot is taken.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+final class CommandSnapshot {
+
+  private final String commandTopic;
+  private final Entry lastCommand;
+  private final ImmutableList<Entry> commands;
+
+  static CommandSnapshot of(
+      final String commandTopic,
+      final QueuedCommand lastCommand,
+      final List<QueuedCommand> commands
+  ) {
+    return new CommandSnapshot(
+        commandTopic,
+        Entry.of(lastCommand),
+        commands.stream().map(Entry::of).collect(Collectors.toList())
+    );
+  }
+
+  @JsonCreator
+  CommandSnapshot(
+      @JsonProperty(value = "commandTopic", required = true) final String commandTopic,
+      @JsonProperty(value = "lastCommand", required = true) final Entry lastCommand,
+      @JsonProperty(value = "commands", required = true) final List<Entry> commands
+  ) {
+    this.commandTopic = Objects.requireNonNull(commandTopic, "commandTopic");
+    this.lastCommand = Objects.requireNonNull(lastCommand, "lastCommand");
+    this.commands = ImmutableList.copyOf(Objects.requireNonNull(commands, "commands"));
+  }
+
+  @JsonProperty("commandTopic")
+  String getCommandTopic() {
+    return commandTopic;
+  }
+
+  @JsonProperty("lastCommand")
+  Entry getLastCommand() {
+    return lastCommand;
+  }
+
+  @JsonProperty("commands")
+  List<Entry> getCommands() {
+    return commands;
+  }
+
+  /**
+   * @return the offset of the last command in the command topic covered by the snapshot.
+   */
+  long getLastOffset() {
+    return lastCommand.offset;
+  }
+
+  /**
+   * @param command a command read from the command topic.
+   * @return {@code true} if the command is the last command covered by this snapshot.
+   */
+  boolean isLastCommand(final QueuedCommand command) {
+    return lastCommand.offset == command.getOffset()
+        && lastCommand.commandId.equals(command.getCommandId())
+        && Objects.equals(
+            lastCommand.command.getStatement(), command.getCommand().getStatement());
+  }
+
+  /**
+   * @return the commands in the snapshot, in offset order.
+   */
+  List<QueuedCommand> toQueuedCommands() {
+    return commands.stream()
+        .map(Entry::toQueuedCommand)
+        .collect(Collectors.toList());
+  }
+
+  @JsonIgnoreProperties(ignoreUnknown = true)
+  static final class Entry {
+
+    private final CommandId commandId;
+    private final Command command;
+    private final long offset;
+
+    static Entry of(final QueuedCommand queuedCommand) {
+      return new Entry(
+          queuedCommand.getCommandId(),
+          queuedCommand.getCommand(),
+          queuedCommand.getCommand().isPreVersion5(),
+          queuedCommand.getOffset()
+      );
+    }
+
+    @JsonCreator
+    Entry(
+        @JsonProperty(value = "commandId", required = true) final CommandId commandId,
+        @JsonProperty(value = "command", required = true) final Command command,
+        @JsonProperty("preVersion5") final boolean preVersion5,
+        @JsonProperty(value = "offset", required = true) final long offset
+    ) {
+      this.commandId = Objects.requireNonNull(commandId, "commandId");
+      this.command = preVersion5
+          ? asPreVersion5(Objects.requireNonNull(command, "command"))
+          : Objects.requireNonNull(command, "command");
+      this.offset = offset;
+    }
+
+    @JsonProperty("commandId")
+    CommandId getCommandId() {
+      return commandId;
+    }
+
+    @JsonProperty("command")
+    Command getCommand() {
+      return command;
+    }
+
+    /**
+     * A command's JSON always has original properties, even if the command was written by a
+     * server prior to version 5 without them, so whether it was is recorded alongside it.
+     */
+    @JsonProperty("preVersion5")
+    boolean isPreVersion5() {
+      return command.isPreVersion5();
+    }
+
+    @JsonProperty("offset")
+    long getOffset() {
+      return offset;
+    }
+
+    QueuedCommand toQueuedCommand() {
+      return new QueuedCommand(commandId, command, Optional.empty(), offset);
+    }
+
+    private static Command asPreVersion5(final Command command) {
+      // Commands written prior to version 5 have only these fields, and no original properties:
+      return new Command(
+          command.getStatement(),
+          command.getUseOffsetAsQueryID(),
+          command.getOverwriteProperties(),
+          null
+      );
+    }
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.computation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.confluent.ksql.util.KsqlServerException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Objects;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stores a {@link CommandSnapshot} in a local file.
+ *
+ * <p>Snapshots are written to a temporary file that is then atomically moved into place, so a
+ * failure while writing never leaves a partial snapshot behind.
+ */
+public final class CommandSnapshotStore {
+
+  private static final Logger log = LoggerFactory.getLogger(CommandSnapshotStore.class);
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final String SNAPSHOT_SUFFIX = ".snapshot";
+
+  private final Path file;
+
+  /**
+   * Create a store for the snapshots of the supplied command topic.
+   *
+   * @param snapshotDir the directory to store snapshots in, or empty to disable snapshots.
+   * @param commandTopic the name of the command topic.
+   * @return the store, if snapshots are enabled.
+   */
+  public static Optional<CommandSnapshotStore> create(
+      final String snapshotDir,
+      final String commandTopic
+  ) {
+    if (snapshotDir.isEmpty()) {
+      return Optional.empty();
+    }
+
+    return Optional.of(new CommandSnapshotStore(
+        Paths.get(snapshotDir, commandTopic + SNAPSHOT_SUFFIX)));
+  }
+
+  CommandSnapshotStore(final Path file) {
+    this.file = Objects.requireNonNull(file, "file");
+  }
+
+  /**
+   * Read the snapshot, if there is one.
+   *
+   * <p>A snapshot that can not be read is ignored, as the state can always be rebuilt from the
+   * command topic.
+   *
+   * @return the snapshot, if one exists and can be read.
+   */
+  Optional<CommandSnapshot> read() {
+    if (!Files.exists(file)) {
+      return Optional.empty();
+    }
+
+    try {
+      return Optional.of(MAPPER.readValue(file.toFile(), CommandSnapshot.class));
+    } catch (final Exception e) {
+      log.warn("Ignoring command topic snapshot that could not be read: " + file, e);
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Replace any existing snapshot with the one supplied.
+   *
+   * @param snapshot the snapshot to store.
+   */
+  void write(final CommandSnapshot snapshot) {
+    try {
+      Files.createDirectories(file.toAbsolutePath().getParent());
+
+      final Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+      MAPPER.writeValue(temp.toFile(), snapshot);
+      Files.move(temp, file,
+          StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (final IOException e) {
+      throw new KsqlServerException("Failed to write command topic snapshot: " + file, e);
+    }
+  }
+}
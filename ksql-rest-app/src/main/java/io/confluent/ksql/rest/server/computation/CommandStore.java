@@ -23,15 +23,19 @@ import io.confluent.ksql.statement.ConfiguredStatement;
 import io.confluent.ksql.util.KsqlException;
 import java.io.Closeable;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import org.apache.kafka.clients.producer.RecordMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Wrapper class for the command topic. Used for reading from the topic (either all messages from
@@ -39,12 +43,21 @@ import org.apache.kafka.clients.producer.RecordMetadata;
  */
 public class CommandStore implements CommandQueue, Closeable {
 
+  private static final Logger log = LoggerFactory.getLogger(CommandStore.class);
+
   private static final Duration POLLING_TIMEOUT_FOR_COMMAND_TOPIC = Duration.ofMillis(5000);
 
   private final CommandTopic commandTopic;
   private final CommandIdAssigner commandIdAssigner;
   private final Map<CommandId, CommandStatusFuture> commandStatusMap;
   private final SequenceNumberFutureStore sequenceNumberFutureStore;
+  private final Optional<CommandSnapshotStore> snapshotStore;
+  private final long snapshotIntervalMs;
+  private final boolean compactSnapshots;
+  private final List<QueuedCommand> history = new ArrayList<>();
+  private QueuedCommand lastCommand;
+  private long lastSnapshotOffset = -1;
+  private long lastSnapshotMs;
 
   public static final class Factory {
 
@@ -55,11 +68,32 @@ public class CommandStore implements CommandQueue, Closeable {
         final String commandTopicName,
         final Map<String, Object> kafkaConsumerProperties,
         final Map<String, Object> kafkaProducerProperties
+    ) {
+      return create(
+          commandTopicName,
+          kafkaConsumerProperties,
+          kafkaProducerProperties,
+          Optional.empty(),
+          Duration.ZERO,
+          false
+      );
+    }
+
+    public static CommandStore create(
+        final String commandTopicName,
+        final Map<String, Object> kafkaConsumerProperties,
+        final Map<String, Object> kafkaProducerProperties,
+        final Optional<CommandSnapshotStore> snapshotStore,
+        final Duration snapshotInterval,
+        final boolean compactSnapshots
     ) {
       return new CommandStore(
           new CommandTopic(commandTopicName, kafkaConsumerProperties, kafkaProducerProperties),
           new CommandIdAssigner(),
-          new SequenceNumberFutureStore()
+          new SequenceNumberFutureStore(),
+          snapshotStore,
+          snapshotInterval,
+          compactSnapshots
       );
     }
   }
@@ -68,12 +102,33 @@ public class CommandStore implements CommandQueue, Closeable {
       final CommandTopic commandTopic,
       final CommandIdAssigner commandIdAssigner,
       final SequenceNumberFutureStore sequenceNumberFutureStore
+  ) {
+    this(
+        commandTopic,
+        commandIdAssigner,
+        sequenceNumberFutureStore,
+        Optional.empty(),
+        Duration.ZERO,
+        false
+    );
+  }
+
+  CommandStore(
+      final CommandTopic commandTopic,
+      final CommandIdAssigner commandIdAssigner,
+      final SequenceNumberFutureStore sequenceNumberFutureStore,
+      final Optional<CommandSnapshotStore> snapshotStore,
+      final Duration snapshotInterval,
+      final boolean compactSnapshots
   ) {
     this.commandTopic = Objects.requireNonNull(commandTopic, "commandTopic");
     this.commandIdAssigner = Objects.requireNonNull(commandIdAssigner, "commandIdAssigner");
     this.commandStatusMap = Maps.newConcurrentMap();
     this.sequenceNumberFutureStore =
         Objects.requireNonNull(sequenceNumberFutureStore, "sequenceNumberFutureStore");
+    this.snapshotStore = Objects.requireNonNull(snapshotStore, "snapshotStore");
+    this.snapshotIntervalMs = snapshotInterval.toMillis();
+    this.compactSnapshots = compactSnapshots;
   }
 
   @Override
@@ -159,11 +214,26 @@ public class CommandStore implements CommandQueue, Closeable {
           }
         }
     );
+
+    recordHistory(queuedCommands);
     return queuedCommands;
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>If a valid snapshot of the command topic exists, the commands it holds are returned
+   * along with the commands written to the topic after it was taken, rather than reading the
+   * topic from the beginning.
+   */
   public List<QueuedCommand> getRestoreCommands() {
-    return commandTopic.getRestoreCommands(POLLING_TIMEOUT_FOR_COMMAND_TOPIC);
+    final List<QueuedCommand> restoreCommands = snapshotStore
+        .flatMap(CommandSnapshotStore::read)
+        .flatMap(this::restoreFromSnapshot)
+        .orElseGet(() -> commandTopic.getRestoreCommands(POLLING_TIMEOUT_FOR_COMMAND_TOPIC));
+
+    recordHistory(restoreCommands);
+    return restoreCommands;
   }
 
   @Override
@@ -192,6 +262,83 @@ public class CommandStore implements CommandQueue, Closeable {
     return commandTopic.getEndOffset() == 0;
   }
 
+  private Optional<List<QueuedCommand>> restoreFromSnapshot(final CommandSnapshot snapshot) {
+    if (!snapshot.getCommandTopic().equals(getCommandTopicName())) {
+      log.warn("Ignoring snapshot of command topic {} as the command topic is now {}",
+          snapshot.getCommandTopic(), getCommandTopicName());
+      return Optional.empty();
+    }
+
+    // The tail starts with the last command in the snapshot, to check it is still valid:
+    final List<QueuedCommand> tail = commandTopic.getRestoreCommands(
+        POLLING_TIMEOUT_FOR_COMMAND_TOPIC, snapshot.getLastOffset());
+
+    if (tail.isEmpty() || !snapshot.isLastCommand(tail.get(0))) {
+      log.warn("Ignoring snapshot of command topic {} as it does not match the contents of the "
+          + "topic at offset {}", snapshot.getCommandTopic(), snapshot.getLastOffset());
+      return Optional.empty();
+    }
+
+    final List<QueuedCommand> restoreCommands = new ArrayList<>(snapshot.toQueuedCommands());
+    restoreCommands.addAll(tail.subList(1, tail.size()));
+
+    log.info("Restoring {} commands from snapshot of command topic {} up to offset {}, "
+            + "and {} commands from the topic",
+        restoreCommands.size() - tail.size() + 1, snapshot.getCommandTopic(),
+        snapshot.getLastOffset(), tail.size() - 1);
+
+    lastCommand = tail.get(0);
+    lastSnapshotOffset = snapshot.getLastOffset();
+    return Optional.of(restoreCommands);
+  }
+
+  private void recordHistory(final List<QueuedCommand> commands) {
+    if (!snapshotStore.isPresent() || commands.isEmpty()) {
+      return;
+    }
+
+    commands.forEach(command -> history.add(new QueuedCommand(
+        command.getCommandId(),
+        command.getCommand(),
+        Optional.empty(),
+        command.getOffset()
+    )));
+
+    final QueuedCommand last = commands.get(commands.size() - 1);
+    if (lastCommand == null || last.getOffset() > lastCommand.getOffset()) {
+      lastCommand = last;
+    }
+
+    maybeSnapshot();
+  }
+
+  private void maybeSnapshot() {
+    final long now = System.currentTimeMillis();
+    if (lastCommand.getOffset() <= lastSnapshotOffset
+        || now - lastSnapshotMs < snapshotIntervalMs) {
+      return;
+    }
+
+    if (compactSnapshots) {
+      final Set<QueuedCommand> redundant = RestoreCommandCompactor.findRedundant(history);
+      history.removeIf(redundant::contains);
+    }
+
+    try {
+      snapshotStore.get().write(
+          CommandSnapshot.of(getCommandTopicName(), lastCommand, history));
+
+      log.info("Wrote snapshot of command topic {} up to offset {} with {} commands",
+          getCommandTopicName(), lastCommand.getOffset(), history.size());
+    } catch (final Exception e) {
+      log.warn("Failed to write snapshot of command topic " + getCommandTopicName(), e);
+    }
+
+    // Only retry failed writes after the interval, to avoid failing on every poll:
+    lastSnapshotOffset = lastCommand.getOffset();
+    lastSnapshotMs = now;
+  }
+
   private void completeSatisfiedSequenceNumberFutures() {
     sequenceNumberFutureStore.completeFuturesUpToAndIncludingSequenceNumber(
         commandTopic.getCommandTopicConsumerPosition() - 1);
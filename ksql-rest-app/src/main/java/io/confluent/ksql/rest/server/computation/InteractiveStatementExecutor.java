@@ -147,6 +147,22 @@ public class InteractiveStatementExecutor implements KsqlConfigurable {
     );
   }
 
+  /**
+   * Record a command that was skipped on restore, as it has no effect on the final state of the
+   * server.
+   *
+   * @param queuedCommand The command that was skipped
+   */
+  void handleSkippedRestore(final QueuedCommand queuedCommand) {
+    putFinalStatus(
+        queuedCommand.getCommandId(),
+        queuedCommand.getStatus(),
+        new CommandStatus(
+            CommandStatus.Status.SUCCESS,
+            "Skipped on restore as its effects are undone by later statements")
+    );
+  }
+
   /**
    * Get details on the statuses of all the statements handled thus far.
    *
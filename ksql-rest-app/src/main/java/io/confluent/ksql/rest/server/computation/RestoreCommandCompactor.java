@@ -0,0 +1,279 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.computation;
+
+import io.confluent.ksql.rest.entity.CommandId;
+import io.confluent.ksql.rest.entity.CommandId.Action;
+import io.confluent.ksql.rest.entity.CommandId.Type;
+import io.confluent.ksql.util.KsqlConstants;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Finds the commands in the command topic that have no effect on the state of the server once
+ * all commands have been replayed, and so can be skipped on restore.
+ *
+ * <p>Two patterns are recognised:
+ * <ul>
+ *   <li>a {@code CREATE STREAM/TABLE} that is later dropped, along with its {@code DROP} and,
+ *   for a {@code CREATE ... AS SELECT}, the {@code TERMINATE} of the query it started.</li>
+ *   <li>an {@code INSERT INTO} whose query is later terminated, along with its
+ *   {@code TERMINATE}.</li>
+ * </ul>
+ *
+ * <p>The command topic only records the statement text, and statements can not be prepared
+ * before the statements they depend on have been executed. Hence commands are matched on their
+ * {@link CommandId} and text, and the rules err on the side of replaying a command: a command is
+ * only skipped if it, and the commands it is paired with, would all have succeeded originally
+ * and no other command could have depended on them. In particular:
+ * <ul>
+ *   <li>only commands that use their offset as their query id are skipped, as skipping a
+ *   command using the legacy sequential query ids would change the ids of later queries.</li>
+ *   <li>a source is only skipped if no other command references it, by name, between its
+ *   creation and its drop, and no command references the name before its creation.</li>
+ *   <li>a query is only skipped if there are no {@code DROP} commands between the statement
+ *   that started it and the statement that terminated it, as such drops may have failed due to
+ *   the query reading from, or writing to, the source.</li>
+ * </ul>
+ */
+final class RestoreCommandCompactor {
+
+  private static final String INSERT_QUERY_ID_PREFIX = "INSERTQUERY_";
+  private static final String NAME_CHAR = "[A-Za-z0-9_]";
+  private static final Pattern SELECT =
+      Pattern.compile("(?<!" + NAME_CHAR + ")SELECT(?!" + NAME_CHAR + ")",
+          Pattern.CASE_INSENSITIVE);
+
+  private RestoreCommandCompactor() {
+  }
+
+  /**
+   * Find the commands that can be skipped when restoring the supplied commands.
+   *
+   * @param commands the commands to restore, in offset order.
+   * @return the set of redundant commands, compared by identity.
+   */
+  static Set<QueuedCommand> findRedundant(final List<QueuedCommand> commands) {
+    final Set<QueuedCommand> redundant = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    final Map<Long, Integer> indexByOffset = new HashMap<>();
+    for (int idx = 0; idx < commands.size(); idx++) {
+      indexByOffset.put(commands.get(idx).getOffset(), idx);
+    }
+
+    for (int idx = 0; idx < commands.size(); idx++) {
+      final CommandId commandId = commands.get(idx).getCommandId();
+      if (isDropSource(commandId)) {
+        findDroppedSource(commands, idx).ifPresent(redundant::addAll);
+      } else if (commandId.getType() == Type.TERMINATE) {
+        findTerminatedInsert(commands, indexByOffset, idx).ifPresent(redundant::addAll);
+      }
+    }
+
+    return redundant;
+  }
+
+  private static Optional<List<QueuedCommand>> findDroppedSource(
+      final List<QueuedCommand> commands,
+      final int dropIdx
+  ) {
+    final QueuedCommand drop = commands.get(dropIdx);
+    final String sourceName = drop.getCommandId().getEntity();
+    final Pattern reference = referencePattern(sourceName);
+
+    int createIdx = -1;
+    for (int idx = 0; idx < dropIdx; idx++) {
+      if (references(commands.get(idx), reference)) {
+        createIdx = idx;
+        break;
+      }
+    }
+
+    if (createIdx < 0) {
+      return Optional.empty();
+    }
+
+    final QueuedCommand create = commands.get(createIdx);
+    if (!isCreateOf(create, drop.getCommandId().getType(), sourceName)
+        || !canSkip(create)
+        || !canSkip(drop)) {
+      return Optional.empty();
+    }
+
+    for (int idx = createIdx + 1; idx < dropIdx; idx++) {
+      if (references(commands.get(idx), reference)) {
+        return Optional.empty();
+      }
+    }
+
+    final List<QueuedCommand> result = new ArrayList<>();
+    result.add(create);
+    result.add(drop);
+
+    if (SELECT.matcher(create.getCommand().getStatement()).find()) {
+      final Optional<QueuedCommand> terminate = findTerminate(
+          commands, createIdx, dropIdx, persistentQueryIdPattern(create.getOffset()));
+
+      if (!terminate.isPresent()) {
+        return Optional.empty();
+      }
+
+      result.add(terminate.get());
+    }
+
+    return Optional.of(result);
+  }
+
+  private static Optional<List<QueuedCommand>> findTerminatedInsert(
+      final List<QueuedCommand> commands,
+      final Map<Long, Integer> indexByOffset,
+      final int terminateIdx
+  ) {
+    final QueuedCommand terminate = commands.get(terminateIdx);
+    final String queryId = terminate.getCommandId().getEntity();
+    if (!canSkip(terminate)
+        || !queryId.toUpperCase(Locale.ROOT).startsWith(INSERT_QUERY_ID_PREFIX)) {
+      return Optional.empty();
+    }
+
+    final Integer insertIdx;
+    try {
+      insertIdx = indexByOffset.get(
+          Long.parseLong(queryId.substring(INSERT_QUERY_ID_PREFIX.length())));
+    } catch (final NumberFormatException e) {
+      return Optional.empty();
+    }
+
+    if (insertIdx == null || insertIdx >= terminateIdx) {
+      return Optional.empty();
+    }
+
+    final QueuedCommand insert = commands.get(insertIdx);
+    if (!isInsert(insert) || !canSkip(insert)) {
+      return Optional.empty();
+    }
+
+    final Pattern queryIdPattern = Pattern.compile(Pattern.quote(queryId),
+        Pattern.CASE_INSENSITIVE);
+
+    final Optional<QueuedCommand> first =
+        findTerminate(commands, insertIdx, terminateIdx + 1, queryIdPattern);
+
+    if (!first.isPresent() || first.get() != terminate) {
+      return Optional.empty();
+    }
+
+    final List<QueuedCommand> result = new ArrayList<>();
+    result.add(insert);
+    result.add(terminate);
+    return Optional.of(result);
+  }
+
+  /**
+   * Find the first command in the range (fromIdx, toIdx) that terminates a query whose id
+   * matches the supplied pattern, provided there are no drops before it in the range.
+   */
+  private static Optional<QueuedCommand> findTerminate(
+      final List<QueuedCommand> commands,
+      final int fromIdx,
+      final int toIdx,
+      final Pattern queryId
+  ) {
+    for (int idx = fromIdx + 1; idx < toIdx; idx++) {
+      final QueuedCommand command = commands.get(idx);
+      final CommandId commandId = command.getCommandId();
+
+      if (commandId.getAction() == Action.DROP) {
+        return Optional.empty();
+      }
+
+      if (commandId.getType() == Type.TERMINATE
+          && queryId.matcher(commandId.getEntity()).matches()) {
+        return canSkip(command) ? Optional.of(command) : Optional.empty();
+      }
+    }
+
+    return Optional.empty();
+  }
+
+  private static boolean isDropSource(final CommandId commandId) {
+    return commandId.getAction() == Action.DROP
+        && (commandId.getType() == Type.STREAM || commandId.getType() == Type.TABLE);
+  }
+
+  private static boolean isCreateOf(
+      final QueuedCommand command,
+      final Type type,
+      final String sourceName
+  ) {
+    final CommandId commandId = command.getCommandId();
+    return commandId.getType() == type
+        && commandId.getAction() == Action.CREATE
+        && unquote(commandId.getEntity()).equalsIgnoreCase(sourceName)
+        && startsWith(command, "CREATE");
+  }
+
+  private static boolean isInsert(final QueuedCommand command) {
+    final CommandId commandId = command.getCommandId();
+    return commandId.getType() == Type.STREAM
+        && commandId.getAction() == Action.CREATE
+        && startsWith(command, "INSERT");
+  }
+
+  private static boolean canSkip(final QueuedCommand command) {
+    return command.getCommand().getUseOffsetAsQueryID()
+        && !command.getCommand().isPreVersion5();
+  }
+
+  private static boolean startsWith(final QueuedCommand command, final String keyword) {
+    return command.getCommand().getStatement().trim().toUpperCase(Locale.ROOT)
+        .startsWith(keyword);
+  }
+
+  private static boolean references(final QueuedCommand command, final Pattern reference) {
+    if (reference.matcher(command.getCommand().getStatement()).find()) {
+      return true;
+    }
+
+    final Object script = command.getCommand().getOverwriteProperties()
+        .get(KsqlConstants.LEGACY_RUN_SCRIPT_STATEMENTS_CONTENT);
+
+    return script != null && reference.matcher(script.toString()).find();
+  }
+
+  private static Pattern referencePattern(final String sourceName) {
+    return Pattern.compile(
+        "(?<!" + NAME_CHAR + ")" + Pattern.quote(sourceName) + "(?!" + NAME_CHAR + ")",
+        Pattern.CASE_INSENSITIVE
+    );
+  }
+
+  private static Pattern persistentQueryIdPattern(final long offset) {
+    return Pattern.compile("C[ST]AS_.*_" + offset, Pattern.CASE_INSENSITIVE);
+  }
+
+  private static String unquote(final String name) {
+    return name.replace("`", "");
+  }
+}
@@ -37,7 +37,9 @@ import io.confluent.ksql.parser.tree.SetProperty;
 import io.confluent.ksql.parser.tree.ShowColumns;
 import io.confluent.ksql.parser.tree.Statement;
 import io.confluent.ksql.parser.tree.UnsetProperty;
+import io.confluent.ksql.rest.Errors;
 import io.confluent.ksql.rest.entity.KsqlEntity;
+import io.confluent.ksql.rest.server.resources.KsqlRestException;
 import io.confluent.ksql.services.ServiceContext;
 import io.confluent.ksql.statement.ConfiguredStatement;
 import java.util.EnumSet;
@@ -55,7 +57,7 @@ import java.util.stream.Collectors;
 @SuppressWarnings({"unchecked", "rawtypes"})
 public enum CustomExecutors {
 
-  PULL_QUERY(Query.class, PullQueryExecutor::execute),
+  PULL_QUERY(Query.class, pullQueryExecutor()),
 
   LIST_TOPICS(ListTopics.class, ListTopicsExecutor::execute),
   LIST_STREAMS(ListStreams.class, ListSourceExecutor::streams),
@@ -122,4 +124,11 @@ public enum CustomExecutors {
       return Optional.empty();
     };
   }
+
+  private static StatementExecutor pullQueryExecutor() {
+    // Pull queries are only executed by the /query endpoint, which owns the PullQueryExecutor:
+    return (statement, sessionProperties, executionContext, serviceContext) -> {
+      throw new KsqlRestException(Errors.queryEndpoint(statement.getStatementText()));
+    };
+  }
 }
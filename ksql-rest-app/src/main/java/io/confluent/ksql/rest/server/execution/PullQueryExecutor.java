@@ -15,6 +15,7 @@
 
 package io.confluent.ksql.rest.server.execution;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.BoundType;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -23,6 +24,7 @@ import com.google.common.collect.Iterables;
 import com.google.common.collect.Range;
 import com.google.common.collect.Sets;
 import com.google.common.collect.Sets.SetView;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.KsqlExecutionContext;
 import io.confluent.ksql.analyzer.Analysis;
@@ -32,24 +34,27 @@ import io.confluent.ksql.execution.expression.tree.ColumnReferenceExp;
 import io.confluent.ksql.execution.expression.tree.ComparisonExpression;
 import io.confluent.ksql.execution.expression.tree.ComparisonExpression.Type;
 import io.confluent.ksql.execution.expression.tree.Expression;
+import io.confluent.ksql.execution.expression.tree.InListExpression;
+import io.confluent.ksql.execution.expression.tree.InPredicate;
 import io.confluent.ksql.execution.expression.tree.IntegerLiteral;
-import io.confluent.ksql.execution.expression.tree.Literal;
 import io.confluent.ksql.execution.expression.tree.LogicalBinaryExpression;
 import io.confluent.ksql.execution.expression.tree.LongLiteral;
 import io.confluent.ksql.execution.expression.tree.StringLiteral;
 import io.confluent.ksql.execution.plan.SelectExpression;
 import io.confluent.ksql.execution.streams.SelectValueMapper;
 import io.confluent.ksql.execution.streams.SelectValueMapperFactory;
-import io.confluent.ksql.execution.streams.materialization.Locator;
 import io.confluent.ksql.execution.streams.materialization.Locator.KsqlNode;
 import io.confluent.ksql.execution.streams.materialization.Materialization;
 import io.confluent.ksql.execution.streams.materialization.MaterializationTimeOutException;
+import io.confluent.ksql.execution.streams.materialization.MaterializedWindowedTable;
 import io.confluent.ksql.execution.streams.materialization.TableRow;
 import io.confluent.ksql.execution.util.ExpressionTypeManager;
 import io.confluent.ksql.logging.processing.NoopProcessingLogContext;
 import io.confluent.ksql.metastore.MetaStore;
 import io.confluent.ksql.metastore.model.DataSource;
 import io.confluent.ksql.name.SourceName;
+import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
+import io.confluent.ksql.parser.SqlFormatter;
 import io.confluent.ksql.parser.tree.AllColumns;
 import io.confluent.ksql.parser.tree.Query;
 import io.confluent.ksql.parser.tree.Select;
@@ -57,11 +62,11 @@ import io.confluent.ksql.parser.tree.SelectItem;
 import io.confluent.ksql.query.QueryId;
 import io.confluent.ksql.rest.Errors;
 import io.confluent.ksql.rest.client.RestResponse;
-import io.confluent.ksql.rest.entity.KsqlEntity;
 import io.confluent.ksql.rest.entity.StreamedRow;
 import io.confluent.ksql.rest.entity.StreamedRow.Header;
 import io.confluent.ksql.rest.entity.TableRowsEntity;
 import io.confluent.ksql.rest.entity.TableRowsEntityFactory;
+import io.confluent.ksql.rest.server.execution.PullQueryPlan.Projection;
 import io.confluent.ksql.rest.server.resources.KsqlRestException;
 import io.confluent.ksql.schema.ksql.FormatOptions;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
@@ -79,23 +84,36 @@ import io.confluent.ksql.util.KsqlStatementException;
 import io.confluent.ksql.util.PersistentQueryMetadata;
 import io.confluent.ksql.util.SchemaUtil;
 import io.confluent.ksql.util.timestamp.PartialStringToTimestampParser;
+import java.net.URI;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import org.apache.kafka.common.metrics.Metrics;
 import org.apache.kafka.connect.data.Struct;
 
 // CHECKSTYLE_RULES.OFF: ClassDataAbstractionCoupling
 public final class PullQueryExecutor {
   // CHECKSTYLE_RULES.ON: ClassDataAbstractionCoupling
 
-  private static final Set<Type> VALID_WINDOW_BOUNDS_TYPES = ImmutableSet.of(
+  private static final Set<Type> VALID_BOUNDS_TYPES = ImmutableSet.of(
       Type.EQUAL,
       Type.GREATER_THAN,
       Type.GREATER_THAN_OR_EQUAL,
@@ -103,10 +121,36 @@ public final class PullQueryExecutor {
       Type.LESS_THAN_OR_EQUAL
   );
 
-  private static final String VALID_WINDOW_BOUNDS_TYPES_STRING =
-      VALID_WINDOW_BOUNDS_TYPES.toString();
+  private static final String VALID_BOUNDS_TYPES_STRING =
+      VALID_BOUNDS_TYPES.toString();
 
-  private PullQueryExecutor() {
+  private final ExecutorService forwardingExecutor;
+  private final PullQueryPlanCache planCache;
+
+  public PullQueryExecutor(final KsqlConfig ksqlConfig, final Metrics metrics) {
+    this(
+        forwardingExecutor(
+            ksqlConfig.getInt(KsqlConfig.KSQL_QUERY_PULL_FORWARDING_THREADS_CONFIG)),
+        new PullQueryPlanCache(ksqlConfig, metrics)
+    );
+  }
+
+  @VisibleForTesting
+  PullQueryExecutor(
+      final ExecutorService forwardingExecutor,
+      final PullQueryPlanCache planCache
+  ) {
+    this.forwardingExecutor = Objects.requireNonNull(forwardingExecutor, "forwardingExecutor");
+    this.planCache = Objects.requireNonNull(planCache, "planCache");
+  }
+
+  /**
+   * Stop forwarding to remote owners, interrupting any forwards still in flight, and release
+   * the plan cache and its metrics.
+   */
+  public void close() {
+    forwardingExecutor.shutdownNow();
+    planCache.close();
   }
 
   public static void validate(
@@ -118,16 +162,20 @@ public final class PullQueryExecutor {
     throw new KsqlRestException(Errors.queryEndpoint(statement.getStatementText()));
   }
 
-  public static Optional<KsqlEntity> execute(
-      final ConfiguredStatement<Query> statement,
-      final Map<String, ?> sessionProperties,
-      final KsqlExecutionContext executionContext,
-      final ServiceContext serviceContext
+  /**
+   * Prepare the supplied pull query without parsing it, if a plan is cached for an earlier
+   * query with the same template.
+   *
+   * @see PullQueryPlanCache#prepare(String, KsqlExecutionContext)
+   */
+  public Optional<PreparedStatement<Query>> prepare(
+      final String sql,
+      final KsqlExecutionContext executionContext
   ) {
-    return Optional.of(execute(statement, executionContext, serviceContext));
+    return planCache.prepare(sql, executionContext);
   }
 
-  public static TableRowsEntity execute(
+  public TableRowsEntity execute(
       final ConfiguredStatement<Query> statement,
       final KsqlExecutionContext executionContext,
       final ServiceContext serviceContext
@@ -148,64 +196,86 @@ public final class PullQueryExecutor {
     }
 
     try {
-      final Analysis analysis = analyze(statement, executionContext);
-
-      final PersistentQueryMetadata query = findMaterializingQuery(executionContext, analysis);
+      final PullQueryPlan plan =
+          planCache.plan(statement, executionContext, PullQueryExecutor::buildPlan);
 
-      final WhereInfo whereInfo = extractWhereInfo(analysis, query);
+      final PersistentQueryMetadata query = plan.persistentQuery();
 
-      final QueryId queryId = PersistentQueryMetadata.getPullQueryId(
-          getSourceName(analysis).name());
+      final WhereInfo whereInfo = extractWhereInfo(plan.where(), query);
 
-      final Materialization mat = query
-          .getMaterialization()
-          .orElseThrow(() -> notMaterializedException(getSourceName(analysis)));
+      final QueryId queryId = PersistentQueryMetadata.getPullQueryId(plan.sourceName().name());
 
-      final Struct rowKey = asKeyStruct(whereInfo.rowkey, query.getPhysicalSchema());
+      final Materialization mat = plan.materialization();
 
       final KsqlConfig ksqlConfig = statement.getConfig();
-      final KsqlNode owner = getOwner(ksqlConfig, rowKey, mat);
-      if (!owner.isLocal()) {
-        return proxyTo(owner, statement, serviceContext);
-      }
-
-      final Result result;
-      if (whereInfo.windowStartBounds.isPresent()) {
-        final Range<Instant> windowStart = whereInfo.windowStartBounds.get();
 
-        final List<? extends TableRow> rows = mat.windowed()
-            .get(rowKey, windowStart);
+      if (whereInfo.rowKeyBounds.isPresent()) {
+        ensureAllLocal(ksqlConfig, mat);
 
-        result = new Result(mat.schema(), rows);
-      } else {
         final List<? extends TableRow> rows = mat.nonWindowed()
-            .get(rowKey)
-            .map(ImmutableList::of)
-            .orElse(ImmutableList.of());
+            .range(whereInfo.rowKeyBounds.get());
 
-        result = new Result(mat.schema(), rows);
+        return buildEntity(statement, plan, queryId, rows);
       }
 
-      final LogicalSchema outputSchema;
-      final List<List<?>> rows;
-      if (isSelectStar(statement.getStatement().getSelect())) {
-        outputSchema = TableRowsEntityFactory.buildSchema(result.schema, mat.windowType());
-        rows = TableRowsEntityFactory.createRows(result.rows);
-      } else {
-        final LogicalSchema.Builder schemaBuilder =
-            selectSchemaBuilder(result, executionContext, analysis);
+      final Map<URI, KsqlNode> owners = new LinkedHashMap<>();
+      final Map<URI, List<Struct>> rowKeysByOwner = new LinkedHashMap<>();
+      for (final String rowKey : whereInfo.rowKeys) {
+        final Struct key = asKeyStruct(rowKey, query.getPhysicalSchema());
+        final KsqlNode owner = getOwner(ksqlConfig, key, mat);
+        owners.putIfAbsent(owner.location(), owner);
+        rowKeysByOwner.computeIfAbsent(owner.location(), location -> new ArrayList<>()).add(key);
+      }
+
+      final BiFunction<KsqlNode, List<Struct>, TableRowsEntity> fetch = (owner, rowKeys) -> {
+        if (owner.isLocal()) {
+          final List<? extends TableRow> rows =
+              getLocal(mat, rowKeys, whereInfo.windowStartBounds);
+          return buildEntity(statement, plan, queryId, rows);
+        }
 
-        outputSchema = schemaBuilder.build();
+        final ConfiguredStatement<Query> forwarded = rowKeys.size() == whereInfo.rowKeys.size()
+            ? statement
+            : withRowKeys(statement, rowKeys);
 
-        rows = handleSelects(result, statement, executionContext, analysis, outputSchema);
+        return proxyTo(owner, forwarded, serviceContext);
+      };
+
+      if (owners.size() == 1) {
+        final KsqlNode owner = Iterables.getOnlyElement(owners.values());
+        return withFailover(mat, owner, rowKeysByOwner.get(owner.location()), fetch);
       }
 
-      return new TableRowsEntity(
-          statement.getStatementText(),
-          queryId,
-          outputSchema,
-          rows
-      );
+      // Forward to all remote owners first, so that their requests are in flight concurrently
+      // with each other and with reading any local keys:
+      final Map<URI, Future<TableRowsEntity>> remoteResults = new HashMap<>();
+      try {
+        for (final Entry<URI, List<Struct>> e : rowKeysByOwner.entrySet()) {
+          final KsqlNode owner = owners.get(e.getKey());
+          if (!owner.isLocal()) {
+            remoteResults.put(e.getKey(), forwardingExecutor.submit(
+                () -> withFailover(mat, owner, e.getValue(), fetch)
+            ));
+          }
+        }
+
+        final List<TableRowsEntity> results = new ArrayList<>(owners.size());
+        for (final Entry<URI, List<Struct>> e : rowKeysByOwner.entrySet()) {
+          final KsqlNode owner = owners.get(e.getKey());
+
+          if (owner.isLocal()) {
+            results.add(withFailover(mat, owner, e.getValue(), fetch));
+          } else {
+            results.add(await(remoteResults.get(e.getKey())));
+          }
+        }
+
+        return merge(statement, results);
+      } catch (final Exception e) {
+        // The request has failed, so there is no point in waiting on the other owners:
+        remoteResults.values().forEach(remoteResult -> remoteResult.cancel(true));
+        throw e;
+      }
     } catch (final Exception e) {
       throw new KsqlStatementException(
           e.getMessage() == null ? "Server Error" : e.getMessage(),
@@ -215,6 +285,28 @@ public final class PullQueryExecutor {
     }
   }
 
+  private static PullQueryPlan buildPlan(
+      final ConfiguredStatement<Query> statement,
+      final KsqlExecutionContext executionContext
+  ) {
+    final Analysis analysis = analyze(statement, executionContext);
+
+    final PersistentQueryMetadata query = findMaterializingQuery(executionContext, analysis);
+
+    final Materialization mat = query
+        .getMaterialization()
+        .orElseThrow(() -> notMaterializedException(getSourceName(analysis)));
+
+    return new PullQueryPlan(
+        statement,
+        analysis,
+        analysis.getFromDataSources().get(0).getDataSource(),
+        query,
+        mat,
+        () -> buildProjection(statement, executionContext, analysis, mat)
+    );
+  }
+
   private static Analysis analyze(
       final ConfiguredStatement<Query> statement,
       final KsqlExecutionContext executionContext
@@ -228,90 +320,200 @@ public final class PullQueryExecutor {
     return queryAnalyzer.analyze(statement.getStatement(), Optional.empty());
   }
 
-  private static final class WhereInfo {
+  private static List<? extends TableRow> getLocal(
+      final Materialization mat,
+      final List<Struct> rowKeys,
+      final Optional<Range<Instant>> windowStartBounds
+  ) {
+    if (!windowStartBounds.isPresent()) {
+      return mat.nonWindowed().getAll(rowKeys);
+    }
 
-    private final Object rowkey;
-    private final Optional<Range<Instant>> windowStartBounds;
+    final MaterializedWindowedTable table = mat.windowed();
 
-    private WhereInfo(
-        final Object rowkey,
-        final Optional<Range<Instant>> windowStartBounds
-    ) {
-      this.rowkey = rowkey;
-      this.windowStartBounds = windowStartBounds;
+    final ImmutableList.Builder<TableRow> rows = ImmutableList.builder();
+    for (final Struct rowKey : rowKeys) {
+      rows.addAll(table.get(rowKey, windowStartBounds.get()));
+    }
+
+    return rows.build();
+  }
+
+  private static TableRowsEntity buildEntity(
+      final ConfiguredStatement<Query> statement,
+      final PullQueryPlan plan,
+      final QueryId queryId,
+      final List<? extends TableRow> rows
+  ) {
+    final Projection projection = plan.projection();
+
+    final List<List<?>> output = projection.select().isPresent()
+        ? handleSelects(rows, projection.select().get(), projection.schema())
+        : TableRowsEntityFactory.createRows(rows);
+
+    return new TableRowsEntity(
+        statement.getStatementText(),
+        queryId,
+        projection.schema(),
+        output
+    );
+  }
+
+  private static Projection buildProjection(
+      final ConfiguredStatement<Query> statement,
+      final KsqlExecutionContext executionContext,
+      final Analysis analysis,
+      final Materialization mat
+  ) {
+    if (isSelectStar(statement.getStatement().getSelect())) {
+      return new Projection(
+          TableRowsEntityFactory.buildSchema(mat.schema(), mat.windowType()),
+          Optional.empty()
+      );
     }
+
+    final LogicalSchema outputSchema =
+        selectSchemaBuilder(mat.schema(), executionContext, analysis).build();
+
+    final SelectValueMapper<Object> select =
+        selectValueMapper(mat.schema(), statement, executionContext, analysis, outputSchema);
+
+    return new Projection(outputSchema, Optional.of(select));
+  }
+
+  private static TableRowsEntity merge(
+      final ConfiguredStatement<Query> statement,
+      final List<TableRowsEntity> results
+  ) {
+    final TableRowsEntity first = results.get(0);
+
+    final ImmutableList.Builder<List<?>> rows = ImmutableList.builder();
+    results.forEach(result -> rows.addAll(result.getRows()));
+
+    return new TableRowsEntity(
+        statement.getStatementText(),
+        first.getQueryId(),
+        first.getSchema(),
+        rows.build()
+    );
   }
 
-  private static final class Result {
+  private static final class WhereInfo {
 
-    private final LogicalSchema schema;
-    private final List<? extends TableRow> rows;
+    private final List<String> rowKeys;
+    private final Optional<Range<String>> rowKeyBounds;
+    private final Optional<Range<Instant>> windowStartBounds;
 
-    private Result(
-        final LogicalSchema schema,
-        final List<? extends TableRow> rows
+    private WhereInfo(
+        final List<String> rowKeys,
+        final Optional<Range<String>> rowKeyBounds,
+        final Optional<Range<Instant>> windowStartBounds
     ) {
-      this.schema = Objects.requireNonNull(schema, "schema");
-      this.rows = Objects.requireNonNull(rows, "rows");
+      this.rowKeys = rowKeys;
+      this.rowKeyBounds = rowKeyBounds;
+      this.windowStartBounds = windowStartBounds;
     }
   }
 
   private static WhereInfo extractWhereInfo(
-      final Analysis analysis,
+      final Optional<Expression> maybeWhere,
       final PersistentQueryMetadata query
   ) {
     final boolean windowed = query.getResultTopic().getKeyFormat().isWindowed();
 
-    final Expression where = analysis.getWhereExpression()
+    final Expression where = maybeWhere
         .orElseThrow(() -> invalidWhereClauseException("Missing WHERE clause", windowed));
 
-    final Map<ComparisonTarget, List<ComparisonExpression>> comparisons = extractComparisons(where);
+    final Map<ComparisonTarget, List<Expression>> comparisons = extractComparisons(where);
 
-    final List<ComparisonExpression> rowKeyComparison = comparisons.get(ComparisonTarget.ROWKEY);
+    final List<Expression> rowKeyComparison = comparisons.get(ComparisonTarget.ROWKEY);
     if (rowKeyComparison == null) {
       throw invalidWhereClauseException("WHERE clause missing ROWKEY", windowed);
     }
 
-    final Object rowKey = extractRowKeyWhereClause(rowKeyComparison, windowed);
+    final Optional<List<String>> rowKeys = extractRowKeysWhereClause(rowKeyComparison, windowed);
 
     if (!windowed) {
       if (comparisons.size() > 1) {
         throw invalidWhereClauseException("Unsupported WHERE clause", false);
       }
 
-      return new WhereInfo(rowKey, Optional.empty());
+      if (rowKeys.isPresent()) {
+        return new WhereInfo(rowKeys.get(), Optional.empty(), Optional.empty());
+      }
+
+      final Range<String> rowKeyBounds = extractBounds(
+          asComparisons(rowKeyComparison, ComparisonTarget.ROWKEY, false),
+          ComparisonTarget.ROWKEY,
+          PullQueryExecutor::asRowKey,
+          false
+      );
+
+      return new WhereInfo(ImmutableList.of(), Optional.of(rowKeyBounds), Optional.empty());
+    }
+
+    if (!rowKeys.isPresent()) {
+      throw invalidWhereClauseException("ROWKEY ranges are not supported on windowed tables", true);
     }
 
     final Optional<List<ComparisonExpression>> windowBoundsComparison =
-        Optional.ofNullable(comparisons.get(ComparisonTarget.WINDOWSTART));
+        Optional.ofNullable(comparisons.get(ComparisonTarget.WINDOWSTART))
+            .map(exps -> asComparisons(exps, ComparisonTarget.WINDOWSTART, true));
 
     final Range<Instant> windowStart = extractWhereClauseWindowBounds(windowBoundsComparison);
 
-    return new WhereInfo(rowKey, Optional.of(windowStart));
+    return new WhereInfo(rowKeys.get(), Optional.empty(), Optional.of(windowStart));
   }
 
-  private static Object extractRowKeyWhereClause(
-      final List<ComparisonExpression> comparisons,
+  /**
+   * @return the distinct row keys to look up, or {@link Optional#empty()} if the comparisons
+   *     describe a range of row keys.
+   */
+  private static Optional<List<String>> extractRowKeysWhereClause(
+      final List<Expression> comparisons,
       final boolean windowed
   ) {
-    if (comparisons.size() != 1) {
-      throw invalidWhereClauseException("Multiple bounds on ROWKEY", windowed);
+    final Expression first = comparisons.get(0);
+
+    if (comparisons.size() == 1 && first instanceof InPredicate) {
+      final List<String> rowKeys = ((InPredicate) first).getValueList().getValues().stream()
+          .map(PullQueryExecutor::asRowKey)
+          .distinct()
+          .collect(Collectors.toList());
+
+      return Optional.of(rowKeys);
     }
 
-    final ComparisonExpression comparison = comparisons.get(0);
+    final List<ComparisonExpression> bounds =
+        asComparisons(comparisons, ComparisonTarget.ROWKEY, windowed);
 
-    final Expression other = getNonColumnRefSide(comparison);
+    bounds.forEach(comparison -> asRowKey(getNonColumnRefSide(comparison)));
 
-    if (!(other instanceof StringLiteral)) {
-      throw invalidWhereClauseException("ROWKEY must be compared to STRING literal", false);
+    if (bounds.size() == 1 && bounds.get(0).getType() == Type.EQUAL) {
+      return Optional.of(ImmutableList.of(asRowKey(getNonColumnRefSide(bounds.get(0)))));
     }
 
-    if (comparison.getType() != Type.EQUAL) {
-      throw invalidWhereClauseException("ROWKEY bound must currently be '='", false);
+    return Optional.empty();
+  }
+
+  private static List<ComparisonExpression> asComparisons(
+      final List<Expression> expressions,
+      final ComparisonTarget target,
+      final boolean windowed
+  ) {
+    final boolean hasIn = expressions.stream().anyMatch(exp -> exp instanceof InPredicate);
+    if (hasIn) {
+      throw invalidWhereClauseException(
+          expressions.size() == 1
+              ? "IN is not supported on " + target
+              : "IN can not be combined with other bounds on " + target,
+          windowed
+      );
     }
 
-    final Literal right = (Literal) other;
-    return right.getValue();
+    return expressions.stream()
+        .map(ComparisonExpression.class::cast)
+        .collect(Collectors.toList());
   }
 
   private static Range<Instant> extractWhereClauseWindowBounds(
@@ -321,16 +523,28 @@ public final class PullQueryExecutor {
       return Range.all();
     }
 
-    final List<ComparisonExpression> comparisons = maybeComparisons.get();
+    return extractBounds(
+        maybeComparisons.get(),
+        ComparisonTarget.WINDOWSTART,
+        PullQueryExecutor::asInstant,
+        true
+    );
+  }
 
+  private static <T extends Comparable<? super T>> Range<T> extractBounds(
+      final List<ComparisonExpression> comparisons,
+      final ComparisonTarget target,
+      final Function<Expression, T> valueExtractor,
+      final boolean windowed
+  ) {
     final Map<Type, List<ComparisonExpression>> byType = comparisons.stream()
         .collect(Collectors.groupingBy(PullQueryExecutor::getSimplifiedBoundType));
 
-    final SetView<Type> unsupported = Sets.difference(byType.keySet(), VALID_WINDOW_BOUNDS_TYPES);
+    final SetView<Type> unsupported = Sets.difference(byType.keySet(), VALID_BOUNDS_TYPES);
     if (!unsupported.isEmpty()) {
       throw invalidWhereClauseException(
-          "Unsupported " + ComparisonTarget.WINDOWSTART + " bounds: " + unsupported,
-          true
+          "Unsupported " + target + " bounds: " + unsupported,
+          windowed
       );
     }
 
@@ -341,8 +555,8 @@ public final class PullQueryExecutor {
 
     if (!duplicates.isEmpty()) {
       throw invalidWhereClauseException(
-          "Duplicate bounds on " + ComparisonTarget.WINDOWSTART + ": " + duplicates,
-          true
+          "Duplicate bounds on " + target + ": " + duplicates,
+          windowed
       );
     }
 
@@ -353,13 +567,12 @@ public final class PullQueryExecutor {
     if (equals != null) {
       if (byType.size() > 1) {
         throw invalidWhereClauseException(
-            "`" + equals + "` cannot be combined with other bounds on "
-                + ComparisonTarget.WINDOWSTART,
-            true
+            "`" + equals + "` cannot be combined with other bounds on " + target,
+            windowed
         );
       }
 
-      return Range.singleton(asInstant(getNonColumnRefSide(equals)));
+      return Range.singleton(valueExtractor.apply(getNonColumnRefSide(equals)));
     }
 
     final Optional<ComparisonExpression> upper =
@@ -368,7 +581,7 @@ public final class PullQueryExecutor {
     final Optional<ComparisonExpression> lower =
         Optional.ofNullable(singles.get(Type.GREATER_THAN));
 
-    return extractWindowBound(lower, upper);
+    return extractBound(lower, upper, valueExtractor);
   }
 
   private static Type getSimplifiedBoundType(final ComparisonExpression comparison) {
@@ -387,30 +600,31 @@ public final class PullQueryExecutor {
     }
   }
 
-  private static Range<Instant> extractWindowBound(
+  private static <T extends Comparable<? super T>> Range<T> extractBound(
       final Optional<ComparisonExpression> lowerComparison,
-      final Optional<ComparisonExpression> upperComparison
+      final Optional<ComparisonExpression> upperComparison,
+      final Function<Expression, T> valueExtractor
   ) {
     if (!lowerComparison.isPresent() && !upperComparison.isPresent()) {
       return Range.all();
     }
 
     if (!lowerComparison.isPresent()) {
-      final Instant upper = asInstant(getNonColumnRefSide(upperComparison.get()));
+      final T upper = valueExtractor.apply(getNonColumnRefSide(upperComparison.get()));
       final BoundType upperType = getRangeBoundType(upperComparison.get());
       return Range.upTo(upper, upperType);
     }
 
     if (!upperComparison.isPresent()) {
-      final Instant lower = asInstant(getNonColumnRefSide(lowerComparison.get()));
+      final T lower = valueExtractor.apply(getNonColumnRefSide(lowerComparison.get()));
       final BoundType lowerType = getRangeBoundType(lowerComparison.get());
       return Range.downTo(lower, lowerType);
     }
 
-    final Instant lower = asInstant(getNonColumnRefSide(lowerComparison.get()));
+    final T lower = valueExtractor.apply(getNonColumnRefSide(lowerComparison.get()));
     final BoundType lowerType = getRangeBoundType(lowerComparison.get());
 
-    final Instant upper = asInstant(getNonColumnRefSide(upperComparison.get()));
+    final T upper = valueExtractor.apply(getNonColumnRefSide(upperComparison.get()));
     final BoundType upperType = getRangeBoundType(upperComparison.get());
 
     return Range.range(lower, lowerType, upper, upperType);
@@ -431,6 +645,14 @@ public final class PullQueryExecutor {
         : comparison.getRight();
   }
 
+  private static String asRowKey(final Expression other) {
+    if (!(other instanceof StringLiteral)) {
+      throw invalidWhereClauseException("ROWKEY must be compared to STRING literal", false);
+    }
+
+    return ((StringLiteral) other).getValue();
+  }
+
   private static Instant asInstant(final Expression other) {
     if (other instanceof IntegerLiteral) {
       return Instant.ofEpochMilli(((IntegerLiteral) other).getValue());
@@ -463,7 +685,7 @@ public final class PullQueryExecutor {
     WINDOWSTART
   }
 
-  private static Map<ComparisonTarget, List<ComparisonExpression>> extractComparisons(
+  private static Map<ComparisonTarget, List<Expression>> extractComparisons(
       final Expression exp
   ) {
     if (exp instanceof ComparisonExpression) {
@@ -472,22 +694,28 @@ public final class PullQueryExecutor {
       return ImmutableMap.of(target, ImmutableList.of(comparison));
     }
 
+    if (exp instanceof InPredicate) {
+      final InPredicate in = (InPredicate) exp;
+      final ComparisonTarget target = extractWhereClauseTarget(in);
+      return ImmutableMap.of(target, ImmutableList.of(in));
+    }
+
     if (exp instanceof LogicalBinaryExpression) {
       final LogicalBinaryExpression binary = (LogicalBinaryExpression) exp;
       if (binary.getType() != LogicalBinaryExpression.Type.AND) {
         throw invalidWhereClauseException("Only AND expressions are supported: " + exp, false);
       }
 
-      final Map<ComparisonTarget, List<ComparisonExpression>> left =
+      final Map<ComparisonTarget, List<Expression>> left =
           extractComparisons(binary.getLeft());
 
-      final Map<ComparisonTarget, List<ComparisonExpression>> right =
+      final Map<ComparisonTarget, List<Expression>> right =
           extractComparisons(binary.getRight());
 
       return Stream
           .concat(left.entrySet().stream(), right.entrySet().stream())
           .collect(Collectors.toMap(Entry::getKey, Entry::getValue, (l, r) ->
-              ImmutableList.<ComparisonExpression>builder().addAll(l).addAll(r).build()
+              ImmutableList.<Expression>builder().addAll(l).addAll(r).build()
           ));
     }
 
@@ -504,6 +732,18 @@ public final class PullQueryExecutor {
       throw invalidWhereClauseException("Invalid WHERE clause: " + comparison, false);
     }
 
+    return extractWhereClauseTarget(column);
+  }
+
+  private static ComparisonTarget extractWhereClauseTarget(final InPredicate in) {
+    if (!(in.getValue() instanceof ColumnReferenceExp)) {
+      throw invalidWhereClauseException("Invalid WHERE clause: " + in, false);
+    }
+
+    return extractWhereClauseTarget((ColumnReferenceExp) in.getValue());
+  }
+
+  private static ComparisonTarget extractWhereClauseTarget(final ColumnReferenceExp column) {
     final String fieldName = column.getReference().name().toString(FormatOptions.noEscape());
 
     try {
@@ -518,33 +758,23 @@ public final class PullQueryExecutor {
     return selects.size() == 1 && selects.get(0) instanceof AllColumns;
   }
 
-  private static List<List<?>> handleSelects(
-      final Result input,
+  private static SelectValueMapper<Object> selectValueMapper(
+      final LogicalSchema inputSchema,
       final ConfiguredStatement<Query> statement,
       final KsqlExecutionContext executionContext,
       final Analysis analysis,
       final LogicalSchema outputSchema
   ) {
     final LogicalSchema intermediateSchema;
-    final BiFunction<Struct, GenericRow, GenericRow> preSelectTransform;
     if (outputSchema.key().isEmpty()) {
-      intermediateSchema = input.schema;
-      preSelectTransform = (key, value) -> value;
+      intermediateSchema = inputSchema;
     } else {
       // SelectValueMapper requires the key fields in the value schema :(
       intermediateSchema = LogicalSchema.builder()
-          .keyColumns(input.schema.key())
-          .valueColumns(input.schema.value())
-          .valueColumns(input.schema.key())
+          .keyColumns(inputSchema.key())
+          .valueColumns(inputSchema.value())
+          .valueColumns(inputSchema.key())
           .build();
-
-      preSelectTransform = (key, value) -> {
-        key.schema().fields().forEach(f -> {
-          final Object keyField = key.get(f);
-          value.getColumns().add(keyField);
-        });
-        return value;
-      };
     }
 
     final SourceName sourceName = getSourceName(analysis);
@@ -552,16 +782,36 @@ public final class PullQueryExecutor {
     final KsqlConfig ksqlConfig = statement.getConfig()
         .cloneWithPropertyOverwrite(statement.getOverrides());
 
-    final SelectValueMapper<Object> select = SelectValueMapperFactory.create(
+    return SelectValueMapperFactory.create(
         analysis.getSelectExpressions(),
         intermediateSchema.withAlias(sourceName),
         ksqlConfig,
         executionContext.getMetaStore(),
         NoopProcessingLogContext.INSTANCE.getLoggerFactory().getLogger("any")
     );
+  }
+
+  private static List<List<?>> handleSelects(
+      final List<? extends TableRow> input,
+      final SelectValueMapper<Object> select,
+      final LogicalSchema outputSchema
+  ) {
+    final BiFunction<Struct, GenericRow, GenericRow> preSelectTransform;
+    if (outputSchema.key().isEmpty()) {
+      preSelectTransform = (key, value) -> value;
+    } else {
+      // SelectValueMapper requires the key fields in the value schema :(
+      preSelectTransform = (key, value) -> {
+        key.schema().fields().forEach(f -> {
+          final Object keyField = key.get(f);
+          value.getColumns().add(keyField);
+        });
+        return value;
+      };
+    }
 
     final ImmutableList.Builder<List<?>> output = ImmutableList.builder();
-    input.rows.forEach(r -> {
+    input.forEach(r -> {
       final GenericRow intermediate = preSelectTransform.apply(r.key(), r.value());
       final GenericRow mapped = select.transform(r.key(), intermediate);
       validateProjection(mapped, outputSchema);
@@ -586,7 +836,7 @@ public final class PullQueryExecutor {
   }
 
   private static LogicalSchema.Builder selectSchemaBuilder(
-      final Result input,
+      final LogicalSchema inputSchema,
       final KsqlExecutionContext executionContext,
       final Analysis analysis
   ) {
@@ -594,7 +844,7 @@ public final class PullQueryExecutor {
         .noImplicitColumns();
 
     final ExpressionTypeManager expressionTypeManager = new ExpressionTypeManager(
-        input.schema.withAlias(analysis.getFromDataSources().get(0).getAlias()),
+        inputSchema.withAlias(analysis.getFromDataSources().get(0).getAlias()),
         executionContext.getMetaStore()
     );
 
@@ -602,7 +852,7 @@ public final class PullQueryExecutor {
       final SelectExpression select = analysis.getSelectExpressions().get(idx);
       final SqlType type = expressionTypeManager.getExpressionSqlType(select.getExpression());
 
-      if (input.schema.isKeyColumn(select.getAlias())) {
+      if (inputSchema.isKeyColumn(select.getAlias())) {
         schemaBuilder.keyColumn(select.getAlias(), type);
       } else {
         schemaBuilder.valueColumn(select.getAlias(), type);
@@ -645,22 +895,170 @@ public final class PullQueryExecutor {
       final Struct rowKey,
       final Materialization mat
   ) {
-    final Locator locator = mat.locator();
+    final long timeoutMs =
+        ksqlConfig.getLong(KsqlConfig.KSQL_QUERY_PULL_ROUTING_TIMEOUT_MS_CONFIG);
 
+    return mat.locator().locate(rowKey, timeoutMs)
+        .orElseThrow(() -> new MaterializationTimeOutException(
+            "The owner of the key could not be determined within the configured timeout: "
+                + timeoutMs + "ms, config: " + KsqlConfig.KSQL_QUERY_PULL_ROUTING_TIMEOUT_MS_CONFIG
+        ));
+  }
+
+  private static void ensureAllLocal(
+      final KsqlConfig ksqlConfig,
+      final Materialization mat
+  ) {
     final long timeoutMs =
         ksqlConfig.getLong(KsqlConfig.KSQL_QUERY_PULL_ROUTING_TIMEOUT_MS_CONFIG);
-    final long threshold = System.currentTimeMillis() + timeoutMs;
-    while (System.currentTimeMillis() < threshold) {
-      final Optional<KsqlNode> owner = locator.locate(rowKey);
-      if (owner.isPresent()) {
-        return owner.get();
+
+    final List<KsqlNode> owners = mat.locator().locateAll(timeoutMs);
+    if (owners.isEmpty()) {
+      throw new MaterializationTimeOutException(
+          "The owners of the table could not be determined within the configured timeout: "
+              + timeoutMs + "ms, config: " + KsqlConfig.KSQL_QUERY_PULL_ROUTING_TIMEOUT_MS_CONFIG
+      );
+    }
+
+    if (!owners.stream().allMatch(KsqlNode::isLocal)) {
+      throw new KsqlException("ROWKEY ranges are currently only supported when the table is "
+          + "materialized entirely on the KSQL node handling the request. "
+          + "Use `ROWKEY IN (...)` to look up a set of keys across nodes.");
+    }
+  }
+
+  /**
+   * Narrow the ROWKEY IN list of the statement to the supplied {@code rowKeys}, so the node the
+   * statement is sent to only looks up the keys it owns.
+   */
+  private static ConfiguredStatement<Query> withRowKeys(
+      final ConfiguredStatement<Query> statement,
+      final List<Struct> rowKeys
+  ) {
+    final InListExpression rowKeyList = new InListExpression(rowKeys.stream()
+        .map(rowKey -> new StringLiteral(rowKey.getString(SchemaUtil.ROWKEY_NAME.name())))
+        .collect(Collectors.toList()));
+
+    final Query query = statement.getStatement();
+    final Query narrowed = new Query(
+        query.getLocation(),
+        query.getSelect(),
+        query.getFrom(),
+        query.getWindow(),
+        query.getWhere().map(where -> withRowKeys(where, rowKeyList)),
+        query.getGroupBy(),
+        query.getHaving(),
+        query.getResultMaterialization(),
+        query.isPullQuery(),
+        query.getLimit()
+    );
+
+    return statement.withStatement(SqlFormatter.formatSql(narrowed) + ";", narrowed);
+  }
+
+  private static Expression withRowKeys(final Expression exp, final InListExpression rowKeys) {
+    if (exp instanceof InPredicate) {
+      return new InPredicate(((InPredicate) exp).getValue(), rowKeys);
+    }
+
+    if (exp instanceof LogicalBinaryExpression) {
+      final LogicalBinaryExpression binary = (LogicalBinaryExpression) exp;
+      return new LogicalBinaryExpression(
+          binary.getType(),
+          withRowKeys(binary.getLeft(), rowKeys),
+          withRowKeys(binary.getRight(), rowKeys)
+      );
+    }
+
+    return exp;
+  }
+
+  /**
+   * Fetch the rows from their owner, failing over to a new owner if the fetch fails and the
+   * keys have since moved, e.g. the owner has left the cluster and its partitions have been
+   * reassigned, or the local store is no longer running.
+   */
+  private static TableRowsEntity withFailover(
+      final Materialization mat,
+      final KsqlNode owner,
+      final List<Struct> rowKeys,
+      final BiFunction<KsqlNode, List<Struct>, TableRowsEntity> fetch
+  ) {
+    try {
+      return fetch.apply(owner, rowKeys);
+    } catch (final RuntimeException e) {
+      final Optional<KsqlNode> newOwner = relocate(mat, rowKeys)
+          .filter(node -> !node.location().equals(owner.location()));
+
+      if (!newOwner.isPresent()) {
+        throw e;
+      }
+
+      return fetch.apply(newOwner.get(), rowKeys);
+    }
+  }
+
+  private static Optional<KsqlNode> relocate(
+      final Materialization mat,
+      final List<Struct> rowKeys
+  ) {
+    KsqlNode newOwner = null;
+    for (final Struct rowKey : rowKeys) {
+      final Optional<KsqlNode> owner = mat.locator().locate(rowKey);
+      if (!owner.isPresent()) {
+        return Optional.empty();
       }
+
+      if (newOwner != null && !newOwner.location().equals(owner.get().location())) {
+        // Keys now have different owners:
+        return Optional.empty();
+      }
+
+      newOwner = owner.get();
+    }
+
+    return Optional.ofNullable(newOwner);
+  }
+
+  private static TableRowsEntity await(final Future<TableRowsEntity> remoteResult) {
+    try {
+      return remoteResult.get();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new KsqlServerException("Interrupted waiting for proxy attempt", e);
+    } catch (final ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new KsqlServerException("Proxy attempt failed: " + e.getCause().getMessage(), e);
     }
+  }
 
-    throw new MaterializationTimeOutException(
-        "The owner of the key could not be determined within the configured timeout: "
-            + timeoutMs + "ms, config: " + KsqlConfig.KSQL_QUERY_PULL_ROUTING_TIMEOUT_MS_CONFIG
+  /**
+   * The pool that forwards keys to their remote owners. Its size is bounded. When every thread
+   * is busy, the calling thread forwards the keys itself. This slows that request down rather
+   * than queueing it behind slow peers or failing it. Once the pool is closed, forwarding fails.
+   */
+  private static ExecutorService forwardingExecutor(final int threads) {
+    final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+        threads,
+        threads,
+        60L,
+        TimeUnit.SECONDS,
+        new SynchronousQueue<>(),
+        new ThreadFactoryBuilder()
+            .setNameFormat("pull-query-forwarder-%d")
+            .setDaemon(true)
+            .build(),
+        (task, pool) -> {
+          if (pool.isShutdown()) {
+            throw new RejectedExecutionException("Pull query forwarding has been shut down");
+          }
+          task.run();
+        }
     );
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
   }
 
   private static TableRowsEntity proxyTo(
@@ -737,7 +1135,7 @@ public final class PullQueryExecutor {
             + System.lineSeparator()
             + "    + a range, e.g. `WHERE a <= WINDOWSTART AND WINDOWSTART < b"
             + System.lineSeparator()
-            + "WINDOWSTART currently supports operators: " + VALID_WINDOW_BOUNDS_TYPES_STRING
+            + "WINDOWSTART currently supports operators: " + VALID_BOUNDS_TYPES_STRING
             + System.lineSeparator()
             + "WINDOWSTART currently comparison with epoch milliseconds "
             + "or a datetime string in the form: " + KsqlConstants.DATE_TIME_PATTERN
@@ -748,7 +1146,12 @@ public final class PullQueryExecutor {
         + System.lineSeparator()
         + "Pull queries require a WHERE clause that:"
         + System.lineSeparator()
-        + " - limits the query to a single ROWKEY, e.g. `SELECT * FROM X WHERE ROWKEY=Y;`."
+        + " - limits the query to a single ROWKEY, e.g. `SELECT * FROM X WHERE ROWKEY=Y;`, or"
+        + System.lineSeparator()
+        + " - limits the query to a set of ROWKEYs, e.g. `WHERE ROWKEY IN (Y, Z)`, or"
+        + System.lineSeparator()
+        + " - for non-windowed tables, limits the query to a range of ROWKEYs, "
+        + "e.g. `WHERE Y <= ROWKEY AND ROWKEY < Z`."
         + additional
     );
   }
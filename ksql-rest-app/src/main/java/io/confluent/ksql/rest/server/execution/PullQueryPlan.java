@@ -0,0 +1,222 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.execution;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.confluent.ksql.KsqlExecutionContext;
+import io.confluent.ksql.analyzer.Analysis;
+import io.confluent.ksql.execution.expression.tree.Expression;
+import io.confluent.ksql.execution.streams.SelectValueMapper;
+import io.confluent.ksql.execution.streams.materialization.Materialization;
+import io.confluent.ksql.metastore.MetaStore;
+import io.confluent.ksql.metastore.model.DataSource;
+import io.confluent.ksql.name.SourceName;
+import io.confluent.ksql.parser.tree.Query;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.statement.ConfiguredStatement;
+import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.PersistentQueryMetadata;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * The parts of executing a pull query that depend on the shape of the query, rather than the
+ * keys it looks up, i.e. the analysis, the materializing query and the projection.
+ *
+ * <p>The projection is only built on first use, as it is only needed if rows are read locally,
+ * and is then shared by all plans bound from this one.
+ */
+final class PullQueryPlan {
+
+  private final KsqlConfig ksqlConfig;
+  private final Map<String, Object> overrides;
+  private final Query statement;
+  private final Analysis analysis;
+  private final DataSource<?> source;
+  private final PersistentQueryMetadata persistentQuery;
+  private final Materialization materialization;
+  private final Optional<Expression> where;
+  private final Supplier<Projection> projection;
+
+  PullQueryPlan(
+      final ConfiguredStatement<Query> statement,
+      final Analysis analysis,
+      final DataSource<?> source,
+      final PersistentQueryMetadata persistentQuery,
+      final Materialization materialization,
+      final Supplier<Projection> projection
+  ) {
+    this(
+        statement.getConfig(),
+        ImmutableMap.copyOf(statement.getOverrides()),
+        statement.getStatement(),
+        analysis,
+        source,
+        persistentQuery,
+        materialization,
+        analysis.getWhereExpression(),
+        Suppliers.memoize(projection::get)
+    );
+  }
+
+  private PullQueryPlan(
+      final KsqlConfig ksqlConfig,
+      final Map<String, Object> overrides,
+      final Query statement,
+      final Analysis analysis,
+      final DataSource<?> source,
+      final PersistentQueryMetadata persistentQuery,
+      final Materialization materialization,
+      final Optional<Expression> where,
+      final Supplier<Projection> projection
+  ) {
+    this.ksqlConfig = requireNonNull(ksqlConfig, "ksqlConfig");
+    this.overrides = requireNonNull(overrides, "overrides");
+    this.statement = requireNonNull(statement, "statement");
+    this.analysis = requireNonNull(analysis, "analysis");
+    this.source = requireNonNull(source, "source");
+    this.persistentQuery = requireNonNull(persistentQuery, "persistentQuery");
+    this.materialization = requireNonNull(materialization, "materialization");
+    this.where = requireNonNull(where, "where");
+    this.projection = requireNonNull(projection, "projection");
+  }
+
+  Query statement() {
+    return statement;
+  }
+
+  Analysis analysis() {
+    return analysis;
+  }
+
+  SourceName sourceName() {
+    return source.getName();
+  }
+
+  PersistentQueryMetadata persistentQuery() {
+    return persistentQuery;
+  }
+
+  Materialization materialization() {
+    return materialization;
+  }
+
+  /**
+   * @return the WHERE clause of the query, with any literals bound into the plan.
+   */
+  Optional<Expression> where() {
+    return where;
+  }
+
+  Projection projection() {
+    return projection.get();
+  }
+
+  /**
+   * @return {@code true} if the plan can still be used to execute the supplied statement, i.e. it
+   *     was built with the same config, and the source and its materializing query have not
+   *     changed since.
+   */
+  boolean isCurrent(
+      final ConfiguredStatement<Query> statement,
+      final KsqlExecutionContext executionContext
+  ) {
+    if (!ksqlConfig.equals(statement.getConfig())
+        || !overrides.equals(statement.getOverrides())) {
+      return false;
+    }
+
+    return isCurrent(executionContext);
+  }
+
+  /**
+   * @return {@code true} if the plan's source and its materializing query have not changed
+   *     since the plan was built.
+   */
+  boolean isCurrent(final KsqlExecutionContext executionContext) {
+    final MetaStore metaStore = executionContext.getMetaStore();
+    final SourceName sourceName = source.getName();
+    final String queryId = persistentQuery.getQueryId().getId();
+
+    return metaStore.getSource(sourceName) == source
+        && metaStore.getQueriesWithSink(sourceName).equals(ImmutableSet.of(queryId))
+        && executionContext.getPersistentQuery(persistentQuery.getQueryId())
+            .map(query -> query == persistentQuery)
+            .orElse(false);
+  }
+
+  /**
+   * @return a copy of the plan with the template's literals bound into its WHERE clause, or
+   *     {@link Optional#empty()} if they can not be bound.
+   */
+  Optional<PullQueryPlan> bind(final PullQueryTemplate template) {
+    return where
+        .flatMap(template::bind)
+        .map(bound -> new PullQueryPlan(
+            ksqlConfig,
+            overrides,
+            statement,
+            analysis,
+            source,
+            persistentQuery,
+            materialization,
+            Optional.of(bound),
+            projection
+        ));
+  }
+
+  /**
+   * @return {@code true} if the plan was built from a statement with the supplied template, and
+   *     so can be reused by other statements with the same template.
+   */
+  boolean canBind(final PullQueryTemplate template) {
+    return bind(template)
+        .map(bound -> bound.where.equals(where))
+        .orElse(false);
+  }
+
+  static final class Projection {
+
+    private final LogicalSchema schema;
+    private final Optional<SelectValueMapper<Object>> select;
+
+    /**
+     * @param schema the schema of the rows the query returns.
+     * @param select the mapper to apply to the rows in the store, if the query does not select
+     *     all columns.
+     */
+    Projection(
+        final LogicalSchema schema,
+        final Optional<SelectValueMapper<Object>> select
+    ) {
+      this.schema = requireNonNull(schema, "schema");
+      this.select = requireNonNull(select, "select");
+    }
+
+    LogicalSchema schema() {
+      return schema;
+    }
+
+    Optional<SelectValueMapper<Object>> select() {
+      return select;
+    }
+  }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.execution;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.confluent.ksql.KsqlExecutionContext;
+import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
+import io.confluent.ksql.parser.tree.Query;
+import io.confluent.ksql.statement.ConfiguredStatement;
+import io.confluent.ksql.util.KsqlConfig;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.Gauge;
+import org.apache.kafka.common.metrics.Metrics;
+
+/**
+ * A cache of pull query plans, shared by all requests to a server.
+ *
+ * <p>Pull queries are typically issued many times with the same shape, differing only in the
+ * keys they look up. Parsing, analyzing and compiling the projection of each is far more costly
+ * than looking up the keys. Plans are therefore cached, keyed on the {@link PullQueryTemplate}
+ * of the statement they were built from, and reused by later statements with the same template
+ * by binding the later statement's literals into the cached plan.
+ *
+ * <p>A cached plan is only reused while its source and the query materializing it are unchanged
+ * in the metastore. Otherwise it is replaced by a newly built plan. The least recently used plans
+ * are evicted once the cache is full.
+ *
+ * <p>The cache registers its metrics on creation, and they are removed when it is closed.
+ */
+public final class PullQueryPlanCache {
+
+  private static final String METRIC_GROUP = "ksql-pull-queries";
+
+  private final boolean enabled;
+  private final Cache<String, PullQueryPlan> cache;
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final Optional<Metrics> metrics;
+  private final List<MetricName> metricNames = new ArrayList<>();
+
+  public PullQueryPlanCache(final KsqlConfig ksqlConfig, final Metrics metrics) {
+    this(
+        ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_PULL_PLAN_CACHE_ENABLE_CONFIG)
+            ? ksqlConfig.getInt(KsqlConfig.KSQL_QUERY_PULL_PLAN_CACHE_MAX_ENTRIES_CONFIG)
+            : 0,
+        Optional.of(metrics)
+    );
+  }
+
+  @VisibleForTesting
+  PullQueryPlanCache(final int maxEntries, final Optional<Metrics> metrics) {
+    this.enabled = maxEntries > 0;
+    this.cache = CacheBuilder.newBuilder()
+        .maximumSize(maxEntries)
+        .build();
+    this.metrics = metrics;
+
+    metrics.ifPresent(this::registerMetrics);
+  }
+
+  /**
+   * Remove the cache's metrics and drop the cached plans.
+   */
+  public void close() {
+    metrics.ifPresent(m -> metricNames.forEach(m::removeMetric));
+    cache.invalidateAll();
+  }
+
+  /**
+   * Prepare the supplied statement without parsing it, if a plan has been cached for an earlier
+   * statement with the same template.
+   *
+   * <p>The statement is built by binding the literals of the supplied statement into the tree of
+   * the earlier one, giving the same tree parsing it would. A plan whose source or materializing
+   * query has since changed is evicted rather than used.
+   *
+   * @param sql the text of the statement.
+   * @param executionContext the context the statement will be executed in.
+   * @return the prepared statement, or {@link Optional#empty()} if there is no current cached plan
+   *     for a statement with the same template, in which case the statement should be parsed.
+   */
+  public Optional<PreparedStatement<Query>> prepare(
+      final String sql,
+      final KsqlExecutionContext executionContext
+  ) {
+    if (!enabled) {
+      return Optional.empty();
+    }
+
+    final Optional<PullQueryTemplate> template = PullQueryTemplate.of(sql);
+    if (!template.isPresent()) {
+      return Optional.empty();
+    }
+
+    final String key = template.get().key();
+    final PullQueryPlan plan = cache.getIfPresent(key);
+    if (plan == null) {
+      return Optional.empty();
+    }
+
+    if (!plan.isCurrent(executionContext)) {
+      evict(key, plan);
+      return Optional.empty();
+    }
+
+    return template.get().bind(plan.statement())
+        .map(query -> PreparedStatement.of(sql.trim(), query));
+  }
+
+  /**
+   * Get the plan for the supplied statement, either bound from the cached plan for a statement
+   * with the same template, or built by the supplied {@code planner}.
+   *
+   * @param statement the statement to plan.
+   * @param executionContext the context the statement will be executed in.
+   * @param planner the planner to call if there is no usable cached plan.
+   * @return the plan.
+   */
+  PullQueryPlan plan(
+      final ConfiguredStatement<Query> statement,
+      final KsqlExecutionContext executionContext,
+      final BiFunction<ConfiguredStatement<Query>, KsqlExecutionContext, PullQueryPlan> planner
+  ) {
+    if (!enabled
+        || !statement.getConfig().getBoolean(KsqlConfig.KSQL_QUERY_PULL_PLAN_CACHE_ENABLE_CONFIG)) {
+      return planner.apply(statement, executionContext);
+    }
+
+    final Optional<PullQueryTemplate> template =
+        PullQueryTemplate.of(statement.getStatementText());
+
+    if (!template.isPresent()) {
+      return planner.apply(statement, executionContext);
+    }
+
+    final String key = template.get().key();
+    final PullQueryPlan cached = cache.getIfPresent(key);
+    if (cached != null) {
+      if (cached.isCurrent(statement, executionContext)) {
+        final Optional<PullQueryPlan> bound = cached.bind(template.get());
+        if (bound.isPresent()) {
+          hits.incrementAndGet();
+          return bound.get();
+        }
+      } else {
+        // Evict now, so the stale plan is not kept if the statement fails to plan:
+        evict(key, cached);
+      }
+    }
+
+    misses.incrementAndGet();
+
+    final PullQueryPlan plan = planner.apply(statement, executionContext);
+    if (plan.canBind(template.get())) {
+      cache.put(key, plan);
+    } else {
+      cache.invalidate(key);
+    }
+
+    return plan;
+  }
+
+  /**
+   * Evict a stale plan, unless it has already been replaced, so that it no longer holds on to
+   * its source and materializing query.
+   */
+  private void evict(final String key, final PullQueryPlan plan) {
+    cache.asMap().remove(key, plan);
+  }
+
+  @VisibleForTesting
+  long size() {
+    return cache.size();
+  }
+
+  private void registerMetrics(final Metrics metrics) {
+    addGauge(metrics, "plan-cache-hit-count",
+        "The number of pull queries executed using a cached plan.",
+        (config, now) -> hits.get());
+
+    addGauge(metrics, "plan-cache-miss-count",
+        "The number of pull queries that had to be planned from scratch.",
+        (config, now) -> misses.get());
+
+    addGauge(metrics, "plan-cache-size",
+        "The number of pull query plans in the cache.",
+        (config, now) -> cache.size());
+  }
+
+  private void addGauge(
+      final Metrics metrics,
+      final String name,
+      final String description,
+      final Gauge<Long> gauge
+  ) {
+    final MetricName metricName = metrics.metricName(name, METRIC_GROUP, description);
+    metrics.addMetric(metricName, gauge);
+    metricNames.add(metricName);
+  }
+}
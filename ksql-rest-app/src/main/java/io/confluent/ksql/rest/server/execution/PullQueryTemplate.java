@@ -0,0 +1,295 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.execution;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import io.confluent.ksql.execution.expression.tree.ColumnReferenceExp;
+import io.confluent.ksql.execution.expression.tree.ComparisonExpression;
+import io.confluent.ksql.execution.expression.tree.Expression;
+import io.confluent.ksql.execution.expression.tree.InListExpression;
+import io.confluent.ksql.execution.expression.tree.InPredicate;
+import io.confluent.ksql.execution.expression.tree.IntegerLiteral;
+import io.confluent.ksql.execution.expression.tree.Literal;
+import io.confluent.ksql.execution.expression.tree.LogicalBinaryExpression;
+import io.confluent.ksql.execution.expression.tree.LongLiteral;
+import io.confluent.ksql.execution.expression.tree.StringLiteral;
+import io.confluent.ksql.parser.CaseInsensitiveStream;
+import io.confluent.ksql.parser.SqlBaseLexer;
+import io.confluent.ksql.parser.tree.Query;
+import io.confluent.ksql.util.ParserUtil;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.antlr.v4.runtime.BaseErrorListener;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.RecognitionException;
+import org.antlr.v4.runtime.Recognizer;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+
+/**
+ * The text of a pull query with the literals in its WHERE clause replaced by placeholders.
+ *
+ * <p>Pull queries are typically issued many times with the same shape, differing only in the
+ * keys they look up. The template's key identifies the shape, so that the plan built for one
+ * query can be reused by others, by binding their literals into it.
+ *
+ * <p>The template is built by lexing the statement, which is much cheaper than parsing it.
+ * Whitespace and comments are dropped, and the string and integer literals in the WHERE clause
+ * are replaced by placeholders, recording the kind of each. Statements with the same key
+ * therefore parse to the same tree, other than the values of those literals.
+ */
+final class PullQueryTemplate {
+
+  private static final String STRING_PLACEHOLDER = "'?'";
+  private static final String INTEGER_PLACEHOLDER = "?";
+
+  private static final Set<Integer> WHERE_CLAUSE_END = ImmutableSet.of(
+      SqlBaseLexer.GROUP,
+      SqlBaseLexer.HAVING,
+      SqlBaseLexer.EMIT,
+      SqlBaseLexer.LIMIT
+  );
+
+  private static final BaseErrorListener ERROR_LISTENER = new BaseErrorListener() {
+    @Override
+    public void syntaxError(
+        final Recognizer<?, ?> recognizer,
+        final Object offendingSymbol,
+        final int line,
+        final int charPositionInLine,
+        final String message,
+        final RecognitionException e
+    ) {
+      throw new ParseCancellationException(message);
+    }
+  };
+
+  private final String key;
+  private final List<Literal> literals;
+
+  /**
+   * Build the template of the supplied statement.
+   *
+   * @param sql the text of the statement.
+   * @return the template, or {@link Optional#empty()} if the text is not a single SELECT
+   *     statement, or can not be lexed.
+   */
+  static Optional<PullQueryTemplate> of(final String sql) {
+    final SqlBaseLexer lexer = new SqlBaseLexer(
+        new CaseInsensitiveStream(CharStreams.fromString(sql)));
+
+    lexer.removeErrorListeners();
+    lexer.addErrorListener(ERROR_LISTENER);
+
+    final List<? extends Token> tokens;
+    try {
+      tokens = lexer.getAllTokens();
+    } catch (final ParseCancellationException e) {
+      return Optional.empty();
+    }
+
+    final StringBuilder key = new StringBuilder();
+    final ImmutableList.Builder<Literal> literals = ImmutableList.builder();
+    boolean inWhere = false;
+    boolean terminated = false;
+
+    for (final Token token : tokens) {
+      if (token.getChannel() != Token.DEFAULT_CHANNEL) {
+        continue;
+      }
+
+      final int type = token.getType();
+      final boolean first = key.length() == 0;
+      if (terminated
+          || (first && type != SqlBaseLexer.SELECT)
+          || type == SqlBaseLexer.UNRECOGNIZED) {
+        return Optional.empty();
+      }
+
+      if (type == SqlBaseLexer.WHERE) {
+        inWhere = true;
+      } else if (WHERE_CLAUSE_END.contains(type)) {
+        inWhere = false;
+      }
+
+      final String text = token.getText();
+      if (inWhere && type == SqlBaseLexer.STRING) {
+        key.append(STRING_PLACEHOLDER);
+        literals.add(new StringLiteral(ParserUtil.unquote(text, "'")));
+      } else if (inWhere && type == SqlBaseLexer.INTEGER_VALUE) {
+        final Optional<Literal> literal = integerLiteral(text);
+        if (!literal.isPresent()) {
+          return Optional.empty();
+        }
+        key.append(INTEGER_PLACEHOLDER);
+        literals.add(literal.get());
+      } else {
+        key.append(text);
+      }
+
+      key.append(' ');
+      terminated = text.equals(";");
+    }
+
+    if (!terminated) {
+      return Optional.empty();
+    }
+
+    return Optional.of(new PullQueryTemplate(key.toString(), literals.build()));
+  }
+
+  private PullQueryTemplate(final String key, final List<Literal> literals) {
+    this.key = requireNonNull(key, "key");
+    this.literals = requireNonNull(literals, "literals");
+  }
+
+  /**
+   * @return the key identifying the shape of the statement.
+   */
+  String key() {
+    return key;
+  }
+
+  /**
+   * @return the literals replaced by placeholders, in the order they appear in the statement.
+   */
+  List<Literal> literals() {
+    return literals;
+  }
+
+  /**
+   * Bind the template's literals into the WHERE clause of the supplied query, which must be from
+   * a statement with the same key.
+   *
+   * @param query a query from a statement with the same key.
+   * @return the bound query, or {@link Optional#empty()} if its WHERE clause is not of a shape
+   *     that the template's literals can be bound into.
+   */
+  Optional<Query> bind(final Query query) {
+    return query.getWhere()
+        .flatMap(this::bind)
+        .map(where -> new Query(
+            query.getLocation(),
+            query.getSelect(),
+            query.getFrom(),
+            query.getWindow(),
+            Optional.of(where),
+            query.getGroupBy(),
+            query.getHaving(),
+            query.getResultMaterialization(),
+            query.isPullQuery(),
+            query.getLimit()
+        ));
+  }
+
+  /**
+   * Bind the template's literals into the supplied WHERE clause, which must be from a statement
+   * with the same key.
+   *
+   * <p>Only the comparisons, IN lists and conjunctions supported by pull queries can be bound.
+   *
+   * @param where the WHERE clause of a statement with the same key.
+   * @return the bound WHERE clause, or {@link Optional#empty()} if it is not of a shape that the
+   *     template's literals can be bound into.
+   */
+  Optional<Expression> bind(final Expression where) {
+    final Iterator<Literal> it = literals.iterator();
+    final Optional<Expression> bound = bind(where, it);
+    return it.hasNext() ? Optional.empty() : bound;
+  }
+
+  private static Optional<Expression> bind(final Expression exp, final Iterator<Literal> it) {
+    if (exp instanceof ColumnReferenceExp) {
+      return Optional.of(exp);
+    }
+
+    if (exp instanceof StringLiteral || exp instanceof IntegerLiteral
+        || exp instanceof LongLiteral) {
+      if (!it.hasNext()) {
+        return Optional.empty();
+      }
+
+      final Literal literal = it.next();
+      return isString(literal) == isString(exp)
+          ? Optional.of(literal)
+          : Optional.empty();
+    }
+
+    if (exp instanceof ComparisonExpression) {
+      final ComparisonExpression comparison = (ComparisonExpression) exp;
+      final Optional<Expression> left = bind(comparison.getLeft(), it);
+      final Optional<Expression> right = left.flatMap(l -> bind(comparison.getRight(), it));
+      return right.map(r -> new ComparisonExpression(
+          comparison.getLocation(), comparison.getType(), left.get(), r));
+    }
+
+    if (exp instanceof InPredicate) {
+      final InPredicate in = (InPredicate) exp;
+      final Optional<Expression> value = bind(in.getValue(), it);
+      if (!value.isPresent()) {
+        return Optional.empty();
+      }
+
+      final ImmutableList.Builder<Expression> values = ImmutableList.builder();
+      for (final Expression e : in.getValueList().getValues()) {
+        final Optional<Expression> bound = bind(e, it);
+        if (!bound.isPresent()) {
+          return Optional.empty();
+        }
+        values.add(bound.get());
+      }
+
+      return Optional.of(new InPredicate(
+          in.getLocation(),
+          value.get(),
+          new InListExpression(in.getValueList().getLocation(), values.build())
+      ));
+    }
+
+    if (exp instanceof LogicalBinaryExpression) {
+      final LogicalBinaryExpression binary = (LogicalBinaryExpression) exp;
+      final Optional<Expression> left = bind(binary.getLeft(), it);
+      final Optional<Expression> right = left.flatMap(l -> bind(binary.getRight(), it));
+      return right.map(r -> new LogicalBinaryExpression(
+          binary.getLocation(), binary.getType(), left.get(), r));
+    }
+
+    return Optional.empty();
+  }
+
+  private static boolean isString(final Expression literal) {
+    return literal instanceof StringLiteral;
+  }
+
+  private static Optional<Literal> integerLiteral(final String text) {
+    final long value;
+    try {
+      value = Long.parseLong(text);
+    } catch (final NumberFormatException e) {
+      return Optional.empty();
+    }
+
+    // Matches the literal built by the parser:
+    return value <= Integer.MAX_VALUE
+        ? Optional.of(new IntegerLiteral((int) value))
+        : Optional.of(new LongLiteral(value));
+  }
+}
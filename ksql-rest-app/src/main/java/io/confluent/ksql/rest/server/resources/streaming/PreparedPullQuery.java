@@ -0,0 +1,166 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.resources.streaming;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.parser.CaseInsensitiveStream;
+import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
+import io.confluent.ksql.parser.SqlBaseLexer;
+import io.confluent.ksql.parser.tree.Query;
+import io.confluent.ksql.util.KsqlException;
+import io.confluent.ksql.util.KsqlStatementException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.Token;
+
+/**
+ * A pull query containing bind variables, written as {@code ?}, e.g.
+ * {@code SELECT * FROM T WHERE ROWKEY = ?;}.
+ *
+ * <p>The query is validated once, when it is prepared. Each execution then only supplies the
+ * values of the bind variables, which are bound into the text of the query as literals. As
+ * executions of the same prepared query differ only in these literals, all but the first are
+ * served from the pull query plan cache without being parsed.
+ */
+final class PreparedPullQuery {
+
+  private static final String BIND_VARIABLE = "?";
+
+  private final String statementText;
+  private final List<String> fragments;
+  private final Map<String, Object> streamsProperties;
+
+  /**
+   * Prepare the supplied query.
+   *
+   * @param sql the text of the query.
+   * @param streamsProperties the property overrides to execute the query with.
+   * @param parser the parser used to validate the query.
+   * @return the prepared query.
+   * @throws KsqlStatementException if the text is not a valid pull query.
+   */
+  static PreparedPullQuery prepare(
+      final String sql,
+      final Map<String, Object> streamsProperties,
+      final Function<String, PreparedStatement<?>> parser
+  ) {
+    final SqlBaseLexer lexer = new SqlBaseLexer(
+        new CaseInsensitiveStream(CharStreams.fromString(sql)));
+
+    final ImmutableList.Builder<String> fragments = ImmutableList.builder();
+    int start = 0;
+    for (final Token token : lexer.getAllTokens()) {
+      if (token.getType() == SqlBaseLexer.UNRECOGNIZED
+          && token.getText().equals(BIND_VARIABLE)) {
+        fragments.add(sql.substring(start, token.getStartIndex()));
+        start = token.getStopIndex() + 1;
+      }
+    }
+    fragments.add(sql.substring(start));
+
+    final PreparedPullQuery prepared =
+        new PreparedPullQuery(sql, fragments.build(), streamsProperties);
+
+    // Any literal will do to check the query parses:
+    final String validation =
+        prepared.render(Collections.nCopies(prepared.getParameterCount(), "''"));
+
+    final PreparedStatement<?> statement = parser.apply(validation);
+    if (!(statement.getStatement() instanceof Query)
+        || !((Query) statement.getStatement()).isPullQuery()) {
+      throw new KsqlStatementException("Only pull queries can be prepared.", sql);
+    }
+
+    return prepared;
+  }
+
+  private PreparedPullQuery(
+      final String statementText,
+      final List<String> fragments,
+      final Map<String, Object> streamsProperties
+  ) {
+    this.statementText = requireNonNull(statementText, "statementText");
+    this.fragments = requireNonNull(fragments, "fragments");
+    this.streamsProperties =
+        ImmutableMap.copyOf(requireNonNull(streamsProperties, "streamsProperties"));
+  }
+
+  String getStatementText() {
+    return statementText;
+  }
+
+  /**
+   * @return the number of bind variables in the query.
+   */
+  int getParameterCount() {
+    return fragments.size() - 1;
+  }
+
+  Map<String, Object> getStreamsProperties() {
+    return streamsProperties;
+  }
+
+  /**
+   * Bind the supplied values to the query's bind variables.
+   *
+   * <p>Only string and integer values are supported, as these are the only types of key that can
+   * be looked up by pull queries.
+   *
+   * @param parameters the values, in the order the bind variables appear in the query.
+   * @return the text of the query with the values bound.
+   * @throws KsqlException if the number or type of the values is not supported.
+   */
+  String bind(final List<?> parameters) {
+    if (parameters.size() != getParameterCount()) {
+      throw new KsqlException("Prepared query expects " + getParameterCount()
+          + " parameter(s), but " + parameters.size() + " were supplied.");
+    }
+
+    final ImmutableList.Builder<String> literals = ImmutableList.builder();
+    for (final Object parameter : parameters) {
+      literals.add(toLiteral(parameter));
+    }
+
+    return render(literals.build());
+  }
+
+  private String render(final List<String> literals) {
+    final StringBuilder sql = new StringBuilder(fragments.get(0));
+    for (int i = 0; i < literals.size(); i++) {
+      sql.append(literals.get(i)).append(fragments.get(i + 1));
+    }
+    return sql.toString();
+  }
+
+  private static String toLiteral(final Object parameter) {
+    if (parameter instanceof String) {
+      return "'" + ((String) parameter).replace("'", "''") + "'";
+    }
+
+    if (parameter instanceof Integer || parameter instanceof Long) {
+      return parameter.toString();
+    }
+
+    throw new KsqlException("Unsupported parameter: " + parameter
+        + ". Only STRING and integer parameters are supported.");
+  }
+}
@@ -17,7 +17,6 @@ package io.confluent.ksql.rest.server.resources.streaming;
 
 import static java.util.Objects.requireNonNull;
 
-import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.KsqlExecutionContext;
@@ -25,7 +24,6 @@ import io.confluent.ksql.engine.KsqlEngine;
 import io.confluent.ksql.parser.tree.Query;
 import io.confluent.ksql.rest.entity.StreamedRow;
 import io.confluent.ksql.rest.entity.TableRowsEntity;
-import io.confluent.ksql.rest.server.execution.PullQueryExecutor;
 import io.confluent.ksql.rest.server.resources.streaming.Flow.Subscriber;
 import io.confluent.ksql.services.ServiceContext;
 import io.confluent.ksql.statement.ConfiguredStatement;
@@ -41,15 +39,6 @@ class PullQueryPublisher implements Flow.Publisher<Collection<StreamedRow>> {
   private final ConfiguredStatement<Query> query;
   private final TheQueryExecutor pullQueryExecutor;
 
-  PullQueryPublisher(
-      final KsqlEngine ksqlEngine,
-      final ServiceContext serviceContext,
-      final ConfiguredStatement<Query> query
-  ) {
-    this(ksqlEngine, serviceContext, query, PullQueryExecutor::execute);
-  }
-
-  @VisibleForTesting
   PullQueryPublisher(
       final KsqlEngine ksqlEngine,
       final ServiceContext serviceContext,
@@ -18,6 +18,8 @@ package io.confluent.ksql.rest.server.resources.streaming;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.engine.KsqlEngine;
 import io.confluent.ksql.json.JsonMapper;
@@ -26,6 +28,8 @@ import io.confluent.ksql.parser.tree.PrintTopic;
 import io.confluent.ksql.parser.tree.Query;
 import io.confluent.ksql.rest.Errors;
 import io.confluent.ksql.rest.entity.KsqlRequest;
+import io.confluent.ksql.rest.entity.PreparedQueryHandle;
+import io.confluent.ksql.rest.entity.PreparedQueryRequest;
 import io.confluent.ksql.rest.entity.StreamedRow;
 import io.confluent.ksql.rest.entity.TableRowsEntity;
 import io.confluent.ksql.rest.entity.Versions;
@@ -52,11 +56,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
@@ -73,6 +79,8 @@ public class StreamedQueryResource implements KsqlConfigurable {
 
   private static final Logger log = LoggerFactory.getLogger(StreamedQueryResource.class);
 
+  private static final int MAX_PREPARED_QUERIES = 10_000;
+
   private final KsqlEngine ksqlEngine;
   private final StatementParser statementParser;
   private final CommandQueue commandQueue;
@@ -81,6 +89,8 @@ public class StreamedQueryResource implements KsqlConfigurable {
   private final ObjectMapper objectMapper;
   private final ActivenessRegistrar activenessRegistrar;
   private final Optional<KsqlAuthorizationValidator> authorizationValidator;
+  private final PullQueryExecutor pullQueryExecutor;
+  private final Cache<String, PreparedPullQuery> preparedQueries;
   private KsqlConfig ksqlConfig;
 
   public StreamedQueryResource(
@@ -89,7 +99,8 @@ public class StreamedQueryResource implements KsqlConfigurable {
       final Duration disconnectCheckInterval,
       final Duration commandQueueCatchupTimeout,
       final ActivenessRegistrar activenessRegistrar,
-      final Optional<KsqlAuthorizationValidator> authorizationValidator
+      final Optional<KsqlAuthorizationValidator> authorizationValidator,
+      final PullQueryExecutor pullQueryExecutor
   ) {
     this(
         ksqlEngine,
@@ -98,7 +109,8 @@ public class StreamedQueryResource implements KsqlConfigurable {
         disconnectCheckInterval,
         commandQueueCatchupTimeout,
         activenessRegistrar,
-        authorizationValidator
+        authorizationValidator,
+        pullQueryExecutor
     );
   }
 
@@ -110,7 +122,8 @@ public class StreamedQueryResource implements KsqlConfigurable {
       final Duration disconnectCheckInterval,
       final Duration commandQueueCatchupTimeout,
       final ActivenessRegistrar activenessRegistrar,
-      final Optional<KsqlAuthorizationValidator> authorizationValidator
+      final Optional<KsqlAuthorizationValidator> authorizationValidator,
+      final PullQueryExecutor pullQueryExecutor
   ) {
     this.ksqlEngine = Objects.requireNonNull(ksqlEngine, "ksqlEngine");
     this.statementParser = Objects.requireNonNull(statementParser, "statementParser");
@@ -123,6 +136,10 @@ public class StreamedQueryResource implements KsqlConfigurable {
     this.activenessRegistrar =
         Objects.requireNonNull(activenessRegistrar, "activenessRegistrar");
     this.authorizationValidator = authorizationValidator;
+    this.pullQueryExecutor = Objects.requireNonNull(pullQueryExecutor, "pullQueryExecutor");
+    this.preparedQueries = CacheBuilder.newBuilder()
+        .maximumSize(MAX_PREPARED_QUERIES)
+        .build();
   }
 
   @Override
@@ -143,12 +160,97 @@ public class StreamedQueryResource implements KsqlConfigurable {
 
     activenessRegistrar.updateLastRequestTime();
 
-    final PreparedStatement<?> statement = parseStatement(request);
+    final PreparedStatement<?> statement = parseStatement(request.getKsql());
 
     CommandStoreUtil.httpWaitForCommandSequenceNumber(
         commandQueue, request, commandQueueCatchupTimeout);
 
-    return handleStatement(serviceContext, request, statement);
+    return handleStatement(serviceContext, request.getStreamsProperties(), statement);
+  }
+
+  /**
+   * Prepare a pull query containing bind variables, written as {@code ?}, for later execution.
+   *
+   * <p>Prepared queries are held in memory by the server that prepared them, and the least
+   * recently used are dropped once there are too many. Clients should therefore be ready to
+   * prepare a query again should executing it fail with a 404.
+   */
+  @POST
+  @Path("/prepare")
+  public Response prepareQuery(final KsqlRequest request) {
+    throwIfNotConfigured();
+
+    activenessRegistrar.updateLastRequestTime();
+
+    final String ksql = request.getKsql();
+    throwIfEmpty(ksql);
+
+    CommandStoreUtil.httpWaitForCommandSequenceNumber(
+        commandQueue, request, commandQueueCatchupTimeout);
+
+    final PreparedPullQuery prepared;
+    try {
+      prepared = PreparedPullQuery.prepare(
+          ksql,
+          request.getStreamsProperties(),
+          statementParser::parseSingleStatement
+      );
+    } catch (final KsqlStatementException e) {
+      return Errors.badStatement(e.getRawMessage(), e.getSqlStatement());
+    } catch (IllegalArgumentException | KsqlException e) {
+      return Errors.badStatement(e, ksql);
+    }
+
+    final String handle = UUID.randomUUID().toString();
+    preparedQueries.put(handle, prepared);
+
+    return Response.ok()
+        .entity(new PreparedQueryHandle(handle, ksql, prepared.getParameterCount()))
+        .build();
+  }
+
+  /**
+   * Execute a query previously prepared by {@link #prepareQuery}, binding the supplied
+   * parameters to its bind variables.
+   */
+  @POST
+  @Path("/prepared/{handle}")
+  public Response executePreparedQuery(
+      @Context final ServiceContext serviceContext,
+      @PathParam("handle") final String handle,
+      final PreparedQueryRequest request
+  ) {
+    throwIfNotConfigured();
+
+    activenessRegistrar.updateLastRequestTime();
+
+    final PreparedPullQuery prepared = preparedQueries.getIfPresent(handle);
+    if (prepared == null) {
+      return Errors.notFound("Unknown prepared query: " + handle
+          + ". Prepared queries are local to the server that prepared them, "
+          + "and may be dropped. Prepare the query again.");
+    }
+
+    final String ksql;
+    try {
+      ksql = prepared.bind(request.getParameters());
+    } catch (final KsqlException e) {
+      return Errors.badStatement(e, prepared.getStatementText());
+    }
+
+    final PreparedStatement<?> statement = parseStatement(ksql);
+
+    CommandStoreUtil.httpWaitForCommandSequenceNumber(
+        commandQueue,
+        new KsqlRequest(
+            ksql,
+            prepared.getStreamsProperties(),
+            request.getCommandSequenceNumber().orElse(null)
+        ),
+        commandQueueCatchupTimeout
+    );
+
+    return handleStatement(serviceContext, prepared.getStreamsProperties(), statement);
   }
 
   private void throwIfNotConfigured() {
@@ -157,11 +259,22 @@ public class StreamedQueryResource implements KsqlConfigurable {
     }
   }
 
-  private PreparedStatement<?> parseStatement(final KsqlRequest request) {
-    final String ksql = request.getKsql();
+  private static void throwIfEmpty(final String ksql) {
     if (ksql.trim().isEmpty()) {
       throw new KsqlRestException(Errors.badRequest("\"ksql\" field must be populated"));
     }
+  }
+
+  private PreparedStatement<?> parseStatement(final String ksql) {
+    throwIfEmpty(ksql);
+
+    // Repeats of a pull query need not be parsed, as the tree can be bound from a cached plan:
+    final Optional<PreparedStatement<Query>> cached =
+        pullQueryExecutor.prepare(ksql, ksqlEngine);
+
+    if (cached.isPresent()) {
+      return cached.get();
+    }
 
     try {
       return statementParser.parseSingleStatement(ksql);
@@ -173,7 +286,7 @@ public class StreamedQueryResource implements KsqlConfigurable {
   @SuppressWarnings("unchecked")
   private Response handleStatement(
       final ServiceContext serviceContext,
-      final KsqlRequest request,
+      final Map<String, Object> streamsProperties,
       final PreparedStatement<?> statement
   )  {
     try {
@@ -201,7 +314,7 @@ public class StreamedQueryResource implements KsqlConfigurable {
           return handlePullQuery(
               serviceContext,
               queryStmt,
-              request.getStreamsProperties()
+              streamsProperties
           );
         }
 
@@ -209,7 +322,7 @@ public class StreamedQueryResource implements KsqlConfigurable {
         return handlePushQuery(
             serviceContext,
             queryStmt,
-            request.getStreamsProperties()
+            streamsProperties
         );
       }
 
@@ -217,7 +330,7 @@ public class StreamedQueryResource implements KsqlConfigurable {
         authorizationValidator.ifPresent(authValidationConsumer);
         return handlePrintTopic(
             serviceContext,
-            request.getStreamsProperties(),
+            streamsProperties,
             (PreparedStatement<PrintTopic>) statement);
       }
 
@@ -242,7 +355,7 @@ public class StreamedQueryResource implements KsqlConfigurable {
     final ConfiguredStatement<Query> configured =
         ConfiguredStatement.of(statement, streamsProperties, ksqlConfig);
 
-    final TableRowsEntity entity = PullQueryExecutor
+    final TableRowsEntity entity = pullQueryExecutor
         .execute(configured, ksqlEngine, serviceContext);
 
     final StreamedRow header = StreamedRow.header(entity.getQueryId(), entity.getSchema());
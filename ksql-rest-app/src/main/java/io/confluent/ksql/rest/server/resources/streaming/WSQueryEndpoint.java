@@ -29,6 +29,7 @@ import io.confluent.ksql.rest.entity.StreamedRow;
 import io.confluent.ksql.rest.entity.Versions;
 import io.confluent.ksql.rest.server.StatementParser;
 import io.confluent.ksql.rest.server.computation.CommandQueue;
+import io.confluent.ksql.rest.server.execution.PullQueryExecutor;
 import io.confluent.ksql.rest.server.services.RestServiceContextFactory;
 import io.confluent.ksql.rest.server.services.RestServiceContextFactory.DefaultServiceContextFactory;
 import io.confluent.ksql.rest.server.services.RestServiceContextFactory.UserServiceContextFactory;
@@ -110,7 +111,8 @@ public class WSQueryEndpoint {
       final Duration commandQueueCatchupTimeout,
       final Optional<KsqlAuthorizationValidator> authorizationValidator,
       final KsqlSecurityExtension securityExtension,
-      final ServerState serverState
+      final ServerState serverState,
+      final PullQueryExecutor pullQueryExecutor
   ) {
     this(ksqlConfig,
         mapper,
@@ -119,7 +121,7 @@ public class WSQueryEndpoint {
         commandQueue,
         exec,
         WSQueryEndpoint::startPushQueryPublisher,
-        WSQueryEndpoint::startPullQueryPublisher,
+        pullQueryPublisher(pullQueryExecutor),
         WSQueryEndpoint::startPrintPublisher,
         activenessRegistrar,
         commandQueueCatchupTimeout,
@@ -433,15 +435,11 @@ public class WSQueryEndpoint {
         .subscribe(streamSubscriber);
   }
 
-  private static void startPullQueryPublisher(
-      final KsqlEngine ksqlEngine,
-      final ServiceContext serviceContext,
-      final ListeningScheduledExecutorService ignored,
-      final ConfiguredStatement<Query> query,
-      final WebSocketSubscriber<StreamedRow> streamSubscriber
-  ) {
-    new PullQueryPublisher(ksqlEngine, serviceContext, query)
-        .subscribe(streamSubscriber);
+  private static QueryPublisher pullQueryPublisher(final PullQueryExecutor pullQueryExecutor) {
+    Objects.requireNonNull(pullQueryExecutor, "pullQueryExecutor");
+    return (ksqlEngine, serviceContext, ignored, query, streamSubscriber) ->
+        new PullQueryPublisher(ksqlEngine, serviceContext, query, pullQueryExecutor::execute)
+            .subscribe(streamSubscriber);
   }
 
   private static void startPrintPublisher(
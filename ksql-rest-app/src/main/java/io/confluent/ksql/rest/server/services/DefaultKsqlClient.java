@@ -18,13 +18,11 @@ package io.confluent.ksql.rest.server.services;
 import static java.util.Objects.requireNonNull;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableList.Builder;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableMap;
 import io.confluent.ksql.properties.LocalProperties;
 import io.confluent.ksql.rest.client.KsqlClient;
 import io.confluent.ksql.rest.client.KsqlTarget;
-import io.confluent.ksql.rest.client.QueryStream;
 import io.confluent.ksql.rest.client.RestResponse;
 import io.confluent.ksql.rest.entity.KsqlEntityList;
 import io.confluent.ksql.rest.entity.StreamedRow;
@@ -32,21 +30,27 @@ import io.confluent.ksql.services.SimpleKsqlClient;
 import java.net.URI;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 final class DefaultKsqlClient implements SimpleKsqlClient {
 
+  /**
+   * A client is created per request, but all share the one http client. This means connections
+   * to other servers are kept alive and reused across requests, rather than each request
+   * opening, and leaking, its own.
+   */
+  private static final Supplier<KsqlClient> SHARED_CLIENT = Suppliers.memoize(
+      () -> new KsqlClient(
+          ImmutableMap.of(),
+          Optional.empty(),
+          new LocalProperties(ImmutableMap.of())
+      ));
+
   private final Optional<String> authHeader;
   private final KsqlClient sharedClient;
 
   DefaultKsqlClient(final Optional<String> authHeader) {
-    this(
-        authHeader,
-        new KsqlClient(
-            ImmutableMap.of(),
-            Optional.empty(),
-            new LocalProperties(ImmutableMap.of())
-        )
-    );
+    this(authHeader, SHARED_CLIENT.get());
   }
 
   @VisibleForTesting
@@ -80,22 +84,9 @@ final class DefaultKsqlClient implements SimpleKsqlClient {
     final KsqlTarget target = sharedClient
         .target(serverEndPoint);
 
-    final RestResponse<QueryStream> resp = authHeader
+    return authHeader
         .map(target::authorizationHeader)
         .orElse(target)
-        .postQueryRequest(sql, Optional.empty());
-
-    if (resp.isErroneous()) {
-      return RestResponse.erroneous(resp.getStatusCode(), resp.getErrorMessage());
-    }
-
-    final QueryStream stream = resp.getResponse();
-
-    final Builder<StreamedRow> rows = ImmutableList.builder();
-    while (stream.hasNext()) {
-      rows.add(stream.next());
-    }
-
-    return RestResponse.successful(resp.getStatusCode(), rows.build());
+        .postPullQueryRequest(sql);
   }
 }
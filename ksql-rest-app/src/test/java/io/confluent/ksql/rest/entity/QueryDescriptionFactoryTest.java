@@ -26,6 +26,7 @@ import io.confluent.ksql.execution.ddl.commands.KsqlTopic;
 import io.confluent.ksql.metastore.model.DataSource.DataSourceType;
 import io.confluent.ksql.name.ColumnName;
 import io.confluent.ksql.name.SourceName;
+import io.confluent.ksql.query.BlockingRowQueue;
 import io.confluent.ksql.query.LimitHandler;
 import io.confluent.ksql.query.QueryId;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
@@ -41,7 +42,6 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import org.apache.kafka.streams.KafkaStreams;
@@ -86,6 +86,8 @@ public class QueryDescriptionFactoryTest {
   @Mock
   private Consumer<LimitHandler> limitHandler;
   @Mock
+  private BlockingRowQueue rowQueue;
+  @Mock
   private KsqlTopic sinkTopic;
   private QueryMetadata transientQuery;
   private QueryDescription transientQueryDescription;
@@ -103,7 +105,7 @@ public class QueryDescriptionFactoryTest {
         SOURCE_NAMES,
         limitHandler,
         "execution plan",
-        new LinkedBlockingQueue<>(),
+        rowQueue,
         "app id",
         topology,
         STREAMS_PROPS,
@@ -216,7 +218,7 @@ public class QueryDescriptionFactoryTest {
         SOURCE_NAMES,
         limitHandler,
         "execution plan",
-        new LinkedBlockingQueue<>(),
+        rowQueue,
         "app id",
         topology,
         STREAMS_PROPS,
@@ -250,7 +252,7 @@ public class QueryDescriptionFactoryTest {
         SOURCE_NAMES,
         limitHandler,
         "execution plan",
-        new LinkedBlockingQueue<>(),
+        rowQueue,
         "app id",
         topology,
         STREAMS_PROPS,
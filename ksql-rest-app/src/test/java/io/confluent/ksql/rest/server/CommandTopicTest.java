@@ -20,6 +20,7 @@ import static org.hamcrest.Matchers.sameInstance;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -217,6 +218,25 @@ public class CommandTopicTest {
             new QueuedCommand(commandId3, command3, Optional.empty(), 2L))));
   }
 
+  @Test
+  public void shouldGetRestoreCommandsFromOffset() {
+    // Given:
+    when(commandConsumer.poll(any(Duration.class)))
+        .thenReturn(someConsumerRecords(
+            new ConsumerRecord<>("topic", 0, 2, commandId3, command3)))
+        .thenReturn(new ConsumerRecords<>(Collections.emptyMap()));
+
+    // When:
+    final List<QueuedCommand> queuedCommandList = commandTopic
+        .getRestoreCommands(Duration.ofMillis(1), 2L);
+
+    // Then:
+    verify(commandConsumer).seek(new TopicPartition(COMMAND_TOPIC_NAME, 0), 2L);
+    verify(commandConsumer, never()).seekToBeginning(any());
+    assertThat(queuedCommandList, equalTo(ImmutableList.of(
+        new QueuedCommand(commandId3, command3, Optional.empty(), 2L))));
+  }
+
   @Test
   public void shouldGetRestoreCommandsCorrectlyWithDuplicateKeys() {
     // Given:
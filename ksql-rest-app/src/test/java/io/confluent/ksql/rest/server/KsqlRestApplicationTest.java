@@ -42,6 +42,7 @@ import io.confluent.ksql.rest.server.computation.CommandRunner;
 import io.confluent.ksql.rest.server.computation.CommandStore;
 import io.confluent.ksql.rest.server.computation.QueuedCommandStatus;
 import io.confluent.ksql.rest.server.context.KsqlRestServiceContextBinder;
+import io.confluent.ksql.rest.server.execution.PullQueryExecutor;
 import io.confluent.ksql.rest.server.filters.KsqlAuthorizationFilter;
 import io.confluent.ksql.rest.server.resources.KsqlResource;
 import io.confluent.ksql.rest.server.resources.RootDocument;
@@ -103,6 +104,8 @@ public class KsqlRestApplicationTest {
   @Mock
   private KsqlResource ksqlResource;
   @Mock
+  private PullQueryExecutor pullQueryExecutor;
+  @Mock
   private VersionCheckerAgent versionCheckerAgent;
   @Mock
   private CommandStore commandQueue;
@@ -171,6 +174,7 @@ public class KsqlRestApplicationTest {
         statusResource,
         streamedQueryResource,
         ksqlResource,
+        pullQueryExecutor,
         versionCheckerAgent,
         KsqlRestServiceContextBinder::new,
         securityExtension,
@@ -191,6 +195,15 @@ public class KsqlRestApplicationTest {
     verify(serviceContext).close();
   }
 
+  @Test
+  public void shouldClosePullQueryExecutorOnClose() {
+    // When:
+    app.triggerShutdown();
+
+    // Then:
+    verify(pullQueryExecutor).close();
+  }
+
   @Test
   public void shouldCloseSecurityExtensionOnClose() {
     // When:
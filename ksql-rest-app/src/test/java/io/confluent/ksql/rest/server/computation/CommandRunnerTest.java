@@ -28,12 +28,19 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.hamcrest.MockitoHamcrest.argThat;
 
+import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.engine.KsqlEngine;
+import io.confluent.ksql.rest.entity.CommandId;
+import io.confluent.ksql.rest.entity.CommandId.Action;
+import io.confluent.ksql.rest.entity.CommandId.Type;
 import io.confluent.ksql.rest.server.state.ServerState;
 import io.confluent.ksql.rest.util.ClusterTerminator;
 import io.confluent.ksql.rest.util.TerminateCluster;
+import io.confluent.ksql.util.PersistentQueryMetadata;
 import java.time.Duration;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import org.junit.Before;
 import org.junit.Test;
@@ -68,6 +75,10 @@ public class CommandRunnerTest {
   private QueuedCommand queuedCommand3;
   @Mock
   private ExecutorService executor;
+  @Mock
+  private PersistentQueryMetadata query1;
+  @Mock
+  private PersistentQueryMetadata query2;
   private CommandRunner commandRunner;
 
   @Before
@@ -84,13 +95,7 @@ public class CommandRunnerTest {
 
     givenQueuedCommands(queuedCommand1, queuedCommand2, queuedCommand3);
 
-    commandRunner = new CommandRunner(
-        statementExecutor,
-        commandStore,
-        1,
-        clusterTerminator,
-        executor,
-        serverState);
+    givenCommandRunner(false, 1);
   }
 
   @Test
@@ -137,6 +142,74 @@ public class CommandRunnerTest {
     verify(statementExecutor, never()).handleRestore(any());
   }
 
+  @Test
+  public void shouldSkipRedundantCommandsOnRestoreIfCompactionEnabled() {
+    // Given:
+    final QueuedCommand create = givenCommand(
+        new CommandId(Type.STREAM, "B", Action.CREATE),
+        "CREATE STREAM B (C STRING) WITH (KAFKA_TOPIC='B', VALUE_FORMAT='JSON');",
+        0L);
+    final QueuedCommand drop = givenCommand(
+        new CommandId(Type.STREAM, "B", Action.DROP),
+        "DROP STREAM B;",
+        1L);
+    final QueuedCommand live = givenCommand(
+        new CommandId(Type.STREAM, "C", Action.CREATE),
+        "CREATE STREAM C (C STRING) WITH (KAFKA_TOPIC='C', VALUE_FORMAT='JSON');",
+        2L);
+    givenQueuedCommands(create, drop, live);
+    givenCommandRunner(true, 1);
+
+    // When:
+    commandRunner.processPriorCommands();
+
+    // Then:
+    final InOrder inOrder = inOrder(statementExecutor);
+    inOrder.verify(statementExecutor).handleSkippedRestore(create);
+    inOrder.verify(statementExecutor).handleSkippedRestore(drop);
+    inOrder.verify(statementExecutor).handleRestore(live);
+    verify(statementExecutor, never()).handleRestore(create);
+    verify(statementExecutor, never()).handleRestore(drop);
+  }
+
+  @Test
+  public void shouldStartRestoredQueries() {
+    // Given:
+    when(ksqlEngine.getPersistentQueries()).thenReturn(ImmutableList.of(query1, query2));
+
+    // When:
+    commandRunner.processPriorCommands();
+
+    // Then:
+    verify(query1).start();
+    verify(query2).start();
+  }
+
+  @Test
+  public void shouldStartRestoredQueriesInParallel() {
+    // Given:
+    when(ksqlEngine.getPersistentQueries()).thenReturn(ImmutableList.of(query1, query2));
+    givenCommandRunner(false, 2);
+
+    // When:
+    commandRunner.processPriorCommands();
+
+    // Then:
+    verify(query1).start();
+    verify(query2).start();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void shouldThrowIfRestoredQueryFailsToStartInParallel() {
+    // Given:
+    when(ksqlEngine.getPersistentQueries()).thenReturn(ImmutableList.of(query1, query2));
+    doThrow(new IllegalStateException("Boom")).when(query2).start();
+    givenCommandRunner(false, 2);
+
+    // When:
+    commandRunner.processPriorCommands();
+  }
+
   @Test
   public void shouldPullAndRunStatements() {
     // Given:
@@ -221,6 +294,31 @@ public class CommandRunnerTest {
     commandRunner.close();
   }
 
+  private void givenCommandRunner(final boolean compactOnRestore, final int queryStartThreads) {
+    commandRunner = new CommandRunner(
+        statementExecutor,
+        commandStore,
+        1,
+        clusterTerminator,
+        executor,
+        serverState,
+        compactOnRestore,
+        queryStartThreads);
+  }
+
+  private static QueuedCommand givenCommand(
+      final CommandId commandId,
+      final String statement,
+      final long offset
+  ) {
+    return new QueuedCommand(
+        commandId,
+        new Command(statement, true, Collections.emptyMap(), Collections.emptyMap()),
+        Optional.empty(),
+        offset
+    );
+  }
+
   private void givenQueuedCommands(final QueuedCommand... cmds) {
     when(commandStore.getRestoreCommands()).thenReturn(Arrays.asList(cmds));
     when(commandStore.getNewCommands(any())).thenReturn(Arrays.asList(cmds));
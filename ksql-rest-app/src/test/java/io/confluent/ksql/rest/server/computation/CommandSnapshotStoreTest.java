@@ -0,0 +1,122 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.computation;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.rest.entity.CommandId;
+import io.confluent.ksql.rest.entity.CommandId.Action;
+import io.confluent.ksql.rest.entity.CommandId.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CommandSnapshotStoreTest {
+
+  private static final String COMMAND_TOPIC = "_confluent-ksql-default__command_topic";
+
+  private static final QueuedCommand CREATE = new QueuedCommand(
+      new CommandId(Type.STREAM, "A", Action.CREATE),
+      new Command(
+          "CREATE STREAM A (C STRING) WITH (KAFKA_TOPIC='A', VALUE_FORMAT='JSON');",
+          true,
+          ImmutableMap.<String, Object>of("auto.offset.reset", "earliest"),
+          ImmutableMap.of("ksql.service.id", "default_")),
+      Optional.empty(),
+      0L
+  );
+
+  private static final QueuedCommand LEGACY_CREATE = new QueuedCommand(
+      new CommandId(Type.STREAM, "B", Action.CREATE),
+      new Command("CREATE STREAM B AS SELECT * FROM A;", false, Collections.emptyMap(), null),
+      Optional.empty(),
+      1L
+  );
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private Path file;
+  private CommandSnapshotStore store;
+
+  @Before
+  public void setUp() {
+    file = folder.getRoot().toPath().resolve(COMMAND_TOPIC + ".snapshot");
+    store = new CommandSnapshotStore(file);
+  }
+
+  @Test
+  public void shouldNotCreateStoreIfNoDirectory() {
+    assertThat(CommandSnapshotStore.create("", COMMAND_TOPIC).isPresent(), is(false));
+  }
+
+  @Test
+  public void shouldReturnEmptyIfNoSnapshot() {
+    assertThat(store.read().isPresent(), is(false));
+  }
+
+  @Test
+  public void shouldRoundTripSnapshot() {
+    // Given:
+    store.write(CommandSnapshot.of(COMMAND_TOPIC, LEGACY_CREATE,
+        ImmutableList.of(CREATE, LEGACY_CREATE)));
+
+    // When:
+    final CommandSnapshot snapshot = store.read().get();
+
+    // Then:
+    assertThat(snapshot.getCommandTopic(), is(COMMAND_TOPIC));
+    assertThat(snapshot.getLastOffset(), is(1L));
+    assertThat(snapshot.isLastCommand(LEGACY_CREATE), is(true));
+    assertThat(snapshot.isLastCommand(CREATE), is(false));
+
+    final List<QueuedCommand> commands = snapshot.toQueuedCommands();
+    assertThat(commands, contains(CREATE, LEGACY_CREATE));
+    assertThat(commands.get(1).getCommand().isPreVersion5(), is(true));
+  }
+
+  @Test
+  public void shouldReplaceExistingSnapshot() {
+    // Given:
+    store.write(CommandSnapshot.of(COMMAND_TOPIC, CREATE, ImmutableList.of(CREATE)));
+
+    // When:
+    store.write(CommandSnapshot.of(COMMAND_TOPIC, LEGACY_CREATE, ImmutableList.of(LEGACY_CREATE)));
+
+    // Then:
+    assertThat(store.read().get().toQueuedCommands(), contains(LEGACY_CREATE));
+  }
+
+  @Test
+  public void shouldIgnoreSnapshotThatCanNotBeRead() throws Exception {
+    // Given:
+    Files.write(file, "{\"commandTopic\": ".getBytes(StandardCharsets.UTF_8));
+
+    // Then:
+    assertThat(store.read().isPresent(), is(false));
+  }
+}
@@ -20,18 +20,22 @@ import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
 import io.confluent.ksql.parser.tree.Statement;
 import io.confluent.ksql.rest.entity.CommandId;
+import io.confluent.ksql.rest.entity.CommandId.Action;
 import io.confluent.ksql.rest.entity.CommandStatus;
 import io.confluent.ksql.rest.server.CommandTopic;
 import io.confluent.ksql.statement.ConfiguredStatement;
@@ -42,6 +46,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -56,6 +61,7 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.InOrder;
 import org.mockito.Mock;
@@ -80,6 +86,8 @@ public class CommandStoreTest {
 
   @Rule
   public final ExpectedException expectedException = ExpectedException.none();
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
 
   @Mock
   private SequenceNumberFutureStore sequenceNumberFutureStore;
@@ -101,9 +109,12 @@ public class CommandStoreTest {
       COMMAND_TOPIC_PARTITION, 0, 0, RecordBatch.NO_TIMESTAMP, 0L, 0, 0);
 
   private CommandStore commandStore;
+  private CommandSnapshotStore snapshotStore;
 
   @Before
   public void setUp() {
+    snapshotStore = new CommandSnapshotStore(folder.getRoot().toPath().resolve("snapshot"));
+
     when(commandIdAssigner.getCommandId(any()))
         .thenAnswer(invocation -> new CommandId(
             CommandId.Type.STREAM, "foo" + COUNTER.getAndIncrement(), CommandId.Action.CREATE));
@@ -315,6 +326,127 @@ public class CommandStoreTest {
     verify(commandTopic).start();
   }
 
+  @Test
+  public void shouldRestoreFromSnapshotAndCommandsAfterIt() {
+    // Given:
+    final QueuedCommand snapshotted = queuedCommand("A", Action.CREATE, 5L);
+    final QueuedCommand after = queuedCommand("B", Action.CREATE, 6L);
+    snapshotStore.write(
+        CommandSnapshot.of(COMMAND_TOPIC, snapshotted, ImmutableList.of(snapshotted)));
+    when(commandTopic.getRestoreCommands(any(), eq(5L)))
+        .thenReturn(ImmutableList.of(snapshotted, after));
+    givenSnapshottingCommandStore();
+
+    // When:
+    final List<QueuedCommand> commands = commandStore.getRestoreCommands();
+
+    // Then:
+    assertThat(commands, contains(snapshotted, after));
+    verify(commandTopic, never()).getRestoreCommands(any());
+  }
+
+  @Test
+  public void shouldRestoreFromBeginningIfSnapshotDoesNotMatchTopic() {
+    // Given:
+    final QueuedCommand snapshotted = queuedCommand("A", Action.CREATE, 5L);
+    final QueuedCommand other = queuedCommand("OTHER", Action.CREATE, 5L);
+    snapshotStore.write(
+        CommandSnapshot.of(COMMAND_TOPIC, snapshotted, ImmutableList.of(snapshotted)));
+    when(commandTopic.getRestoreCommands(any(), eq(5L))).thenReturn(ImmutableList.of(other));
+    when(commandTopic.getRestoreCommands(any())).thenReturn(ImmutableList.of(other));
+    givenSnapshottingCommandStore();
+
+    // When:
+    final List<QueuedCommand> commands = commandStore.getRestoreCommands();
+
+    // Then:
+    assertThat(commands, contains(other));
+  }
+
+  @Test
+  public void shouldWriteCompactedSnapshotAfterRestore() {
+    // Given:
+    final QueuedCommand create = queuedCommand("A", Action.CREATE, 0L);
+    final QueuedCommand drop = queuedCommand("A", Action.DROP, 1L);
+    final QueuedCommand live = queuedCommand("B", Action.CREATE, 2L);
+    when(commandTopic.getRestoreCommands(any()))
+        .thenReturn(ImmutableList.of(create, drop, live));
+    givenSnapshottingCommandStore();
+
+    // When:
+    commandStore.getRestoreCommands();
+
+    // Then:
+    final CommandSnapshot snapshot = snapshotStore.read().get();
+    assertThat(snapshot.getLastOffset(), is(2L));
+    assertThat(snapshot.toQueuedCommands(), contains(live));
+  }
+
+  @Test
+  public void shouldNotCompactSnapshotIfCompactionDisabled() {
+    // Given:
+    final QueuedCommand create = queuedCommand("A", Action.CREATE, 0L);
+    final QueuedCommand drop = queuedCommand("A", Action.DROP, 1L);
+    final QueuedCommand live = queuedCommand("B", Action.CREATE, 2L);
+    when(commandTopic.getRestoreCommands(any()))
+        .thenReturn(ImmutableList.of(create, drop, live));
+    givenSnapshottingCommandStore(false);
+
+    // When:
+    commandStore.getRestoreCommands();
+
+    // Then:
+    final CommandSnapshot snapshot = snapshotStore.read().get();
+    assertThat(snapshot.getLastOffset(), is(2L));
+    assertThat(snapshot.toQueuedCommands(), contains(create, drop, live));
+  }
+
+  @Test
+  public void shouldWriteSnapshotAfterNewCommands() {
+    // Given:
+    givenSnapshottingCommandStore();
+
+    // When:
+    commandStore.getNewCommands(NEW_CMDS_TIMEOUT);
+
+    // Then:
+    final CommandSnapshot snapshot = snapshotStore.read().get();
+    assertThat(snapshot.toQueuedCommands(), hasSize(1));
+    assertThat(snapshot.toQueuedCommands().get(0).getCommand(), equalTo(command));
+  }
+
+  private void givenSnapshottingCommandStore() {
+    givenSnapshottingCommandStore(true);
+  }
+
+  private void givenSnapshottingCommandStore(final boolean compactSnapshots) {
+    commandStore = new CommandStore(
+        commandTopic,
+        commandIdAssigner,
+        sequenceNumberFutureStore,
+        Optional.of(snapshotStore),
+        Duration.ZERO,
+        compactSnapshots
+    );
+  }
+
+  private static QueuedCommand queuedCommand(
+      final String source,
+      final Action action,
+      final long offset
+  ) {
+    final String statement = action == Action.CREATE
+        ? "CREATE STREAM " + source + " (C STRING) WITH (KAFKA_TOPIC='T', VALUE_FORMAT='JSON');"
+        : "DROP STREAM " + source + ";";
+
+    return new QueuedCommand(
+        new CommandId(CommandId.Type.STREAM, source, action),
+        new Command(statement, true, Collections.emptyMap(), Collections.emptyMap()),
+        Optional.empty(),
+        offset
+    );
+  }
+
   private static ConsumerRecords<CommandId, Command> buildRecords(final Object... args) {
     assertThat(args.length % 2, equalTo(0));
     final List<ConsumerRecord<CommandId, Command>> records = new ArrayList<>();
@@ -173,6 +173,10 @@ public class RecoveryTest {
     final ServerState serverState;
 
     KsqlServer(final List<QueuedCommand> commandLog) {
+      this(commandLog, false);
+    }
+
+    KsqlServer(final List<QueuedCommand> commandLog, final boolean compactOnRestore) {
       this.ksqlEngine = createKsqlEngine();
       this.fakeCommandQueue = new FakeCommandQueue(commandLog);
       serverState = new ServerState();
@@ -189,7 +193,9 @@ public class RecoveryTest {
           fakeCommandQueue,
           1,
           mock(ClusterTerminator.class),
-          serverState
+          serverState,
+          compactOnRestore,
+          1
       );
 
       this.ksqlResource = new KsqlResource(
@@ -499,13 +505,18 @@ public class RecoveryTest {
   }
 
   private void shouldRecover(final List<QueuedCommand> commands) {
+    shouldRecover(commands, false);
+    shouldRecover(commands, true);
+  }
+
+  private void shouldRecover(final List<QueuedCommand> commands, final boolean compact) {
     // Given:
     final KsqlServer executeServer = new KsqlServer(commands);
     executeServer.executeCommands();
     final KsqlEngine engine = executeServer.ksqlEngine;
 
     // When:
-    final KsqlServer recoverServer = new KsqlServer(commands);
+    final KsqlServer recoverServer = new KsqlServer(commands, compact);
     recoverServer.recover();
     final KsqlEngine recovered = recoverServer.ksqlEngine;
 
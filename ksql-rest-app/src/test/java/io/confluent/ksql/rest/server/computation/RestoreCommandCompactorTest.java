@@ -0,0 +1,221 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.computation;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.rest.entity.CommandId;
+import io.confluent.ksql.rest.entity.CommandId.Action;
+import io.confluent.ksql.rest.entity.CommandId.Type;
+import io.confluent.ksql.util.KsqlConstants;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.Test;
+
+public class RestoreCommandCompactorTest {
+
+  private final List<QueuedCommand> commands = new ArrayList<>();
+
+  @Test
+  public void shouldSkipCreateAndDropOfSource() {
+    // Given:
+    final QueuedCommand create = givenCommand(Type.STREAM, "B", Action.CREATE,
+        "CREATE STREAM B (C STRING) WITH (KAFKA_TOPIC='B', VALUE_FORMAT='JSON');");
+    givenCommand(Type.STREAM, "A", Action.CREATE,
+        "CREATE STREAM A (C STRING) WITH (KAFKA_TOPIC='A', VALUE_FORMAT='JSON');");
+    final QueuedCommand drop = givenCommand(Type.STREAM, "B", Action.DROP, "DROP STREAM b;");
+
+    // Then:
+    assertThat(RestoreCommandCompactor.findRedundant(commands), containsInAnyOrder(create, drop));
+  }
+
+  @Test
+  public void shouldSkipCreateAsSelectWithItsTerminateAndDrop() {
+    // Given:
+    givenCommand(Type.STREAM, "A", Action.CREATE,
+        "CREATE STREAM A (C STRING) WITH (KAFKA_TOPIC='A', VALUE_FORMAT='JSON');");
+    final QueuedCommand create = givenCommand(Type.STREAM, "B", Action.CREATE,
+        "CREATE STREAM B AS SELECT * FROM A;");
+    final QueuedCommand terminate = givenCommand(Type.TERMINATE, "CSAS_B_1", Action.EXECUTE,
+        "TERMINATE CSAS_B_1;");
+    final QueuedCommand drop = givenCommand(Type.STREAM, "B", Action.DROP, "DROP STREAM B;");
+
+    // Then:
+    assertThat(RestoreCommandCompactor.findRedundant(commands),
+        containsInAnyOrder(create, terminate, drop));
+  }
+
+  @Test
+  public void shouldNotSkipCreateAsSelectThatWasNotTerminatedBeforeDrop() {
+    // Given:
+    givenCommand(Type.STREAM, "A", Action.CREATE,
+        "CREATE STREAM A (C STRING) WITH (KAFKA_TOPIC='A', VALUE_FORMAT='JSON');");
+    givenCommand(Type.STREAM, "B", Action.CREATE, "CREATE STREAM B AS SELECT * FROM A;");
+    givenCommand(Type.STREAM, "B", Action.DROP, "DROP STREAM B;");
+
+    // Then:
+    assertThat(RestoreCommandCompactor.findRedundant(commands), empty());
+  }
+
+  @Test
+  public void shouldNotSkipSourceReferencedBeforeItIsDropped() {
+    // Given:
+    givenCommand(Type.STREAM, "A", Action.CREATE,
+        "CREATE STREAM A (C STRING) WITH (KAFKA_TOPIC='A', VALUE_FORMAT='JSON');");
+    givenCommand(Type.STREAM, "B", Action.CREATE,
+        "CREATE STREAM B (C STRING) WITH (KAFKA_TOPIC='B', VALUE_FORMAT='JSON');");
+    givenCommand(Type.STREAM, "B", Action.CREATE, "INSERT INTO B SELECT * FROM A;");
+    givenCommand(Type.STREAM, "B", Action.DROP, "DROP STREAM B;");
+
+    // Then:
+    assertThat(RestoreCommandCompactor.findRedundant(commands), empty());
+  }
+
+  @Test
+  public void shouldNotSkipSourceReferencedBeforeItIsCreated() {
+    // Given:
+    givenCommand(Type.STREAM, "B", Action.CREATE,
+        "CREATE STREAM B (C STRING) WITH (KAFKA_TOPIC='B', VALUE_FORMAT='JSON');");
+    givenCommand(Type.STREAM, "B", Action.CREATE,
+        "CREATE STREAM B (C STRING) WITH (KAFKA_TOPIC='B', VALUE_FORMAT='JSON');");
+    givenCommand(Type.STREAM, "B", Action.DROP, "DROP STREAM B;");
+
+    // Then:
+    assertThat(RestoreCommandCompactor.findRedundant(commands), empty());
+  }
+
+  @Test
+  public void shouldNotSkipSourceReferencedByLegacyRunScript() {
+    // Given:
+    givenCommand(Type.STREAM, "B", Action.CREATE,
+        "CREATE STREAM B (C STRING) WITH (KAFKA_TOPIC='B', VALUE_FORMAT='JSON');");
+    givenCommand(Type.STREAM, "RunScript", Action.EXECUTE, "RUN SCRIPT 'script.sql';",
+        ImmutableMap.<String, Object>of(
+            KsqlConstants.LEGACY_RUN_SCRIPT_STATEMENTS_CONTENT,
+            "CREATE STREAM C AS SELECT * FROM B;"));
+    givenCommand(Type.STREAM, "B", Action.DROP, "DROP STREAM B;");
+
+    // Then:
+    assertThat(RestoreCommandCompactor.findRedundant(commands), empty());
+  }
+
+  @Test
+  public void shouldNotSkipIfTypesDoNotMatch() {
+    // Given:
+    givenCommand(Type.TABLE, "B", Action.CREATE,
+        "CREATE TABLE B (C STRING) WITH (KAFKA_TOPIC='B', VALUE_FORMAT='JSON', KEY='C');");
+    givenCommand(Type.STREAM, "B", Action.DROP, "DROP STREAM B;");
+
+    // Then:
+    assertThat(RestoreCommandCompactor.findRedundant(commands), empty());
+  }
+
+  @Test
+  public void shouldNotSkipCommandsUsingLegacyQueryIds() {
+    // Given:
+    givenLegacyCommand(Type.STREAM, "B", Action.CREATE,
+        "CREATE STREAM B (C STRING) WITH (KAFKA_TOPIC='B', VALUE_FORMAT='JSON');");
+    givenCommand(Type.STREAM, "B", Action.DROP, "DROP STREAM B;");
+
+    // Then:
+    assertThat(RestoreCommandCompactor.findRedundant(commands), empty());
+  }
+
+  @Test
+  public void shouldSkipTerminatedInsert() {
+    // Given:
+    givenCommand(Type.STREAM, "A", Action.CREATE,
+        "CREATE STREAM A (C STRING) WITH (KAFKA_TOPIC='A', VALUE_FORMAT='JSON');");
+    givenCommand(Type.STREAM, "B", Action.CREATE,
+        "CREATE STREAM B (C STRING) WITH (KAFKA_TOPIC='B', VALUE_FORMAT='JSON');");
+    final QueuedCommand insert = givenCommand(Type.STREAM, "B", Action.CREATE,
+        "INSERT INTO B SELECT * FROM A;");
+    final QueuedCommand terminate = givenCommand(Type.TERMINATE, "InsertQuery_2", Action.EXECUTE,
+        "TERMINATE InsertQuery_2;");
+    givenCommand(Type.TERMINATE, "InsertQuery_2", Action.EXECUTE, "TERMINATE InsertQuery_2;");
+
+    // Then:
+    assertThat(RestoreCommandCompactor.findRedundant(commands),
+        containsInAnyOrder(insert, terminate));
+  }
+
+  @Test
+  public void shouldNotSkipInsertIfDropBeforeTerminate() {
+    // Given:
+    givenCommand(Type.STREAM, "A", Action.CREATE,
+        "CREATE STREAM A (C STRING) WITH (KAFKA_TOPIC='A', VALUE_FORMAT='JSON');");
+    givenCommand(Type.STREAM, "B", Action.CREATE,
+        "CREATE STREAM B (C STRING) WITH (KAFKA_TOPIC='B', VALUE_FORMAT='JSON');");
+    givenCommand(Type.STREAM, "B", Action.CREATE, "INSERT INTO B SELECT * FROM A;");
+    givenCommand(Type.STREAM, "B", Action.DROP, "DROP STREAM B;");
+    givenCommand(Type.TERMINATE, "InsertQuery_2", Action.EXECUTE, "TERMINATE InsertQuery_2;");
+
+    // Then:
+    assertThat(RestoreCommandCompactor.findRedundant(commands), empty());
+  }
+
+  private QueuedCommand givenCommand(
+      final Type type,
+      final String entity,
+      final Action action,
+      final String statement
+  ) {
+    return givenCommand(type, entity, action, statement, Collections.emptyMap());
+  }
+
+  private QueuedCommand givenCommand(
+      final Type type,
+      final String entity,
+      final Action action,
+      final String statement,
+      final Map<String, Object> overwriteProperties
+  ) {
+    return add(type, entity, action,
+        new Command(statement, true, overwriteProperties, Collections.emptyMap()));
+  }
+
+  private QueuedCommand givenLegacyCommand(
+      final Type type,
+      final String entity,
+      final Action action,
+      final String statement
+  ) {
+    return add(type, entity, action,
+        new Command(statement, false, Collections.emptyMap(), Collections.emptyMap()));
+  }
+
+  private QueuedCommand add(
+      final Type type,
+      final String entity,
+      final Action action,
+      final Command command
+  ) {
+    final QueuedCommand queued = new QueuedCommand(
+        new CommandId(type, entity, action),
+        command,
+        Optional.empty(),
+        (long) commands.size()
+    );
+    commands.add(queued);
+    return queued;
+  }
+}
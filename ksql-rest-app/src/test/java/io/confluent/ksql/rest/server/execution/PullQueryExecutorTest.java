@@ -32,6 +32,7 @@ import io.confluent.ksql.rest.server.resources.KsqlRestException;
 import io.confluent.ksql.rest.server.validation.CustomValidators;
 import io.confluent.ksql.statement.ConfiguredStatement;
 import io.confluent.ksql.util.KsqlConfig;
+import org.apache.kafka.common.metrics.Metrics;
 import org.eclipse.jetty.http.HttpStatus.Code;
 import org.junit.Rule;
 import org.junit.Test;
@@ -72,9 +73,8 @@ public class PullQueryExecutorTest {
           "SELECT * FROM test_table"))));
 
       // When:
-      PullQueryExecutor.execute(
+      new PullQueryExecutor(engine.getKsqlConfig(), new Metrics()).execute(
           query,
-          ImmutableMap.of(),
           engine.getEngine(),
           engine.getServiceContext()
       );
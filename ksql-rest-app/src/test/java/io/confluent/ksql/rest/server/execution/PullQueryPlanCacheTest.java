@@ -0,0 +1,340 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.execution;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.confluent.ksql.KsqlExecutionContext;
+import io.confluent.ksql.analyzer.Analysis;
+import io.confluent.ksql.execution.streams.materialization.Materialization;
+import io.confluent.ksql.metastore.MetaStore;
+import io.confluent.ksql.metastore.TypeRegistry;
+import io.confluent.ksql.metastore.model.DataSource;
+import io.confluent.ksql.name.SourceName;
+import io.confluent.ksql.parser.DefaultKsqlParser;
+import io.confluent.ksql.parser.KsqlParser;
+import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
+import io.confluent.ksql.parser.tree.Query;
+import io.confluent.ksql.query.QueryId;
+import io.confluent.ksql.rest.server.execution.PullQueryPlan.Projection;
+import io.confluent.ksql.statement.ConfiguredStatement;
+import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.KsqlException;
+import io.confluent.ksql.util.PersistentQueryMetadata;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import org.apache.kafka.common.metrics.Metrics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PullQueryPlanCacheTest {
+
+  private static final KsqlParser PARSER = new DefaultKsqlParser();
+  private static final KsqlConfig KSQL_CONFIG = new KsqlConfig(ImmutableMap.of());
+  private static final SourceName SOURCE_NAME = SourceName.of("T");
+  private static final QueryId QUERY_ID = new QueryId("CTAS_T_0");
+
+  private static final String SQL_A = "SELECT * FROM T WHERE ROWKEY = 'a';";
+  private static final String SQL_B = "SELECT * FROM T WHERE ROWKEY = 'b';";
+
+  @Mock
+  private KsqlExecutionContext executionContext;
+  @Mock
+  private MetaStore metaStore;
+  @Mock
+  private DataSource source;
+  @Mock
+  private PersistentQueryMetadata persistentQuery;
+  @Mock
+  private Materialization materialization;
+  @Mock
+  private Projection projection;
+  @Mock
+  private BiFunction<ConfiguredStatement<Query>, KsqlExecutionContext, PullQueryPlan> planner;
+
+  private PullQueryPlanCache cache;
+
+  @Before
+  public void setUp() {
+    cache = new PullQueryPlanCache(10, Optional.empty());
+
+    when(source.getName()).thenReturn(SOURCE_NAME);
+    when(persistentQuery.getQueryId()).thenReturn(QUERY_ID);
+    when(executionContext.getMetaStore()).thenReturn(metaStore);
+    when(metaStore.getSource(SOURCE_NAME)).thenReturn(source);
+    when(metaStore.getQueriesWithSink(SOURCE_NAME)).thenReturn(ImmutableSet.of("CTAS_T_0"));
+    when(executionContext.getPersistentQuery(QUERY_ID)).thenReturn(Optional.of(persistentQuery));
+
+    when(planner.apply(any(), any())).thenAnswer(inv -> buildPlan(inv.getArgument(0)));
+  }
+
+  @Test
+  public void shouldBuildPlanIfNotCached() {
+    // When:
+    final PullQueryPlan plan = cache.plan(configured(SQL_A), executionContext, planner);
+
+    // Then:
+    verify(planner).apply(any(), any());
+    assertThat(plan.where(), is(parse(SQL_A).getStatement().getWhere()));
+  }
+
+  @Test
+  public void shouldBindCachedPlanForStatementWithSameTemplate() {
+    // Given:
+    final PullQueryPlan first = cache.plan(configured(SQL_A), executionContext, planner);
+
+    // When:
+    final PullQueryPlan plan = cache.plan(configured(SQL_B), executionContext, planner);
+
+    // Then:
+    verify(planner, times(1)).apply(any(), any());
+    assertThat(plan.where(), is(parse(SQL_B).getStatement().getWhere()));
+    assertThat(plan.analysis(), is(sameInstance(first.analysis())));
+    assertThat(plan.projection(), is(sameInstance(projection)));
+  }
+
+  @Test
+  public void shouldRebuildPlanIfSourceHasChanged() {
+    // Given:
+    cache.plan(configured(SQL_A), executionContext, planner);
+    when(metaStore.getSource(SOURCE_NAME)).thenReturn(mock(DataSource.class));
+
+    // When:
+    cache.plan(configured(SQL_B), executionContext, planner);
+
+    // Then:
+    verify(planner, times(2)).apply(any(), any());
+  }
+
+  @Test
+  public void shouldRebuildPlanIfMaterializingQueryHasChanged() {
+    // Given:
+    cache.plan(configured(SQL_A), executionContext, planner);
+    when(executionContext.getPersistentQuery(QUERY_ID))
+        .thenReturn(Optional.of(mock(PersistentQueryMetadata.class)));
+
+    // When:
+    cache.plan(configured(SQL_B), executionContext, planner);
+
+    // Then:
+    verify(planner, times(2)).apply(any(), any());
+  }
+
+  @Test
+  public void shouldRebuildPlanIfConfigHasChanged() {
+    // Given:
+    cache.plan(configured(SQL_A), executionContext, planner);
+
+    // When:
+    cache.plan(
+        ConfiguredStatement.of(parse(SQL_B), ImmutableMap.of("some", "override"), KSQL_CONFIG),
+        executionContext,
+        planner
+    );
+
+    // Then:
+    verify(planner, times(2)).apply(any(), any());
+  }
+
+  @Test
+  public void shouldPrepareStatementFromCachedPlan() {
+    // Given:
+    cache.plan(configured(SQL_A), executionContext, planner);
+
+    // When:
+    final Optional<PreparedStatement<Query>> prepared = cache.prepare(SQL_B, executionContext);
+
+    // Then:
+    assertThat(prepared.get().getStatementText(), is(SQL_B));
+    assertThat(prepared.get().getStatement().getWhere(),
+        is(parse(SQL_B).getStatement().getWhere()));
+  }
+
+  @Test
+  public void shouldNotPrepareStatementIfSourceHasChanged() {
+    // Given:
+    cache.plan(configured(SQL_A), executionContext, planner);
+    when(metaStore.getSource(SOURCE_NAME)).thenReturn(mock(DataSource.class));
+
+    // When:
+    final Optional<PreparedStatement<Query>> prepared = cache.prepare(SQL_B, executionContext);
+
+    // Then:
+    assertThat(prepared, is(Optional.empty()));
+    assertThat(cache.size(), is(0L));
+  }
+
+  @Test
+  public void shouldNotPrepareStatementIfMaterializingQueryHasChanged() {
+    // Given:
+    cache.plan(configured(SQL_A), executionContext, planner);
+    when(executionContext.getPersistentQuery(QUERY_ID)).thenReturn(Optional.empty());
+
+    // When:
+    final Optional<PreparedStatement<Query>> prepared = cache.prepare(SQL_B, executionContext);
+
+    // Then:
+    assertThat(prepared, is(Optional.empty()));
+    assertThat(cache.size(), is(0L));
+  }
+
+  @Test
+  public void shouldEvictStalePlanEvenIfStatementFailsToPlan() {
+    // Given:
+    cache.plan(configured(SQL_A), executionContext, planner);
+    when(metaStore.getSource(SOURCE_NAME)).thenReturn(null);
+    when(planner.apply(any(), any())).thenThrow(new KsqlException("Unknown source"));
+
+    // When:
+    try {
+      cache.plan(configured(SQL_B), executionContext, planner);
+    } catch (final KsqlException e) {
+      // expected
+    }
+
+    // Then:
+    assertThat(cache.size(), is(0L));
+  }
+
+  @Test
+  public void shouldNotPrepareStatementIfNoPlanCached() {
+    assertThat(cache.prepare(SQL_B, executionContext), is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldNotCacheIfMaxEntriesIsZero() {
+    // Given:
+    cache = new PullQueryPlanCache(0, Optional.empty());
+    cache.plan(configured(SQL_A), executionContext, planner);
+
+    // When:
+    cache.plan(configured(SQL_B), executionContext, planner);
+
+    // Then:
+    verify(planner, times(2)).apply(any(), any());
+    assertThat(cache.prepare(SQL_B, executionContext), is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldNotCacheIfDisabledForStatement() {
+    // Given:
+    final KsqlConfig disabled = KSQL_CONFIG.cloneWithPropertyOverwrite(ImmutableMap.of(
+        KsqlConfig.KSQL_QUERY_PULL_PLAN_CACHE_ENABLE_CONFIG, false));
+
+    // When:
+    cache.plan(
+        ConfiguredStatement.of(parse(SQL_A), ImmutableMap.of(), disabled),
+        executionContext,
+        planner
+    );
+
+    // Then:
+    assertThat(cache.size(), is(0L));
+  }
+
+  @Test
+  public void shouldLimitSizeFromConfig() {
+    // Given:
+    final Metrics metrics = new Metrics();
+    cache = new PullQueryPlanCache(
+        KSQL_CONFIG.cloneWithPropertyOverwrite(ImmutableMap.of(
+            KsqlConfig.KSQL_QUERY_PULL_PLAN_CACHE_MAX_ENTRIES_CONFIG, 1)),
+        metrics
+    );
+
+    // When:
+    cache.plan(configured(SQL_A), executionContext, planner);
+    cache.plan(configured("SELECT ROWKEY FROM T WHERE ROWKEY = 'a';"), executionContext, planner);
+
+    // Then:
+    assertThat(cache.size(), is(1L));
+    metrics.close();
+  }
+
+  @Test
+  public void shouldRegisterMetrics() {
+    // Given:
+    final Metrics metrics = new Metrics();
+    cache = new PullQueryPlanCache(10, Optional.of(metrics));
+
+    // When:
+    cache.plan(configured(SQL_A), executionContext, planner);
+    cache.plan(configured(SQL_B), executionContext, planner);
+
+    // Then:
+    assertThat(metricValue(metrics, "plan-cache-hit-count"), is(1L));
+    assertThat(metricValue(metrics, "plan-cache-miss-count"), is(1L));
+    assertThat(metricValue(metrics, "plan-cache-size"), is(1L));
+    metrics.close();
+  }
+
+  @Test
+  public void shouldRemoveMetricsOnClose() {
+    // Given:
+    final Metrics metrics = new Metrics();
+    cache = new PullQueryPlanCache(10, Optional.of(metrics));
+
+    // When:
+    cache.close();
+
+    // Then:
+    assertThat(metrics.metric(metrics.metricName("plan-cache-size", "ksql-pull-queries")),
+        is(nullValue()));
+    metrics.close();
+  }
+
+  private static Object metricValue(final Metrics metrics, final String name) {
+    return metrics.metric(metrics.metricName(name, "ksql-pull-queries")).metricValue();
+  }
+
+  private PullQueryPlan buildPlan(final ConfiguredStatement<Query> statement) {
+    final Analysis analysis = mock(Analysis.class);
+    when(analysis.getWhereExpression()).thenReturn(statement.getStatement().getWhere());
+
+    return new PullQueryPlan(
+        statement,
+        analysis,
+        source,
+        persistentQuery,
+        materialization,
+        () -> projection
+    );
+  }
+
+  private static ConfiguredStatement<Query> configured(final String sql) {
+    return ConfiguredStatement.of(parse(sql), ImmutableMap.of(), KSQL_CONFIG);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static PreparedStatement<Query> parse(final String sql) {
+    return (PreparedStatement<Query>) PARSER
+        .prepare(PARSER.parse(sql).get(0), TypeRegistry.EMPTY);
+  }
+}
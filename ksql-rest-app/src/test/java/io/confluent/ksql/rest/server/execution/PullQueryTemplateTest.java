@@ -0,0 +1,175 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.execution;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+import io.confluent.ksql.execution.expression.tree.IntegerLiteral;
+import io.confluent.ksql.execution.expression.tree.LongLiteral;
+import io.confluent.ksql.execution.expression.tree.StringLiteral;
+import io.confluent.ksql.metastore.TypeRegistry;
+import io.confluent.ksql.parser.DefaultKsqlParser;
+import io.confluent.ksql.parser.KsqlParser;
+import io.confluent.ksql.parser.tree.Query;
+import java.util.Optional;
+import org.junit.Test;
+
+public class PullQueryTemplateTest {
+
+  private static final KsqlParser PARSER = new DefaultKsqlParser();
+
+  @Test
+  public void shouldHaveSameKeyForStatementsDifferingOnlyInWhereClauseLiterals() {
+    // When:
+    final String key = keyOf("SELECT * FROM T WHERE ROWKEY = 'a';");
+    final String other = keyOf("SELECT *  FROM T\n  WHERE ROWKEY='b' -- comment\n;");
+
+    // Then:
+    assertThat(other, is(key));
+  }
+
+  @Test
+  public void shouldHaveDifferentKeysForDifferentKindsOfLiteral() {
+    // When:
+    final String key = keyOf("SELECT * FROM T WHERE ROWKEY = 'a';");
+    final String other = keyOf("SELECT * FROM T WHERE ROWKEY = 1;");
+
+    // Then:
+    assertThat(other, is(not(key)));
+  }
+
+  @Test
+  public void shouldNotReplaceLiteralsOutsideWhereClause() {
+    // When:
+    final String key = keyOf("SELECT CONCAT(A, 'x') FROM T WHERE ROWKEY = 'a' LIMIT 1;");
+    final String other = keyOf("SELECT CONCAT(A, 'y') FROM T WHERE ROWKEY = 'a' LIMIT 2;");
+
+    // Then:
+    assertThat(other, is(not(key)));
+  }
+
+  @Test
+  public void shouldCaptureWhereClauseLiteralsInOrder() {
+    // When:
+    final PullQueryTemplate template = PullQueryTemplate.of(
+        "SELECT * FROM T WHERE ROWKEY IN ('a', 'b''c') AND WINDOWSTART > 10000000000;").get();
+
+    // Then:
+    assertThat(template.literals(), contains(
+        new StringLiteral("a"),
+        new StringLiteral("b'c"),
+        new LongLiteral(10000000000L)
+    ));
+  }
+
+  @Test
+  public void shouldBuildIntegerLiteralForSmallIntegers() {
+    // When:
+    final PullQueryTemplate template =
+        PullQueryTemplate.of("SELECT * FROM T WHERE ROWKEY = 'a' AND WINDOWSTART = 10;").get();
+
+    // Then:
+    assertThat(template.literals(), contains(new StringLiteral("a"), new IntegerLiteral(10)));
+  }
+
+  @Test
+  public void shouldNotBuildTemplateForMultipleStatements() {
+    assertThat(PullQueryTemplate.of(
+        "SELECT * FROM T WHERE ROWKEY = 'a'; SELECT * FROM T WHERE ROWKEY = 'b';"),
+        is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldNotBuildTemplateForOtherStatements() {
+    assertThat(PullQueryTemplate.of("SHOW TABLES;"), is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldNotBuildTemplateForUnterminatedStatement() {
+    assertThat(PullQueryTemplate.of("SELECT * FROM T WHERE ROWKEY = 'a'"), is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldBindLiteralsIntoQueryWithSameKey() {
+    // Given:
+    final Query query = parse("SELECT * FROM T WHERE ROWKEY = 'a' AND WINDOWSTART > 1;");
+    final PullQueryTemplate template =
+        PullQueryTemplate.of("SELECT * FROM T WHERE ROWKEY = 'b' AND WINDOWSTART > 2;").get();
+
+    // When:
+    final Optional<Query> bound = template.bind(query);
+
+    // Then:
+    assertThat(bound.get().getWhere(), is(
+        parse("SELECT * FROM T WHERE ROWKEY = 'b' AND WINDOWSTART > 2;").getWhere()));
+  }
+
+  @Test
+  public void shouldBindLiteralsIntoInList() {
+    // Given:
+    final Query query = parse("SELECT * FROM T WHERE ROWKEY IN ('a', 'b');");
+    final PullQueryTemplate template =
+        PullQueryTemplate.of("SELECT * FROM T WHERE ROWKEY IN ('c', 'd');").get();
+
+    // When:
+    final Optional<Query> bound = template.bind(query);
+
+    // Then:
+    assertThat(bound.get().getWhere(), is(
+        parse("SELECT * FROM T WHERE ROWKEY IN ('c', 'd');").getWhere()));
+  }
+
+  @Test
+  public void shouldNotBindIfNumberOfLiteralsDiffers() {
+    // Given:
+    final Query query = parse("SELECT * FROM T WHERE ROWKEY IN ('a');");
+    final PullQueryTemplate template =
+        PullQueryTemplate.of("SELECT * FROM T WHERE ROWKEY IN ('c', 'd');").get();
+
+    // When:
+    final Optional<Query> bound = template.bind(query);
+
+    // Then:
+    assertThat(bound, is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldNotBindIntoUnsupportedExpressions() {
+    // Given:
+    final Query query = parse("SELECT * FROM T WHERE ROWKEY = CONCAT('a', 'b');");
+    final PullQueryTemplate template =
+        PullQueryTemplate.of("SELECT * FROM T WHERE ROWKEY = CONCAT('c', 'd');").get();
+
+    // When:
+    final Optional<Query> bound = template.bind(query);
+
+    // Then:
+    assertThat(bound, is(Optional.empty()));
+  }
+
+  private static String keyOf(final String sql) {
+    return PullQueryTemplate.of(sql).get().key();
+  }
+
+  private static Query parse(final String sql) {
+    return (Query) PARSER
+        .prepare(PARSER.parse(sql).get(0), TypeRegistry.EMPTY)
+        .getStatement();
+  }
+}
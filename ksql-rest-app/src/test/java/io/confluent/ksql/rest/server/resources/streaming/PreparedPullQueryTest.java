@@ -0,0 +1,142 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.resources.streaming;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.metastore.TypeRegistry;
+import io.confluent.ksql.parser.DefaultKsqlParser;
+import io.confluent.ksql.parser.KsqlParser;
+import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
+import io.confluent.ksql.util.KsqlException;
+import io.confluent.ksql.util.KsqlStatementException;
+import java.util.Collections;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class PreparedPullQueryTest {
+
+  private static final KsqlParser PARSER = new DefaultKsqlParser();
+
+  @Rule
+  public final ExpectedException expectedException = ExpectedException.none();
+
+  @Test
+  public void shouldCountBindVariables() {
+    // When:
+    final PreparedPullQuery prepared =
+        prepare("SELECT * FROM T WHERE ROWKEY IN (?, ?) AND WINDOWSTART > ?;");
+
+    // Then:
+    assertThat(prepared.getParameterCount(), is(3));
+  }
+
+  @Test
+  public void shouldNotTreatQuestionMarksInStringsAsBindVariables() {
+    // When:
+    final PreparedPullQuery prepared =
+        prepare("SELECT * FROM T WHERE ROWKEY = '?' AND WINDOWSTART > ?;");
+
+    // Then:
+    assertThat(prepared.getParameterCount(), is(1));
+  }
+
+  @Test
+  public void shouldBindParameters() {
+    // Given:
+    final PreparedPullQuery prepared =
+        prepare("SELECT * FROM T WHERE ROWKEY = ? AND WINDOWSTART > ?;");
+
+    // When:
+    final String sql = prepared.bind(ImmutableList.of("a", 10L));
+
+    // Then:
+    assertThat(sql, is("SELECT * FROM T WHERE ROWKEY = 'a' AND WINDOWSTART > 10;"));
+  }
+
+  @Test
+  public void shouldEscapeQuotesInStringParameters() {
+    // Given:
+    final PreparedPullQuery prepared = prepare("SELECT * FROM T WHERE ROWKEY = ?;");
+
+    // When:
+    final String sql = prepared.bind(ImmutableList.of("a'; DROP TABLE T;"));
+
+    // Then:
+    assertThat(sql, is("SELECT * FROM T WHERE ROWKEY = 'a''; DROP TABLE T;';"));
+  }
+
+  @Test
+  public void shouldThrowIfWrongNumberOfParameters() {
+    // Given:
+    final PreparedPullQuery prepared = prepare("SELECT * FROM T WHERE ROWKEY = ?;");
+
+    // Expect:
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage("Prepared query expects 1 parameter(s), but 2 were supplied.");
+
+    // When:
+    prepared.bind(ImmutableList.of("a", "b"));
+  }
+
+  @Test
+  public void shouldThrowOnUnsupportedParameterType() {
+    // Given:
+    final PreparedPullQuery prepared = prepare("SELECT * FROM T WHERE ROWKEY = ?;");
+
+    // Expect:
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage("Unsupported parameter: 1.5");
+
+    // When:
+    prepared.bind(ImmutableList.of(1.5));
+  }
+
+  @Test
+  public void shouldThrowIfNotPullQuery() {
+    // Expect:
+    expectedException.expect(KsqlStatementException.class);
+    expectedException.expectMessage("Only pull queries can be prepared.");
+
+    // When:
+    prepare("SELECT * FROM T WHERE ROWKEY = ? EMIT CHANGES;");
+  }
+
+  @Test
+  public void shouldKeepStreamsProperties() {
+    // When:
+    final PreparedPullQuery prepared = PreparedPullQuery.prepare(
+        "SELECT * FROM T WHERE ROWKEY = ?;",
+        ImmutableMap.of("some", "property"),
+        PreparedPullQueryTest::parse
+    );
+
+    // Then:
+    assertThat(prepared.getStreamsProperties(), is(ImmutableMap.of("some", "property")));
+  }
+
+  private static PreparedPullQuery prepare(final String sql) {
+    return PreparedPullQuery.prepare(sql, Collections.emptyMap(), PreparedPullQueryTest::parse);
+  }
+
+  private static PreparedStatement<?> parse(final String sql) {
+    return PARSER.prepare(PARSER.parse(sql).get(0), TypeRegistry.EMPTY);
+  }
+}
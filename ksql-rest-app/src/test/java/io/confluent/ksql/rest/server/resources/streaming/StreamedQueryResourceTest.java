@@ -35,6 +35,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import io.confluent.ksql.GenericRow;
@@ -47,12 +48,16 @@ import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
 import io.confluent.ksql.parser.tree.PrintTopic;
 import io.confluent.ksql.parser.tree.Query;
 import io.confluent.ksql.parser.tree.Statement;
+import io.confluent.ksql.query.BlockingRowQueue;
 import io.confluent.ksql.rest.Errors;
 import io.confluent.ksql.rest.entity.KsqlErrorMessage;
 import io.confluent.ksql.rest.entity.KsqlRequest;
+import io.confluent.ksql.rest.entity.PreparedQueryHandle;
+import io.confluent.ksql.rest.entity.PreparedQueryRequest;
 import io.confluent.ksql.rest.entity.StreamedRow;
 import io.confluent.ksql.rest.server.StatementParser;
 import io.confluent.ksql.rest.server.computation.CommandQueue;
+import io.confluent.ksql.rest.server.execution.PullQueryExecutor;
 import io.confluent.ksql.rest.server.resources.KsqlRestException;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.schema.ksql.types.SqlTypes;
@@ -70,18 +75,21 @@ import java.io.IOException;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
 import java.time.Duration;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Scanner;
 import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.StreamingOutput;
 import org.apache.kafka.common.acl.AclOperation;
+import org.apache.kafka.common.metrics.Metrics;
 import org.apache.kafka.streams.KafkaStreams;
 import org.apache.kafka.streams.KeyValue;
 import org.apache.kafka.streams.StreamsConfig;
@@ -90,6 +98,7 @@ import org.codehaus.plexus.util.StringUtils;
 import org.eclipse.jetty.http.HttpStatus;
 import org.eclipse.jetty.http.HttpStatus.Code;
 import org.hamcrest.Matchers;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -115,6 +124,8 @@ public class StreamedQueryResourceTest {
   private static final String TOPIC_NAME = "test_stream";
   private static final String PUSH_QUERY_STRING = "SELECT * FROM " + TOPIC_NAME + " EMIT CHANGES;";
   private static final String PULL_QUERY_STRING = "SELECT * FROM " + TOPIC_NAME + " WHERE ROWKEY='null';";
+  private static final String PREPARED_PULL_QUERY_STRING =
+      "SELECT * FROM " + TOPIC_NAME + " WHERE ROWKEY=?;";
   private static final String PRINT_TOPIC = "Print TEST_TOPIC;";
 
   @Rule
@@ -136,6 +147,7 @@ public class StreamedQueryResourceTest {
   private Consumer<QueryMetadata> queryCloseCallback;
   @Mock
   private KsqlAuthorizationValidator authorizationValidator;
+  private PullQueryExecutor pullQueryExecutor;
   private StreamedQueryResource testResource;
   private PreparedStatement<Statement> statement;
 
@@ -150,6 +162,8 @@ public class StreamedQueryResourceTest {
     final PreparedStatement<Statement> pullQueryStatement = PreparedStatement.of(PULL_QUERY_STRING, pullQuery);
     when(mockStatementParser.parseSingleStatement(PULL_QUERY_STRING)).thenReturn(pullQueryStatement);
 
+    pullQueryExecutor = new PullQueryExecutor(VALID_CONFIG, new Metrics());
+
     testResource = new StreamedQueryResource(
         mockKsqlEngine,
         mockStatementParser,
@@ -157,12 +171,18 @@ public class StreamedQueryResourceTest {
         DISCONNECT_CHECK_INTERVAL,
         COMMAND_QUEUE_CATCHUP_TIMOEUT,
         activenessRegistrar,
-        Optional.of(authorizationValidator)
+        Optional.of(authorizationValidator),
+        pullQueryExecutor
     );
 
     testResource.configure(VALID_CONFIG);
   }
 
+  @After
+  public void tearDown() {
+    pullQueryExecutor.close();
+  }
+
   @Test(expected = IllegalArgumentException.class)
   public void shouldThrowOnConfigureIfAppServerNotSet() {
     // Given:
@@ -182,7 +202,8 @@ public class StreamedQueryResourceTest {
         DISCONNECT_CHECK_INTERVAL,
         COMMAND_QUEUE_CATCHUP_TIMOEUT,
         activenessRegistrar,
-        Optional.of(authorizationValidator)
+        Optional.of(authorizationValidator),
+        pullQueryExecutor
     );
 
     // Then:
@@ -303,6 +324,132 @@ public class StreamedQueryResourceTest {
     );
   }
 
+  @Test
+  public void shouldPrepareQuery() {
+    // Given:
+    givenPreparedQueryParses();
+
+    // When:
+    final Response response = testResource.prepareQuery(
+        new KsqlRequest(PREPARED_PULL_QUERY_STRING, Collections.emptyMap(), null)
+    );
+
+    // Then:
+    assertThat(response.getStatus(), is(Response.Status.OK.getStatusCode()));
+    final PreparedQueryHandle handle = (PreparedQueryHandle) response.getEntity();
+    assertThat(handle.getStatementText(), is(PREPARED_PULL_QUERY_STRING));
+    assertThat(handle.getParameterCount(), is(1));
+  }
+
+  @Test
+  public void shouldReturn400OnPreparingPushQuery() {
+    // When:
+    final Response response = testResource.prepareQuery(
+        new KsqlRequest(PUSH_QUERY_STRING, Collections.emptyMap(), null)
+    );
+
+    // Then:
+    assertThat(response.getStatus(), is(Errors.badRequest("").getStatus()));
+    final KsqlErrorMessage entity = (KsqlErrorMessage) response.getEntity();
+    assertThat(entity.getErrorCode(), is(Errors.ERROR_CODE_BAD_STATEMENT));
+  }
+
+  @Test
+  public void shouldExecutePreparedQueryWithBoundParameters() {
+    // Given:
+    givenPreparedQueryParses();
+    final PreparedQueryHandle handle = (PreparedQueryHandle) testResource.prepareQuery(
+        new KsqlRequest(PREPARED_PULL_QUERY_STRING, Collections.emptyMap(), null)
+    ).getEntity();
+
+    // When:
+    final Response response = testResource.executePreparedQuery(
+        serviceContext,
+        handle.getHandle(),
+        new PreparedQueryRequest(ImmutableList.of("null"), null)
+    );
+
+    // Then:
+    verify(mockStatementParser).parseSingleStatement(PULL_QUERY_STRING);
+    final KsqlErrorMessage entity = (KsqlErrorMessage) response.getEntity();
+    assertThat(
+        entity.getMessage(),
+        containsString(KsqlConfig.KSQL_PULL_QUERIES_SKIP_ACCESS_VALIDATOR_CONFIG)
+    );
+  }
+
+  @Test
+  public void shouldReturn400OnExecutingPreparedQueryWithWrongNumberOfParameters() {
+    // Given:
+    givenPreparedQueryParses();
+    final PreparedQueryHandle handle = (PreparedQueryHandle) testResource.prepareQuery(
+        new KsqlRequest(PREPARED_PULL_QUERY_STRING, Collections.emptyMap(), null)
+    ).getEntity();
+
+    // When:
+    final Response response = testResource.executePreparedQuery(
+        serviceContext,
+        handle.getHandle(),
+        new PreparedQueryRequest(ImmutableList.of(), null)
+    );
+
+    // Then:
+    assertThat(response.getStatus(), is(Errors.badRequest("").getStatus()));
+    verify(mockStatementParser, never()).parseSingleStatement(PULL_QUERY_STRING);
+  }
+
+  @Test
+  public void shouldWaitIfCommandSequenceNumberSpecifiedForPreparedQuery() throws Exception {
+    // Given:
+    givenPreparedQueryParses();
+    final PreparedQueryHandle handle = (PreparedQueryHandle) testResource.prepareQuery(
+        new KsqlRequest(PREPARED_PULL_QUERY_STRING, Collections.emptyMap(), null)
+    ).getEntity();
+
+    // When:
+    testResource.executePreparedQuery(
+        serviceContext,
+        handle.getHandle(),
+        new PreparedQueryRequest(ImmutableList.of("null"), 3L)
+    );
+
+    // Then:
+    verify(commandQueue).ensureConsumedPast(eq(3L), any());
+  }
+
+  @Test
+  public void shouldNotWaitIfCommandSequenceNumberNotSpecifiedForPreparedQuery()
+      throws Exception {
+    // Given:
+    givenPreparedQueryParses();
+    final PreparedQueryHandle handle = (PreparedQueryHandle) testResource.prepareQuery(
+        new KsqlRequest(PREPARED_PULL_QUERY_STRING, Collections.emptyMap(), null)
+    ).getEntity();
+
+    // When:
+    testResource.executePreparedQuery(
+        serviceContext,
+        handle.getHandle(),
+        new PreparedQueryRequest(ImmutableList.of("null"), null)
+    );
+
+    // Then:
+    verify(commandQueue, never()).ensureConsumedPast(anyLong(), any());
+  }
+
+  @Test
+  public void shouldReturn404OnExecutingUnknownPreparedQuery() {
+    // When:
+    final Response response = testResource.executePreparedQuery(
+        serviceContext,
+        "unknown",
+        new PreparedQueryRequest(ImmutableList.of("null"), null)
+    );
+
+    // Then:
+    assertThat(response.getStatus(), is(Errors.notFound("").getStatus()));
+  }
+
   @Test
   public void shouldPassCheckForPullQueryIfNotValidating() {
     // Given
@@ -336,6 +483,7 @@ public class StreamedQueryResourceTest {
     final String queryString = "SELECT * FROM test_stream;";
 
     final SynchronousQueue<KeyValue<String, GenericRow>> rowQueue = new SynchronousQueue<>();
+    final BlockingRowQueue blockingRowQueue = new TestRowQueue(rowQueue);
 
     final LinkedList<GenericRow> writtenRows = new LinkedList<>();
 
@@ -372,7 +520,7 @@ public class StreamedQueryResourceTest {
             Collections.emptySet(),
             limitHandler -> {},
             "",
-            rowQueue,
+            blockingRowQueue,
             "",
             mock(Topology.class),
             Collections.emptyMap(),
@@ -460,6 +608,14 @@ public class StreamedQueryResourceTest {
     }
   }
 
+  private void givenPreparedQueryParses() {
+    final Query pullQuery = mock(Query.class);
+    when(pullQuery.isPullQuery()).thenReturn(true);
+    final String validation = PREPARED_PULL_QUERY_STRING.replace("?", "''");
+    when(mockStatementParser.parseSingleStatement(validation))
+        .thenReturn(PreparedStatement.of(validation, pullQuery));
+  }
+
   // Have to mimic the behavior of the OutputStream that's usually passed to the QueryStreamWriter class's write()
   // method, which is to throw an EOFException if any write attempts are made after the connection has terminated
   private static class EOFPipedOutputStream extends PipedOutputStream {
@@ -652,4 +808,33 @@ public class StreamedQueryResourceTest {
         new KsqlRequest(PRINT_TOPIC, Collections.emptyMap(), null)
     );
   }
+
+  private static class TestRowQueue implements BlockingRowQueue {
+
+    private final SynchronousQueue<KeyValue<String, GenericRow>> rowQueue;
+
+    TestRowQueue(final SynchronousQueue<KeyValue<String, GenericRow>> rowQueue) {
+      this.rowQueue = rowQueue;
+    }
+
+    @Override
+    public KeyValue<String, GenericRow> poll(final long timeout, final TimeUnit unit)
+        throws InterruptedException {
+      return rowQueue.poll(timeout, unit);
+    }
+
+    @Override
+    public int drainTo(final Collection<? super KeyValue<String, GenericRow>> collection) {
+      return rowQueue.drainTo(collection);
+    }
+
+    @Override
+    public int size() {
+      return rowQueue.size();
+    }
+
+    @Override
+    public void close() {
+    }
+  }
 }
@@ -28,7 +28,9 @@ import io.confluent.ksql.rest.client.KsqlClient;
 import io.confluent.ksql.rest.client.KsqlTarget;
 import io.confluent.ksql.rest.client.RestResponse;
 import io.confluent.ksql.rest.entity.KsqlEntityList;
+import io.confluent.ksql.rest.entity.StreamedRow;
 import java.net.URI;
+import java.util.List;
 import java.util.Optional;
 import org.junit.Before;
 import org.junit.Test;
@@ -49,6 +51,8 @@ public class DefaultKsqlClientTest {
   private KsqlTarget target;
   @Mock
   private RestResponse<KsqlEntityList> response;
+  @Mock
+  private RestResponse<List<StreamedRow>> queryResponse;
   private DefaultKsqlClient client;
 
   @Before
@@ -58,6 +62,7 @@ public class DefaultKsqlClientTest {
     when(sharedClient.target(any())).thenReturn(target);
     when(target.authorizationHeader(any())).thenReturn(target);
     when(target.postKsqlRequest(any(), any())).thenReturn(response);
+    when(target.postPullQueryRequest(any())).thenReturn(queryResponse);
   }
 
   @Test
@@ -100,4 +105,16 @@ public class DefaultKsqlClientTest {
     verify(target).postKsqlRequest("Sql", Optional.empty());
     assertThat(result, is(response));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void shouldPostQueryRequest() {
+    // When:
+    final RestResponse<List<StreamedRow>> result = client
+        .makeQueryRequest(SERVER_ENDPOINT, "Sql");
+
+    // Then:
+    verify(target).authorizationHeader(AUTH_HEADER);
+    verify(target).postPullQueryRequest("Sql");
+    assertThat(result, is(queryResponse));
+  }
+}
@@ -17,6 +17,9 @@ package io.confluent.ksql.rest.client;
 
 import static java.util.Objects.requireNonNull;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.confluent.ksql.json.JsonMapper;
 import io.confluent.ksql.properties.LocalProperties;
 import io.confluent.ksql.rest.entity.CommandStatus;
 import io.confluent.ksql.rest.entity.CommandStatuses;
@@ -24,8 +27,12 @@ import io.confluent.ksql.rest.entity.HealthCheckResponse;
 import io.confluent.ksql.rest.entity.KsqlEntityList;
 import io.confluent.ksql.rest.entity.KsqlRequest;
 import io.confluent.ksql.rest.entity.ServerInfo;
+import io.confluent.ksql.rest.entity.StreamedRow;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.SocketTimeoutException;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
@@ -108,6 +115,25 @@ public final class KsqlTarget {
     );
   }
 
+  /**
+   * Post a pull query, which, unlike a push query, has a bounded response.
+   *
+   * <p>The response is read as it arrives, in a single pass, and fully consumed before the
+   * response is closed, allowing the underlying connection to be reused.
+   *
+   * @param ksql the pull query.
+   * @return the header and rows of the result.
+   */
+  public RestResponse<List<StreamedRow>> postPullQueryRequest(final String ksql) {
+    return post(
+        QUERY_PATH,
+        ksqlRequest(ksql, Optional.empty()),
+        Optional.empty(),
+        true,
+        KsqlTarget::readStreamedRows
+    );
+  }
+
   public RestResponse<InputStream> postPrintTopicRequest(
       final String ksql,
       final Optional<Long> previousCommandSeqNum
@@ -177,6 +203,17 @@ public final class KsqlTarget {
     }
   }
 
+  private static List<StreamedRow> readStreamedRows(final Response response) {
+    // The response is a JSON array of rows, which the reader iterates over:
+    final ObjectReader reader = JsonMapper.INSTANCE.mapper.readerFor(StreamedRow.class);
+    try (MappingIterator<StreamedRow> rows = reader
+        .readValues((InputStream) response.getEntity())) {
+      return rows.readAll();
+    } catch (final IOException e) {
+      throw new UncheckedIOException("Failed to read query response", e);
+    }
+  }
+
   private MultivaluedMap<String, Object> headers() {
     final MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
     authHeader.ifPresent(v -> headers.add(HttpHeaders.AUTHORIZATION, v));
@@ -25,6 +25,8 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.json.JsonMapper;
 import io.confluent.ksql.properties.LocalProperties;
 import io.confluent.ksql.rest.entity.CommandStatus;
 import io.confluent.ksql.rest.entity.CommandStatuses;
@@ -33,7 +35,11 @@ import io.confluent.ksql.rest.entity.KsqlEntityList;
 import io.confluent.ksql.rest.entity.KsqlErrorMessage;
 import io.confluent.ksql.rest.entity.KsqlRequest;
 import io.confluent.ksql.rest.entity.ServerInfo;
+import io.confluent.ksql.rest.entity.StreamedRow;
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import javax.ws.rs.client.Entity;
@@ -291,6 +297,36 @@ public class KsqlTargetTest {
     verify(invocationBuilder).post(jsonKsqlRequest("query request", Optional.of(42L)));
   }
 
+  @Test
+  public void shouldPostPullQueryRequest() {
+    // Given:
+    givenResponseBody("[]");
+
+    // When:
+    target.postPullQueryRequest("pull request");
+
+    // Then:
+    verify(webTarget).path("/query");
+    verify(invocationBuilder).post(jsonKsqlRequest("pull request", NO_PREVIOUS_CMD));
+    verify(response).close();
+  }
+
+  @Test
+  public void shouldReadAllRowsOfPullQueryResponse() throws Exception {
+    // Given:
+    final List<StreamedRow> expected = ImmutableList.of(
+        StreamedRow.finalMessage("first"),
+        StreamedRow.finalMessage("second")
+    );
+    givenResponseBody(JsonMapper.INSTANCE.mapper.writeValueAsString(expected));
+
+    // When:
+    final RestResponse<List<StreamedRow>> result = target.postPullQueryRequest("pull request");
+
+    // Then:
+    assertThat(result.getResponse(), is(expected));
+  }
+
   @Test
   public void shouldPostPrintTopicRequest() {
     // Given:
@@ -322,6 +358,11 @@ public class KsqlTargetTest {
     verify(invocationBuilder).post(jsonKsqlRequest("print request", Optional.of(42L)));
   }
 
+  private void givenResponseBody(final String body) {
+    when(response.getEntity())
+        .thenReturn(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+  }
+
   private Entity<Object> jsonKsqlRequest(
       final String ksql,
       final Optional<Long> previousCmdSeqNum
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.entity;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.errorprone.annotations.Immutable;
+import java.util.Objects;
+
+/**
+ * The handle of a prepared query, used to execute it.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@Immutable
+public final class PreparedQueryHandle {
+
+  private final String handle;
+  private final String statementText;
+  private final int parameterCount;
+
+  @JsonCreator
+  public PreparedQueryHandle(
+      @JsonProperty("handle") final String handle,
+      @JsonProperty("statementText") final String statementText,
+      @JsonProperty("parameterCount") final int parameterCount
+  ) {
+    this.handle = Objects.requireNonNull(handle, "handle");
+    this.statementText = Objects.requireNonNull(statementText, "statementText");
+    this.parameterCount = parameterCount;
+  }
+
+  public String getHandle() {
+    return handle;
+  }
+
+  public String getStatementText() {
+    return statementText;
+  }
+
+  /**
+   * @return the number of bind variables in the query.
+   */
+  public int getParameterCount() {
+    return parameterCount;
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+
+    final PreparedQueryHandle that = (PreparedQueryHandle) o;
+    return parameterCount == that.parameterCount
+        && Objects.equals(handle, that.handle)
+        && Objects.equals(statementText, that.statementText);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(handle, statementText, parameterCount);
+  }
+
+  @Override
+  public String toString() {
+    return "PreparedQueryHandle{"
+        + "handle='" + handle + '\''
+        + ", statementText='" + statementText + '\''
+        + ", parameterCount=" + parameterCount
+        + '}';
+  }
+}
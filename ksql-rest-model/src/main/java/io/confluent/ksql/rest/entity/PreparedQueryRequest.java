@@ -0,0 +1,93 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.entity;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A request to execute a prepared query, binding the supplied parameters to its bind variables.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonSubTypes({})
+public class PreparedQueryRequest {
+
+  private final List<Object> parameters;
+  private final Optional<Long> commandSequenceNumber;
+
+  @JsonCreator
+  public PreparedQueryRequest(
+      @JsonProperty("parameters") final List<?> parameters,
+      @JsonProperty("commandSequenceNumber") final Long commandSequenceNumber
+  ) {
+    // Parameters may be null, so ImmutableList can not be used:
+    this.parameters = parameters == null
+        ? Collections.emptyList()
+        : Collections.unmodifiableList(new ArrayList<>(parameters));
+    this.commandSequenceNumber = Optional.ofNullable(commandSequenceNumber);
+  }
+
+  /**
+   * @return the values to bind to the query's bind variables, in the order the variables appear
+   *     in the query.
+   */
+  public List<Object> getParameters() {
+    return parameters;
+  }
+
+  /**
+   * @return the sequence number of the command that must have been executed before the query
+   *     is run, if any.
+   */
+  public Optional<Long> getCommandSequenceNumber() {
+    return commandSequenceNumber;
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+
+    if (!(o instanceof PreparedQueryRequest)) {
+      return false;
+    }
+
+    final PreparedQueryRequest that = (PreparedQueryRequest) o;
+    return Objects.equals(parameters, that.parameters)
+        && Objects.equals(commandSequenceNumber, that.commandSequenceNumber);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(parameters, commandSequenceNumber);
+  }
+
+  @Override
+  public String toString() {
+    return "PreparedQueryRequest{"
+        + "parameters=" + parameters
+        + ", commandSequenceNumber=" + commandSequenceNumber
+        + '}';
+  }
+}
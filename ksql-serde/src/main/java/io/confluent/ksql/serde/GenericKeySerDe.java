@@ -29,6 +29,7 @@ import io.confluent.ksql.util.SchemaUtil;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.function.Supplier;
 import org.apache.kafka.common.errors.SerializationException;
 import org.apache.kafka.common.serialization.Deserializer;
@@ -44,7 +45,7 @@ import org.apache.kafka.streams.kstream.WindowedSerdes.TimeWindowedSerde;
 
 public final class GenericKeySerDe implements KeySerdeFactory {
 
-  static final String DESERIALIZER_LOGGER_NAME = "deserializer";
+  public static final String DESERIALIZER_LOGGER_NAME = "deserializer";
 
   private final SerdeFactories serdeFactories;
 
@@ -198,8 +199,14 @@ public final class GenericKeySerDe implements KeySerdeFactory {
       final ProcessingLogContext processingLogContext,
       final Class<T> targetType
   ) {
-    final Serde<T> serde = serdeFactories
-        .create(format, schema, ksqlConfig, schemaRegistryClientFactory, targetType);
+    final Serde<T> serde = serdeFactories.create(
+        format,
+        schema,
+        ksqlConfig,
+        schemaRegistryClientFactory,
+        Optional.empty(),
+        targetType
+    );
 
     final ProcessingLogger processingLogger = processingLogContext.getLoggerFactory()
         .getLogger(join(loggerNamePrefix, DESERIALIZER_LOGGER_NAME));
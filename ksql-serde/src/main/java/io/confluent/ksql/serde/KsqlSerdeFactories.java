@@ -26,6 +26,8 @@ import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlConstants;
 import io.confluent.ksql.util.KsqlException;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import org.apache.kafka.common.serialization.Serde;
@@ -49,13 +51,20 @@ final class KsqlSerdeFactories implements SerdeFactories {
       final PersistenceSchema schema,
       final KsqlConfig ksqlConfig,
       final Supplier<SchemaRegistryClient> schemaRegistryClientFactory,
+      final Optional<Set<String>> requiredFields,
       final Class<K> type
   ) {
     final KsqlSerdeFactory ksqlSerdeFactory = factoryMethod.apply(format);
 
     ksqlSerdeFactory.validate(schema);
 
-    return ksqlSerdeFactory.createSerde(schema, ksqlConfig, schemaRegistryClientFactory, type);
+    return ksqlSerdeFactory.createSerde(
+        schema,
+        ksqlConfig,
+        schemaRegistryClientFactory,
+        requiredFields,
+        type
+    );
   }
 
   @VisibleForTesting
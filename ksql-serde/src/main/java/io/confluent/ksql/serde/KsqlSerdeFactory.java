@@ -20,6 +20,8 @@ import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.ksql.schema.ksql.PersistenceSchema;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.SchemaUtil;
+import java.util.Optional;
+import java.util.Set;
 import java.util.function.Supplier;
 import org.apache.kafka.common.serialization.Serde;
 
@@ -46,11 +48,44 @@ public interface KsqlSerdeFactory {
       Supplier<SchemaRegistryClient> schemaRegistryClientFactory
   );
 
+  /**
+   * Create a serde whose deserializer need only populate the supplied top level fields.
+   *
+   * <p>Fields of the top level {@code STRUCT} that are not in {@code requiredFields} may be left
+   * {@code null} by the deserializer, allowing it to skip decoding, coercing and allocating values
+   * no downstream processing will read. The serializer is unaffected.
+   *
+   * <p>The default implementation ignores the projection and populates every field.
+   *
+   * @param schema the persistence schema, i.e. the physical schema of the data on-disk.
+   * @param ksqlConfig the config to use.
+   * @param schemaRegistryClientFactory the schema registry client to use.
+   * @param requiredFields the names of the top level fields the deserializer must populate.
+   */
+  default Serde<Object> createSerde(
+      PersistenceSchema schema,
+      KsqlConfig ksqlConfig,
+      Supplier<SchemaRegistryClient> schemaRegistryClientFactory,
+      Set<String> requiredFields
+  ) {
+    return createSerde(schema, ksqlConfig, schemaRegistryClientFactory);
+  }
+
+  default <T> Serde<T> createSerde(
+      PersistenceSchema schema,
+      KsqlConfig ksqlConfig,
+      Supplier<SchemaRegistryClient> schemaRegistryClientFactory,
+      Class<T> type
+  ) {
+    return createSerde(schema, ksqlConfig, schemaRegistryClientFactory, Optional.empty(), type);
+  }
+
   @SuppressWarnings("unchecked")
   default <T> Serde<T> createSerde(
       PersistenceSchema schema,
       KsqlConfig ksqlConfig,
       Supplier<SchemaRegistryClient> schemaRegistryClientFactory,
+      Optional<Set<String>> requiredFields,
       Class<T> type
   ) {
     final Class<?> actualType = SchemaUtil.getJavaType(schema.serializedSchema());
@@ -63,6 +98,10 @@ public interface KsqlSerdeFactory {
       );
     }
 
-    return (Serde) createSerde(schema, ksqlConfig, schemaRegistryClientFactory);
+    final Serde<Object> serde = requiredFields.isPresent()
+        ? createSerde(schema, ksqlConfig, schemaRegistryClientFactory, requiredFields.get())
+        : createSerde(schema, ksqlConfig, schemaRegistryClientFactory);
+
+    return (Serde) serde;
   }
 }
@@ -18,6 +18,8 @@ package io.confluent.ksql.serde;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.ksql.schema.ksql.PersistenceSchema;
 import io.confluent.ksql.util.KsqlConfig;
+import java.util.Optional;
+import java.util.Set;
 import java.util.function.Supplier;
 import org.apache.kafka.common.serialization.Serde;
 
@@ -30,6 +32,7 @@ interface SerdeFactories {
    * @param schema persitence schema
    * @param ksqlConfig system config.
    * @param schemaRegistryClientFactory the sr client factory.
+   * @param requiredFields the top level fields the deserializer must populate, if not all.
    * @param type the value type.
    * @param <T> the value type.
    */
@@ -38,6 +41,7 @@ interface SerdeFactories {
       PersistenceSchema schema,
       KsqlConfig ksqlConfig,
       Supplier<SchemaRegistryClient> schemaRegistryClientFactory,
+      Optional<Set<String>> requiredFields,
       Class<T> type
   );
 }
@@ -20,6 +20,7 @@ import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.logging.processing.ProcessingLogContext;
 import io.confluent.ksql.schema.ksql.PersistenceSchema;
 import io.confluent.ksql.util.KsqlConfig;
+import java.util.Set;
 import java.util.function.Supplier;
 import org.apache.kafka.common.serialization.Serde;
 
@@ -47,4 +48,38 @@ public interface ValueSerdeFactory {
       String loggerNamePrefix,
       ProcessingLogContext processingLogContext
   );
+
+  /**
+   * Create a value serde whose deserializer need only populate the supplied columns.
+   *
+   * <p>Columns not in {@code requiredFields} may be {@code null} in deserialized rows. The
+   * default implementation ignores the projection.
+   *
+   * @param format the format required.
+   * @param schema the schema of the serialized form.
+   * @param ksqlConfig the system config.
+   * @param schemaRegistryClientFactory supplier of SR client.
+   * @param loggerNamePrefix processing logger name prefix
+   * @param processingLogContext processing logger context.
+   * @param requiredFields the names of the fields deserialized rows must populate.
+   * @return the value serde.
+   */
+  default Serde<GenericRow> create(
+      FormatInfo format,
+      PersistenceSchema schema,
+      KsqlConfig ksqlConfig,
+      Supplier<SchemaRegistryClient> schemaRegistryClientFactory,
+      String loggerNamePrefix,
+      ProcessingLogContext processingLogContext,
+      Set<String> requiredFields
+  ) {
+    return create(
+        format,
+        schema,
+        ksqlConfig,
+        schemaRegistryClientFactory,
+        loggerNamePrefix,
+        processingLogContext
+    );
+  }
 }
@@ -23,10 +23,13 @@ import io.confluent.ksql.serde.connect.DataTranslator;
 import io.confluent.ksql.util.DecimalUtil;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.Schema.Type;
@@ -51,6 +54,15 @@ public class AvroDataTranslator implements DataTranslator {
       final Schema schema,
       final String schemaFullName,
       final boolean useNamedMaps
+  ) {
+    this(schema, schemaFullName, useNamedMaps, Optional.empty());
+  }
+
+  AvroDataTranslator(
+      final Schema schema,
+      final String schemaFullName,
+      final boolean useNamedMaps,
+      final Optional<Set<String>> requiredFields
   ) {
     this.ksqlSchema = throwOnInvalidSchema(Objects.requireNonNull(schema, "schema"));
 
@@ -58,7 +70,10 @@ public class AvroDataTranslator implements DataTranslator {
         schema, schemaFullName, useNamedMaps
     );
 
-    this.innerTranslator = new ConnectDataTranslator(avroCompatibleSchema);
+    this.innerTranslator = new ConnectDataTranslator(
+        avroCompatibleSchema,
+        requiredFields.map(fields -> toAvroCompatibleNames(schema, avroCompatibleSchema, fields))
+    );
   }
 
   Schema getAvroCompatibleSchema() {
@@ -129,6 +144,30 @@ public class AvroDataTranslator implements DataTranslator {
   }
 
 
+  /**
+   * Field names may be changed to make them valid Avro names, so map the required fields to
+   * their Avro compatible names, by position.
+   */
+  private static Set<String> toAvroCompatibleNames(
+      final Schema ksqlSchema,
+      final Schema avroCompatibleSchema,
+      final Set<String> requiredFields
+  ) {
+    if (ksqlSchema.type() != Type.STRUCT) {
+      return requiredFields;
+    }
+
+    final Set<String> names = new HashSet<>(requiredFields.size());
+    final Iterator<Field> avroIt = avroCompatibleSchema.fields().iterator();
+    for (final Field ksqlField : ksqlSchema.fields()) {
+      final Field avroField = avroIt.next();
+      if (requiredFields.contains(ksqlField.name())) {
+        names.add(avroField.name());
+      }
+    }
+    return names;
+  }
+
   private static Schema throwOnInvalidSchema(final Schema schema) {
 
     class SchemaValidator implements Visitor<Void, Void> {
@@ -29,6 +29,8 @@ import io.confluent.ksql.serde.tls.ThreadLocalSerializer;
 import io.confluent.ksql.util.KsqlConfig;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.function.Supplier;
 import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.common.serialization.Serde;
@@ -57,6 +59,30 @@ public class KsqlAvroSerdeFactory implements KsqlSerdeFactory {
       final PersistenceSchema schema,
       final KsqlConfig ksqlConfig,
       final Supplier<SchemaRegistryClient> schemaRegistryClientFactory
+  ) {
+    return createSerde(schema, ksqlConfig, schemaRegistryClientFactory, Optional.empty());
+  }
+
+  @Override
+  public Serde<Object> createSerde(
+      final PersistenceSchema schema,
+      final KsqlConfig ksqlConfig,
+      final Supplier<SchemaRegistryClient> schemaRegistryClientFactory,
+      final Set<String> requiredFields
+  ) {
+    return createSerde(
+        schema,
+        ksqlConfig,
+        schemaRegistryClientFactory,
+        Optional.of(requiredFields)
+    );
+  }
+
+  private Serde<Object> createSerde(
+      final PersistenceSchema schema,
+      final KsqlConfig ksqlConfig,
+      final Supplier<SchemaRegistryClient> schemaRegistryClientFactory,
+      final Optional<Set<String>> requiredFields
   ) {
     final Supplier<Serializer<Object>> serializerSupplier = () -> createConnectSerializer(
         schema,
@@ -67,7 +93,8 @@ public class KsqlAvroSerdeFactory implements KsqlSerdeFactory {
     final Supplier<Deserializer<Object>> deserializerSupplier = () -> createConnectDeserializer(
         schema,
         ksqlConfig,
-        schemaRegistryClientFactory);
+        schemaRegistryClientFactory,
+        requiredFields);
 
     // Sanity check:
     serializerSupplier.get();
@@ -101,7 +128,8 @@ public class KsqlAvroSerdeFactory implements KsqlSerdeFactory {
       final KsqlConfig ksqlConfig,
       final Supplier<SchemaRegistryClient> schemaRegistryClientFactory
   ) {
-    final AvroDataTranslator translator = createAvroTranslator(schema, ksqlConfig);
+    final AvroDataTranslator translator =
+        createAvroTranslator(schema, ksqlConfig, Optional.empty());
 
     final AvroConverter avroConverter =
         getAvroConverter(schemaRegistryClientFactory.get(), ksqlConfig);
@@ -116,9 +144,11 @@ public class KsqlAvroSerdeFactory implements KsqlSerdeFactory {
   private KsqlConnectDeserializer createConnectDeserializer(
       final PersistenceSchema schema,
       final KsqlConfig ksqlConfig,
-      final Supplier<SchemaRegistryClient> schemaRegistryClientFactory
+      final Supplier<SchemaRegistryClient> schemaRegistryClientFactory,
+      final Optional<Set<String>> requiredFields
   ) {
-    final AvroDataTranslator translator = createAvroTranslator(schema, ksqlConfig);
+    final AvroDataTranslator translator =
+        createAvroTranslator(schema, ksqlConfig, requiredFields);
 
     final AvroConverter avroConverter =
         getAvroConverter(schemaRegistryClientFactory.get(), ksqlConfig);
@@ -128,11 +158,17 @@ public class KsqlAvroSerdeFactory implements KsqlSerdeFactory {
 
   private AvroDataTranslator createAvroTranslator(
       final PersistenceSchema schema,
-      final KsqlConfig ksqlConfig
+      final KsqlConfig ksqlConfig,
+      final Optional<Set<String>> requiredFields
   ) {
     final boolean useNamedMaps = ksqlConfig.getBoolean(KsqlConfig.KSQL_USE_NAMED_AVRO_MAPS);
 
-    return new AvroDataTranslator(schema.serializedSchema(), fullSchemaName, useNamedMaps);
+    return new AvroDataTranslator(
+        schema.serializedSchema(),
+        fullSchemaName,
+        useNamedMaps,
+        requiredFields
+    );
   }
 
   private static AvroConverter getAvroConverter(
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.compact;
+
+/**
+ * Constants of the compact binary row format.
+ *
+ * <p>The format is internal to KSQL and is only used for state that KSQL both writes and reads,
+ * e.g. the state of aggregations. It is not self-describing: the schema of the row is required
+ * to read it back. A row is laid out as:
+ *
+ * <pre>
+ *   row      := VERSION column*
+ *   column   := NULL | PRESENT value
+ *   BOOLEAN  := 1 byte
+ *   INT      := 4 bytes
+ *   BIGINT   := 8 bytes
+ *   DOUBLE   := 8 bytes, IEEE 754
+ *   STRING   := length, UTF-8 bytes
+ *   DECIMAL  := length, unscaled value at the scale of the schema, two's complement
+ *   ARRAY    := count, column*
+ *   MAP      := count, (column column)*
+ *   STRUCT   := column*
+ * </pre>
+ *
+ * <p>Where multi-byte numbers, lengths and counts are big-endian. Numeric columns are therefore
+ * fixed width slots, rather than the text of formats such as JSON.
+ */
+final class CompactFormat {
+
+  static final byte VERSION = 1;
+
+  static final byte NULL = 0;
+  static final byte PRESENT = 1;
+
+  private CompactFormat() {
+  }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.compact;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.schema.ksql.PersistenceSchema;
+import io.confluent.ksql.util.DecimalUtil;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.errors.DataException;
+
+/**
+ * Deserializer of the {@link CompactFormat compact binary row format}.
+ *
+ * <p>The schema is compiled into a tree of {@link ValueReader}s once, at construction time,
+ * which read the columns of each row in a single pass straight into the row.
+ */
+public final class CompactRowDeserializer implements Deserializer<GenericRow> {
+
+  private final ValueReader[] readers;
+
+  public CompactRowDeserializer(final PersistenceSchema schema) {
+    this.readers = compileFields(schema.ksqlSchema());
+  }
+
+  @Override
+  public void configure(final Map<String, ?> configs, final boolean isKey) {
+  }
+
+  @Override
+  public GenericRow deserialize(final String topic, final byte[] data) {
+    if (data == null) {
+      return null;
+    }
+
+    try {
+      final ByteBuffer input = ByteBuffer.wrap(data);
+
+      final byte version = input.get();
+      if (version != CompactFormat.VERSION) {
+        throw new DataException("Unsupported version: " + version);
+      }
+
+      final List<Object> columns = new ArrayList<>(readers.length);
+      for (final ValueReader reader : readers) {
+        columns.add(reader.read(input));
+      }
+
+      if (input.hasRemaining()) {
+        throw new DataException("Unexpected trailing bytes: " + input.remaining());
+      }
+
+      return new GenericRow(columns);
+    } catch (final Exception e) {
+      throw new SerializationException(
+          "Error deserializing compact row from topic: " + topic, e);
+    }
+  }
+
+  @Override
+  public void close() {
+  }
+
+  private static ValueReader[] compileFields(final Schema schema) {
+    final List<Field> fields = schema.fields();
+    final ValueReader[] readers = new ValueReader[fields.size()];
+    for (int idx = 0; idx < readers.length; idx++) {
+      readers[idx] = compile(fields.get(idx).schema());
+    }
+    return readers;
+  }
+
+  private static ValueReader compile(final Schema schema) {
+    final ValueReader reader = compileNonNull(schema);
+    return input -> {
+      final byte presence = input.get();
+      if (presence == CompactFormat.NULL) {
+        return null;
+      }
+
+      if (presence != CompactFormat.PRESENT) {
+        throw new DataException("Invalid presence byte: " + presence);
+      }
+
+      return reader.read(input);
+    };
+  }
+
+  private static ValueReader compileNonNull(final Schema schema) {
+    if (DecimalUtil.isDecimal(schema)) {
+      final int scale = DecimalUtil.scale(schema);
+      return input -> new BigDecimal(new BigInteger(readBytes(input)), scale);
+    }
+
+    switch (schema.type()) {
+      case BOOLEAN:
+        return input -> input.get() != 0;
+      case INT32:
+        return ByteBuffer::getInt;
+      case INT64:
+        return ByteBuffer::getLong;
+      case FLOAT64:
+        return ByteBuffer::getDouble;
+      case STRING:
+        return input -> new String(readBytes(input), StandardCharsets.UTF_8);
+      case ARRAY:
+        return new ArrayReader(schema);
+      case MAP:
+        return new MapReader(schema);
+      case STRUCT:
+        return new StructReader(schema);
+      default:
+        throw new DataException("The compact format does not support type: " + schema.type());
+    }
+  }
+
+  private static byte[] readBytes(final ByteBuffer input) {
+    final byte[] bytes = new byte[input.getInt()];
+    input.get(bytes);
+    return bytes;
+  }
+
+  private interface ValueReader {
+
+    Object read(ByteBuffer input);
+  }
+
+  private static final class ArrayReader implements ValueReader {
+
+    private final ValueReader elementReader;
+
+    ArrayReader(final Schema schema) {
+      this.elementReader = compile(schema.valueSchema());
+    }
+
+    @Override
+    public Object read(final ByteBuffer input) {
+      final int size = input.getInt();
+      final List<Object> list = new ArrayList<>(size);
+      for (int idx = 0; idx < size; idx++) {
+        list.add(elementReader.read(input));
+      }
+      return list;
+    }
+  }
+
+  private static final class MapReader implements ValueReader {
+
+    private final ValueReader keyReader;
+    private final ValueReader valueReader;
+
+    MapReader(final Schema schema) {
+      this.keyReader = compile(schema.keySchema());
+      this.valueReader = compile(schema.valueSchema());
+    }
+
+    @Override
+    public Object read(final ByteBuffer input) {
+      final int size = input.getInt();
+      final Map<Object, Object> map = new HashMap<>();
+      for (int idx = 0; idx < size; idx++) {
+        final Object key = keyReader.read(input);
+        map.put(key, valueReader.read(input));
+      }
+      return map;
+    }
+  }
+
+  private static final class StructReader implements ValueReader {
+
+    private final Schema schema;
+    private final Field[] fields;
+    private final ValueReader[] readers;
+
+    StructReader(final Schema schema) {
+      this.schema = Objects.requireNonNull(schema, "schema");
+      this.fields = schema.fields().toArray(new Field[0]);
+      this.readers = compileFields(schema);
+    }
+
+    @Override
+    public Object read(final ByteBuffer input) {
+      final Struct struct = new Struct(schema);
+      for (int idx = 0; idx < fields.length; idx++) {
+        struct.put(fields[idx], readers[idx].read(input));
+      }
+      return struct;
+    }
+  }
+}
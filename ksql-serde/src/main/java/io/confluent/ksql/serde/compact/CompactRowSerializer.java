@@ -0,0 +1,260 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.compact;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.schema.ksql.PersistenceSchema;
+import io.confluent.ksql.util.DecimalUtil;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.errors.DataException;
+
+/**
+ * Serializer of the {@link CompactFormat compact binary row format}.
+ *
+ * <p>The schema is compiled into a tree of {@link ValueWriter}s once, at construction time,
+ * which write the columns of each row in a single pass into a per-thread, reusable, output
+ * buffer. Unlike the other formats, the row is not first converted into a {@link Struct}.
+ */
+public final class CompactRowSerializer implements Serializer<GenericRow> {
+
+  private final ValueWriter[] writers;
+  private final ThreadLocal<Output> buffers = ThreadLocal.withInitial(Output::new);
+
+  public CompactRowSerializer(final PersistenceSchema schema) {
+    this.writers = compileFields(schema.ksqlSchema());
+  }
+
+  @Override
+  public void configure(final Map<String, ?> configs, final boolean isKey) {
+  }
+
+  @Override
+  public byte[] serialize(final String topic, final GenericRow data) {
+    if (data == null) {
+      return null;
+    }
+
+    final List<Object> columns = data.getColumns();
+    if (columns.size() != writers.length) {
+      throw new SerializationException("Field count mismatch."
+          + " expected: " + writers.length
+          + ", got: " + columns.size()
+      );
+    }
+
+    final Output output = buffers.get();
+    output.reset();
+
+    try {
+      output.writeByte(CompactFormat.VERSION);
+      for (int idx = 0; idx < writers.length; idx++) {
+        writers[idx].write(output, columns.get(idx));
+      }
+    } catch (final Exception e) {
+      throw new SerializationException("Error serializing compact row for topic: " + topic, e);
+    }
+
+    return output.toByteArray();
+  }
+
+  @Override
+  public void close() {
+    buffers.remove();
+  }
+
+  private static ValueWriter[] compileFields(final Schema schema) {
+    final List<Field> fields = schema.fields();
+    final ValueWriter[] writers = new ValueWriter[fields.size()];
+    for (int idx = 0; idx < writers.length; idx++) {
+      writers[idx] = compile(fields.get(idx).schema());
+    }
+    return writers;
+  }
+
+  private static ValueWriter compile(final Schema schema) {
+    final ValueWriter writer = compileNonNull(schema);
+    return (output, value) -> {
+      if (value == null) {
+        output.writeByte(CompactFormat.NULL);
+        return;
+      }
+
+      output.writeByte(CompactFormat.PRESENT);
+      writer.write(output, value);
+    };
+  }
+
+  private static ValueWriter compileNonNull(final Schema schema) {
+    if (DecimalUtil.isDecimal(schema)) {
+      final int scale = DecimalUtil.scale(schema);
+      return (output, value) -> output.writeBytes(((BigDecimal) value)
+          .setScale(scale, RoundingMode.UNNECESSARY)
+          .unscaledValue()
+          .toByteArray());
+    }
+
+    switch (schema.type()) {
+      case BOOLEAN:
+        return (output, value) -> output.writeByte((Boolean) value ? 1 : 0);
+      case INT32:
+        return (output, value) -> output.writeInt((Integer) value);
+      case INT64:
+        return (output, value) -> output.writeLong((Long) value);
+      case FLOAT64:
+        return (output, value) -> output.writeLong(Double.doubleToLongBits((Double) value));
+      case STRING:
+        return (output, value) ->
+            output.writeBytes(((String) value).getBytes(StandardCharsets.UTF_8));
+      case ARRAY:
+        return new ArrayWriter(schema);
+      case MAP:
+        return new MapWriter(schema);
+      case STRUCT:
+        return new StructWriter(schema);
+      default:
+        throw new DataException("The compact format does not support type: " + schema.type());
+    }
+  }
+
+  private interface ValueWriter {
+
+    void write(Output output, Object value);
+  }
+
+  private static final class ArrayWriter implements ValueWriter {
+
+    private final ValueWriter elementWriter;
+
+    ArrayWriter(final Schema schema) {
+      this.elementWriter = compile(schema.valueSchema());
+    }
+
+    @Override
+    public void write(final Output output, final Object value) {
+      final Collection<?> collection = (Collection<?>) value;
+
+      output.writeInt(collection.size());
+      for (final Object element : collection) {
+        elementWriter.write(output, element);
+      }
+    }
+  }
+
+  private static final class MapWriter implements ValueWriter {
+
+    private final ValueWriter keyWriter;
+    private final ValueWriter valueWriter;
+
+    MapWriter(final Schema schema) {
+      this.keyWriter = compile(schema.keySchema());
+      this.valueWriter = compile(schema.valueSchema());
+    }
+
+    @Override
+    public void write(final Output output, final Object value) {
+      final Map<?, ?> map = (Map<?, ?>) value;
+
+      output.writeInt(map.size());
+      for (final Map.Entry<?, ?> entry : map.entrySet()) {
+        keyWriter.write(output, entry.getKey());
+        valueWriter.write(output, entry.getValue());
+      }
+    }
+  }
+
+  private static final class StructWriter implements ValueWriter {
+
+    private final Schema schema;
+    private final Field[] fields;
+    private final ValueWriter[] writers;
+
+    StructWriter(final Schema schema) {
+      this.schema = Objects.requireNonNull(schema, "schema");
+      this.fields = schema.fields().toArray(new Field[0]);
+      this.writers = compileFields(schema);
+    }
+
+    @Override
+    public void write(final Output output, final Object value) {
+      final Struct struct = (Struct) value;
+      if (!struct.schema().equals(schema)) {
+        throw new DataException("Mismatching schema.");
+      }
+
+      for (int idx = 0; idx < fields.length; idx++) {
+        writers[idx].write(output, struct.get(fields[idx]));
+      }
+    }
+  }
+
+  private static final class Output {
+
+    private byte[] buffer = new byte[256];
+    private int position;
+
+    void reset() {
+      position = 0;
+    }
+
+    void writeByte(final int value) {
+      ensureCapacity(1);
+      buffer[position++] = (byte) value;
+    }
+
+    void writeInt(final int value) {
+      ensureCapacity(Integer.BYTES);
+      for (int shift = Integer.SIZE - Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+        buffer[position++] = (byte) (value >>> shift);
+      }
+    }
+
+    void writeLong(final long value) {
+      ensureCapacity(Long.BYTES);
+      for (int shift = Long.SIZE - Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+        buffer[position++] = (byte) (value >>> shift);
+      }
+    }
+
+    void writeBytes(final byte[] bytes) {
+      writeInt(bytes.length);
+      ensureCapacity(bytes.length);
+      System.arraycopy(bytes, 0, buffer, position, bytes.length);
+      position += bytes.length;
+    }
+
+    byte[] toByteArray() {
+      return Arrays.copyOf(buffer, position);
+    }
+
+    private void ensureCapacity(final int bytes) {
+      if (position + bytes > buffer.length) {
+        buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + bytes));
+      }
+    }
+  }
+}
@@ -23,6 +23,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.function.Predicate;
 import org.apache.kafka.connect.data.Date;
 import org.apache.kafka.connect.data.Decimal;
@@ -38,15 +40,24 @@ import org.apache.kafka.connect.errors.DataException;
  *
  * <p>Responsible for the coercion of connect types to the subset KSQL supports and handling
  * case-insensitivity of struct field names.
+ *
+ * <p>If constructed with a set of required fields, top level fields not in the set are neither
+ * validated nor coerced, and are left {@code null}.
  */
 public class ConnectDataTranslator implements DataTranslator {
 
   private static final String PATH_SEPARATOR = "->";
 
   private final Schema schema;
+  private final Optional<Set<String>> requiredFields;
 
   public ConnectDataTranslator(final Schema schema) {
+    this(schema, Optional.empty());
+  }
+
+  public ConnectDataTranslator(final Schema schema, final Optional<Set<String>> requiredFields) {
     this.schema = Objects.requireNonNull(schema, "schema");
+    this.requiredFields = Objects.requireNonNull(requiredFields, "requiredFields");
   }
 
   @Override
@@ -307,8 +318,13 @@ public class ConnectDataTranslator implements DataTranslator {
     final Struct ksqlStruct = new Struct(schema);
     final Map<String, Field> caseInsensitiveFieldMap =
         getCaseInsensitiveFieldMap(connectSchema);
+    final boolean topLevel = schema == this.schema;
 
     schema.fields().forEach(field -> {
+      if (topLevel && !isRequired(field)) {
+        return;
+      }
+
       final String fieldNameUppercase = field.name().toUpperCase();
       if (caseInsensitiveFieldMap.containsKey(fieldNameUppercase)) {
         final Field connectField = caseInsensitiveFieldMap.get(fieldNameUppercase);
@@ -327,6 +343,12 @@ public class ConnectDataTranslator implements DataTranslator {
     return ksqlStruct;
   }
 
+  private boolean isRequired(final Field field) {
+    return requiredFields
+        .map(fields -> fields.contains(field.name()))
+        .orElse(true);
+  }
+
   private static Map<String, Field> getCaseInsensitiveFieldMap(final Schema schema) {
     final Map<String, Field> fieldsByName = new HashMap<>();
     schema.fields().forEach(
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.delimited;
+
+import io.confluent.ksql.util.KsqlException;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import org.apache.commons.csv.CSVFormat;
+
+/**
+ * Splits a single UTF-8 encoded delimited record into fields, in place.
+ *
+ * <p>Fields are returned as byte ranges into the supplied array, rather than as strings, so that
+ * callers can parse them without any intermediate copies.
+ *
+ * <p>The delimiter and quote character of the supplied {@link CSVFormat} are handled the same
+ * way {@code CSVParser} handles them for {@link CSVFormat#DEFAULT}:
+ * <ul>
+ *   <li>A field starting with the quote character runs to the next unpaired quote and may
+ *   contain delimiters and line breaks. A doubled quote within it is a literal quote.</li>
+ *   <li>Whitespace between a closing quote and the next delimiter is ignored.</li>
+ *   <li>Quote characters anywhere else are literal.</li>
+ *   <li>Leading empty lines are skipped and the record ends at the first line break that is not
+ *   within quotes.</li>
+ * </ul>
+ *
+ * <p>Instances are immutable and thread safe.
+ */
+final class DelimitedTokenizer {
+
+  private final byte[] delimiter;
+  private final byte[] quote;
+
+  DelimitedTokenizer(final CSVFormat csvFormat) {
+    Objects.requireNonNull(csvFormat, "csvFormat");
+    this.delimiter = utf8(csvFormat.getDelimiter());
+    this.quote = csvFormat.getQuoteCharacter() == null
+        ? null
+        : utf8(csvFormat.getQuoteCharacter());
+  }
+
+  /**
+   * Tokenize the first record in {@code bytes}.
+   *
+   * <p>The bounds of the first {@link Tokens#capacity()} fields are stored in {@code tokens}.
+   * Any further fields are counted, but not stored.
+   *
+   * @param bytes the UTF-8 encoded record.
+   * @param tokens the tokens to populate.
+   * @return the number of fields in the record, or zero if there is no record.
+   */
+  int tokenize(final byte[] bytes, final Tokens tokens) {
+    int pos = 0;
+    while (pos < bytes.length && isLineBreak(bytes[pos])) {
+      pos++;
+    }
+
+    if (pos == bytes.length) {
+      return 0;
+    }
+
+    int count = 0;
+    while (true) {
+      final int end = isQuoteAt(bytes, pos)
+          ? readQuoted(bytes, pos, tokens, count)
+          : readUnquoted(bytes, pos, tokens, count);
+
+      count++;
+
+      if (end == bytes.length || isLineBreak(bytes[end])) {
+        return count;
+      }
+
+      pos = end + delimiter.length;
+    }
+  }
+
+  /**
+   * Get the text of a field, with any doubled quotes replaced by single quotes.
+   */
+  String text(final byte[] bytes, final Tokens tokens, final int idx) {
+    final String text = new String(
+        bytes,
+        tokens.start(idx),
+        tokens.end(idx) - tokens.start(idx),
+        StandardCharsets.UTF_8
+    );
+
+    if (!tokens.escaped(idx)) {
+      return text;
+    }
+
+    final String quoteString = new String(quote, StandardCharsets.UTF_8);
+    return text.replace(quoteString + quoteString, quoteString);
+  }
+
+  private int readUnquoted(
+      final byte[] bytes,
+      final int pos,
+      final Tokens tokens,
+      final int count
+  ) {
+    int idx = pos;
+    while (idx < bytes.length && !isLineBreak(bytes[idx]) && !isDelimiterAt(bytes, idx)) {
+      idx++;
+    }
+
+    tokens.set(count, pos, idx, false);
+    return idx;
+  }
+
+  private int readQuoted(
+      final byte[] bytes,
+      final int pos,
+      final Tokens tokens,
+      final int count
+  ) {
+    final int start = pos + quote.length;
+    boolean escaped = false;
+
+    int idx = start;
+    while (true) {
+      if (idx >= bytes.length) {
+        throw new KsqlException("EOF reached before quoted field finished");
+      }
+
+      if (isQuoteAt(bytes, idx)) {
+        if (!isQuoteAt(bytes, idx + quote.length)) {
+          break;
+        }
+
+        escaped = true;
+        idx += quote.length * 2;
+        continue;
+      }
+
+      idx++;
+    }
+
+    tokens.set(count, start, idx, escaped);
+    idx += quote.length;
+
+    while (idx < bytes.length && !isLineBreak(bytes[idx]) && !isDelimiterAt(bytes, idx)) {
+      if (!isWhitespace(bytes[idx])) {
+        throw new KsqlException("Invalid character between quoted field and delimiter");
+      }
+      idx++;
+    }
+
+    return idx;
+  }
+
+  private boolean isDelimiterAt(final byte[] bytes, final int idx) {
+    return bytes[idx] == delimiter[0]
+        && (delimiter.length == 1 || matches(bytes, idx, delimiter));
+  }
+
+  private boolean isQuoteAt(final byte[] bytes, final int idx) {
+    return quote != null && matches(bytes, idx, quote);
+  }
+
+  private static boolean matches(final byte[] bytes, final int idx, final byte[] sequence) {
+    if (idx + sequence.length > bytes.length) {
+      return false;
+    }
+
+    for (int i = 0; i < sequence.length; i++) {
+      if (bytes[idx + i] != sequence[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isLineBreak(final byte b) {
+    return b == '\n' || b == '\r';
+  }
+
+  private static boolean isWhitespace(final byte b) {
+    return b >= 0 && Character.isWhitespace(b);
+  }
+
+  private static byte[] utf8(final char ch) {
+    return String.valueOf(ch).getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * The bounds of the fields found in a record.
+   *
+   * <p>Instances are mutable and reused across records, so are not thread safe.
+   */
+  static final class Tokens {
+
+    private final int[] starts;
+    private final int[] ends;
+    private final boolean[] escaped;
+
+    Tokens(final int capacity) {
+      this.starts = new int[capacity];
+      this.ends = new int[capacity];
+      this.escaped = new boolean[capacity];
+    }
+
+    int capacity() {
+      return starts.length;
+    }
+
+    /**
+     * @return the index of the first byte of the field, excluding any quote.
+     */
+    int start(final int idx) {
+      return starts[idx];
+    }
+
+    /**
+     * @return the index after the last byte of the field, excluding any quote.
+     */
+    int end(final int idx) {
+      return ends[idx];
+    }
+
+    /**
+     * @return {@code true} if the field contains doubled quotes.
+     */
+    boolean escaped(final int idx) {
+      return escaped[idx];
+    }
+
+    private void set(final int idx, final int start, final int end, final boolean isEscaped) {
+      if (idx >= starts.length) {
+        return;
+      }
+
+      starts[idx] = start;
+      ends[idx] = end;
+      escaped[idx] = isEscaped;
+    }
+  }
+}
@@ -17,18 +17,17 @@ package io.confluent.ksql.serde.delimited;
 
 import com.google.common.collect.ImmutableMap;
 import io.confluent.ksql.schema.ksql.PersistenceSchema;
+import io.confluent.ksql.serde.delimited.DelimitedTokenizer.Tokens;
 import io.confluent.ksql.util.DecimalUtil;
 import io.confluent.ksql.util.KsqlException;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
-import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
 import org.apache.kafka.common.errors.SerializationException;
 import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.connect.data.ConnectSchema;
@@ -37,6 +36,13 @@ import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.Schema.Type;
 import org.apache.kafka.connect.data.Struct;
 
+/**
+ * Deserializer for the DELIMITED format.
+ *
+ * <p>Records are tokenized in place by a {@link DelimitedTokenizer}, and numeric and boolean
+ * fields are parsed straight from the UTF-8 bytes, so the only objects created per record are
+ * the resulting {@link Struct}, its values and any {@code STRING} or {@code DECIMAL} text.
+ */
 public class KsqlDelimitedDeserializer implements Deserializer<Object> {
 
   private static final Map<Type, Function<String, Object>> PARSERS = ImmutableMap.of(
@@ -47,16 +53,50 @@ public class KsqlDelimitedDeserializer implements Deserializer<Object> {
       Type.STRING, s -> s
   );
 
+  private static final Map<Type, FieldParser> BYTE_PARSERS = ImmutableMap.of(
+      Type.BOOLEAN, KsqlDelimitedDeserializer::parseBoolean,
+      Type.INT32, KsqlDelimitedDeserializer::parseInt,
+      Type.INT64, KsqlDelimitedDeserializer::parseLong,
+      Type.FLOAT64, KsqlDelimitedDeserializer::parseDouble,
+      Type.STRING, KsqlDelimitedDeserializer::utf8
+  );
+
+  // Integers with at most this many digits can not overflow:
+  private static final int MAX_SAFE_INT_DIGITS = 9;
+  private static final int MAX_SAFE_LONG_DIGITS = 18;
+
+  // Integers with at most this many digits, and the powers of ten below, are exactly
+  // representable as doubles. Dividing one by the other is therefore correctly rounded:
+  private static final int MAX_EXACT_DOUBLE_DIGITS = 15;
+  private static final double[] POWERS_OF_TEN = {
+      1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+      1e12, 1e13, 1e14, 1e15
+  };
+
   private final ConnectSchema schema;
-  private final CSVFormat csvFormat;
+  private final Field[] fields;
+  private final FieldParser[] parsers;
+  private final DelimitedTokenizer tokenizer;
+  private final ThreadLocal<Tokens> tokens;
 
   public KsqlDelimitedDeserializer(
       final PersistenceSchema schema,
       final CSVFormat csvFormat
+  ) {
+    this(schema, csvFormat, Optional.empty());
+  }
+
+  public KsqlDelimitedDeserializer(
+      final PersistenceSchema schema,
+      final CSVFormat csvFormat,
+      final Optional<Set<String>> requiredFields
   ) {
     this.schema = Objects.requireNonNull(schema, "schema").serializedSchema();
     throwOnUnsupported(this.schema);
-    this.csvFormat = Objects.requireNonNull(csvFormat, "csvFormat");
+    this.tokenizer = new DelimitedTokenizer(Objects.requireNonNull(csvFormat, "csvFormat"));
+    this.fields = this.schema.fields().toArray(new Field[0]);
+    this.parsers = compile(fields, requiredFields);
+    this.tokens = ThreadLocal.withInitial(() -> new Tokens(fields.length));
   }
 
   @Override
@@ -70,42 +110,31 @@ public class KsqlDelimitedDeserializer implements Deserializer<Object> {
     }
 
     try {
-      final String recordCsvString = new String(bytes, StandardCharsets.UTF_8);
-      final List<CSVRecord> csvRecords = CSVParser.parse(recordCsvString, csvFormat)
-          .getRecords();
+      final Tokens tokens = this.tokens.get();
+      final int fieldCount = tokenizer.tokenize(bytes, tokens);
 
-      if (csvRecords.isEmpty()) {
+      if (fieldCount == 0) {
         throw new KsqlException("No fields in record");
       }
 
-      final CSVRecord csvRecord = csvRecords.get(0);
-      if (csvRecord == null || csvRecord.size() == 0) {
-        throw new KsqlException("No fields in record.");
-      }
-
-      if (csvRecord.size() != schema.fields().size()) {
+      if (fieldCount != fields.length) {
         throw new KsqlException(
             String.format(
                 "Unexpected field count, csvFields:%d schemaFields:%d",
-              csvRecord.size(),
-                schema.fields().size()
+                fieldCount,
+                fields.length
           )
         );
       }
 
       final Struct struct = new Struct(schema);
 
-      final Iterator<Field> it = schema.fields().iterator();
-
-      for (int i = 0; i < csvRecord.size(); i++) {
-        final Field field = it.next();
-        if (csvRecord.get(i) == null) {
-          struct.put(field, null);
-        } else {
-          final Object coerced = enforceFieldType(field.schema(), csvRecord.get(i));
-          struct.put(field, coerced);
+      for (int i = 0; i < fields.length; i++) {
+        if (parsers[i] == null) {
+          continue;
         }
 
+        struct.put(fields[i], parseField(bytes, tokens, i));
       }
       return struct;
     } catch (final Exception e) {
@@ -115,6 +144,22 @@ public class KsqlDelimitedDeserializer implements Deserializer<Object> {
 
   @Override
   public void close() {
+    tokens.remove();
+  }
+
+  private Object parseField(final byte[] bytes, final Tokens tokens, final int idx) {
+    final int start = tokens.start(idx);
+    final int end = tokens.end(idx);
+    if (start == end) {
+      return null;
+    }
+
+    if (tokens.escaped(idx)) {
+      // Rare: fields containing quotes must be unescaped, so are parsed from text:
+      return enforceFieldType(fields[idx].schema(), tokenizer.text(bytes, tokens, idx));
+    }
+
+    return parsers[idx].parse(bytes, start, end);
   }
 
   private static Object enforceFieldType(
@@ -137,6 +182,134 @@ public class KsqlDelimitedDeserializer implements Deserializer<Object> {
     return parser.apply(delimitedField);
   }
 
+  private static FieldParser[] compile(
+      final Field[] fields,
+      final Optional<Set<String>> requiredFields
+  ) {
+    final FieldParser[] parsers = new FieldParser[fields.length];
+    for (int i = 0; i < fields.length; i++) {
+      final String name = fields[i].name();
+      final boolean required = requiredFields
+          .map(names -> names.contains(name))
+          .orElse(true);
+
+      if (required) {
+        parsers[i] = compile(fields[i].schema());
+      }
+    }
+    return parsers;
+  }
+
+  private static FieldParser compile(final Schema fieldSchema) {
+    if (DecimalUtil.isDecimal(fieldSchema)) {
+      return (bytes, start, end) ->
+          DecimalUtil.ensureFit(new BigDecimal(utf8(bytes, start, end)), fieldSchema);
+    }
+
+    final FieldParser parser = BYTE_PARSERS.get(fieldSchema.type());
+    if (parser == null) {
+      throw new KsqlException("Type is not supported: " + fieldSchema.type());
+    }
+
+    return parser;
+  }
+
+  private static String utf8(final byte[] bytes, final int start, final int end) {
+    return new String(bytes, start, end - start, StandardCharsets.UTF_8);
+  }
+
+  private static Boolean parseBoolean(final byte[] bytes, final int start, final int end) {
+    // Equivalent to Boolean.parseBoolean: setting 0x20 lower-cases ASCII letters only:
+    return end - start == 4
+        && (bytes[start] | 0x20) == 't'
+        && (bytes[start + 1] | 0x20) == 'r'
+        && (bytes[start + 2] | 0x20) == 'u'
+        && (bytes[start + 3] | 0x20) == 'e';
+  }
+
+  private static Integer parseInt(final byte[] bytes, final int start, final int end) {
+    final int digitsStart = skipSign(bytes, start);
+    if (!isDigits(bytes, digitsStart, end, MAX_SAFE_INT_DIGITS)) {
+      // Anything unusual, including errors, is left to the JDK:
+      return Integer.parseInt(utf8(bytes, start, end));
+    }
+
+    final int value = (int) accumulate(bytes, digitsStart, end);
+    return bytes[start] == '-' ? -value : value;
+  }
+
+  private static Long parseLong(final byte[] bytes, final int start, final int end) {
+    final int digitsStart = skipSign(bytes, start);
+    if (!isDigits(bytes, digitsStart, end, MAX_SAFE_LONG_DIGITS)) {
+      // Anything unusual, including errors, is left to the JDK:
+      return Long.parseLong(utf8(bytes, start, end));
+    }
+
+    final long value = accumulate(bytes, digitsStart, end);
+    return bytes[start] == '-' ? -value : value;
+  }
+
+  private static Double parseDouble(final byte[] bytes, final int start, final int end) {
+    long mantissa = 0;
+    int digits = 0;
+    int fractionDigits = 0;
+    boolean point = false;
+    boolean simple = true;
+
+    for (int idx = skipSign(bytes, start); idx < end && simple; idx++) {
+      final byte b = bytes[idx];
+      if (b >= '0' && b <= '9') {
+        mantissa = mantissa * 10 + (b - '0');
+        digits++;
+        if (point) {
+          fractionDigits++;
+        }
+      } else if (b == '.' && !point) {
+        point = true;
+      } else {
+        simple = false;
+      }
+    }
+
+    if (!simple || digits == 0 || digits > MAX_EXACT_DOUBLE_DIGITS) {
+      // Anything unusual, e.g. exponents, NaN, or errors, is left to the JDK:
+      return Double.parseDouble(utf8(bytes, start, end));
+    }
+
+    final double value = mantissa / POWERS_OF_TEN[fractionDigits];
+    return bytes[start] == '-' ? -value : value;
+  }
+
+  private static int skipSign(final byte[] bytes, final int start) {
+    return bytes[start] == '-' || bytes[start] == '+' ? start + 1 : start;
+  }
+
+  private static boolean isDigits(
+      final byte[] bytes,
+      final int start,
+      final int end,
+      final int maxDigits
+  ) {
+    if (end <= start || end - start > maxDigits) {
+      return false;
+    }
+
+    for (int idx = start; idx < end; idx++) {
+      if (bytes[idx] < '0' || bytes[idx] > '9') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static long accumulate(final byte[] bytes, final int start, final int end) {
+    long value = 0;
+    for (int idx = start; idx < end; idx++) {
+      value = value * 10 + (bytes[idx] - '0');
+    }
+    return value;
+  }
+
   private static void throwOnUnsupported(final Schema schema) {
     if (schema.type() != Type.STRUCT) {
       throw new IllegalArgumentException("DELIMITED expects all top level schemas to be STRUCTs");
@@ -150,4 +323,12 @@ public class KsqlDelimitedDeserializer implements Deserializer<Object> {
       }
     });
   }
+
+  /**
+   * Parses a non-empty, unescaped, field from its UTF-8 bytes.
+   */
+  private interface FieldParser {
+
+    Object parse(byte[] bytes, int start, int end);
+  }
 }
@@ -26,6 +26,7 @@ import io.confluent.ksql.util.DecimalUtil;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Supplier;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.kafka.common.serialization.Serde;
@@ -62,12 +63,29 @@ public class KsqlDelimitedSerdeFactory implements KsqlSerdeFactory {
       final PersistenceSchema schema,
       final KsqlConfig ksqlConfig,
       final Supplier<SchemaRegistryClient> schemaRegistryClientFactory
+  ) {
+    return createSerde(schema, Optional.empty());
+  }
+
+  @Override
+  public Serde<Object> createSerde(
+      final PersistenceSchema schema,
+      final KsqlConfig ksqlConfig,
+      final Supplier<SchemaRegistryClient> schemaRegistryClientFactory,
+      final Set<String> requiredFields
+  ) {
+    return createSerde(schema, Optional.of(requiredFields));
+  }
+
+  private Serde<Object> createSerde(
+      final PersistenceSchema schema,
+      final Optional<Set<String>> requiredFields
   ) {
     validate(schema);
 
     return Serdes.serdeFrom(
         new KsqlDelimitedSerializer(csvFormat),
-        new KsqlDelimitedDeserializer(schema, csvFormat)
+        new KsqlDelimitedDeserializer(schema, csvFormat, requiredFields)
     );
   }
 
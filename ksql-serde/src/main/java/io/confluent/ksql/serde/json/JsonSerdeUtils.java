@@ -15,6 +15,9 @@
 
 package io.confluent.ksql.serde.json;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonParser.NumberType;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.BooleanNode;
 import com.fasterxml.jackson.databind.node.NumericNode;
@@ -23,6 +26,8 @@ import io.confluent.ksql.schema.connect.SchemaWalker;
 import io.confluent.ksql.schema.connect.SchemaWalker.Visitor;
 import io.confluent.ksql.schema.ksql.PersistenceSchema;
 import io.confluent.ksql.schema.ksql.SqlBaseType;
+import java.io.IOException;
+import java.math.BigDecimal;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.Schema.Type;
 
@@ -103,12 +108,159 @@ final class JsonSerdeUtils {
     throw invalidConversionException(object, SqlBaseType.DOUBLE);
   }
 
+  static boolean toBoolean(final JsonParser parser) {
+    switch (parser.currentToken()) {
+      case VALUE_TRUE:
+        return true;
+      case VALUE_FALSE:
+        return false;
+      default:
+        throw invalidConversionException(parser, SqlBaseType.BOOLEAN);
+    }
+  }
+
+  static int toInteger(final JsonParser parser) throws IOException {
+    switch (parser.currentToken()) {
+      case VALUE_NUMBER_INT:
+        return parser.getNumberType() == NumberType.INT
+            ? parser.getIntValue()
+            : parser.getNumberValue().intValue();
+      case VALUE_NUMBER_FLOAT:
+        return toDecimal(parser).intValue();
+      case VALUE_STRING:
+        try {
+          return Integer.parseInt(parser.getText());
+        } catch (final NumberFormatException e) {
+          throw failedStringCoercionException(SqlBaseType.INTEGER);
+        }
+      default:
+        throw invalidConversionException(parser, SqlBaseType.INTEGER);
+    }
+  }
+
+  static long toLong(final JsonParser parser) throws IOException {
+    switch (parser.currentToken()) {
+      case VALUE_NUMBER_INT:
+        return parser.getNumberType() == NumberType.BIG_INTEGER
+            ? parser.getNumberValue().longValue()
+            : parser.getLongValue();
+      case VALUE_NUMBER_FLOAT:
+        return toDecimal(parser).longValue();
+      case VALUE_STRING:
+        try {
+          return Long.parseLong(parser.getText());
+        } catch (final NumberFormatException e) {
+          throw failedStringCoercionException(SqlBaseType.BIGINT);
+        }
+      default:
+        throw invalidConversionException(parser, SqlBaseType.BIGINT);
+    }
+  }
+
+  static double toDouble(final JsonParser parser) throws IOException {
+    switch (parser.currentToken()) {
+      case VALUE_NUMBER_INT:
+      case VALUE_NUMBER_FLOAT:
+        return parser.getDoubleValue();
+      case VALUE_STRING:
+        try {
+          return Double.parseDouble(parser.getText());
+        } catch (final NumberFormatException e) {
+          throw failedStringCoercionException(SqlBaseType.DOUBLE);
+        }
+      default:
+        throw invalidConversionException(parser, SqlBaseType.DOUBLE);
+    }
+  }
+
+  /**
+   * Read the current numeric token as a decimal.
+   *
+   * <p>Floating point values are normalized in the same way Jackson's default
+   * {@code JsonNodeFactory} normalizes them when building a tree, i.e. trailing zeros are
+   * stripped, so that the streaming and tree based deserializers return identical values.
+   */
+  static BigDecimal toDecimal(final JsonParser parser) throws IOException {
+    final BigDecimal decimal = parser.getDecimalValue();
+    if (parser.currentToken() != JsonToken.VALUE_NUMBER_FLOAT) {
+      return decimal;
+    }
+
+    return decimal.compareTo(BigDecimal.ZERO) == 0
+        ? BigDecimal.ZERO
+        : decimal.stripTrailingZeros();
+  }
+
+  /**
+   * Get the name of the {@link JsonNode} type the parser's current token would be read as.
+   *
+   * <p>Used to keep error messages consistent between the streaming and tree based paths.
+   */
+  static String nodeTypeName(final JsonParser parser) {
+    final JsonToken token = parser.currentToken();
+    if (token == null) {
+      return "MissingNode";
+    }
+
+    switch (token) {
+      case START_OBJECT:
+        return "ObjectNode";
+      case START_ARRAY:
+        return "ArrayNode";
+      case VALUE_STRING:
+        return "TextNode";
+      case VALUE_TRUE:
+      case VALUE_FALSE:
+        return "BooleanNode";
+      case VALUE_NULL:
+        return "NullNode";
+      case VALUE_NUMBER_FLOAT:
+        return "DecimalNode";
+      case VALUE_NUMBER_INT:
+        try {
+          switch (parser.getNumberType()) {
+            case INT:
+              return "IntNode";
+            case LONG:
+              return "LongNode";
+            default:
+              return "BigIntegerNode";
+          }
+        } catch (final IOException e) {
+          return "NumericNode";
+        }
+      default:
+        return token.name();
+    }
+  }
+
+  static IllegalArgumentException invalidConversionException(
+      final JsonParser parser,
+      final String sqlType
+  ) {
+    return conversionException(nodeTypeName(parser), sqlType);
+  }
+
+  private static IllegalArgumentException invalidConversionException(
+      final JsonParser parser,
+      final SqlBaseType sqlType
+  ) {
+    return invalidConversionException(parser, sqlType.toString());
+  }
+
   static IllegalArgumentException invalidConversionException(
       final Object object,
       final String sqlType
+  ) {
+    return conversionException(object.getClass().getSimpleName(), sqlType);
+  }
+
+  private static IllegalArgumentException conversionException(
+      final String sourceType,
+      final String sqlType
   ) {
     return new IllegalArgumentException("Can't convert type."
-        + " sourceType: " + object.getClass().getSimpleName()
+        + " sourceType: " + sourceType
         + ", requiredType: " + sqlType);
   }
 
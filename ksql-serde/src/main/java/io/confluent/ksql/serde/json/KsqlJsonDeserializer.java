@@ -40,6 +40,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.apache.kafka.common.errors.SerializationException;
@@ -77,11 +79,20 @@ public class KsqlJsonDeserializer implements Deserializer<Object> {
       .build();
 
   private final PersistenceSchema physicalSchema;
+  private final Optional<Set<String>> requiredFields;
 
   public KsqlJsonDeserializer(
       final PersistenceSchema physicalSchema
+  ) {
+    this(physicalSchema, Optional.empty());
+  }
+
+  public KsqlJsonDeserializer(
+      final PersistenceSchema physicalSchema,
+      final Optional<Set<String>> requiredFields
   ) {
     this.physicalSchema = JsonSerdeUtils.validateSchema(physicalSchema);
+    this.requiredFields = Objects.requireNonNull(requiredFields, "requiredFields");
   }
 
   @Override
@@ -137,26 +148,28 @@ public class KsqlJsonDeserializer implements Deserializer<Object> {
   }
 
   private static String processString(final JsonValueContext context) {
-    if (context.val instanceof ObjectNode) {
+    return processString(context.val);
+  }
+
+  static String processString(final JsonNode val) {
+    if (val instanceof ObjectNode) {
       try {
         // this ensure sorted order, there's an issue with Jackson where just enabling
         // SORT_PROPERTIES_ALPHABETICALLY does not work if it is not a POJO-backed
         // JSON object
         return SORTED_MAPPER.writeValueAsString(
-            SORTED_MAPPER.treeToValue(context.val, Object.class)
+            SORTED_MAPPER.treeToValue(val, Object.class)
         );
       } catch (JsonProcessingException e) {
-        throw new KsqlException("Unexpected inability to write value as string: " + context.val);
+        throw new KsqlException("Unexpected inability to write value as string: " + val);
       }
     }
-    if (context.val instanceof ArrayNode) {
-      return Streams.stream(context.val.elements())
-          .map(val -> processString(
-              new JsonValueContext(context.deserializer, context.schema, val)
-          ))
+    if (val instanceof ArrayNode) {
+      return Streams.stream(val.elements())
+          .map(KsqlJsonDeserializer::processString)
           .collect(Collectors.joining(", ", "[", "]"));
     }
-    return context.val.asText();
+    return val.asText();
   }
 
   private static Object enforceValidBytes(final JsonValueContext context) {
@@ -217,8 +230,14 @@ public class KsqlJsonDeserializer implements Deserializer<Object> {
     final Struct columnStruct = new Struct(context.schema);
     final ObjectNode jsonFields = (ObjectNode) context.val;
     final Map<String, JsonNode> upperCasedFields = upperCaseKeys(jsonFields);
+    final boolean topLevel =
+        context.schema == context.deserializer.physicalSchema.serializedSchema();
 
     for (Field ksqlField : context.schema.fields()) {
+      if (topLevel && !context.deserializer.isRequired(ksqlField)) {
+        continue;
+      }
+
       // the "case insensitive" strategy leverages that all KSQL fields are internally
       // case sensitive - if they were specified without quotes, then they are upper-cased
       // during parsing. any ksql fields that are case insensitive, therefore, will be matched
@@ -241,6 +260,12 @@ public class KsqlJsonDeserializer implements Deserializer<Object> {
     return columnStruct;
   }
 
+  private boolean isRequired(final Field field) {
+    return requiredFields
+        .map(fields -> fields.contains(field.name()))
+        .orElse(true);
+  }
+
   private static Map<String, JsonNode> upperCaseKeys(final ObjectNode map) {
     final Map<String, JsonNode> result = new HashMap<>(map.size());
     for (Iterator<Entry<String, JsonNode>> it = map.fields(); it.hasNext(); ) {
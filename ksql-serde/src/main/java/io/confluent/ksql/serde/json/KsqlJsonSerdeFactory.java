@@ -20,9 +20,13 @@ import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.ksql.schema.ksql.PersistenceSchema;
 import io.confluent.ksql.serde.KsqlSerdeFactory;
 import io.confluent.ksql.util.KsqlConfig;
+import java.util.Optional;
+import java.util.Set;
 import java.util.function.Supplier;
+import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.Serializer;
 
 @Immutable
 public class KsqlJsonSerdeFactory implements KsqlSerdeFactory {
@@ -38,9 +42,34 @@ public class KsqlJsonSerdeFactory implements KsqlSerdeFactory {
       final KsqlConfig ksqlConfig,
       final Supplier<SchemaRegistryClient> schemaRegistryClientFactory
   ) {
-    return Serdes.serdeFrom(
-        new KsqlJsonSerializer(schema),
-        new KsqlJsonDeserializer(schema)
-    );
+    return createSerde(schema, ksqlConfig, Optional.empty());
+  }
+
+  @Override
+  public Serde<Object> createSerde(
+      final PersistenceSchema schema,
+      final KsqlConfig ksqlConfig,
+      final Supplier<SchemaRegistryClient> schemaRegistryClientFactory,
+      final Set<String> requiredFields
+  ) {
+    return createSerde(schema, ksqlConfig, Optional.of(requiredFields));
+  }
+
+  private static Serde<Object> createSerde(
+      final PersistenceSchema schema,
+      final KsqlConfig ksqlConfig,
+      final Optional<Set<String>> requiredFields
+  ) {
+    final Deserializer<Object> deserializer = ksqlConfig
+        .getBoolean(KsqlConfig.KSQL_JSON_STREAMING_DESERIALIZER_ENABLE_CONFIG)
+        ? new KsqlJsonStreamingDeserializer(schema, requiredFields)
+        : new KsqlJsonDeserializer(schema, requiredFields);
+
+    final Serializer<Object> serializer = ksqlConfig
+        .getBoolean(KsqlConfig.KSQL_JSON_STREAMING_SERIALIZER_ENABLE_CONFIG)
+        ? new KsqlJsonStreamingSerializer(schema)
+        : new KsqlJsonSerializer(schema);
+
+    return Serdes.serdeFrom(serializer, deserializer);
   }
 }
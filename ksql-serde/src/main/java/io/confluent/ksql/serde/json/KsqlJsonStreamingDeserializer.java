@@ -0,0 +1,366 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.json;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import io.confluent.ksql.schema.connect.SqlSchemaFormatter;
+import io.confluent.ksql.schema.ksql.PersistenceSchema;
+import io.confluent.ksql.util.DecimalUtil;
+import io.confluent.ksql.util.KsqlException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * JSON deserializer that reads values straight off a Jackson token stream.
+ *
+ * <p>Unlike {@link KsqlJsonDeserializer}, which first reads the whole document into a
+ * {@code JsonNode} tree and then coerces the tree into the required schema, this deserializer
+ * compiles the schema into a tree of {@link ValueReader}s once, at construction time, and then
+ * uses them to coerce each value as it is parsed. Properties of the JSON document that do not
+ * map to a field in the schema are skipped without being materialized.
+ *
+ * <p>Coercion rules, case-insensitive field matching and error messages match those of
+ * {@link KsqlJsonDeserializer}, which remains available as a fallback.
+ *
+ * <p>If constructed with a set of required fields, top level fields not in the set are skipped
+ * in the same way as unknown properties and are left {@code null}.
+ */
+public class KsqlJsonStreamingDeserializer implements Deserializer<Object> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(KsqlJsonStreamingDeserializer.class);
+  private static final SqlSchemaFormatter FORMATTER = new SqlSchemaFormatter(word -> false);
+  private static final ObjectMapper MAPPER = new ObjectMapper()
+      .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+  private static final JsonFactory JSON_FACTORY = MAPPER.getFactory();
+
+  private final ValueReader reader;
+
+  public KsqlJsonStreamingDeserializer(
+      final PersistenceSchema physicalSchema
+  ) {
+    this(physicalSchema, Optional.empty());
+  }
+
+  public KsqlJsonStreamingDeserializer(
+      final PersistenceSchema physicalSchema,
+      final Optional<Set<String>> requiredFields
+  ) {
+    final Schema schema = JsonSerdeUtils.validateSchema(physicalSchema).serializedSchema();
+    this.reader = requiredFields.isPresent() && schema.type() == Schema.Type.STRUCT
+        ? new StructReader(schema, requiredFields.get()::contains)
+        : compile(schema);
+  }
+
+  @Override
+  public void configure(final Map<String, ?> map, final boolean b) {
+  }
+
+  @Override
+  public Object deserialize(final String topic, final byte[] bytes) {
+    try {
+      final Object value = deserialize(bytes);
+      if (LOG.isTraceEnabled()) {
+        LOG.trace("Deserialized value. topic:{}, row:{}", topic, value);
+      }
+      return value;
+    } catch (final Exception e) {
+      throw new SerializationException(
+          "Error deserializing JSON message from topic: " + topic, e);
+    }
+  }
+
+  @Override
+  public void close() {
+  }
+
+  private Object deserialize(final byte[] bytes) {
+    if (bytes == null) {
+      return null;
+    }
+
+    try (JsonParser parser = JSON_FACTORY.createParser(bytes)) {
+      if (parser.nextToken() == null) {
+        throw new SerializationException("No content to deserialize");
+      }
+
+      return readNullable(reader, parser);
+    } catch (IOException e) {
+      throw new SerializationException(e);
+    }
+  }
+
+  private static Object readNullable(
+      final ValueReader reader,
+      final JsonParser parser
+  ) throws IOException {
+    if (parser.currentToken() == JsonToken.VALUE_NULL) {
+      return null;
+    }
+
+    return reader.read(parser);
+  }
+
+  private static ValueReader compile(final Schema schema) {
+    switch (schema.type()) {
+      case BOOLEAN:
+        return JsonSerdeUtils::toBoolean;
+      case INT32:
+        return JsonSerdeUtils::toInteger;
+      case INT64:
+        return JsonSerdeUtils::toLong;
+      case FLOAT64:
+        return JsonSerdeUtils::toDouble;
+      case STRING:
+        return KsqlJsonStreamingDeserializer::readString;
+      case BYTES:
+        return parser -> readBytes(schema, parser);
+      case ARRAY:
+        return new ArrayReader(schema);
+      case MAP:
+        return new MapReader(schema);
+      case STRUCT:
+        return new StructReader(schema);
+      default:
+        return parser -> {
+          throw new KsqlException("Type is not supported: " + schema.type());
+        };
+    }
+  }
+
+  private static String readString(final JsonParser parser) throws IOException {
+    switch (parser.currentToken()) {
+      case VALUE_STRING:
+        return parser.getText();
+      case VALUE_NUMBER_INT:
+        return parser.getNumberValue().toString();
+      case VALUE_NUMBER_FLOAT:
+        return JsonSerdeUtils.toDecimal(parser).toString();
+      case START_OBJECT:
+      case START_ARRAY:
+        // Rare path: nested documents stored in a STRING column are converted via the tree
+        // based implementation to ensure identical output, e.g. sorted property names:
+        return KsqlJsonDeserializer.processString(MAPPER.readTree(parser));
+      default:
+        return parser.getText();
+    }
+  }
+
+  private static BigDecimal readBytes(
+      final Schema schema,
+      final JsonParser parser
+  ) throws IOException {
+    if (!DecimalUtil.isDecimal(schema)) {
+      throw invalidConversionException(parser, schema);
+    }
+
+    final BigDecimal decimal;
+    switch (parser.currentToken()) {
+      case VALUE_NUMBER_INT:
+      case VALUE_NUMBER_FLOAT:
+        decimal = JsonSerdeUtils.toDecimal(parser);
+        break;
+      case VALUE_STRING:
+        decimal = new BigDecimal(parser.getText());
+        break;
+      default:
+        throw invalidConversionException(parser, schema);
+    }
+
+    DecimalUtil.ensureFit(decimal, schema);
+    return decimal;
+  }
+
+  private static IllegalArgumentException invalidConversionException(
+      final JsonParser parser,
+      final Schema schema
+  ) {
+    return JsonSerdeUtils.invalidConversionException(parser, FORMATTER.format(schema));
+  }
+
+  /**
+   * Reads the value at the parser's current, non-null, token.
+   *
+   * <p>Readers of compound types must leave the parser positioned on the matching end token.
+   */
+  private interface ValueReader {
+
+    Object read(JsonParser parser) throws IOException;
+  }
+
+  private static final class ArrayReader implements ValueReader {
+
+    private final Schema schema;
+    private final ValueReader elementReader;
+
+    ArrayReader(final Schema schema) {
+      this.schema = Objects.requireNonNull(schema, "schema");
+      this.elementReader = compile(schema.valueSchema());
+    }
+
+    @Override
+    public List<?> read(final JsonParser parser) throws IOException {
+      if (parser.currentToken() != JsonToken.START_ARRAY) {
+        throw invalidConversionException(parser, schema);
+      }
+
+      final List<Object> array = new ArrayList<>();
+      while (parser.nextToken() != JsonToken.END_ARRAY) {
+        array.add(readNullable(elementReader, parser));
+      }
+      return array;
+    }
+  }
+
+  private static final class MapReader implements ValueReader {
+
+    private final Schema schema;
+    private final ValueReader valueReader;
+
+    MapReader(final Schema schema) {
+      this.schema = Objects.requireNonNull(schema, "schema");
+      this.valueReader = compile(schema.valueSchema());
+    }
+
+    @Override
+    public Map<String, Object> read(final JsonParser parser) throws IOException {
+      if (parser.currentToken() != JsonToken.START_OBJECT) {
+        throw invalidConversionException(parser, schema);
+      }
+
+      final Map<String, Object> map = new HashMap<>();
+      for (String key = parser.nextFieldName(); key != null; key = parser.nextFieldName()) {
+        parser.nextToken();
+        map.put(key, readNullable(valueReader, parser));
+      }
+      return map;
+    }
+  }
+
+  private static final class StructReader implements ValueReader {
+
+    private static final byte UNSET = 0;
+    private static final byte CASE_INSENSITIVE_MATCH = 1;
+    private static final byte EXACT_MATCH = 2;
+
+    private final Schema schema;
+    private final Field[] fields;
+    private final ValueReader[] readers;
+    private final Map<String, Integer> fieldIndexes;
+
+    StructReader(final Schema schema) {
+      this(schema, name -> true);
+    }
+
+    StructReader(final Schema schema, final Predicate<String> required) {
+      this.schema = Objects.requireNonNull(schema, "schema");
+      this.fields = schema.fields().toArray(new Field[0]);
+      this.readers = new ValueReader[fields.length];
+      this.fieldIndexes = new HashMap<>(fields.length * 2);
+
+      for (int idx = 0; idx < fields.length; idx++) {
+        // Fields that are not required keep their index, so that name matching is unchanged,
+        // but have no reader, so that their values are skipped:
+        if (required.test(fields[idx].name())) {
+          readers[idx] = compile(fields[idx].schema());
+        }
+        fieldIndexes.put(fields[idx].name(), idx);
+      }
+    }
+
+    @Override
+    public Struct read(final JsonParser parser) throws IOException {
+      if (parser.currentToken() != JsonToken.START_OBJECT) {
+        throw invalidConversionException(parser, schema);
+      }
+
+      final Struct struct = new Struct(schema);
+      final byte[] matches = new byte[fields.length];
+
+      for (String name = parser.nextFieldName(); name != null; name = parser.nextFieldName()) {
+        parser.nextToken();
+
+        // Fields are matched as in KsqlJsonDeserializer: an exact name match always wins,
+        // otherwise a property whose upper-cased name matches the field name is used:
+        final Integer exact = fieldIndexes.get(name);
+        final Integer upper = fieldIndexes.get(name.toUpperCase());
+
+        final boolean useExact = exact != null;
+        final boolean useUpper = upper != null
+            && !upper.equals(exact)
+            && matches[upper] != EXACT_MATCH;
+
+        if (!useExact && !useUpper) {
+          parser.skipChildren();
+          continue;
+        }
+
+        if (useExact && useUpper) {
+          // Very rare: the same property feeds two fields that may differ in type:
+          final TokenBuffer buffer = new TokenBuffer(parser);
+          buffer.copyCurrentStructure(parser);
+          readField(struct, matches, exact, EXACT_MATCH, buffer.asParserOnFirstToken());
+          readField(struct, matches, upper, CASE_INSENSITIVE_MATCH, buffer.asParserOnFirstToken());
+          continue;
+        }
+
+        if (useExact) {
+          readField(struct, matches, exact, EXACT_MATCH, parser);
+        } else {
+          readField(struct, matches, upper, CASE_INSENSITIVE_MATCH, parser);
+        }
+      }
+
+      return struct;
+    }
+
+    private void readField(
+        final Struct struct,
+        final byte[] matches,
+        final int idx,
+        final byte match,
+        final JsonParser parser
+    ) throws IOException {
+      matches[idx] = match;
+
+      if (readers[idx] == null) {
+        parser.skipChildren();
+        return;
+      }
+
+      struct.put(fields[idx], readNullable(readers[idx], parser));
+    }
+  }
+}
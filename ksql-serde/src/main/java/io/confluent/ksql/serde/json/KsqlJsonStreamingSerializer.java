@@ -0,0 +1,323 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.json;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import io.confluent.ksql.schema.ksql.PersistenceSchema;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.connect.data.Date;
+import org.apache.kafka.connect.data.Decimal;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.data.Time;
+import org.apache.kafka.connect.data.Timestamp;
+import org.apache.kafka.connect.errors.DataException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * JSON serializer that writes values directly to a Jackson {@link JsonGenerator}.
+ *
+ * <p>{@link KsqlJsonSerializer} delegates to Connect's {@code JsonConverter}, which first
+ * converts the value into a {@code JsonNode} tree and then writes the tree out. This serializer
+ * compiles the schema into a tree of {@link ValueWriter}s once, at construction time, and uses
+ * them to write each value in a single pass into a per-thread, reusable, output buffer.
+ *
+ * <p>The output is byte-for-byte identical to that of {@link KsqlJsonSerializer}, i.e. the
+ * schema-less JSON written by {@code JsonConverter} with decimals written as JSON numbers.
+ * Error messages also match, so the two can be used interchangeably.
+ */
+public class KsqlJsonStreamingSerializer implements Serializer<Object> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(KsqlJsonStreamingSerializer.class);
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  private final ValueWriter writer;
+  private final ThreadLocal<ByteArrayBuilder> buffers =
+      ThreadLocal.withInitial(ByteArrayBuilder::new);
+
+  public KsqlJsonStreamingSerializer(final PersistenceSchema physicalSchema) {
+    this.writer = compile(JsonSerdeUtils.validateSchema(physicalSchema).serializedSchema());
+  }
+
+  @Override
+  public void configure(final Map<String, ?> props, final boolean isKey) {
+  }
+
+  @Override
+  public byte[] serialize(final String topic, final Object data) {
+    if (LOG.isTraceEnabled()) {
+      LOG.trace("Serializing row. topic:{}, row:{}", topic, data);
+    }
+
+    if (data == null) {
+      return null;
+    }
+
+    try {
+      return serialize(data);
+    } catch (final Exception e) {
+      throw new SerializationException("Error serializing JSON message for topic: " + topic, e);
+    }
+  }
+
+  @Override
+  public void close() {
+    buffers.remove();
+  }
+
+  private byte[] serialize(final Object data) throws IOException {
+    final ByteArrayBuilder buffer = buffers.get();
+    buffer.reset();
+
+    try (JsonGenerator generator = JSON_FACTORY.createGenerator(buffer)) {
+      writer.write(generator, data);
+    }
+
+    return buffer.toByteArray();
+  }
+
+  private static ValueWriter compile(final Schema schema) {
+    final ValueWriter writer = compileNonNull(schema);
+    return (generator, value) -> {
+      if (value != null) {
+        writer.write(generator, value);
+        return;
+      }
+
+      if (schema.defaultValue() != null) {
+        writer.write(generator, schema.defaultValue());
+        return;
+      }
+
+      if (!schema.isOptional()) {
+        throw new DataException(
+            "Conversion error: null value for field that is required and has no default value");
+      }
+
+      generator.writeNull();
+    };
+  }
+
+  // CHECKSTYLE_RULES.OFF: CyclomaticComplexity
+  private static ValueWriter compileNonNull(final Schema schema) {
+    // CHECKSTYLE_RULES.ON: CyclomaticComplexity
+    final String logicalName = schema.name();
+    if (Decimal.LOGICAL_NAME.equals(logicalName)) {
+      return typed("Decimal", BigDecimal.class,
+          (generator, value) -> generator.writeNumber(value));
+    }
+    if (Date.LOGICAL_NAME.equals(logicalName)) {
+      return typed("Date", java.util.Date.class,
+          (generator, value) -> generator.writeNumber(Date.fromLogical(schema, value)));
+    }
+    if (Time.LOGICAL_NAME.equals(logicalName)) {
+      return typed("Time", java.util.Date.class,
+          (generator, value) -> generator.writeNumber(Time.fromLogical(schema, value)));
+    }
+    if (Timestamp.LOGICAL_NAME.equals(logicalName)) {
+      return typed("Timestamp", java.util.Date.class,
+          (generator, value) -> generator.writeNumber(Timestamp.fromLogical(schema, value)));
+    }
+
+    switch (schema.type()) {
+      case INT8:
+        return cast(schema, (generator, value) -> generator.writeNumber((Byte) value));
+      case INT16:
+        return cast(schema, (generator, value) -> generator.writeNumber((Short) value));
+      case INT32:
+        return cast(schema, (generator, value) -> generator.writeNumber((Integer) value));
+      case INT64:
+        return cast(schema, (generator, value) -> generator.writeNumber((Long) value));
+      case FLOAT32:
+        return cast(schema, (generator, value) -> generator.writeNumber((Float) value));
+      case FLOAT64:
+        return cast(schema, (generator, value) -> generator.writeNumber((Double) value));
+      case BOOLEAN:
+        return cast(schema, (generator, value) -> generator.writeBoolean((Boolean) value));
+      case STRING:
+        return cast(schema, (generator, value) -> generator.writeString((String) value));
+      case BYTES:
+        return cast(schema, KsqlJsonStreamingSerializer::writeBytes);
+      case ARRAY:
+        return cast(schema, new ArrayWriter(schema));
+      case MAP:
+        return cast(schema, new MapWriter(schema));
+      case STRUCT:
+        return cast(schema, new StructWriter(schema));
+      default:
+        throw new DataException("Couldn't convert " + schema + " to JSON.");
+    }
+  }
+
+  private static void writeBytes(
+      final JsonGenerator generator,
+      final Object value
+  ) throws IOException {
+    if (value instanceof byte[]) {
+      generator.writeBinary((byte[]) value);
+    } else if (value instanceof ByteBuffer) {
+      generator.writeBinary(((ByteBuffer) value).array());
+    } else {
+      throw new DataException("Invalid type for bytes type: " + value.getClass());
+    }
+  }
+
+  /**
+   * Wraps the supplied {@code writer} to convert {@link ClassCastException}s into the same
+   * exception {@code JsonConverter} throws when the value does not match the schema.
+   */
+  private static ValueWriter cast(final Schema schema, final ValueWriter writer) {
+    return (generator, value) -> {
+      try {
+        writer.write(generator, value);
+      } catch (final ClassCastException e) {
+        throw new DataException("Invalid type for " + schema.type() + ": " + value.getClass());
+      }
+    };
+  }
+
+  private static <T> ValueWriter typed(
+      final String logicalType,
+      final Class<T> type,
+      final TypedWriter<T> writer
+  ) {
+    return (generator, value) -> {
+      if (!type.isInstance(value)) {
+        throw new DataException("Invalid type for " + logicalType + ", expected "
+            + type.getSimpleName() + " but was " + value.getClass());
+      }
+
+      writer.write(generator, type.cast(value));
+    };
+  }
+
+  private interface ValueWriter {
+
+    void write(JsonGenerator generator, Object value) throws IOException;
+  }
+
+  private interface TypedWriter<T> {
+
+    void write(JsonGenerator generator, T value) throws IOException;
+  }
+
+  private static final class ArrayWriter implements ValueWriter {
+
+    private final ValueWriter elementWriter;
+
+    ArrayWriter(final Schema schema) {
+      this.elementWriter = compile(schema.valueSchema());
+    }
+
+    @Override
+    public void write(final JsonGenerator generator, final Object value) throws IOException {
+      final Collection<?> collection = (Collection<?>) value;
+
+      generator.writeStartArray();
+      for (final Object element : collection) {
+        elementWriter.write(generator, element);
+      }
+      generator.writeEndArray();
+    }
+  }
+
+  private static final class MapWriter implements ValueWriter {
+
+    private final Schema keySchema;
+    private final ValueWriter valueWriter;
+
+    MapWriter(final Schema schema) {
+      this.keySchema = schema.keySchema();
+      this.valueWriter = compile(schema.valueSchema());
+    }
+
+    @Override
+    public void write(final JsonGenerator generator, final Object value) throws IOException {
+      final Map<?, ?> map = (Map<?, ?>) value;
+
+      generator.writeStartObject();
+      for (final Map.Entry<?, ?> entry : map.entrySet()) {
+        generator.writeFieldName(fieldName(entry.getKey()));
+        valueWriter.write(generator, entry.getValue());
+      }
+      generator.writeEndObject();
+    }
+
+    private String fieldName(final Object key) {
+      if (key == null) {
+        if (!keySchema.isOptional()) {
+          throw new DataException("Conversion error: null value for field that is required "
+              + "and has no default value");
+        }
+        // Matches JsonConverter, which converts the null key to a NullNode, i.e. "null":
+        return "null";
+      }
+
+      if (!(key instanceof String)) {
+        throw new DataException("Invalid type for " + keySchema.type() + ": " + key.getClass());
+      }
+
+      return (String) key;
+    }
+  }
+
+  private static final class StructWriter implements ValueWriter {
+
+    private final Schema schema;
+    private final Field[] fields;
+    private final SerializedString[] names;
+    private final ValueWriter[] writers;
+
+    StructWriter(final Schema schema) {
+      this.schema = Objects.requireNonNull(schema, "schema");
+      this.fields = schema.fields().toArray(new Field[0]);
+      this.names = new SerializedString[fields.length];
+      this.writers = new ValueWriter[fields.length];
+
+      for (int idx = 0; idx < fields.length; idx++) {
+        names[idx] = new SerializedString(fields[idx].name());
+        writers[idx] = compile(fields[idx].schema());
+      }
+    }
+
+    @Override
+    public void write(final JsonGenerator generator, final Object value) throws IOException {
+      final Struct struct = (Struct) value;
+      if (!struct.schema().equals(schema)) {
+        throw new DataException("Mismatching schema.");
+      }
+
+      generator.writeStartObject();
+      for (int idx = 0; idx < fields.length; idx++) {
+        generator.writeFieldName(names[idx]);
+        writers[idx].write(generator, struct.get(fields[idx]));
+      }
+      generator.writeEndObject();
+    }
+  }
+}
@@ -104,7 +104,7 @@ public class GenericKeySerDeTest {
     when(processingLogCxt.getLoggerFactory()).thenReturn(loggerFactory);
     when(loggerFactory.getLogger(any())).thenReturn(logger);
 
-    when(serdeFactories.create(any(), any(), any(), any(), any())).thenReturn(innerSerde);
+    when(serdeFactories.create(any(), any(), any(), any(), any(), any())).thenReturn(innerSerde);
 
     when(innerSerde.serializer()).thenReturn(innerSerializer);
     when(innerSerde.deserializer()).thenReturn(innerDeserializer);
@@ -128,6 +128,7 @@ public class GenericKeySerDeTest {
         WRAPPED_SCHEMA,
         CONFIG,
         srClientFactory,
+        Optional.empty(),
         Struct.class
     );
   }
@@ -150,6 +151,7 @@ public class GenericKeySerDeTest {
         UNWRAPPED_SCHEMA,
         CONFIG,
         srClientFactory,
+        Optional.empty(),
         Long.class
     );
   }
@@ -330,6 +332,7 @@ public class GenericKeySerDeTest {
         UNWRAPPED_SCHEMA,
         CONFIG,
         srClientFactory,
+        Optional.empty(),
         Long.class
     );
 
@@ -361,6 +364,7 @@ public class GenericKeySerDeTest {
         UNWRAPPED_SCHEMA,
         CONFIG,
         srClientFactory,
+        Optional.empty(),
         Long.class
     );
 
@@ -391,6 +395,7 @@ public class GenericKeySerDeTest {
         WRAPPED_SCHEMA,
         CONFIG,
         srClientFactory,
+        Optional.empty(),
         Struct.class
     );
 
@@ -423,6 +428,7 @@ public class GenericKeySerDeTest {
         WRAPPED_SCHEMA,
         CONFIG,
         srClientFactory,
+        Optional.empty(),
         Struct.class
     );
 
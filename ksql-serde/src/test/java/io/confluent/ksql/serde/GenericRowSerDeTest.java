@@ -24,6 +24,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.logging.processing.ProcessingLogContext;
@@ -106,7 +107,7 @@ public class GenericRowSerDeTest {
 
   @Before
   public void setUp() {
-    when(serdesFactories.create(any(), any(), any(), any(), any())).thenReturn(deletageSerde);
+    when(serdesFactories.create(any(), any(), any(), any(), any(), any())).thenReturn(deletageSerde);
     when(deletageSerde.serializer()).thenReturn(delegateSerializer);
     when(deletageSerde.deserializer()).thenReturn(delegateDeserializer);
 
@@ -137,6 +138,7 @@ public class GenericRowSerDeTest {
         MUTLI_FIELD_SCHEMA,
         ksqlConfig,
         srClientFactory,
+        Optional.empty(),
         Struct.class
     );
   }
@@ -159,6 +161,55 @@ public class GenericRowSerDeTest {
         UNWRAPPED_SINGLE_FIELD_SCHEMA,
         ksqlConfig,
         srClientFactory,
+        Optional.empty(),
+        String.class
+    );
+  }
+
+  @Test
+  public void shouldPassRequiredFieldsToSerdeFactory() {
+    // When:
+    valueSerde.create(
+        FormatInfo.of(Format.JSON, Optional.empty(), Optional.empty()),
+        MUTLI_FIELD_SCHEMA,
+        ksqlConfig,
+        srClientFactory,
+        LOGGER_PREFIX,
+        processingContext,
+        ImmutableSet.of("f1")
+    );
+
+    // Then:
+    verify(serdesFactories).create(
+        FormatInfo.of(Format.JSON, Optional.empty(), Optional.empty()),
+        MUTLI_FIELD_SCHEMA,
+        ksqlConfig,
+        srClientFactory,
+        Optional.of(ImmutableSet.of("f1")),
+        Struct.class
+    );
+  }
+
+  @Test
+  public void shouldIgnoreRequiredFieldsIfUnwrapped() {
+    // When:
+    valueSerde.create(
+        FormatInfo.of(Format.JSON, Optional.empty(), Optional.empty()),
+        UNWRAPPED_SINGLE_FIELD_SCHEMA,
+        ksqlConfig,
+        srClientFactory,
+        LOGGER_PREFIX,
+        processingContext,
+        ImmutableSet.of()
+    );
+
+    // Then:
+    verify(serdesFactories).create(
+        FormatInfo.of(Format.JSON, Optional.empty(), Optional.empty()),
+        UNWRAPPED_SINGLE_FIELD_SCHEMA,
+        ksqlConfig,
+        srClientFactory,
+        Optional.empty(),
         String.class
     );
   }
@@ -166,7 +217,7 @@ public class GenericRowSerDeTest {
   @Test(expected = NullPointerException.class)
   public void shouldThrowOnNullStructSerde() {
     // Given:
-    when(serdesFactories.create(any(), any(), any(), any(), any())).thenReturn(null);
+    when(serdesFactories.create(any(), any(), any(), any(), any(), any())).thenReturn(null);
 
     // When:
     valueSerde.create(
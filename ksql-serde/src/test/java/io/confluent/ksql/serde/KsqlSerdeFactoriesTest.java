@@ -84,6 +84,7 @@ public class KsqlSerdeFactoriesTest {
         schema,
         config,
         srClientFactory,
+        Optional.empty(),
         SOME_TYPE
     );
 
@@ -99,6 +100,7 @@ public class KsqlSerdeFactoriesTest {
         schema,
         config,
         srClientFactory,
+        Optional.empty(),
         SOME_TYPE
     );
 
@@ -110,7 +112,8 @@ public class KsqlSerdeFactoriesTest {
   @Test
   public void shouldCreateSerde() {
     // Given:
-    when(ksqlSerdeFactory.createSerde(any(), any(), any(), any())).thenReturn((Serde)serde);
+    when(ksqlSerdeFactory.createSerde(any(), any(), any(), any(), any()))
+        .thenReturn((Serde)serde);
 
     // When:
     final Serde<SomeType> result = factory.create(
@@ -118,6 +121,7 @@ public class KsqlSerdeFactoriesTest {
         schema,
         config,
         srClientFactory,
+        Optional.empty(),
         SOME_TYPE
     );
 
@@ -126,6 +130,7 @@ public class KsqlSerdeFactoriesTest {
         schema,
         config,
         srClientFactory,
+        Optional.empty(),
         SOME_TYPE
     );
 
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.compact;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.schema.ksql.PersistenceSchema;
+import java.util.Arrays;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.connect.data.ConnectSchema;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class CompactRowDeserializerTest {
+
+  private static final String SOME_TOPIC = "bob";
+
+  private static final PersistenceSchema SCHEMA = PersistenceSchema.from(
+      (ConnectSchema) SchemaBuilder.struct()
+          .field("COUNT", Schema.OPTIONAL_INT64_SCHEMA)
+          .field("NAME", Schema.OPTIONAL_STRING_SCHEMA)
+          .build(),
+      false
+  );
+
+  @Rule
+  public final ExpectedException expectedException = ExpectedException.none();
+
+  private final CompactRowDeserializer deserializer = new CompactRowDeserializer(SCHEMA);
+
+  @Test
+  public void shouldDeserializeNullAsNull() {
+    assertThat(deserializer.deserialize(SOME_TOPIC, null), is(nullValue()));
+  }
+
+  @Test
+  public void shouldDeserializeRow() {
+    // Given:
+    final byte[] bytes = {
+        CompactFormat.VERSION,
+        CompactFormat.PRESENT, 0, 0, 0, 0, 0, 0, 1, 2,
+        CompactFormat.PRESENT, 0, 0, 0, 2, 'h', 'i'
+    };
+
+    // When:
+    final GenericRow row = deserializer.deserialize(SOME_TOPIC, bytes);
+
+    // Then:
+    assertThat(row, is(new GenericRow(Arrays.asList(258L, "hi"))));
+  }
+
+  @Test
+  public void shouldThrowOnUnknownVersion() {
+    // Then:
+    expectedException.expect(SerializationException.class);
+    expectedException.expectMessage("Error deserializing compact row from topic: " + SOME_TOPIC);
+
+    // When:
+    deserializer.deserialize(SOME_TOPIC, new byte[]{2, CompactFormat.NULL, CompactFormat.NULL});
+  }
+
+  @Test
+  public void shouldThrowOnTruncatedRow() {
+    // Then:
+    expectedException.expect(SerializationException.class);
+
+    // When:
+    deserializer.deserialize(SOME_TOPIC, new byte[]{
+        CompactFormat.VERSION, CompactFormat.PRESENT, 0, 0, 0});
+  }
+
+  @Test
+  public void shouldThrowOnTrailingBytes() {
+    // Then:
+    expectedException.expect(SerializationException.class);
+
+    // When:
+    deserializer.deserialize(SOME_TOPIC, new byte[]{
+        CompactFormat.VERSION, CompactFormat.NULL, CompactFormat.NULL, 0});
+  }
+
+  @Test
+  public void shouldThrowOnInvalidPresenceByte() {
+    // Then:
+    expectedException.expect(SerializationException.class);
+
+    // When:
+    deserializer.deserialize(SOME_TOPIC, new byte[]{
+        CompactFormat.VERSION, 7, CompactFormat.NULL});
+  }
+}
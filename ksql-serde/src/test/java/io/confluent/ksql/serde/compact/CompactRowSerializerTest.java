@@ -0,0 +1,230 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.compact;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.schema.ksql.PersistenceSchema;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.connect.data.ConnectSchema;
+import org.apache.kafka.connect.data.Decimal;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.errors.DataException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class CompactRowSerializerTest {
+
+  private static final String SOME_TOPIC = "bob";
+
+  private static final Schema AVG_SCHEMA = SchemaBuilder.struct()
+      .field("SUM", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("COUNT", Schema.OPTIONAL_INT64_SCHEMA)
+      .optional()
+      .build();
+
+  private static final PersistenceSchema SCHEMA = PersistenceSchema.from(
+      (ConnectSchema) SchemaBuilder.struct()
+          .field("GROUP", Schema.OPTIONAL_STRING_SCHEMA)
+          .field("ROWTIME", Schema.OPTIONAL_INT64_SCHEMA)
+          .field("COUNT", Schema.OPTIONAL_INT64_SCHEMA)
+          .field("MIN", Schema.OPTIONAL_INT32_SCHEMA)
+          .field("SUM", Schema.OPTIONAL_FLOAT64_SCHEMA)
+          .field("FLAG", Schema.OPTIONAL_BOOLEAN_SCHEMA)
+          .field("DEC", Decimal.builder(2).optional().build())
+          .field("LIST", SchemaBuilder.array(Schema.OPTIONAL_INT32_SCHEMA).optional().build())
+          .field("HIST", SchemaBuilder
+              .map(Schema.OPTIONAL_STRING_SCHEMA, Schema.OPTIONAL_INT64_SCHEMA)
+              .optional()
+              .build())
+          .field("AVG", AVG_SCHEMA)
+          .build(),
+      false
+  );
+
+  @Rule
+  public final ExpectedException expectedException = ExpectedException.none();
+
+  private CompactRowSerializer serializer;
+  private CompactRowDeserializer deserializer;
+
+  @Before
+  public void setUp() {
+    serializer = new CompactRowSerializer(SCHEMA);
+    deserializer = new CompactRowDeserializer(SCHEMA);
+  }
+
+  @Test
+  public void shouldSerializeNullAsNull() {
+    assertThat(serializer.serialize(SOME_TOPIC, null), is(nullValue()));
+  }
+
+  @Test
+  public void shouldRoundTripRow() {
+    // Given:
+    final Map<String, Long> histogram = new HashMap<>();
+    histogram.put("a", 1L);
+    histogram.put("☃", null);
+
+    final GenericRow row = new GenericRow(Arrays.asList(
+        "group ☃",
+        1511897796092L,
+        Long.MAX_VALUE,
+        Integer.MIN_VALUE,
+        -1.5E-10,
+        true,
+        new BigDecimal("-12345678901234567890.12"),
+        Arrays.asList(1, null, 3),
+        histogram,
+        new Struct(AVG_SCHEMA).put("SUM", 10L).put("COUNT", 3L)
+    ));
+
+    // When:
+    final byte[] bytes = serializer.serialize(SOME_TOPIC, row);
+
+    // Then:
+    assertThat(deserializer.deserialize(SOME_TOPIC, bytes), is(row));
+  }
+
+  @Test
+  public void shouldRoundTripNulls() {
+    // Given:
+    final GenericRow row = new GenericRow(Arrays.asList(
+        null, null, null, null, null, null, null, null, null, null));
+
+    // When:
+    final byte[] bytes = serializer.serialize(SOME_TOPIC, row);
+
+    // Then:
+    assertThat(bytes.length, is(1 + 10));
+    assertThat(deserializer.deserialize(SOME_TOPIC, bytes), is(row));
+  }
+
+  @Test
+  public void shouldWriteNumericColumnsAsFixedWidthSlots() {
+    // Given:
+    final GenericRow row = new GenericRow(Arrays.asList(
+        null, 1L, 2L, 3, 4.0, null, null, null, null, null));
+
+    // When:
+    final byte[] bytes = serializer.serialize(SOME_TOPIC, row);
+
+    // Then:
+    assertThat(bytes.length, is(1 + 10 + 8 + 8 + 4 + 8));
+  }
+
+  @Test
+  public void shouldRescaleDecimal() {
+    // Given:
+    final GenericRow row = new GenericRow(Arrays.asList(
+        null, null, null, null, null, null, new BigDecimal("1.5"), null, null, null));
+
+    // When:
+    final GenericRow result = deserializer
+        .deserialize(SOME_TOPIC, serializer.serialize(SOME_TOPIC, row));
+
+    // Then:
+    assertThat(result.getColumns().get(6), is(new BigDecimal("1.50")));
+  }
+
+  @Test
+  public void shouldThrowOnFieldCountMismatch() {
+    // Then:
+    expectedException.expect(SerializationException.class);
+    expectedException.expectMessage("Field count mismatch. expected: 10, got: 1");
+
+    // When:
+    serializer.serialize(SOME_TOPIC, new GenericRow(Arrays.asList("only one")));
+  }
+
+  @Test
+  public void shouldThrowOnWrongType() {
+    // Given:
+    final GenericRow row = new GenericRow(Arrays.asList(
+        null, "not a long", null, null, null, null, null, null, null, null));
+
+    // Then:
+    expectedException.expect(SerializationException.class);
+    expectedException.expectCause(instanceOf(ClassCastException.class));
+
+    // When:
+    serializer.serialize(SOME_TOPIC, row);
+  }
+
+  @Test
+  public void shouldThrowOnStructWithWrongSchema() {
+    // Given:
+    final Schema otherSchema = SchemaBuilder.struct()
+        .field("SUM", Schema.OPTIONAL_INT64_SCHEMA)
+        .optional()
+        .build();
+
+    final GenericRow row = new GenericRow(Arrays.asList(
+        null, null, null, null, null, null, null, null, null, new Struct(otherSchema)));
+
+    // Then:
+    expectedException.expect(SerializationException.class);
+    expectedException.expectCause(instanceOf(DataException.class));
+
+    // When:
+    serializer.serialize(SOME_TOPIC, row);
+  }
+
+  @Test
+  public void shouldThrowOnUnsupportedType() {
+    // Then:
+    expectedException.expect(DataException.class);
+    expectedException.expectMessage("The compact format does not support type: FLOAT32");
+
+    // When:
+    new CompactRowSerializer(PersistenceSchema.from(
+        (ConnectSchema) SchemaBuilder.struct()
+            .field("F", Schema.OPTIONAL_FLOAT32_SCHEMA)
+            .build(),
+        false
+    ));
+  }
+
+  @Test
+  public void shouldReuseBufferAcrossRows() {
+    // Given:
+    final GenericRow big = new GenericRow(Arrays.asList(
+        new String(new char[1000]).replace('\0', 'x'),
+        null, null, null, null, null, null, null, ImmutableMap.of("k", 1L), null));
+    final GenericRow small = new GenericRow(Arrays.asList(
+        "x", null, null, null, null, null, null, null, null, null));
+
+    // When:
+    serializer.serialize(SOME_TOPIC, big);
+    final byte[] bytes = serializer.serialize(SOME_TOPIC, small);
+
+    // Then:
+    assertThat(deserializer.deserialize(SOME_TOPIC, bytes), is(small));
+  }
+}
@@ -22,9 +22,11 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.nullValue;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.SchemaBuilder;
 import org.apache.kafka.connect.data.Struct;
@@ -74,6 +76,38 @@ public class ConnectDataTranslatorTest {
     assertThat(connectStructColumn.get("BIGINT"), equalTo(456L));
   }
 
+  @Test
+  public void shouldOnlyTranslateRequiredFields() {
+    // Given:
+    final Schema rowSchema = SchemaBuilder
+        .struct()
+        .field("INT", SchemaBuilder.OPTIONAL_INT32_SCHEMA)
+        .field("BIGINT", SchemaBuilder.OPTIONAL_INT64_SCHEMA)
+        .optional()
+        .build();
+
+    final Schema connectSchema = SchemaBuilder
+        .struct()
+        .field("INT", SchemaBuilder.OPTIONAL_INT32_SCHEMA)
+        .field("BIGINT", SchemaBuilder.OPTIONAL_STRING_SCHEMA)
+        .optional()
+        .build();
+
+    final Struct connectStruct = new Struct(connectSchema);
+    connectStruct.put("INT", 123);
+    connectStruct.put("BIGINT", "not a bigint");
+
+    final ConnectDataTranslator connectToKsqlTranslator =
+        new ConnectDataTranslator(rowSchema, Optional.of(ImmutableSet.of("INT")));
+
+    // When:
+    final Struct row = (Struct) connectToKsqlTranslator.toKsqlRow(connectSchema, connectStruct);
+
+    // Then:
+    assertThat(row.get("INT"), equalTo(123));
+    assertThat(row.get("BIGINT"), is(nullValue()));
+  }
+
   @Test
   public void shouldTranslateArrayOfStructs() {
     // Given:
@@ -21,11 +21,13 @@ import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 import static org.junit.internal.matchers.ThrowableMessageMatcher.hasMessage;
 
+import com.google.common.collect.ImmutableSet;
 import io.confluent.ksql.schema.ksql.PersistenceSchema;
 import io.confluent.ksql.util.DecimalUtil;
 import io.confluent.ksql.util.KsqlException;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
+import java.util.Optional;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.kafka.common.errors.SerializationException;
 import org.apache.kafka.connect.data.ConnectSchema;
@@ -97,6 +99,213 @@ public class KsqlDelimitedDeserializerTest {
     assertThat(struct.get("COST"), is(nullValue()));
   }
 
+  @Test
+  public void shouldOnlyDeserializeRequiredFields() {
+    // Given:
+    deserializer = new KsqlDelimitedDeserializer(
+        ORDER_SCHEMA,
+        CSVFormat.DEFAULT,
+        Optional.of(ImmutableSet.of("ORDERID", "ITEMID"))
+    );
+
+    final byte[] bytes = "not a number,1,item_1,10.0,not a decimal\r\n"
+        .getBytes(StandardCharsets.UTF_8);
+
+    // When:
+    final Struct struct = deserializer.deserialize("", bytes);
+
+    // Then:
+    assertThat(struct.get("ORDERTIME"), is(nullValue()));
+    assertThat(struct.get("ORDERID"), is(1L));
+    assertThat(struct.get("ITEMID"), is("item_1"));
+    assertThat(struct.get("ORDERUNITS"), is(nullValue()));
+    assertThat(struct.get("COST"), is(nullValue()));
+  }
+
+  @Test
+  public void shouldDeserializeQuotedFields() {
+    // Given:
+    final byte[] bytes = "\"1511897796092\",\"1\",\"item, \"\"1\"\"\r\n\",\"10.0\",\"10.10\""
+        .getBytes(StandardCharsets.UTF_8);
+
+    // When:
+    final Struct struct = deserializer.deserialize("", bytes);
+
+    // Then:
+    assertThat(struct.get("ORDERTIME"), is(1511897796092L));
+    assertThat(struct.get("ORDERID"), is(1L));
+    assertThat(struct.get("ITEMID"), is("item, \"1\"\r\n"));
+    assertThat(struct.get("ORDERUNITS"), is(10.0));
+    assertThat(struct.get("COST"), is(new BigDecimal("10.10")));
+  }
+
+  @Test
+  public void shouldDeserializeQuotedEmptyFieldAsNull() {
+    // Given:
+    final byte[] bytes = "1511897796092,1,\"\",10.0,10.10".getBytes(StandardCharsets.UTF_8);
+
+    // When:
+    final Struct struct = deserializer.deserialize("", bytes);
+
+    // Then:
+    assertThat(struct.get("ITEMID"), is(nullValue()));
+  }
+
+  @Test
+  public void shouldTreatQuotesWithinUnquotedFieldsAsLiterals() {
+    // Given:
+    final byte[] bytes = "1511897796092,1,item \"1\",10.0,10.10".getBytes(StandardCharsets.UTF_8);
+
+    // When:
+    final Struct struct = deserializer.deserialize("", bytes);
+
+    // Then:
+    assertThat(struct.get("ITEMID"), is("item \"1\""));
+  }
+
+  @Test
+  public void shouldIgnoreWhitespaceAfterClosingQuote() {
+    // Given:
+    final byte[] bytes = "1511897796092,1,\"item_1\"  ,10.0,10.10".getBytes(StandardCharsets.UTF_8);
+
+    // When:
+    final Struct struct = deserializer.deserialize("", bytes);
+
+    // Then:
+    assertThat(struct.get("ITEMID"), is("item_1"));
+    assertThat(struct.get("ORDERUNITS"), is(10.0));
+  }
+
+  @Test
+  public void shouldThrowOnCharactersAfterClosingQuote() {
+    // Given:
+    final byte[] bytes = "1511897796092,1,\"item\"_1,10.0,10.10".getBytes(StandardCharsets.UTF_8);
+
+    // Then:
+    expectedException.expect(SerializationException.class);
+    expectedException.expectCause(
+        hasMessage(is("Invalid character between quoted field and delimiter")));
+
+    // When:
+    deserializer.deserialize("", bytes);
+  }
+
+  @Test
+  public void shouldThrowOnUnterminatedQuote() {
+    // Given:
+    final byte[] bytes = "1511897796092,1,\"item_1,10.0,10.10".getBytes(StandardCharsets.UTF_8);
+
+    // Then:
+    expectedException.expect(SerializationException.class);
+    expectedException.expectCause(hasMessage(is("EOF reached before quoted field finished")));
+
+    // When:
+    deserializer.deserialize("", bytes);
+  }
+
+  @Test
+  public void shouldOnlyDeserializeFirstRecord() {
+    // Given:
+    final byte[] bytes = "\r\n\n1511897796092,1,item_1,10.0,10.10\n2,2,item_2,20.0,20.20"
+        .getBytes(StandardCharsets.UTF_8);
+
+    // When:
+    final Struct struct = deserializer.deserialize("", bytes);
+
+    // Then:
+    assertThat(struct.get("ORDERTIME"), is(1511897796092L));
+    assertThat(struct.get("COST"), is(new BigDecimal("10.10")));
+  }
+
+  @Test
+  public void shouldThrowIfNoRecord() {
+    // Given:
+    final byte[] bytes = "\r\n".getBytes(StandardCharsets.UTF_8);
+
+    // Then:
+    expectedException.expect(SerializationException.class);
+    expectedException.expectCause(hasMessage(is("No fields in record")));
+
+    // When:
+    deserializer.deserialize("", bytes);
+  }
+
+  @Test
+  public void shouldParsePrimitivesLikeTheJdk() {
+    // Given:
+    final PersistenceSchema schema = persistenceSchema(
+        SchemaBuilder.struct()
+            .field("B", Schema.OPTIONAL_BOOLEAN_SCHEMA)
+            .field("I", Schema.OPTIONAL_INT32_SCHEMA)
+            .field("L", Schema.OPTIONAL_INT64_SCHEMA)
+            .field("D", Schema.OPTIONAL_FLOAT64_SCHEMA)
+            .build()
+    );
+
+    final KsqlDelimitedDeserializer deserializer = createDeserializer(schema);
+
+    final String[][] rows = {
+        {"TrUe", "-2147483648", "-9223372036854775808", "0.1"},
+        {"yes", "+2147483647", "9223372036854775807", "-0"},
+        {"false", "007", "-0", "1.7976931348623157E308"},
+        {"true", "0", "123456789012345678", "123456789012345.6789"},
+        {"FALSE", "-1", "+1", ".5"},
+        {"t", "1", "1", "NaN"},
+        {"true", "1", "1", " 1.5 "},
+        {"true", "1", "1", "12345678901234567"},
+        {"true", "1", "1", "1e-10"}
+    };
+
+    for (final String[] row : rows) {
+      // When:
+      final Struct result = deserializer.deserialize(
+          "", String.join(",", row).getBytes(StandardCharsets.UTF_8));
+
+      // Then:
+      assertThat(result.get("B"), is(Boolean.parseBoolean(row[0])));
+      assertThat(result.get("I"), is(Integer.parseInt(row[1])));
+      assertThat(result.get("L"), is(Long.parseLong(row[2])));
+      assertThat(result.get("D"), is(Double.parseDouble(row[3])));
+    }
+  }
+
+  @Test
+  public void shouldThrowOnIntegerOverflow() {
+    // Given:
+    final PersistenceSchema schema = persistenceSchema(
+        SchemaBuilder.struct()
+            .field("I", Schema.OPTIONAL_INT32_SCHEMA)
+            .build()
+    );
+
+    final KsqlDelimitedDeserializer deserializer = createDeserializer(schema);
+
+    // Then:
+    expectedException.expect(SerializationException.class);
+    expectedException.expectCause(instanceOf(NumberFormatException.class));
+
+    // When:
+    deserializer.deserialize("", "2147483648".getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void shouldDeserializeWithMultiByteDelimiter() {
+    // Given:
+    final KsqlDelimitedDeserializer deserializer =
+        new KsqlDelimitedDeserializer(ORDER_SCHEMA, CSVFormat.DEFAULT.withDelimiter('§'));
+
+    final byte[] bytes = "1511897796092§1§\"item§1\"§10.0§10.10"
+        .getBytes(StandardCharsets.UTF_8);
+
+    // When:
+    final Struct struct = deserializer.deserialize("", bytes);
+
+    // Then:
+    assertThat(struct.get("ORDERTIME"), is(1511897796092L));
+    assertThat(struct.get("ITEMID"), is("item§1"));
+    assertThat(struct.get("COST"), is(new BigDecimal("10.10")));
+  }
+
   @Test
   public void shouldThrowIfRowHasTooFewColumns() {
     // Given:
@@ -27,6 +27,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import io.confluent.ksql.schema.ksql.PersistenceSchema;
 import io.confluent.ksql.util.DecimalUtil;
 import java.math.BigDecimal;
@@ -36,6 +37,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.kafka.common.errors.SerializationException;
 import org.apache.kafka.connect.data.ConnectSchema;
@@ -124,6 +126,31 @@ public class KsqlJsonDeserializerTest {
     assertThat(result, is(expectedOrder));
   }
 
+  @Test
+  public void shouldOnlyCoerceRequiredFields() {
+    // Given:
+    deserializer = new KsqlJsonDeserializer(
+        persistenceSchema,
+        Optional.of(ImmutableSet.of(ITEMID, CASE_SENSITIVE_FIELD))
+    );
+
+    final byte[] bytes = serializeJson(ImmutableMap.<String, Object>builder()
+        .put("ordertime", "not a number")
+        .put("itemid", "Item_1")
+        .put("caseField", 1L)
+        .put("arraycol", ImmutableMap.of("not", "an array"))
+        .build());
+
+    // When:
+    final Struct result = (Struct) deserializer.deserialize(SOME_TOPIC, bytes);
+
+    // Then:
+    assertThat(result, is(new Struct(ORDER_SCHEMA)
+        .put(ITEMID, "Item_1")
+        .put(CASE_SENSITIVE_FIELD, 1L)
+    ));
+  }
+
   @Test
   public void shouldIgnoreDeserializeJsonObjectCaseMismatch() {
     // Given:
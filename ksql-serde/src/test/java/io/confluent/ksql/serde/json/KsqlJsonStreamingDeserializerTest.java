@@ -0,0 +1,454 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.json;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.fail;
+import static org.junit.internal.matchers.ThrowableMessageMatcher.hasMessage;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.confluent.ksql.schema.ksql.PersistenceSchema;
+import io.confluent.ksql.util.DecimalUtil;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.connect.data.ConnectSchema;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Schema.Type;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class KsqlJsonStreamingDeserializerTest {
+
+  private static final String SOME_TOPIC = "bob";
+
+  private static final Schema ORDER_SCHEMA = SchemaBuilder.struct()
+      .field("ORDERTIME", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("ITEMID", Schema.OPTIONAL_STRING_SCHEMA)
+      .field("ORDERUNITS", Schema.OPTIONAL_FLOAT64_SCHEMA)
+      .field("caseField", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("ARRAYCOL", SchemaBuilder
+          .array(Schema.OPTIONAL_FLOAT64_SCHEMA)
+          .optional()
+          .build())
+      .field("MAPCOL", SchemaBuilder
+          .map(Schema.OPTIONAL_STRING_SCHEMA, Schema.OPTIONAL_INT32_SCHEMA)
+          .optional()
+          .build())
+      .build();
+
+  @Rule
+  public final ExpectedException expectedException = ExpectedException.none();
+
+  private PersistenceSchema persistenceSchema;
+  private KsqlJsonStreamingDeserializer deserializer;
+
+  @Test
+  public void shouldDeserializeJsonObjectCorrectly() {
+    // Given:
+    givenDeserializerForSchema(ORDER_SCHEMA);
+
+    // When:
+    final Object result = deserialize("{"
+        + "\"ordertime\": 1511897796092,"
+        + "\"itemid\": \"Item_1\","
+        + "\"orderunits\": 10.0,"
+        + "\"caseField\": 1,"
+        + "\"arraycol\": [10.0, 20],"
+        + "\"mapcol\": {\"key1\": 10}"
+        + "}");
+
+    // Then:
+    assertThat(result, is(new Struct(ORDER_SCHEMA)
+        .put("ORDERTIME", 1511897796092L)
+        .put("ITEMID", "Item_1")
+        .put("ORDERUNITS", 10.0)
+        .put("caseField", 1L)
+        .put("ARRAYCOL", ImmutableList.of(10.0, 20.0))
+        .put("MAPCOL", ImmutableMap.of("key1", 10))
+    ));
+  }
+
+  @Test
+  public void shouldSkipUnknownPropertiesOfAnyShape() {
+    // Given:
+    givenDeserializerForSchema(ORDER_SCHEMA);
+
+    // When:
+    final Object result = deserialize("{"
+        + "\"unknown_obj\": {\"ordertime\": 1, \"nested\": [1, {\"a\": [2]}]},"
+        + "\"unknown_array\": [{\"itemid\": \"x\"}, [3]],"
+        + "\"unknown_scalar\": \"text\","
+        + "\"ordertime\": 10"
+        + "}");
+
+    // Then:
+    assertThat(result, is(new Struct(ORDER_SCHEMA).put("ORDERTIME", 10L)));
+  }
+
+  @Test
+  public void shouldOnlyDeserializeRequiredFields() {
+    // Given:
+    givenDeserializerForSchema(ORDER_SCHEMA);
+    deserializer = new KsqlJsonStreamingDeserializer(
+        persistenceSchema,
+        Optional.of(ImmutableSet.of("ITEMID", "caseField"))
+    );
+
+    // When:
+    final Object result = deserialize("{"
+        + "\"ordertime\": \"not a number\","
+        + "\"itemid\": \"Item_1\","
+        + "\"caseField\": 1,"
+        + "\"arraycol\": {\"not\": \"an array\"}"
+        + "}");
+
+    // Then:
+    assertThat(result, is(new Struct(ORDER_SCHEMA)
+        .put("ITEMID", "Item_1")
+        .put("caseField", 1L)
+    ));
+  }
+
+  @Test
+  public void shouldNotMatchCaseSensitiveFieldWithDifferentCase() {
+    // Given:
+    givenDeserializerForSchema(ORDER_SCHEMA);
+
+    // When:
+    final Object result = deserialize("{\"CASEFIELD\": 1}");
+
+    // Then:
+    assertThat(result, is(new Struct(ORDER_SCHEMA)));
+  }
+
+  @Test
+  public void shouldPreferExactMatchOverCaseInsensitiveMatch() {
+    // Given:
+    givenDeserializerForSchema(ORDER_SCHEMA);
+
+    // When:
+    final Object result = deserialize("{"
+        + "\"ORDERTIME\": 1,"
+        + "\"ordertime\": 2,"
+        + "\"itemid\": \"a\","
+        + "\"ITEMID\": \"b\","
+        + "\"Itemid\": \"c\""
+        + "}");
+
+    // Then:
+    assertThat(result, is(new Struct(ORDER_SCHEMA)
+        .put("ORDERTIME", 1L)
+        .put("ITEMID", "b")
+    ));
+  }
+
+  @Test
+  public void shouldPopulateBothFieldsThatMatchTheSameProperty() {
+    // Given:
+    final Schema schema = SchemaBuilder.struct()
+        .field("foo", Schema.OPTIONAL_STRING_SCHEMA)
+        .field("FOO", Schema.OPTIONAL_INT64_SCHEMA)
+        .build();
+
+    givenDeserializerForSchema(schema);
+
+    // When:
+    final Object result = deserialize("{\"foo\": 10}");
+
+    // Then:
+    assertThat(result, is(new Struct(schema)
+        .put("foo", "10")
+        .put("FOO", 10L)
+    ));
+  }
+
+  @Test
+  public void shouldTreatNullAsNull() {
+    // Given:
+    givenDeserializerForSchema(ORDER_SCHEMA);
+
+    // When:
+    final Object result = deserialize("{"
+        + "\"ordertime\": null,"
+        + "\"arraycol\": [0.0, null],"
+        + "\"mapcol\": {\"a\": null}"
+        + "}");
+
+    // Then:
+    assertThat(result, is(new Struct(ORDER_SCHEMA)
+        .put("ARRAYCOL", Arrays.asList(0.0, null))
+        .put("MAPCOL", Collections.singletonMap("a", null))
+    ));
+  }
+
+  @Test
+  public void shouldDeserializeNullAsNull() {
+    // Given:
+    givenDeserializerForSchema(ORDER_SCHEMA);
+
+    // Then:
+    assertThat(deserializer.deserialize(SOME_TOPIC, null), is(nullValue()));
+    assertThat(deserialize("null"), is(nullValue()));
+  }
+
+  @Test
+  public void shouldCreateSortedJsonStringForObjectIfDefinedAsVarchar() {
+    // Given:
+    givenDeserializerForSchema(SchemaBuilder.struct()
+        .field("ITEMID", Schema.OPTIONAL_STRING_SCHEMA)
+        .build());
+
+    // When:
+    final Struct result = (Struct) deserialize("{"
+        + "\"itemid\": {"
+        + "    \"NAME\":\"Item_6\","
+        + "    \"CATEGORY\": {\"NAME\":\"Food\", \"ID\":2},"
+        + "    \"ITEMID\":6"
+        + "  }"
+        + "}");
+
+    // Then:
+    assertThat(result.schema(), is(persistenceSchema.ksqlSchema()));
+    assertThat(result.get("ITEMID"),
+        is("{\"CATEGORY\":{\"ID\":2,\"NAME\":\"Food\"},\"ITEMID\":6,\"NAME\":\"Item_6\"}"));
+  }
+
+  @Test
+  public void shouldDeserializeScalarsAsTextTheSameAsTreeDeserializer() {
+    // Given:
+    givenDeserializerForSchema(Schema.OPTIONAL_STRING_SCHEMA);
+
+    final KsqlJsonDeserializer treeDeserializer = new KsqlJsonDeserializer(persistenceSchema);
+
+    final List<String> values = ImmutableList.of(
+        "true",
+        "42",
+        "-0",
+        "42.000",
+        "42.001",
+        "4200.0",
+        "1e3",
+        "12345678901234567890",
+        "\"just a string\"",
+        "[\"json\", 1, {\"b\": 1, \"a\": 2}]"
+    );
+
+    values.forEach(value -> {
+      final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+
+      // Then:
+      assertThat(value, deserializer.deserialize(SOME_TOPIC, bytes),
+          is(treeDeserializer.deserialize(SOME_TOPIC, bytes)));
+    });
+  }
+
+  @Test
+  public void shouldCoerceNumbersTheSameAsTreeDeserializer() {
+    final List<String> values = ImmutableList.of(
+        "41",
+        "41.456",
+        "-41.9",
+        "\"41\"",
+        "2147483648",
+        "12345678901234567890"
+    );
+
+    ImmutableList.of(Schema.OPTIONAL_INT32_SCHEMA, Schema.OPTIONAL_INT64_SCHEMA,
+        Schema.OPTIONAL_FLOAT64_SCHEMA).forEach(schema -> {
+
+      // Given:
+      givenDeserializerForSchema(schema);
+
+      final KsqlJsonDeserializer treeDeserializer = new KsqlJsonDeserializer(persistenceSchema);
+
+      values.forEach(value -> {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+
+        // Then:
+        assertThat(schema + ": " + value, deserializer.deserialize(SOME_TOPIC, bytes),
+            is(treeDeserializer.deserialize(SOME_TOPIC, bytes)));
+      });
+    });
+  }
+
+  @Test
+  public void shouldDeserializedJsonNumberAsBigDecimal() {
+    // Given:
+    givenDeserializerForSchema(DecimalUtil.builder(20, 19).build());
+
+    ImmutableList.of("1.1234512345123451234", "\"1.1234512345123451234\"").forEach(value -> {
+
+      // When:
+      final Object result = deserialize(value);
+
+      // Then:
+      assertThat(result, is(new BigDecimal("1.1234512345123451234")));
+    });
+  }
+
+  @Test
+  public void shouldThrowIfNotAnObject() {
+    // Given:
+    givenDeserializerForSchema(ORDER_SCHEMA);
+
+    // Then:
+    expectedException.expect(SerializationException.class);
+    expectedException.expectCause(hasMessage(containsString(
+        "Can't convert type. sourceType: BooleanNode, requiredType: STRUCT<ORDERTIME BIGINT")));
+
+    // When:
+    deserialize("true");
+  }
+
+  @Test
+  public void shouldThrowIfFieldCanNotBeCoerced() {
+    // Given:
+    givenDeserializerForSchema(ORDER_SCHEMA);
+
+    // Then:
+    expectedException.expect(SerializationException.class);
+    expectedException.expectCause(hasMessage(is(
+        "Can't convert type. sourceType: ArrayNode, requiredType: BIGINT")));
+
+    // When:
+    deserialize("{\"ordertime\": [1]}");
+  }
+
+  @Test
+  public void shouldThrowIfCanNotCoerceMapValue() {
+    // Given:
+    givenDeserializerForSchema(ORDER_SCHEMA);
+
+    // Then:
+    expectedException.expect(SerializationException.class);
+    expectedException.expectCause(hasMessage(is(
+        "Can't convert type. sourceType: BooleanNode, requiredType: INTEGER")));
+
+    // When:
+    deserialize("{\"mapcol\": {\"a\": 1, \"b\": true}}");
+  }
+
+  @Test
+  public void shouldThrowIfCanNotCoerceArrayElement() {
+    // Given:
+    givenDeserializerForSchema(SchemaBuilder
+        .array(Schema.OPTIONAL_INT32_SCHEMA)
+        .build()
+    );
+
+    // Then:
+    expectedException.expect(SerializationException.class);
+    expectedException.expectCause(hasMessage(is(
+        "Can't coerce string to type. targetType: INTEGER")));
+
+    // When:
+    deserialize("[\"not\", \"numbers\"]");
+  }
+
+  @Test
+  public void shouldThrowOnMapSchemaWithNonStringKeys() {
+    // Given:
+    final PersistenceSchema physicalSchema = PersistenceSchema.from(
+        (ConnectSchema) SchemaBuilder
+            .struct()
+            .field("f0", SchemaBuilder
+                .map(Schema.OPTIONAL_INT32_SCHEMA, Schema.INT32_SCHEMA)
+                .optional()
+                .build())
+            .build(),
+        true
+    );
+
+    // Then:
+    expectedException.expect(IllegalArgumentException.class);
+    expectedException.expectMessage("Only MAPs with STRING keys are supported");
+
+    // When:
+    new KsqlJsonStreamingDeserializer(physicalSchema);
+  }
+
+  @Test
+  public void shouldIncludeTopicNameInException() {
+    // Given:
+    givenDeserializerForSchema(Schema.OPTIONAL_INT64_SCHEMA);
+
+    // Then:
+    expectedException.expectMessage(SOME_TOPIC);
+
+    // When:
+    deserialize("true");
+  }
+
+  @Test
+  public void shouldThrowOnMalformedJson() {
+    // Given:
+    givenDeserializerForSchema(ORDER_SCHEMA);
+
+    // Then:
+    expectedException.expect(SerializationException.class);
+
+    // When:
+    deserialize("{\"ordertime\": ");
+  }
+
+  @Test
+  public void shouldNotIncludeBadValueInExceptionAsThatWouldBeASecurityIssue() {
+    // Given:
+    givenDeserializerForSchema(Schema.OPTIONAL_INT64_SCHEMA);
+
+    try {
+
+      // When:
+      deserialize("\"personal info: do not log me\"");
+
+      fail("Invalid test: should throw");
+
+    } catch (final Exception e) {
+      assertThat(ExceptionUtils.getStackTrace(e), not(containsString("personal info")));
+    }
+  }
+
+  private Object deserialize(final String json) {
+    return deserializer.deserialize(SOME_TOPIC, json.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private void givenDeserializerForSchema(final Schema serializedSchema) {
+    final boolean unwrap = serializedSchema.type() != Type.STRUCT;
+    final Schema ksqlSchema = unwrap
+        ? SchemaBuilder.struct().field("f", serializedSchema).build()
+        : serializedSchema;
+
+    this.persistenceSchema = PersistenceSchema
+        .from((ConnectSchema) ksqlSchema, unwrap);
+
+    deserializer = new KsqlJsonStreamingDeserializer(persistenceSchema);
+  }
+}
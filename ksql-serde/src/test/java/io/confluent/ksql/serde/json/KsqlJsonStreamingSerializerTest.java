@@ -0,0 +1,320 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.json;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.fail;
+import static org.junit.internal.matchers.ThrowableMessageMatcher.hasMessage;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.schema.ksql.PersistenceSchema;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.connect.data.ConnectSchema;
+import org.apache.kafka.connect.data.Decimal;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Schema.Type;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class KsqlJsonStreamingSerializerTest {
+
+  private static final String SOME_TOPIC = "bob";
+
+  private static final Schema CATEGORY_SCHEMA = SchemaBuilder.struct()
+      .field("ID", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("NAME", Schema.OPTIONAL_STRING_SCHEMA)
+      .optional()
+      .build();
+
+  private static final Schema ORDER_SCHEMA = SchemaBuilder.struct()
+      .field("ORDERTIME", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("ORDERID", Schema.OPTIONAL_INT32_SCHEMA)
+      .field("ITEMID", Schema.OPTIONAL_STRING_SCHEMA)
+      .field("ORDERUNITS", Schema.OPTIONAL_FLOAT64_SCHEMA)
+      .field("ACTIVE", Schema.OPTIONAL_BOOLEAN_SCHEMA)
+      .field("ARRAYCOL", SchemaBuilder
+          .array(Schema.OPTIONAL_FLOAT64_SCHEMA)
+          .optional()
+          .build())
+      .field("MAPCOL", SchemaBuilder
+          .map(Schema.OPTIONAL_STRING_SCHEMA, Schema.OPTIONAL_FLOAT64_SCHEMA)
+          .optional()
+          .build())
+      .field("CATEGORIES", SchemaBuilder
+          .array(CATEGORY_SCHEMA)
+          .optional()
+          .build())
+      .field("DECIMALCOL", Decimal.builder(5).optional().build())
+      .build();
+
+  @Rule
+  public final ExpectedException expectedException = ExpectedException.none();
+
+  private KsqlJsonStreamingSerializer serializer;
+  private KsqlJsonSerializer connectSerializer;
+
+  @Test
+  public void shouldSerializeNullAsNull() {
+    // Given:
+    givenSerializerForSchema(ORDER_SCHEMA);
+
+    // Then:
+    assertThat(serializer.serialize(SOME_TOPIC, null), is(nullValue()));
+  }
+
+  @Test
+  public void shouldSerializeStructIdenticallyToConnectSerializer() {
+    // Given:
+    givenSerializerForSchema(ORDER_SCHEMA);
+
+    final Map<String, Double> map = new LinkedHashMap<>();
+    map.put("key1", 100.0);
+    map.put("key\"2\"", -1.5E-10);
+    map.put("kéy3", null);
+
+    final Struct struct = new Struct(ORDER_SCHEMA)
+        .put("ORDERTIME", 1511897796092L)
+        .put("ORDERID", 1)
+        .put("ITEMID", "item_1 ☃ \"quoted\" \n")
+        .put("ORDERUNITS", 10.0)
+        .put("ACTIVE", true)
+        .put("ARRAYCOL", Arrays.asList(100.0, null, Double.MAX_VALUE, 1e21))
+        .put("MAPCOL", map)
+        .put("CATEGORIES", ImmutableList.of(
+            new Struct(CATEGORY_SCHEMA).put("ID", 1L).put("NAME", "Food"),
+            new Struct(CATEGORY_SCHEMA)))
+        .put("DECIMALCOL", new BigDecimal("1.12345"));
+
+    // Then:
+    assertSerializesIdentically(struct);
+  }
+
+  @Test
+  public void shouldSerializeNullFieldsIdenticallyToConnectSerializer() {
+    // Given:
+    givenSerializerForSchema(ORDER_SCHEMA);
+
+    // Then:
+    assertSerializesIdentically(new Struct(ORDER_SCHEMA));
+  }
+
+  @Test
+  public void shouldSerializeUnwrappedValuesIdenticallyToConnectSerializer() {
+    final Map<Schema, Object> values = ImmutableMap.<Schema, Object>builder()
+        .put(Schema.OPTIONAL_BOOLEAN_SCHEMA, false)
+        .put(Schema.OPTIONAL_INT32_SCHEMA, Integer.MIN_VALUE)
+        .put(Schema.OPTIONAL_INT64_SCHEMA, Long.MAX_VALUE)
+        .put(Schema.OPTIONAL_FLOAT64_SCHEMA, 0.1)
+        .put(Schema.OPTIONAL_STRING_SCHEMA, "")
+        .put(Decimal.builder(3).optional().build(), new BigDecimal("1E+10"))
+        .put(SchemaBuilder.array(Schema.OPTIONAL_STRING_SCHEMA).optional().build(),
+            Collections.emptyList())
+        .put(SchemaBuilder
+                .map(Schema.OPTIONAL_STRING_SCHEMA, Schema.OPTIONAL_INT32_SCHEMA)
+                .optional()
+                .build(),
+            ImmutableMap.of("a", 1, "b", 2))
+        .build();
+
+    values.forEach((schema, value) -> {
+      // Given:
+      givenSerializerForSchema(schema);
+
+      // Then:
+      assertSerializesIdentically(value);
+    });
+  }
+
+  @Test
+  public void shouldReuseBufferAcrossCalls() {
+    // Given:
+    givenSerializerForSchema(Schema.OPTIONAL_STRING_SCHEMA);
+
+    final String longValue = String.join("", Collections.nCopies(10_000, "x"));
+
+    // When:
+    final byte[] first = serializer.serialize(SOME_TOPIC, longValue);
+    final byte[] second = serializer.serialize(SOME_TOPIC, "short");
+
+    // Then:
+    assertThat(first.length, is(longValue.length() + 2));
+    assertThat(new String(second, StandardCharsets.UTF_8), is("\"short\""));
+  }
+
+  @Test
+  public void shouldThrowIfNotStruct() {
+    // Given:
+    givenSerializerForSchema(ORDER_SCHEMA);
+
+    // Then:
+    expectedException.expect(SerializationException.class);
+    expectedException.expectCause(hasMessage(containsString(
+        "Invalid type for STRUCT: class java.lang.Integer")));
+
+    // When:
+    serializer.serialize(SOME_TOPIC, 10);
+  }
+
+  @Test
+  public void shouldThrowOnWrongElementType() {
+    // Given:
+    givenSerializerForSchema(SchemaBuilder
+        .array(Schema.BOOLEAN_SCHEMA)
+        .build()
+    );
+
+    // Then:
+    expectedException.expect(SerializationException.class);
+    expectedException.expectCause(hasMessage(is(
+        "Invalid type for BOOLEAN: class java.lang.String")));
+
+    // When:
+    serializer.serialize(SOME_TOPIC, ImmutableList.of("not boolean"));
+  }
+
+  @Test
+  public void shouldThrowIfKeyWrongType() {
+    // Given:
+    givenSerializerForSchema(SchemaBuilder
+        .map(Schema.OPTIONAL_STRING_SCHEMA, Schema.OPTIONAL_INT64_SCHEMA)
+        .build()
+    );
+
+    // Then:
+    expectedException.expect(SerializationException.class);
+    expectedException.expectCause(hasMessage(is(
+        "Invalid type for STRING: class java.lang.Integer")));
+
+    // When:
+    serializer.serialize(SOME_TOPIC, ImmutableMap.of(1, 2));
+  }
+
+  @Test
+  public void shouldThrowIfDecimalWrongType() {
+    // Given:
+    givenSerializerForSchema(Decimal.builder(2).optional().build());
+
+    // Then:
+    expectedException.expect(SerializationException.class);
+    expectedException.expectCause(hasMessage(is(
+        "Invalid type for Decimal, expected BigDecimal but was class java.lang.Double")));
+
+    // When:
+    serializer.serialize(SOME_TOPIC, 1.2);
+  }
+
+  @Test
+  public void shouldThrowOnNullForRequiredField() {
+    // Given:
+    givenSerializerForSchema(SchemaBuilder.array(Schema.INT32_SCHEMA).build());
+
+    // Then:
+    expectedException.expect(SerializationException.class);
+    expectedException.expectCause(hasMessage(is(
+        "Conversion error: null value for field that is required and has no default value")));
+
+    // When:
+    serializer.serialize(SOME_TOPIC, Collections.singletonList(null));
+  }
+
+  @Test
+  public void shouldThrowOnMapSchemaWithNonStringKeys() {
+    // Given:
+    final PersistenceSchema physicalSchema = PersistenceSchema.from(
+        (ConnectSchema) SchemaBuilder
+            .struct()
+            .field("f0", SchemaBuilder
+                .map(Schema.OPTIONAL_INT32_SCHEMA, Schema.INT32_SCHEMA)
+                .optional()
+                .build())
+            .build(),
+        true
+    );
+
+    // Then:
+    expectedException.expect(IllegalArgumentException.class);
+    expectedException.expectMessage("Only MAPs with STRING keys are supported");
+
+    // When:
+    new KsqlJsonStreamingSerializer(physicalSchema);
+  }
+
+  @Test
+  public void shouldIncludeTopicNameInException() {
+    // Given:
+    givenSerializerForSchema(Schema.OPTIONAL_INT64_SCHEMA);
+
+    // Then:
+    expectedException.expectMessage(SOME_TOPIC);
+
+    // When:
+    serializer.serialize(SOME_TOPIC, true);
+  }
+
+  @Test
+  public void shouldNotIncludeBadValueInExceptionAsThatWouldBeASecurityIssue() {
+    // Given:
+    givenSerializerForSchema(Schema.OPTIONAL_INT64_SCHEMA);
+
+    try {
+
+      // When:
+      serializer.serialize(SOME_TOPIC, "personal info: do not log me");
+
+      fail("Invalid test: should throw");
+
+    } catch (final Exception e) {
+      assertThat(ExceptionUtils.getStackTrace(e), not(containsString("personal info")));
+    }
+  }
+
+  private void assertSerializesIdentically(final Object value) {
+    final byte[] expected = connectSerializer.serialize(SOME_TOPIC, value);
+    final byte[] actual = serializer.serialize(SOME_TOPIC, value);
+
+    assertThat(new String(actual, StandardCharsets.UTF_8),
+        is(new String(expected, StandardCharsets.UTF_8)));
+    assertThat(actual, is(expected));
+  }
+
+  private void givenSerializerForSchema(final Schema serializedSchema) {
+    final boolean unwrap = serializedSchema.type() != Type.STRUCT;
+    final Schema ksqlSchema = unwrap
+        ? SchemaBuilder.struct().field("f", serializedSchema).build()
+        : serializedSchema;
+
+    final PersistenceSchema persistenceSchema = PersistenceSchema
+        .from((ConnectSchema) ksqlSchema, unwrap);
+
+    serializer = new KsqlJsonStreamingSerializer(persistenceSchema);
+    connectSerializer = new KsqlJsonSerializer(persistenceSchema);
+  }
+}
@@ -53,7 +53,7 @@ public final class AggregateBuilderUtils {
         physicalAggregationSchema,
         queryContext
     );
-    final Serde<GenericRow> valueSerde = queryBuilder.buildValueSerde(
+    final Serde<GenericRow> valueSerde = queryBuilder.buildStateSerde(
         formats.getValueFormat().getFormatInfo(),
         physicalAggregationSchema,
         queryContext
@@ -50,6 +50,7 @@ import io.confluent.ksql.execution.plan.TableTableJoin;
 import io.confluent.ksql.execution.plan.WindowedStreamSource;
 import io.confluent.ksql.execution.windows.KsqlWindowExpression;
 import io.confluent.ksql.function.FunctionRegistry;
+import io.confluent.ksql.name.ColumnName;
 import io.confluent.ksql.name.SourceName;
 import io.confluent.ksql.schema.ksql.ColumnRef;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
@@ -76,7 +77,8 @@ public final class ExecutionStepFactory {
       final TimestampExtractionPolicy timestampPolicy,
       final int timestampIndex,
       final Optional<AutoOffsetReset> offsetReset,
-      final SourceName alias
+      final SourceName alias,
+      final Optional<List<ColumnName>> requiredColumns
   ) {
     final QueryContext queryContext = stacker.getQueryContext();
     return new WindowedStreamSource(
@@ -89,7 +91,8 @@ public final class ExecutionStepFactory {
         timestampIndex,
         offsetReset,
         schema.getOriginalSchema(),
-        alias
+        alias,
+        requiredColumns
     );
   }
 
@@ -101,7 +104,8 @@ public final class ExecutionStepFactory {
       final TimestampExtractionPolicy timestampPolicy,
       final int timestampIndex,
       final Optional<AutoOffsetReset> offsetReset,
-      final SourceName alias
+      final SourceName alias,
+      final Optional<List<ColumnName>> requiredColumns
   ) {
     final QueryContext queryContext = stacker.getQueryContext();
     return new StreamSource(
@@ -114,7 +118,8 @@ public final class ExecutionStepFactory {
         timestampIndex,
         offsetReset,
         schema.getOriginalSchema(),
-        alias
+        alias,
+        requiredColumns
     );
   }
 
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.streams;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.codegen.RowProjector;
+import io.confluent.ksql.execution.expression.tree.Expression;
+import io.confluent.ksql.execution.sqlpredicate.SqlPredicate;
+import io.confluent.ksql.execution.streams.SelectValueMapper.SelectInfo;
+import io.confluent.ksql.logging.processing.ProcessingLogger;
+import java.util.Collections;
+import java.util.List;
+import org.apache.kafka.streams.kstream.ValueTransformerWithKey;
+import org.apache.kafka.streams.processor.ProcessorContext;
+
+/**
+ * Filters and projects rows in a single step.
+ *
+ * <p>Equivalent to a {@link SqlPredicate} filter followed by a {@link SelectValueMapper}, but
+ * evaluates both through a single {@link RowProjector}, which reads each column from the row
+ * only once. Rows that do not pass the filter produce no output.
+ *
+ * <p>Only the projector is compiled. Errors are logged exactly as they would be by the separate
+ * steps, using the filter expression and the uncompiled selects.
+ */
+public class FilterSelectValueMapper<K>
+    implements ValueTransformerWithKey<K, GenericRow, Iterable<GenericRow>> {
+
+  private final RowProjector projector;
+  private final Expression filterExpression;
+  private final ProcessingLogger filterLogger;
+  private final ImmutableList<SelectInfo> selects;
+  private final ProcessingLogger selectLogger;
+
+  FilterSelectValueMapper(
+      final RowProjector projector,
+      final Expression filterExpression,
+      final ProcessingLogger filterLogger,
+      final List<SelectInfo> selects,
+      final ProcessingLogger selectLogger
+  ) {
+    this.projector = requireNonNull(projector, "projector");
+    this.filterExpression = requireNonNull(filterExpression, "filterExpression");
+    this.filterLogger = requireNonNull(filterLogger, "filterLogger");
+    this.selects = ImmutableList.copyOf(requireNonNull(selects, "selects"));
+    this.selectLogger = requireNonNull(selectLogger, "selectLogger");
+  }
+
+  List<SelectInfo> getSelects() {
+    return selects;
+  }
+
+  @Override
+  public void init(final ProcessorContext processorContext) {
+  }
+
+  @Override
+  public Iterable<GenericRow> transform(final K key, final GenericRow value) {
+    if (value == null) {
+      return Collections.emptyList();
+    }
+
+    final List<Object> columns = projector.project(value, (index, e) -> {
+      if (index == RowProjector.FILTER_INDEX) {
+        SqlPredicate.logProcessingError(filterLogger, filterExpression, e, value);
+      } else {
+        SelectValueMapper.logError(selectLogger, selects, index, value, e);
+      }
+    });
+
+    return columns == null
+        ? Collections.emptyList()
+        : Collections.singletonList(new GenericRow(columns));
+  }
+
+  @Override
+  public void close() {
+  }
+}
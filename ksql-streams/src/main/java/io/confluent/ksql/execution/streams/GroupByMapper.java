@@ -21,14 +21,19 @@ import io.confluent.ksql.execution.codegen.ExpressionMetadata;
 import io.confluent.ksql.execution.util.StructKeyUtil;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 import org.apache.kafka.connect.data.Struct;
 import org.apache.kafka.streams.kstream.KeyValueMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-class GroupByMapper<K> implements KeyValueMapper<K, GenericRow, Struct> {
+/**
+ * Maps a row to the key it is grouped by.
+ *
+ * <p>The key is a single STRING, holding the value of each GROUP BY expression joined by
+ * {@code |+|}. It is built directly into one buffer, with BIGINT and INT values appended without
+ * first being converted to strings, and a single GROUP BY expression is used as-is.
+ */
+public class GroupByMapper<K> implements KeyValueMapper<K, GenericRow, Struct> {
 
   private static final Logger LOG = LoggerFactory.getLogger(GroupByMapper.class);
 
@@ -36,7 +41,7 @@ class GroupByMapper<K> implements KeyValueMapper<K, GenericRow, Struct> {
 
   private final List<ExpressionMetadata> expressions;
 
-  GroupByMapper(final List<ExpressionMetadata> expressions) {
+  public GroupByMapper(final List<ExpressionMetadata> expressions) {
     this.expressions = ImmutableList.copyOf(Objects.requireNonNull(expressions, "expressions"));
     if (expressions.isEmpty()) {
       throw new IllegalArgumentException("Empty group by");
@@ -45,23 +50,41 @@ class GroupByMapper<K> implements KeyValueMapper<K, GenericRow, Struct> {
 
   @Override
   public Struct apply(final K key, final GenericRow row) {
-    final String stringRowKey = IntStream.range(0, expressions.size())
-        .mapToObj(idx -> processColumn(idx, expressions.get(idx), row))
-        .collect(Collectors.joining(GROUP_BY_VALUE_SEPARATOR));
+    if (expressions.size() == 1) {
+      return StructKeyUtil.asStructKey(String.valueOf(processColumn(0, expressions.get(0), row)));
+    }
+
+    final StringBuilder rowKey = new StringBuilder();
+    for (int idx = 0; idx < expressions.size(); idx++) {
+      if (idx != 0) {
+        rowKey.append(GROUP_BY_VALUE_SEPARATOR);
+      }
+      append(rowKey, processColumn(idx, expressions.get(idx), row));
+    }
 
-    return StructKeyUtil.asStructKey(stringRowKey);
+    return StructKeyUtil.asStructKey(rowKey.toString());
   }
 
-  private static String processColumn(
+  private static Object processColumn(
       final int index,
       final ExpressionMetadata exp,
       final GenericRow row
   ) {
     try {
-      return String.valueOf(exp.evaluate(row));
+      return exp.evaluate(row);
     } catch (final Exception e) {
       LOG.error("Error calculating group-by field with index {}", index, e);
-      return "null";
+      return null;
+    }
+  }
+
+  private static void append(final StringBuilder rowKey, final Object value) {
+    if (value instanceof Long) {
+      rowKey.append((long) value);
+    } else if (value instanceof Integer) {
+      rowKey.append((int) value);
+    } else {
+      rowKey.append(value);
     }
   }
 
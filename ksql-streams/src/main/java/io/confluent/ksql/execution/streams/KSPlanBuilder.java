@@ -42,6 +42,7 @@ import io.confluent.ksql.execution.plan.TableSink;
 import io.confluent.ksql.execution.plan.TableTableJoin;
 import io.confluent.ksql.execution.plan.WindowedStreamSource;
 import io.confluent.ksql.execution.sqlpredicate.SqlPredicate;
+import io.confluent.ksql.util.KsqlConfig;
 import java.util.Objects;
 import org.apache.kafka.connect.data.Struct;
 import org.apache.kafka.streams.kstream.Windowed;
@@ -120,8 +121,22 @@ public final class KSPlanBuilder implements PlanBuilder {
   }
 
   @Override
+  @SuppressWarnings("unchecked")
   public <K> KStreamHolder<K> visitStreamMapValues(
       final StreamMapValues<K> streamMapValues) {
+    if (streamMapValues.getSource() instanceof StreamFilter
+        && queryBuilder.getKsqlConfig().getBoolean(
+            KsqlConfig.KSQL_QUERY_FILTER_PROJECTION_FUSED_ENABLE_CONFIG)) {
+      final StreamFilter<K> streamFilter = (StreamFilter<K>) streamMapValues.getSource();
+      final KStreamHolder<K> source = streamFilter.getSource().build(this);
+      return StreamFilterMapValuesBuilder.build(
+          source,
+          streamFilter,
+          streamMapValues,
+          queryBuilder
+      );
+    }
+
     final KStreamHolder<K> source = streamMapValues.getSource().build(this);
     return StreamMapValuesBuilder.build(source, streamMapValues, queryBuilder);
   }
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.streams;
+
+import static java.util.Objects.requireNonNull;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.builder.KsqlQueryBuilder;
+import io.confluent.ksql.execution.plan.ExecutionStep;
+import io.confluent.ksql.execution.plan.StreamFilter;
+import io.confluent.ksql.execution.plan.StreamMapValues;
+import io.confluent.ksql.execution.plan.StreamSource;
+import io.confluent.ksql.execution.sqlpredicate.SqlPredicate;
+import io.confluent.ksql.util.KsqlConfig;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.streams.kstream.Predicate;
+
+/**
+ * Filters and projects the rows of a push query that only filters and projects a single stream,
+ * e.g. {@code SELECT A, B FROM S WHERE C > 10 EMIT CHANGES;}.
+ *
+ * <p>Such queries need nothing from Kafka Streams beyond reading their source, so their rows can
+ * be taken from a scan of the source shared with other queries, rather than each query reading
+ * the source in its own Kafka Streams app. Rows are filtered and projected exactly as they would
+ * be by the query's own {@link StreamFilter} and {@link StreamMapValues} steps.
+ */
+public final class PushQueryMapper {
+
+  private final StreamSource source;
+  private final BiFunction<Struct, GenericRow, GenericRow> mapper;
+
+  /**
+   * Build the mapper for the supplied push query plan, if the plan only filters and projects a
+   * single, non-windowed, stream.
+   *
+   * @param plan the physical plan of the push query.
+   * @param queryBuilder the query builder, used to compile the query's expressions.
+   * @return the mapper, or empty if the plan does more than filter and project a stream.
+   */
+  @SuppressWarnings("unchecked")
+  public static Optional<PushQueryMapper> of(
+      final ExecutionStep<?> plan,
+      final KsqlQueryBuilder queryBuilder
+  ) {
+    if (!(plan instanceof StreamMapValues)) {
+      return Optional.empty();
+    }
+
+    final StreamMapValues<Struct> mapValues = (StreamMapValues<Struct>) plan;
+    final ExecutionStep<?> mapValuesSource = mapValues.getSource();
+    if (mapValuesSource instanceof StreamSource) {
+      return Optional.of(new PushQueryMapper(
+          (StreamSource) mapValuesSource,
+          selectMapper(mapValues, queryBuilder)
+      ));
+    }
+
+    if (!(mapValuesSource instanceof StreamFilter)) {
+      return Optional.empty();
+    }
+
+    final StreamFilter<Struct> filter = (StreamFilter<Struct>) mapValuesSource;
+    if (!(filter.getSource() instanceof StreamSource)) {
+      return Optional.empty();
+    }
+
+    return Optional.of(new PushQueryMapper(
+        (StreamSource) filter.getSource(),
+        filterSelectMapper(filter, mapValues, queryBuilder)
+    ));
+  }
+
+  private PushQueryMapper(
+      final StreamSource source,
+      final BiFunction<Struct, GenericRow, GenericRow> mapper
+  ) {
+    this.source = requireNonNull(source, "source");
+    this.mapper = requireNonNull(mapper, "mapper");
+  }
+
+  /**
+   * @return the stream the query reads.
+   */
+  public StreamSource getSource() {
+    return source;
+  }
+
+  /**
+   * Filter and project a row read from the source.
+   *
+   * @param key the row's key.
+   * @param row the row, as read from the source.
+   * @return the projected row, or {@code null} if the row does not pass the query's filter.
+   */
+  public GenericRow apply(final Struct key, final GenericRow row) {
+    if (row == null) {
+      return null;
+    }
+
+    return mapper.apply(key, row);
+  }
+
+  private static BiFunction<Struct, GenericRow, GenericRow> selectMapper(
+      final StreamMapValues<Struct> mapValues,
+      final KsqlQueryBuilder queryBuilder
+  ) {
+    final SelectValueMapper<Struct> selectMapper = Selection.<Struct>of(
+        queryBuilder.getQueryId(),
+        mapValues.getProperties().getQueryContext(),
+        mapValues.getSource().getProperties().getSchema(),
+        mapValues.getSelectExpressions(),
+        queryBuilder.getKsqlConfig(),
+        queryBuilder.getFunctionRegistry(),
+        queryBuilder.getProcessingLogContext()
+    ).getMapper();
+
+    return (key, row) -> selectMapper.transform(row);
+  }
+
+  private static BiFunction<Struct, GenericRow, GenericRow> filterSelectMapper(
+      final StreamFilter<Struct> filter,
+      final StreamMapValues<Struct> mapValues,
+      final KsqlQueryBuilder queryBuilder
+  ) {
+    final KsqlConfig ksqlConfig = queryBuilder.getKsqlConfig();
+    if (ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_FILTER_PROJECTION_FUSED_ENABLE_CONFIG)) {
+      final FilterSelectValueMapper<Struct> mapper =
+          StreamFilterMapValuesBuilder.buildMapper(filter, mapValues, queryBuilder);
+
+      return (key, row) -> {
+        final Iterator<GenericRow> result = mapper.transform(key, row).iterator();
+        return result.hasNext() ? result.next() : null;
+      };
+    }
+
+    final Predicate<Struct, GenericRow> predicate = StreamFilterBuilder.buildPredicate(
+        filter.getSource().getProperties().getSchema(),
+        filter,
+        queryBuilder,
+        SqlPredicate::new
+    ).getPredicate();
+
+    final BiFunction<Struct, GenericRow, GenericRow> selectMapper =
+        selectMapper(mapValues, queryBuilder);
+
+    return (key, row) -> predicate.test(key, row)
+        ? selectMapper.apply(key, row)
+        : null;
+  }
+}
@@ -17,9 +17,12 @@ package io.confluent.ksql.execution.streams;
 
 import static java.util.Objects.requireNonNull;
 
+import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.execution.codegen.ExpressionMetadata;
+import io.confluent.ksql.execution.codegen.RowProjector;
+import io.confluent.ksql.execution.expression.tree.Expression;
 import io.confluent.ksql.execution.util.EngineProcessingLogMessageFactory;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
 import io.confluent.ksql.name.ColumnName;
@@ -28,18 +31,40 @@ import io.confluent.ksql.schema.ksql.types.SqlType;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 
 public class SelectValueMapper<K> extends KsqlValueTransformerWithKey<K> {
 
   private final ImmutableList<SelectInfo> selects;
+  private final Optional<RowProjector> projector;
   private final ProcessingLogger processingLogger;
 
   public SelectValueMapper(
       final List<SelectInfo> selects,
       final ProcessingLogger processingLogger
+  ) {
+    this(selects, Optional.empty(), processingLogger);
+  }
+
+  /**
+   * @param selects the select expressions.
+   * @param projector optional projector that evaluates all the {@code selects} in one call. If
+   *                  not present, each select is evaluated separately, so must be compiled.
+   * @param processingLogger the processing logger.
+   */
+  public SelectValueMapper(
+      final List<SelectInfo> selects,
+      final Optional<RowProjector> projector,
+      final ProcessingLogger processingLogger
   ) {
     this.selects = ImmutableList.copyOf(requireNonNull(selects, "selects"));
+    this.projector = requireNonNull(projector, "projector");
     this.processingLogger = requireNonNull(processingLogger, "processingLogger");
+
+    Preconditions.checkArgument(
+        projector.isPresent() || this.selects.stream().allMatch(s -> s.evaluator.isPresent()),
+        "selects must be compiled if there is no projector"
+    );
   }
 
   List<SelectInfo> getSelects() {
@@ -52,6 +77,13 @@ public class SelectValueMapper<K> extends KsqlValueTransformerWithKey<K> {
       return null;
     }
 
+    if (projector.isPresent()) {
+      return new GenericRow(projector.get().project(
+          value,
+          (column, e) -> logError(column, value, e)
+      ));
+    }
+
     final List<Object> newColumns = new ArrayList<>();
 
     for (int i = 0; i < selects.size(); i++) {
@@ -65,47 +97,95 @@ public class SelectValueMapper<K> extends KsqlValueTransformerWithKey<K> {
     final SelectInfo select = selects.get(column);
 
     try {
-      return select.evaluator.evaluate(row);
+      return select.evaluator.get().evaluate(row);
     } catch (final Exception e) {
-      final String errorMsg = String.format(
-          "Error computing expression %s for column %s with index %d: %s",
-          select.evaluator.getExpression(),
-          select.fieldName.toString(FormatOptions.noEscape()),
-          column,
-          e.getMessage()
-      );
-
-      processingLogger.error(
-          EngineProcessingLogMessageFactory.recordProcessingError(
-              errorMsg,
-              e,
-              row
-          )
-      );
+      logError(column, row, e);
       return null;
     }
   }
 
+  void logError(final int column, final GenericRow row, final Exception e) {
+    logError(processingLogger, selects, column, row, e);
+  }
+
+  static void logError(
+      final ProcessingLogger processingLogger,
+      final List<SelectInfo> selects,
+      final int column,
+      final GenericRow row,
+      final Exception e
+  ) {
+    final SelectInfo select = selects.get(column);
+
+    final String errorMsg = String.format(
+        "Error computing expression %s for column %s with index %d: %s",
+        select.getExpression(),
+        select.fieldName.toString(FormatOptions.noEscape()),
+        column,
+        e.getMessage()
+    );
+
+    processingLogger.error(
+        EngineProcessingLogMessageFactory.recordProcessingError(
+            errorMsg,
+            e,
+            row
+        )
+    );
+  }
+
+  /**
+   * A select expression and the column it produces.
+   *
+   * <p>Selects evaluated by a {@link RowProjector} need no evaluator of their own, so are not
+   * compiled.
+   */
   static final class SelectInfo {
 
     final ColumnName fieldName;
-    final ExpressionMetadata evaluator;
+    final Optional<ExpressionMetadata> evaluator;
+    private final Expression expression;
+    private final SqlType expressionType;
 
     static SelectInfo of(final ColumnName fieldName, final ExpressionMetadata evaluator) {
-      return new SelectInfo(fieldName, evaluator);
+      return new SelectInfo(fieldName, Optional.of(evaluator), null, null);
+    }
+
+    static SelectInfo of(
+        final ColumnName fieldName,
+        final Expression expression,
+        final SqlType expressionType
+    ) {
+      return new SelectInfo(
+          fieldName,
+          Optional.empty(),
+          requireNonNull(expression, "expression"),
+          requireNonNull(expressionType, "expressionType")
+      );
     }
 
-    private SelectInfo(final ColumnName fieldName, final ExpressionMetadata evaluator) {
+    private SelectInfo(
+        final ColumnName fieldName,
+        final Optional<ExpressionMetadata> evaluator,
+        final Expression expression,
+        final SqlType expressionType
+    ) {
       this.fieldName = requireNonNull(fieldName, "fieldName");
       this.evaluator = requireNonNull(evaluator, "evaluator");
+      this.expression = expression;
+      this.expressionType = expressionType;
     }
 
     ColumnName getFieldName() {
       return fieldName;
     }
 
+    Expression getExpression() {
+      return evaluator.map(ExpressionMetadata::getExpression).orElse(expression);
+    }
+
     SqlType getExpressionType() {
-      return evaluator.getExpressionType();
+      return evaluator.map(ExpressionMetadata::getExpressionType).orElse(expressionType);
     }
 
     @Override
@@ -118,12 +198,14 @@ public class SelectValueMapper<K> extends KsqlValueTransformerWithKey<K> {
       }
       final SelectInfo that = (SelectInfo) o;
       return Objects.equals(fieldName, that.fieldName)
-          && Objects.equals(evaluator, that.evaluator);
+          && Objects.equals(evaluator, that.evaluator)
+          && Objects.equals(expression, that.expression)
+          && Objects.equals(expressionType, that.expressionType);
     }
 
     @Override
     public int hashCode() {
-      return Objects.hash(fieldName, evaluator);
+      return Objects.hash(fieldName, evaluator, expression, expressionType);
     }
   }
 }
@@ -18,6 +18,8 @@ package io.confluent.ksql.execution.streams;
 import com.google.common.annotations.VisibleForTesting;
 import io.confluent.ksql.execution.codegen.CodeGenRunner;
 import io.confluent.ksql.execution.codegen.ExpressionMetadata;
+import io.confluent.ksql.execution.codegen.RowProjector;
+import io.confluent.ksql.execution.expression.tree.Expression;
 import io.confluent.ksql.execution.plan.SelectExpression;
 import io.confluent.ksql.execution.streams.SelectValueMapper.SelectInfo;
 import io.confluent.ksql.function.FunctionRegistry;
@@ -25,6 +27,7 @@ import io.confluent.ksql.logging.processing.ProcessingLogger;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.util.KsqlConfig;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -47,32 +50,99 @@ public final class SelectValueMapperFactory {
       final KsqlConfig ksqlConfig,
       final FunctionRegistry functionRegistry,
       final ProcessingLogger processingLogger
+  ) {
+    return create(
+        selectExpressions,
+        sourceSchema,
+        ksqlConfig,
+        functionRegistry,
+        processingLogger,
+        ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_PROJECTION_FUSED_ENABLE_CONFIG)
+    );
+  }
+
+  static <K> SelectValueMapper<K> create(
+      final List<SelectExpression> selectExpressions,
+      final LogicalSchema sourceSchema,
+      final KsqlConfig ksqlConfig,
+      final FunctionRegistry functionRegistry,
+      final ProcessingLogger processingLogger,
+      final boolean fused
   ) {
     final CodeGenRunner codeGen = new CodeGenRunner(sourceSchema, ksqlConfig, functionRegistry);
 
     return new SelectValueMapperFactory(codeGen).create(
         selectExpressions,
-        processingLogger
+        processingLogger,
+        fused
     );
   }
 
+  /**
+   * Describe the supplied selects, without compiling them, for operators that evaluate them with
+   * a {@link RowProjector} of their own.
+   */
+  static List<SelectInfo> describeSelects(
+      final List<SelectExpression> selectExpressions,
+      final CodeGenRunner codeGenerator
+  ) {
+    return new SelectValueMapperFactory(codeGenerator).buildSelects(selectExpressions, false);
+  }
+
   @VisibleForTesting
   <K> SelectValueMapper<K> create(
       final List<SelectExpression> selectExpressions,
       final ProcessingLogger processingLogger
   ) {
+    return create(selectExpressions, processingLogger, false);
+  }
+
+  @VisibleForTesting
+  <K> SelectValueMapper<K> create(
+      final List<SelectExpression> selectExpressions,
+      final ProcessingLogger processingLogger,
+      final boolean fused
+  ) {
+    // Selects are always built, as they are used for the result schema and error messages, but
+    // are only compiled if not evaluated by a projector:
+    final List<SelectInfo> selects = buildSelects(selectExpressions, !fused);
+
+    final Optional<RowProjector> projector = fused
+        ? Optional.of(buildProjector(selectExpressions))
+        : Optional.empty();
+
     return new SelectValueMapper<>(
-        buildSelects(selectExpressions),
+        selects,
+        projector,
         processingLogger
     );
   }
 
-  private List<SelectInfo> buildSelects(final List<SelectExpression> selectExpressions) {
+  private RowProjector buildProjector(final List<SelectExpression> selectExpressions) {
+    final List<Expression> expressions = selectExpressions.stream()
+        .map(SelectExpression::getExpression)
+        .collect(Collectors.toList());
+
+    return codeGenerator.buildRowProjector(expressions, EXP_TYPE);
+  }
+
+  private List<SelectInfo> buildSelects(
+      final List<SelectExpression> selectExpressions,
+      final boolean compile
+  ) {
     return selectExpressions.stream()
-        .map(this::buildSelect)
+        .map(compile ? this::buildSelect : this::describeSelect)
         .collect(Collectors.toList());
   }
 
+  private SelectInfo describeSelect(final SelectExpression selectExpression) {
+    return SelectInfo.of(
+        selectExpression.getAlias(),
+        selectExpression.getExpression(),
+        codeGenerator.getExpressionType(selectExpression.getExpression())
+    );
+  }
+
   private SelectInfo buildSelect(final SelectExpression selectExpression) {
     final ExpressionMetadata evaluator = codeGenerator
         .buildCodeGenFromParseTree(selectExpression.getExpression(), EXP_TYPE);
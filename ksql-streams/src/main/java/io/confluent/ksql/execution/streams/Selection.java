@@ -23,6 +23,7 @@ import io.confluent.ksql.execution.plan.SelectExpression;
 import io.confluent.ksql.execution.streams.SelectValueMapper.SelectInfo;
 import io.confluent.ksql.function.FunctionRegistry;
 import io.confluent.ksql.logging.processing.ProcessingLogContext;
+import io.confluent.ksql.logging.processing.ProcessingLogger;
 import io.confluent.ksql.query.QueryId;
 import io.confluent.ksql.schema.ksql.Column;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
@@ -44,28 +45,59 @@ public final class Selection<K> {
       final FunctionRegistry functionRegistry,
       final ProcessingLogContext processingLogContext
   ) {
-    final QueryContext.Stacker contextStacker = QueryContext.Stacker.of(queryContext);
-
-    final String loggerName = QueryLoggerUtil.queryLoggerName(
+    return of(
         queryId,
-        contextStacker.push(SELECTION_CONTEXT).getQueryContext()
+        queryContext,
+        sourceSchema,
+        selectExpressions,
+        ksqlConfig,
+        functionRegistry,
+        processingLogContext,
+        ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_PROJECTION_FUSED_ENABLE_CONFIG)
     );
+  }
 
+  static <K> Selection<K> of(
+      final QueryId queryId,
+      final QueryContext queryContext,
+      final LogicalSchema sourceSchema,
+      final List<SelectExpression> selectExpressions,
+      final KsqlConfig ksqlConfig,
+      final FunctionRegistry functionRegistry,
+      final ProcessingLogContext processingLogContext,
+      final boolean fusedProjection
+  ) {
     final SelectValueMapper<K> mapper = SelectValueMapperFactory.create(
         selectExpressions,
         sourceSchema,
         ksqlConfig,
         functionRegistry,
-        processingLogContext.getLoggerFactory().getLogger(loggerName)
+        processingLogger(queryId, queryContext, processingLogContext),
+        fusedProjection
     );
 
-    final LogicalSchema schema = buildSchema(sourceSchema, mapper);
+    final LogicalSchema schema = buildSchema(sourceSchema, mapper.getSelects());
     return new Selection<>(mapper, schema);
   }
 
-  private static LogicalSchema buildSchema(
+  static ProcessingLogger processingLogger(
+      final QueryId queryId,
+      final QueryContext queryContext,
+      final ProcessingLogContext processingLogContext
+  ) {
+    final QueryContext.Stacker contextStacker = QueryContext.Stacker.of(queryContext);
+
+    final String loggerName = QueryLoggerUtil.queryLoggerName(
+        queryId,
+        contextStacker.push(SELECTION_CONTEXT).getQueryContext()
+    );
+
+    return processingLogContext.getLoggerFactory().getLogger(loggerName);
+  }
+
+  static LogicalSchema buildSchema(
       final LogicalSchema sourceSchema,
-      final SelectValueMapper<?> mapper
+      final List<SelectInfo> selects
   ) {
     final LogicalSchema.Builder schemaBuilder = LogicalSchema.builder();
 
@@ -74,7 +106,7 @@ public final class Selection<K> {
 
     schemaBuilder.keyColumns(keyCols);
 
-    for (final SelectInfo select : mapper.getSelects()) {
+    for (final SelectInfo select : selects) {
       schemaBuilder.valueColumn(select.getFieldName(), select.getExpressionType());
     }
 
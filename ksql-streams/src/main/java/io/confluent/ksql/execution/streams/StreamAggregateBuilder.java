@@ -218,7 +218,7 @@ public final class StreamAggregateBuilder {
           physicalSchema,
           queryContext
       );
-      valueSerde = queryBuilder.buildValueSerde(
+      valueSerde = queryBuilder.buildStateSerde(
           formats.getValueFormat().getFormatInfo(),
           physicalSchema,
           queryContext
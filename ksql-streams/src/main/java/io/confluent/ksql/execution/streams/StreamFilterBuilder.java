@@ -21,6 +21,8 @@ import io.confluent.ksql.execution.context.QueryLoggerUtil;
 import io.confluent.ksql.execution.plan.KStreamHolder;
 import io.confluent.ksql.execution.plan.StreamFilter;
 import io.confluent.ksql.execution.sqlpredicate.SqlPredicate;
+import io.confluent.ksql.logging.processing.ProcessingLogger;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
 
 public final class StreamFilterBuilder {
   private StreamFilterBuilder() {
@@ -38,23 +40,38 @@ public final class StreamFilterBuilder {
       final StreamFilter<K> step,
       final KsqlQueryBuilder queryBuilder,
       final SqlPredicateFactory predicateFactory) {
-    final QueryContext.Stacker contextStacker = QueryContext.Stacker.of(
-        step.getProperties().getQueryContext()
+    final SqlPredicate predicate =
+        buildPredicate(stream.getSchema(), step, queryBuilder, predicateFactory);
+    return stream.withStream(
+        stream.getStream().filter(predicate.getPredicate()),
+        stream.getSchema()
     );
-    final SqlPredicate predicate = predicateFactory.create(
+  }
+
+  static SqlPredicate buildPredicate(
+      final LogicalSchema schema,
+      final StreamFilter<?> step,
+      final KsqlQueryBuilder queryBuilder,
+      final SqlPredicateFactory predicateFactory) {
+    return predicateFactory.create(
         step.getFilterExpression(),
-        stream.getSchema(),
+        schema,
         queryBuilder.getKsqlConfig(),
         queryBuilder.getFunctionRegistry(),
-        queryBuilder.getProcessingLogContext().getLoggerFactory().getLogger(
-            QueryLoggerUtil.queryLoggerName(
-                queryBuilder.getQueryId(),
-                contextStacker.push("FILTER").getQueryContext())
-        )
+        processingLogger(step, queryBuilder)
     );
-    return stream.withStream(
-        stream.getStream().filter(predicate.getPredicate()),
-        stream.getSchema()
+  }
+
+  static ProcessingLogger processingLogger(
+      final StreamFilter<?> step,
+      final KsqlQueryBuilder queryBuilder) {
+    final QueryContext.Stacker contextStacker = QueryContext.Stacker.of(
+        step.getProperties().getQueryContext()
+    );
+    return queryBuilder.getProcessingLogContext().getLoggerFactory().getLogger(
+        QueryLoggerUtil.queryLoggerName(
+            queryBuilder.getQueryId(),
+            contextStacker.push("FILTER").getQueryContext())
     );
   }
 }
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.streams;
+
+import io.confluent.ksql.execution.builder.KsqlQueryBuilder;
+import io.confluent.ksql.execution.codegen.CodeGenRunner;
+import io.confluent.ksql.execution.codegen.RowProjector;
+import io.confluent.ksql.execution.expression.tree.Expression;
+import io.confluent.ksql.execution.plan.KStreamHolder;
+import io.confluent.ksql.execution.plan.SelectExpression;
+import io.confluent.ksql.execution.plan.StreamFilter;
+import io.confluent.ksql.execution.plan.StreamMapValues;
+import io.confluent.ksql.execution.streams.SelectValueMapper.SelectInfo;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.apache.kafka.streams.kstream.Named;
+
+/**
+ * Builds a {@link StreamFilter} step and the {@link StreamMapValues} step that consumes it as a
+ * single Kafka Streams processor.
+ *
+ * <p>The result is equivalent to building the two steps with {@link StreamFilterBuilder} and
+ * {@link StreamMapValuesBuilder}: rows are filtered and projected identically, errors are logged
+ * to the same processing loggers and the projection node has the same name. Only the single
+ * {@link RowProjector} that evaluates both steps is compiled.
+ */
+public final class StreamFilterMapValuesBuilder {
+  private static final String EXP_TYPE = "Select";
+
+  private StreamFilterMapValuesBuilder() {
+  }
+
+  static <K> KStreamHolder<K> build(
+      final KStreamHolder<K> stream,
+      final StreamFilter<K> filterStep,
+      final StreamMapValues<K> mapValuesStep,
+      final KsqlQueryBuilder queryBuilder
+  ) {
+    final FilterSelectValueMapper<K> mapper =
+        buildMapper(filterStep, mapValuesStep, queryBuilder);
+
+    final Named selectName =
+        Named.as(queryBuilder.buildUniqueNodeName(mapValuesStep.getSelectNodeName()));
+
+    return stream.withStream(
+        stream.getStream().flatTransformValues(() -> mapper, selectName),
+        Selection.buildSchema(sourceSchema(mapValuesStep), mapper.getSelects())
+    );
+  }
+
+  static <K> FilterSelectValueMapper<K> buildMapper(
+      final StreamFilter<K> filterStep,
+      final StreamMapValues<K> mapValuesStep,
+      final KsqlQueryBuilder queryBuilder
+  ) {
+    final CodeGenRunner codeGen = new CodeGenRunner(
+        sourceSchema(mapValuesStep),
+        queryBuilder.getKsqlConfig(),
+        queryBuilder.getFunctionRegistry()
+    );
+
+    final List<SelectInfo> selects =
+        SelectValueMapperFactory.describeSelects(mapValuesStep.getSelectExpressions(), codeGen);
+
+    final RowProjector projector = codeGen.buildRowProjector(
+        Optional.of(filterStep.getFilterExpression()),
+        expressions(mapValuesStep.getSelectExpressions()),
+        EXP_TYPE
+    );
+
+    return new FilterSelectValueMapper<>(
+        projector,
+        filterStep.getFilterExpression(),
+        StreamFilterBuilder.processingLogger(filterStep, queryBuilder),
+        selects,
+        Selection.processingLogger(
+            queryBuilder.getQueryId(),
+            mapValuesStep.getProperties().getQueryContext(),
+            queryBuilder.getProcessingLogContext()
+        )
+    );
+  }
+
+  private static LogicalSchema sourceSchema(final StreamMapValues<?> mapValuesStep) {
+    return mapValuesStep.getSource().getProperties().getSchema();
+  }
+
+  private static List<Expression> expressions(final List<SelectExpression> selectExpressions) {
+    return selectExpressions.stream()
+        .map(SelectExpression::getExpression)
+        .collect(Collectors.toList());
+  }
+}
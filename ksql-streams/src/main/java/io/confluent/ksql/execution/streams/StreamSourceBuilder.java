@@ -18,12 +18,14 @@ import static java.util.Objects.requireNonNull;
 
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.execution.builder.KsqlQueryBuilder;
+import io.confluent.ksql.execution.context.QueryContext;
 import io.confluent.ksql.execution.plan.AbstractStreamSource;
 import io.confluent.ksql.execution.plan.KStreamHolder;
 import io.confluent.ksql.execution.plan.StreamSource;
 import io.confluent.ksql.execution.plan.WindowedStreamSource;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.schema.ksql.PhysicalSchema;
+import io.confluent.ksql.serde.FormatInfo;
 import io.confluent.ksql.serde.KeyFormat;
 import io.confluent.ksql.serde.KeySerde;
 import io.confluent.ksql.util.KsqlConfig;
@@ -138,11 +140,21 @@ public final class StreamSourceBuilder {
       final KsqlQueryBuilder queryBuilder,
       final AbstractStreamSource<?> streamSource,
       final PhysicalSchema physicalSchema) {
-    return queryBuilder.buildValueSerde(
-        streamSource.getFormats().getValueFormat().getFormatInfo(),
-        physicalSchema,
-        streamSource.getProperties().getQueryContext()
-    );
+    final FormatInfo valueFormat = streamSource.getFormats().getValueFormat().getFormatInfo();
+    final QueryContext queryContext = streamSource.getProperties().getQueryContext();
+
+    return streamSource.getRequiredColumns()
+        .map(columns -> queryBuilder.buildValueSerde(
+            valueFormat,
+            physicalSchema,
+            queryContext,
+            columns
+        ))
+        .orElseGet(() -> queryBuilder.buildValueSerde(
+            valueFormat,
+            physicalSchema,
+            queryContext
+        ));
   }
 
   private static PhysicalSchema getPhysicalSchema(final AbstractStreamSource streamSource) {
@@ -129,6 +129,27 @@ class KsqlMaterialization implements Materialization {
               .map(v -> row.withValue(v, schema()))
           );
     }
+
+    @Override
+    public List<Row> getAll(final List<Struct> keys) {
+      return filterAndTransformAll(table.getAll(keys));
+    }
+
+    @Override
+    public List<Row> range(final Range<String> rowKeys) {
+      return filterAndTransformAll(table.range(rowKeys));
+    }
+
+    private List<Row> filterAndTransformAll(final List<Row> result) {
+      final Builder<Row> builder = ImmutableList.builder();
+
+      for (final Row row : result) {
+        filterAndTransform(row.key(), row.value())
+            .ifPresent(v -> builder.add(row.withValue(v, schema())));
+      }
+
+      return builder.build();
+    }
   }
 
   final class KsqlMaterializedWindowedTable implements MaterializedWindowedTable {
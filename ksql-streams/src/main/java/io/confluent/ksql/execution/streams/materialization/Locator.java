@@ -16,6 +16,7 @@
 package io.confluent.ksql.execution.streams.materialization;
 
 import java.net.URI;
+import java.util.List;
 import java.util.Optional;
 import org.apache.kafka.connect.data.Struct;
 
@@ -38,6 +39,35 @@ public interface Locator {
    */
   Optional<KsqlNode> locate(Struct key);
 
+  /**
+   * Locate all the KSQL nodes that store some part of the materialized data.
+   *
+   * <p>Implementations are free to return an empty list if the locations are not known at this
+   * time.
+   *
+   * @return the nodes storing the data.
+   */
+  List<KsqlNode> locateAll();
+
+  /**
+   * Locate which KSQL node stores the supplied {@code key}, waiting up to {@code timeoutMs} for the
+   * location to become known, e.g. for a rebalance to complete.
+   *
+   * @param key the required key.
+   * @param timeoutMs the maximum time to wait, in milliseconds.
+   * @return the owning node, or {@link Optional#empty()} if it is not known within the timeout.
+   */
+  Optional<KsqlNode> locate(Struct key, long timeoutMs);
+
+  /**
+   * Locate all the KSQL nodes that store some part of the materialized data, waiting up to
+   * {@code timeoutMs} for the locations to become known, e.g. for a rebalance to complete.
+   *
+   * @param timeoutMs the maximum time to wait, in milliseconds.
+   * @return the nodes storing the data, or an empty list if not known within the timeout.
+   */
+  List<KsqlNode> locateAll(long timeoutMs);
+
 
   interface KsqlNode {
 
@@ -15,6 +15,8 @@
 
 package io.confluent.ksql.execution.streams.materialization;
 
+import com.google.common.collect.Range;
+import java.util.List;
 import java.util.Optional;
 import org.apache.kafka.connect.data.Struct;
 
@@ -30,4 +32,22 @@ public interface MaterializedTable {
    * @return the value, if one is exists.
    */
   Optional<Row> get(Struct key);
+
+  /**
+   * Get the values, where they exist, of the supplied {@code keys}.
+   *
+   * <p>All the keys are looked up in a single pass over the store.
+   *
+   * @param keys the keys to look up.
+   * @return the rows for the keys that exist, in no particular order.
+   */
+  List<Row> getAll(List<Struct> keys);
+
+  /**
+   * Get the values of all keys whose {@code ROWKEY} is within the supplied {@code rowKeys}.
+   *
+   * @param rowKeys the bounds on the row key.
+   * @return the rows within the range, in no particular order.
+   */
+  List<Row> range(Range<String> rowKeys);
 }
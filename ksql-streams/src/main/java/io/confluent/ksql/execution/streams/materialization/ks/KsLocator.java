@@ -17,52 +17,283 @@ package io.confluent.ksql.execution.streams.materialization.ks;
 
 import static java.util.Objects.requireNonNull;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.errorprone.annotations.Immutable;
 import io.confluent.ksql.execution.streams.materialization.Locator;
+import io.confluent.ksql.execution.streams.materialization.MaterializationException;
+import io.confluent.ksql.metrics.MetricCollectors;
 import java.net.URI;
 import java.net.URL;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.metrics.Gauge;
+import org.apache.kafka.common.metrics.Metrics;
 import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.utils.Time;
+import org.apache.kafka.common.utils.Utils;
 import org.apache.kafka.connect.data.Struct;
 import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.KafkaStreams.State;
+import org.apache.kafka.streams.processor.StreamPartitioner;
 import org.apache.kafka.streams.state.HostInfo;
 import org.apache.kafka.streams.state.StreamsMetadata;
 
 /**
  * Kafka Streams implementation of {@link Locator}.
+ *
+ * <p>Asking Kafka Streams for the owner of a key takes a lock on the streams metadata and
+ * searches it, and turning the owner into a {@link KsqlNode} builds a new URL. As ownership only
+ * changes on a rebalance, the locator instead keeps a routing table of the owner of each
+ * partition of the store, built from the streams metadata on the first lookup after the owners
+ * may have changed. Keys are then located by hashing them to their partition, in the same way as
+ * the default partitioner, and indexing into the table.
+ *
+ * <p>The locator must be registered as a state listener of the Kafka Streams app, which drops the
+ * routing table on any state change, e.g. a rebalance. State changes also wake requests waiting
+ * for owners to become known, so that they need not poll the metadata while a rebalance is in
+ * progress.
  */
-final class KsLocator implements Locator {
+final class KsLocator implements Locator, KafkaStreams.StateListener {
+
+  private static final String METRIC_GROUP = "ksql-pull-queries";
+
+  // Bounds each wait, in case the metadata changes without a state change being signalled:
+  private static final long MAX_WAIT_MS = 100;
 
   private final String stateStoreName;
   private final KafkaStreams kafkaStreams;
   private final Serializer<Struct> keySerializer;
   private final URL localHost;
+  private final Optional<Metrics> metrics;
+  private final Time time;
+  private final RebalanceWaits waits;
+  private final List<MetricName> metricNames;
+  private final AtomicLong refreshes = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private long generation;
+  private volatile RoutingTable routingTable;
+
+  KsLocator(
+      final String stateStoreName,
+      final KafkaStreams kafkaStreams,
+      final Serializer<Struct> keySerializer,
+      final URL localHost,
+      final String applicationId
+  ) {
+    this(
+        stateStoreName,
+        kafkaStreams,
+        keySerializer,
+        localHost,
+        applicationId,
+        Optional.of(MetricCollectors.getMetrics()),
+        Time.SYSTEM,
+        RebalanceWaits.SHARED
+    );
+  }
 
+  @VisibleForTesting
   KsLocator(
       final String stateStoreName,
       final KafkaStreams kafkaStreams,
       final Serializer<Struct> keySerializer,
-      final URL localHost
+      final URL localHost,
+      final String applicationId,
+      final Optional<Metrics> metrics,
+      final Time time,
+      final RebalanceWaits waits
   ) {
     this.kafkaStreams = requireNonNull(kafkaStreams, "kafkaStreams");
     this.keySerializer = requireNonNull(keySerializer, "keySerializer");
     this.stateStoreName = requireNonNull(stateStoreName, "stateStoreName");
     this.localHost = requireNonNull(localHost, "localHost");
+    this.metrics = requireNonNull(metrics, "metrics");
+    this.time = requireNonNull(time, "time");
+    this.waits = requireNonNull(waits, "waits");
+    requireNonNull(applicationId, "applicationId");
+    this.metricNames = metrics
+        .map(m -> buildMetricNames(m, applicationId))
+        .orElse(ImmutableList.of());
   }
 
   @Override
   public Optional<KsqlNode> locate(final Struct key) {
+    final RoutingTable table = routingTable;
+    if (table != null) {
+      return Optional.of(table.owner(partition(table.topic, key, table.owners.length)));
+    }
+
+    misses.incrementAndGet();
+
+    final long expectedGeneration = currentGeneration();
+    final SourceTopicCapture capture = new SourceTopicCapture();
     final StreamsMetadata metadata = kafkaStreams
-        .metadataForKey(stateStoreName, key, keySerializer);
+        .metadataForKey(stateStoreName, key, capture);
 
-    if (metadata == StreamsMetadata.NOT_AVAILABLE) {
+    if (metadata == null || metadata == StreamsMetadata.NOT_AVAILABLE) {
       return Optional.empty();
     }
 
+    if (capture.topic != null) {
+      buildRoutingTable(capture.topic, capture.numPartitions)
+          .ifPresent(built -> install(built, expectedGeneration));
+    }
+
     final HostInfo hostInfo = metadata.hostInfo();
     return Optional.of(asNode(hostInfo));
   }
 
+  @Override
+  public List<KsqlNode> locateAll() {
+    final RoutingTable table = routingTable;
+    if (table != null) {
+      return table.nodes;
+    }
+
+    return kafkaStreams.allMetadataForStore(stateStoreName).stream()
+        .map(StreamsMetadata::hostInfo)
+        .map(this::asNode)
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  public Optional<KsqlNode> locate(final Struct key, final long timeoutMs) {
+    return await(() -> locate(key), Optional::isPresent, timeoutMs);
+  }
+
+  @Override
+  public List<KsqlNode> locateAll(final long timeoutMs) {
+    return await(this::locateAll, nodes -> !nodes.isEmpty(), timeoutMs);
+  }
+
+  @Override
+  public void onChange(final State newState, final State oldState) {
+    synchronized (this) {
+      generation++;
+      routingTable = null;
+      notifyAll();
+    }
+
+    // Metrics are only registered once the query is started, as queries built in a sandbox
+    // are never started, and would otherwise clash with the real query's metrics:
+    if (oldState == State.CREATED) {
+      metrics.ifPresent(this::registerMetrics);
+    }
+
+    if (newState == State.NOT_RUNNING) {
+      metrics.ifPresent(m -> metricNames.forEach(m::removeMetric));
+    }
+  }
+
+  private synchronized long currentGeneration() {
+    return generation;
+  }
+
+  private <T> T await(
+      final Supplier<T> lookup,
+      final Predicate<T> found,
+      final long timeoutMs
+  ) {
+    long seenGeneration = currentGeneration();
+    T result = lookup.get();
+    if (found.test(result)) {
+      return result;
+    }
+
+    final long start = time.milliseconds();
+    final long threshold = start + timeoutMs;
+    boolean timedOut = true;
+
+    waits.begin();
+    try {
+      for (long now = start; now < threshold; now = time.milliseconds()) {
+        awaitChange(seenGeneration, Math.min(threshold - now, MAX_WAIT_MS));
+
+        seenGeneration = currentGeneration();
+        result = lookup.get();
+        if (found.test(result)) {
+          timedOut = false;
+          return result;
+        }
+      }
+
+      return result;
+    } finally {
+      waits.end(time.milliseconds() - start, timedOut);
+    }
+  }
+
+  private synchronized void awaitChange(final long seenGeneration, final long timeoutMs) {
+    if (generation != seenGeneration) {
+      // Changed since the caller last looked:
+      return;
+    }
+
+    try {
+      wait(timeoutMs);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new MaterializationException("Interrupted waiting for owners to be known", e);
+    }
+  }
+
+  private synchronized void install(final RoutingTable table, final long expectedGeneration) {
+    if (generation != expectedGeneration) {
+      // Owners may have changed while the table was being built:
+      return;
+    }
+
+    routingTable = table;
+    refreshes.incrementAndGet();
+  }
+
+  private Optional<RoutingTable> buildRoutingTable(final String topic, final int numPartitions) {
+    final Map<HostInfo, KsqlNode> nodes = new HashMap<>();
+    final KsqlNode[] owners = new KsqlNode[numPartitions];
+
+    for (final StreamsMetadata metadata : kafkaStreams.allMetadataForStore(stateStoreName)) {
+      final KsqlNode node = nodes.computeIfAbsent(metadata.hostInfo(), this::asNode);
+
+      for (final TopicPartition tp : metadata.topicPartitions()) {
+        if (tp.topic().equals(topic) && tp.partition() < numPartitions) {
+          owners[tp.partition()] = node;
+        }
+      }
+    }
+
+    for (final KsqlNode owner : owners) {
+      if (owner == null) {
+        // Not all partitions are assigned, e.g. mid-rebalance:
+        return Optional.empty();
+      }
+    }
+
+    final Set<KsqlNode> distinct = new LinkedHashSet<>(nodes.values());
+    return Optional.of(new RoutingTable(
+        topic,
+        owners,
+        ImmutableList.copyOf(distinct),
+        time.milliseconds()
+    ));
+  }
+
+  private int partition(final String topic, final Struct key, final int numPartitions) {
+    final byte[] keyBytes = keySerializer.serialize(topic, key);
+    return Utils.toPositive(Utils.murmur2(keyBytes)) % numPartitions;
+  }
+
   private KsqlNode asNode(final HostInfo hostInfo) {
     return new Node(
         isLocalHost(hostInfo),
@@ -93,6 +324,77 @@ final class KsLocator implements Locator {
     }
   }
 
+  private List<MetricName> buildMetricNames(final Metrics metrics, final String applicationId) {
+    final Map<String, String> tags = ImmutableMap.of(
+        "query-application-id", applicationId,
+        "store", stateStoreName
+    );
+
+    return ImmutableList.of(
+        metrics.metricName("routing-table-refresh-total", METRIC_GROUP,
+            "The number of times the routing table of the store has been rebuilt.", tags),
+        metrics.metricName("routing-table-miss-total", METRIC_GROUP,
+            "The number of lookups that found no routing table, e.g. after a rebalance.", tags),
+        metrics.metricName("routing-table-age-ms", METRIC_GROUP,
+            "The time since the current routing table was built, or -1 if there is none.", tags)
+    );
+  }
+
+  private void registerMetrics(final Metrics metrics) {
+    metrics.addMetric(metricNames.get(0), (Gauge<Long>) (config, now) -> refreshes.get());
+    metrics.addMetric(metricNames.get(1), (Gauge<Long>) (config, now) -> misses.get());
+    metrics.addMetric(metricNames.get(2), (Gauge<Long>) (config, now) -> {
+      final RoutingTable table = routingTable;
+      return table == null ? -1L : time.milliseconds() - table.builtMs;
+    });
+  }
+
+  private static final class RoutingTable {
+
+    private final String topic;
+    private final KsqlNode[] owners;
+    private final List<KsqlNode> nodes;
+    private final long builtMs;
+
+    private RoutingTable(
+        final String topic,
+        final KsqlNode[] owners,
+        final List<KsqlNode> nodes,
+        final long builtMs
+    ) {
+      this.topic = requireNonNull(topic, "topic");
+      this.owners = requireNonNull(owners, "owners");
+      this.nodes = requireNonNull(nodes, "nodes");
+      this.builtMs = builtMs;
+    }
+
+    KsqlNode owner(final int partition) {
+      return owners[partition];
+    }
+  }
+
+  /**
+   * Partitioner passed to Kafka Streams when locating a key, to capture the source topic and
+   * partition count it hashes keys against.
+   */
+  private final class SourceTopicCapture implements StreamPartitioner<Struct, Object> {
+
+    private String topic;
+    private int numPartitions;
+
+    @Override
+    public Integer partition(
+        final String topic,
+        final Struct key,
+        final Object value,
+        final int numPartitions
+    ) {
+      this.topic = topic;
+      this.numPartitions = numPartitions;
+      return KsLocator.this.partition(topic, key, numPartitions);
+    }
+  }
+
   @Immutable
   private static final class Node implements KsqlNode {
 
@@ -24,19 +24,25 @@ import io.confluent.ksql.execution.streams.materialization.MaterializedWindowedT
 import io.confluent.ksql.model.WindowType;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import java.util.Optional;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.KafkaStreams.State;
 
 /**
  * Kafka Streams impl of {@link Materialization}.
+ *
+ * <p>Must be registered as a state listener of the Kafka Streams app, so that the locator can
+ * drop its cached routing when partitions are reassigned, and the store can wake requests
+ * waiting for a rebalance to complete.
  */
-public final class KsMaterialization implements Materialization {
+public final class KsMaterialization implements Materialization, KafkaStreams.StateListener {
 
   private final Optional<WindowType> windowType;
   private final KsStateStore stateStore;
-  private final Locator locator;
+  private final KsLocator locator;
 
   KsMaterialization(
       final Optional<WindowType> windowType,
-      final Locator locator,
+      final KsLocator locator,
       final KsStateStore stateStore
   ) {
     this.windowType = requireNonNull(windowType, "windowType");
@@ -54,6 +60,12 @@ public final class KsMaterialization implements Materialization {
     return locator;
   }
 
+  @Override
+  public void onChange(final State newState, final State oldState) {
+    locator.onChange(newState, oldState);
+    stateStore.onChange(newState, oldState);
+  }
+
   @Override
   public Optional<WindowType> windowType() {
     return windowType;
@@ -18,7 +18,6 @@ package io.confluent.ksql.execution.streams.materialization.ks;
 import static java.util.Objects.requireNonNull;
 
 import com.google.common.annotations.VisibleForTesting;
-import io.confluent.ksql.execution.streams.materialization.Locator;
 import io.confluent.ksql.model.WindowType;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.util.KsqlConfig;
@@ -89,7 +88,8 @@ public final class KsMaterializationFactory {
         stateStoreName,
         kafkaStreams,
         keySerializer,
-        localHost
+        localHost,
+        String.valueOf(streamsProperties.get(StreamsConfig.APPLICATION_ID_CONFIG))
     );
 
     final KsStateStore stateStore = storeFactory.create(
@@ -127,7 +127,8 @@ public final class KsMaterializationFactory {
         String stateStoreName,
         KafkaStreams kafkaStreams,
         Serializer<Struct> keySerializer,
-        URL localHost
+        URL localHost,
+        String applicationId
     );
   }
 
@@ -145,7 +146,7 @@ public final class KsMaterializationFactory {
 
     KsMaterialization create(
         Optional<WindowType> windowType,
-        Locator locator,
+        KsLocator locator,
         KsStateStore stateStore
     );
   }
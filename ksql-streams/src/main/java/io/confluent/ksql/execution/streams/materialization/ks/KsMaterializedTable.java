@@ -15,13 +15,20 @@
 
 package io.confluent.ksql.execution.streams.materialization.ks;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Range;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.execution.streams.materialization.MaterializationException;
 import io.confluent.ksql.execution.streams.materialization.MaterializedTable;
 import io.confluent.ksql.execution.streams.materialization.Row;
+import io.confluent.ksql.execution.util.StructKeyUtil;
+import io.confluent.ksql.util.SchemaUtil;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.state.KeyValueIterator;
 import org.apache.kafka.streams.state.QueryableStoreTypes;
 import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
 
@@ -50,4 +57,83 @@ class KsMaterializedTable implements MaterializedTable {
       throw new MaterializationException("Failed to get value from materialized table", e);
     }
   }
+
+  @Override
+  public List<Row> getAll(final List<Struct> keys) {
+    try {
+      final ReadOnlyKeyValueStore<Struct, GenericRow> store = stateStore
+          .store(QueryableStoreTypes.keyValueStore());
+
+      final ImmutableList.Builder<Row> builder = ImmutableList.builder();
+
+      for (final Struct key : keys) {
+        final GenericRow value = store.get(key);
+        if (value != null) {
+          builder.add(Row.of(stateStore.schema(), key, value));
+        }
+      }
+
+      return builder.build();
+    } catch (final Exception e) {
+      throw new MaterializationException("Failed to get value from materialized table", e);
+    }
+  }
+
+  @Override
+  public List<Row> range(final Range<String> rowKeys) {
+    if (rowKeys.isEmpty()) {
+      return ImmutableList.of();
+    }
+
+    try {
+      final ReadOnlyKeyValueStore<Struct, GenericRow> store = stateStore
+          .store(QueryableStoreTypes.keyValueStore());
+
+      final ImmutableList.Builder<Row> builder = ImmutableList.builder();
+
+      try (KeyValueIterator<Struct, GenericRow> it = fetch(store, rowKeys)) {
+        while (it.hasNext()) {
+          final KeyValue<Struct, GenericRow> next = it.next();
+          final String rowKey = next.key.getString(SchemaUtil.ROWKEY_NAME.name());
+          if (rowKey != null && rowKeys.contains(rowKey)) {
+            builder.add(Row.of(stateStore.schema(), next.key, next.value));
+          }
+        }
+      }
+
+      return builder.build();
+    } catch (final Exception e) {
+      throw new MaterializationException("Failed to scan materialized table", e);
+    }
+  }
+
+  /**
+   * The store's range is inclusive at both ends and requires both, so open and unbounded ends
+   * are handled by the caller filtering the keys returned.
+   *
+   * <p>The store orders keys by their UTF-8 bytes, i.e. by code point, whereas the caller
+   * filters using {@link String#compareTo}, which compares UTF-16 code units. The two orders
+   * only disagree when comparing a supplementary character with one in U+E000 to U+FFFF, so the
+   * store's range is only used if neither endpoint contains a surrogate or a character above
+   * them. Otherwise it could miss keys within the requested range.
+   */
+  private static KeyValueIterator<Struct, GenericRow> fetch(
+      final ReadOnlyKeyValueStore<Struct, GenericRow> store,
+      final Range<String> rowKeys
+  ) {
+    if (!rowKeys.hasLowerBound() || !rowKeys.hasUpperBound()
+        || !isOrderedAsBytes(rowKeys.lowerEndpoint())
+        || !isOrderedAsBytes(rowKeys.upperEndpoint())) {
+      return store.all();
+    }
+
+    return store.range(
+        StructKeyUtil.asStructKey(rowKeys.lowerEndpoint()),
+        StructKeyUtil.asStructKey(rowKeys.upperEndpoint())
+    );
+  }
+
+  private static boolean isOrderedAsBytes(final String endpoint) {
+    return endpoint.chars().allMatch(c -> c < Character.MIN_SURROGATE);
+  }
 }
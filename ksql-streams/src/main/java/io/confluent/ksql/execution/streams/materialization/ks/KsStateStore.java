@@ -30,14 +30,18 @@ import org.apache.kafka.streams.state.QueryableStoreType;
 
 /**
  * Wrapper around Kafka Streams state store.
+ *
+ * <p>Must be registered as a state listener of the Kafka Streams app, so that requests waiting
+ * for a rebalance to complete are woken as soon as it does.
  */
-class KsStateStore {
+class KsStateStore implements KafkaStreams.StateListener {
 
   private final String stateStoreName;
   private final KafkaStreams kafkaStreams;
   private final LogicalSchema schema;
   private final KsqlConfig ksqlConfig;
   private final Supplier<Long> clock;
+  private final RebalanceWaits waits;
 
   KsStateStore(
       final String stateStoreName,
@@ -45,7 +49,14 @@ class KsStateStore {
       final LogicalSchema schema,
       final KsqlConfig ksqlConfig
   ) {
-    this(stateStoreName, kafkaStreams, schema, ksqlConfig, System::currentTimeMillis);
+    this(
+        stateStoreName,
+        kafkaStreams,
+        schema,
+        ksqlConfig,
+        System::currentTimeMillis,
+        RebalanceWaits.SHARED
+    );
   }
 
   @VisibleForTesting
@@ -54,13 +65,15 @@ class KsStateStore {
       final KafkaStreams kafkaStreams,
       final LogicalSchema schema,
       final KsqlConfig ksqlConfig,
-      final Supplier<Long> clock
+      final Supplier<Long> clock,
+      final RebalanceWaits waits
   ) {
     this.kafkaStreams = requireNonNull(kafkaStreams, "kafkaStreams");
     this.stateStoreName = requireNonNull(stateStoreName, "stateStoreName");
     this.schema = requireNonNull(schema, "schema");
     this.ksqlConfig = requireNonNull(ksqlConfig, "ksqlConfig");
     this.clock = requireNonNull(clock, "clock");
+    this.waits = requireNonNull(waits, "waits");
 
     if (!schema.metadata().isEmpty()) {
       throw new IllegalArgumentException("Kafka Streams state stores do no expose meta columns");
@@ -86,18 +99,43 @@ class KsStateStore {
     }
   }
 
-  private void awaitRunning() {
+  @Override
+  public synchronized void onChange(final State newState, final State oldState) {
+    notifyAll();
+  }
+
+  private synchronized void awaitRunning() {
+    if (kafkaStreams.state() != State.REBALANCING) {
+      return;
+    }
+
     final long timeoutMs =
         ksqlConfig.getLong(KsqlConfig.KSQL_QUERY_PULL_STREAMSTORE_REBALANCING_TIMEOUT_MS_CONFIG);
-    final long threshold = clock.get() + timeoutMs;
-    while (kafkaStreams.state() == State.REBALANCING) {
-      if (clock.get() > threshold) {
-        throw new MaterializationTimeOutException("Store failed to rebalance within the configured "
-            + "timeout. timeout: " + timeoutMs + "ms, config: "
-            + KsqlConfig.KSQL_QUERY_PULL_STREAMSTORE_REBALANCING_TIMEOUT_MS_CONFIG);
-      }
+    final long start = clock.get();
+    final long threshold = start + timeoutMs;
+    boolean timedOut = false;
+
+    waits.begin();
+    try {
+      while (kafkaStreams.state() == State.REBALANCING) {
+        final long now = clock.get();
+        if (now > threshold) {
+          timedOut = true;
+          throw new MaterializationTimeOutException("Store failed to rebalance within the "
+              + "configured timeout. timeout: " + timeoutMs + "ms, config: "
+              + KsqlConfig.KSQL_QUERY_PULL_STREAMSTORE_REBALANCING_TIMEOUT_MS_CONFIG);
+        }
 
-      Thread.yield();
+        try {
+          // Woken by onChange, rather than spinning until the state changes:
+          wait(Math.max(1, threshold - now));
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new MaterializationException("Interrupted waiting for store to rebalance", e);
+        }
+      }
+    } finally {
+      waits.end(clock.get() - start, timedOut);
     }
   }
 }
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.streams.materialization.ks;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.confluent.ksql.metrics.MetricCollectors;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.kafka.common.metrics.Gauge;
+import org.apache.kafka.common.metrics.Metrics;
+
+/**
+ * Tracks pull query requests waiting for a rebalance to complete, either to locate the owner of
+ * the data or for the local store to be queryable again.
+ */
+final class RebalanceWaits {
+
+  private static final String METRIC_GROUP = "ksql-pull-queries";
+
+  static final RebalanceWaits SHARED =
+      new RebalanceWaits(Optional.of(MetricCollectors.getMetrics()));
+
+  private final AtomicLong waiting = new AtomicLong();
+  private final AtomicLong waits = new AtomicLong();
+  private final AtomicLong timeouts = new AtomicLong();
+  private final AtomicLong waitTimeMs = new AtomicLong();
+
+  @VisibleForTesting
+  RebalanceWaits(final Optional<Metrics> metrics) {
+    metrics.ifPresent(this::registerMetrics);
+  }
+
+  /**
+   * Called as a request starts to wait.
+   */
+  void begin() {
+    waiting.incrementAndGet();
+  }
+
+  /**
+   * Called as a request stops waiting.
+   *
+   * @param waitedMs how long the request waited.
+   * @param timedOut {@code true} if the request gave up waiting.
+   */
+  void end(final long waitedMs, final boolean timedOut) {
+    waiting.decrementAndGet();
+    waits.incrementAndGet();
+    waitTimeMs.addAndGet(Math.max(0, waitedMs));
+    if (timedOut) {
+      timeouts.incrementAndGet();
+    }
+  }
+
+  @VisibleForTesting
+  long waiting() {
+    return waiting.get();
+  }
+
+  @VisibleForTesting
+  long waits() {
+    return waits.get();
+  }
+
+  @VisibleForTesting
+  long timeouts() {
+    return timeouts.get();
+  }
+
+  private void registerMetrics(final Metrics metrics) {
+    metrics.addMetric(
+        metrics.metricName("rebalance-waiting-requests", METRIC_GROUP,
+            "The number of pull queries currently waiting for a rebalance to complete."),
+        (Gauge<Long>) (config, now) -> waiting.get()
+    );
+
+    metrics.addMetric(
+        metrics.metricName("rebalance-wait-total", METRIC_GROUP,
+            "The number of pull queries that have waited for a rebalance to complete."),
+        (Gauge<Long>) (config, now) -> waits.get()
+    );
+
+    metrics.addMetric(
+        metrics.metricName("rebalance-wait-timeout-total", METRIC_GROUP,
+            "The number of pull queries that timed out waiting for a rebalance to complete."),
+        (Gauge<Long>) (config, now) -> timeouts.get()
+    );
+
+    metrics.addMetric(
+        metrics.metricName("rebalance-wait-time-ms-total", METRIC_GROUP,
+            "The total time pull queries have spent waiting for rebalances to complete."),
+        (Gauge<Long>) (config, now) -> waitTimeMs.get()
+    );
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.streams;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.emptyIterable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.codegen.RowProjector;
+import io.confluent.ksql.execution.codegen.RowProjector.ErrorHandler;
+import io.confluent.ksql.execution.expression.tree.BooleanLiteral;
+import io.confluent.ksql.execution.expression.tree.StringLiteral;
+import io.confluent.ksql.execution.streams.SelectValueMapper.SelectInfo;
+import io.confluent.ksql.logging.processing.ProcessingLogger;
+import io.confluent.ksql.name.ColumnName;
+import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import java.util.List;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+public class FilterSelectValueMapperTest {
+
+  private static final GenericRow ROW = new GenericRow(ImmutableList.of(1234, 0, "hotdog"));
+
+  private static final List<SelectInfo> SELECTS = ImmutableList.of(
+      SelectInfo.of(ColumnName.of("a"), new StringLiteral("x"), SqlTypes.STRING),
+      SelectInfo.of(ColumnName.of("b"), new StringLiteral("y"), SqlTypes.STRING)
+  );
+
+  @Mock
+  private ProcessingLogger filterLogger;
+  @Mock
+  private ProcessingLogger selectLogger;
+  @Mock
+  private RowProjector projector;
+  @Mock
+  private Struct key;
+
+  @Rule
+  public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+  private FilterSelectValueMapper<Struct> mapper;
+
+  @Before
+  public void setUp() {
+    mapper = new FilterSelectValueMapper<>(
+        projector,
+        new BooleanLiteral("true"),
+        filterLogger,
+        SELECTS,
+        selectLogger
+    );
+  }
+
+  @Test
+  public void shouldReturnProjectedRow() {
+    // Given:
+    when(projector.project(eq(ROW), any())).thenReturn(ImmutableList.of(100, "hotdog"));
+
+    // When:
+    final Iterable<GenericRow> result = mapper.transform(key, ROW);
+
+    // Then:
+    assertThat(result, contains(new GenericRow(ImmutableList.of(100, "hotdog"))));
+  }
+
+  @Test
+  public void shouldReturnNothingIfRowFilteredOut() {
+    // Given:
+    when(projector.project(eq(ROW), any())).thenReturn(null);
+
+    // When:
+    final Iterable<GenericRow> result = mapper.transform(key, ROW);
+
+    // Then:
+    assertThat(result, emptyIterable());
+  }
+
+  @Test
+  public void shouldReturnNothingForNullRow() {
+    // When:
+    final Iterable<GenericRow> result = mapper.transform(key, null);
+
+    // Then:
+    assertThat(result, emptyIterable());
+    verify(projector, never()).project(any(), any());
+  }
+
+  @Test
+  public void shouldLogFilterErrorsToFilterLogger() {
+    // Given:
+    final RuntimeException e = new RuntimeException("Boom");
+    givenProjectorFails(RowProjector.FILTER_INDEX, e);
+
+    // When:
+    mapper.transform(key, ROW);
+
+    // Then:
+    verify(filterLogger).error(any());
+    verify(selectLogger, never()).error(any());
+  }
+
+  @Test
+  public void shouldLogProjectionErrorsToSelectLogger() {
+    // Given:
+    final RuntimeException e = new RuntimeException("Boom");
+    givenProjectorFails(1, e);
+
+    // When:
+    mapper.transform(key, ROW);
+
+    // Then:
+    verify(selectLogger).error(any());
+    verify(filterLogger, never()).error(any());
+  }
+
+  private void givenProjectorFails(final int index, final Exception e) {
+    when(projector.project(eq(ROW), any())).thenAnswer(inv -> {
+      final ErrorHandler errorHandler = inv.getArgument(1);
+      errorHandler.onError(index, e);
+      return null;
+    });
+  }
+}
@@ -75,6 +75,34 @@ public class GroupByMapperTest {
     assertThat(result, is(StructKeyUtil.asStructKey("result0|+|result1")));
   }
 
+  @Test
+  public void shouldGenerateGroupByKeyFromNumericValues() {
+    // Given:
+    EasyMock.expect(groupBy0.evaluate(row)).andReturn(10L);
+    EasyMock.expect(groupBy1.evaluate(row)).andReturn(-3);
+    EasyMock.replay(groupBy0, groupBy1);
+
+    // When:
+    final Struct result = mapper.apply(StructKeyUtil.asStructKey("key"), row);
+
+    // Then:
+    assertThat(result, is(StructKeyUtil.asStructKey("10|+|-3")));
+  }
+
+  @Test
+  public void shouldGenerateGroupByKeyFromSingleExpression() {
+    // Given:
+    mapper = new GroupByMapper<>(ImmutableList.of(groupBy0));
+    EasyMock.expect(groupBy0.evaluate(row)).andReturn(1.5);
+    EasyMock.replay(groupBy0);
+
+    // When:
+    final Struct result = mapper.apply(StructKeyUtil.asStructKey("key"), row);
+
+    // Then:
+    assertThat(result, is(StructKeyUtil.asStructKey("1.5")));
+  }
+
   @Test
   public void shouldSupportNullValues() {
     // Given:
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.streams;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.builder.KsqlQueryBuilder;
+import io.confluent.ksql.execution.context.QueryContext;
+import io.confluent.ksql.execution.expression.tree.BooleanLiteral;
+import io.confluent.ksql.execution.expression.tree.IntegerLiteral;
+import io.confluent.ksql.execution.expression.tree.StringLiteral;
+import io.confluent.ksql.execution.plan.ExecutionStep;
+import io.confluent.ksql.execution.plan.ExecutionStepProperties;
+import io.confluent.ksql.execution.plan.KStreamHolder;
+import io.confluent.ksql.execution.plan.SelectExpression;
+import io.confluent.ksql.execution.plan.StreamFilter;
+import io.confluent.ksql.execution.plan.StreamMapValues;
+import io.confluent.ksql.execution.plan.StreamSource;
+import io.confluent.ksql.function.FunctionRegistry;
+import io.confluent.ksql.logging.processing.ProcessingLogContext;
+import io.confluent.ksql.logging.processing.ProcessingLogger;
+import io.confluent.ksql.logging.processing.ProcessingLoggerFactory;
+import io.confluent.ksql.name.ColumnName;
+import io.confluent.ksql.name.SourceName;
+import io.confluent.ksql.query.QueryId;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import io.confluent.ksql.util.KsqlConfig;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+@SuppressWarnings("unchecked")
+public class PushQueryMapperTest {
+
+  private static final LogicalSchema SCHEMA = new LogicalSchema.Builder()
+      .valueColumn(ColumnName.of("foo"), SqlTypes.STRING)
+      .valueColumn(ColumnName.of("bar"), SqlTypes.BIGINT)
+      .build()
+      .withMetaAndKeyColsInValue()
+      .withAlias(SourceName.of("alias"));
+
+  private static final List<SelectExpression> SELECT_EXPRESSIONS = ImmutableList.of(
+      SelectExpression.of(ColumnName.of("expr1"), new StringLiteral("baz")),
+      SelectExpression.of(ColumnName.of("expr2"), new IntegerLiteral(123))
+  );
+
+  private static final GenericRow ROW = new GenericRow(Arrays.asList(1L, "k", "foo", 10L));
+  private static final GenericRow RESULT = new GenericRow(ImmutableList.of("baz", 123));
+
+  @Mock
+  private StreamSource source;
+  @Mock
+  private ExecutionStepProperties sourceProperties;
+  @Mock
+  private ExecutionStepProperties filterProperties;
+  @Mock
+  private ExecutionStepProperties properties;
+  @Mock
+  private KsqlQueryBuilder queryBuilder;
+  @Mock
+  private ProcessingLogContext processingLogContext;
+  @Mock
+  private ProcessingLoggerFactory processingLoggerFactory;
+  @Mock
+  private Struct key;
+
+  @Rule
+  public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+  private final QueryContext context = new QueryContext.Stacker().getQueryContext();
+
+  @Before
+  public void setUp() {
+    when(source.getProperties()).thenReturn(sourceProperties);
+    when(sourceProperties.getSchema()).thenReturn(SCHEMA);
+    when(filterProperties.getQueryContext()).thenReturn(context);
+    when(properties.getQueryContext()).thenReturn(context);
+    when(processingLogContext.getLoggerFactory()).thenReturn(processingLoggerFactory);
+    when(processingLoggerFactory.getLogger(any())).thenReturn(mock(ProcessingLogger.class));
+    when(queryBuilder.getQueryId()).thenReturn(new QueryId("qid"));
+    when(queryBuilder.getFunctionRegistry()).thenReturn(mock(FunctionRegistry.class));
+    when(queryBuilder.getProcessingLogContext()).thenReturn(processingLogContext);
+    givenFusedFilterProjection(false);
+  }
+
+  @Test
+  public void shouldNotMapPlanThatIsNotAProjection() {
+    // When:
+    final Optional<PushQueryMapper> mapper = PushQueryMapper.of(source, queryBuilder);
+
+    // Then:
+    assertThat(mapper, is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldNotMapProjectionOfAnythingOtherThanSource() {
+    // Given:
+    final ExecutionStep<KStreamHolder<Struct>> other = mock(ExecutionStep.class);
+
+    // When:
+    final Optional<PushQueryMapper> mapper = PushQueryMapper.of(project(other), queryBuilder);
+
+    // Then:
+    assertThat(mapper, is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldNotMapFilterOfAnythingOtherThanSource() {
+    // Given:
+    final ExecutionStep<KStreamHolder<Struct>> other = mock(ExecutionStep.class);
+
+    // When:
+    final Optional<PushQueryMapper> mapper =
+        PushQueryMapper.of(project(filter(other, true)), queryBuilder);
+
+    // Then:
+    assertThat(mapper, is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldExposeSource() {
+    // When:
+    final PushQueryMapper mapper = PushQueryMapper.of(project(source), queryBuilder).get();
+
+    // Then:
+    assertThat(mapper.getSource(), is(source));
+  }
+
+  @Test
+  public void shouldProjectRows() {
+    // Given:
+    final PushQueryMapper mapper = PushQueryMapper.of(project(source), queryBuilder).get();
+
+    // When:
+    final GenericRow result = mapper.apply(key, ROW);
+
+    // Then:
+    assertThat(result, is(RESULT));
+  }
+
+  @Test
+  public void shouldFilterAndProjectRows() {
+    // Given:
+    final PushQueryMapper passes =
+        PushQueryMapper.of(project(filter(source, true)), queryBuilder).get();
+    final PushQueryMapper fails =
+        PushQueryMapper.of(project(filter(source, false)), queryBuilder).get();
+
+    // Then:
+    assertThat(passes.apply(key, ROW), is(RESULT));
+    assertThat(fails.apply(key, ROW), is(nullValue()));
+  }
+
+  @Test
+  public void shouldFilterAndProjectRowsInOneStepIfFused() {
+    // Given:
+    givenFusedFilterProjection(true);
+    final PushQueryMapper passes =
+        PushQueryMapper.of(project(filter(source, true)), queryBuilder).get();
+    final PushQueryMapper fails =
+        PushQueryMapper.of(project(filter(source, false)), queryBuilder).get();
+
+    // Then:
+    assertThat(passes.apply(key, ROW), is(RESULT));
+    assertThat(fails.apply(key, ROW), is(nullValue()));
+  }
+
+  @Test
+  public void shouldNotMapNullRows() {
+    // Given:
+    final PushQueryMapper mapper = PushQueryMapper.of(project(source), queryBuilder).get();
+
+    // Then:
+    assertThat(mapper.apply(key, null), is(nullValue()));
+  }
+
+  private void givenFusedFilterProjection(final boolean fused) {
+    when(queryBuilder.getKsqlConfig()).thenReturn(new KsqlConfig(ImmutableMap.of(
+        KsqlConfig.KSQL_QUERY_FILTER_PROJECTION_FUSED_ENABLE_CONFIG, fused
+    )));
+  }
+
+  private StreamFilter<Struct> filter(
+      final ExecutionStep<KStreamHolder<Struct>> filterSource,
+      final boolean passes
+  ) {
+    when(filterProperties.getSchema()).thenReturn(SCHEMA);
+    return new StreamFilter<>(
+        filterProperties,
+        filterSource,
+        new BooleanLiteral(String.valueOf(passes))
+    );
+  }
+
+  private StreamMapValues<Struct> project(final ExecutionStep<KStreamHolder<Struct>> mapSource) {
+    return new StreamMapValues<>(
+        properties,
+        mapSource,
+        SELECT_EXPRESSIONS,
+        "StepName"
+    );
+  }
+}
@@ -19,17 +19,20 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.execution.codegen.CodeGenRunner;
 import io.confluent.ksql.execution.codegen.ExpressionMetadata;
+import io.confluent.ksql.execution.codegen.RowProjector;
 import io.confluent.ksql.execution.expression.tree.Expression;
 import io.confluent.ksql.execution.plan.SelectExpression;
 import io.confluent.ksql.execution.streams.SelectValueMapper.SelectInfo;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
 import io.confluent.ksql.name.ColumnName;
+import io.confluent.ksql.schema.ksql.types.SqlTypes;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -54,6 +57,8 @@ public class SelectValueMapperFactoryTest {
   @Mock
   private ExpressionMetadata md_1;
   @Mock
+  private RowProjector projector;
+  @Mock
   private ProcessingLogger processingLogger;
 
   private SelectValueMapperFactory factory;
@@ -84,6 +89,44 @@ public class SelectValueMapperFactoryTest {
     ));
   }
 
+  @Test
+  public void shouldBuildProjectorIfFused() {
+    // Given:
+    givenFused();
+
+    // When:
+    factory.create(ImmutableList.of(select_0, select_1), processingLogger, true);
+
+    // Then:
+    verify(codeGenerator).buildRowProjector(ImmutableList.of(exp_0, exp_1), "Select");
+  }
+
+  @Test
+  public void shouldBuildSelectsWithoutCompilingThemIfFused() {
+    // Given:
+    givenFused();
+
+    // When:
+    final SelectValueMapper<?> mapper = factory
+        .create(ImmutableList.of(select_0, select_1), processingLogger, true);
+
+    // Then:
+    assertThat(mapper.getSelects(), contains(
+        SelectInfo.of(ColumnName.of("field_0"), exp_0, SqlTypes.STRING),
+        SelectInfo.of(ColumnName.of("field_1"), exp_1, SqlTypes.BIGINT)
+    ));
+    verify(codeGenerator, never()).buildCodeGenFromParseTree(any(), any());
+  }
+
+  @Test
+  public void shouldNotBuildProjectorIfNotFused() {
+    // When:
+    factory.create(ImmutableList.of(select_0, select_1), processingLogger, false);
+
+    // Then:
+    verify(codeGenerator, never()).buildRowProjector(any(), any());
+  }
+
   @Test
   public void shouldInvokeCodeGenWithCorrectExpressionType() {
     // When:
@@ -92,4 +135,10 @@ public class SelectValueMapperFactoryTest {
     // Then:
     verify(codeGenerator).buildCodeGenFromParseTree(any(), eq("Select"));
   }
-}
\ No newline at end of file
+
+  private void givenFused() {
+    when(codeGenerator.buildRowProjector(any(), any())).thenReturn(projector);
+    when(codeGenerator.getExpressionType(exp_0)).thenReturn(SqlTypes.STRING);
+    when(codeGenerator.getExpressionType(exp_1)).thenReturn(SqlTypes.BIGINT);
+  }
+}
@@ -5,20 +5,28 @@ import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.execution.codegen.ExpressionMetadata;
+import io.confluent.ksql.execution.codegen.RowProjector;
+import io.confluent.ksql.execution.codegen.RowProjector.ErrorHandler;
 import io.confluent.ksql.execution.expression.tree.FunctionCall;
+import io.confluent.ksql.execution.expression.tree.StringLiteral;
 import io.confluent.ksql.logging.processing.ProcessingLogConfig;
 import io.confluent.ksql.logging.processing.ProcessingLogMessageSchema;
 import io.confluent.ksql.logging.processing.ProcessingLogMessageSchema.MessageType;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
 import io.confluent.ksql.name.ColumnName;
 import io.confluent.ksql.name.FunctionName;
+import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Optional;
 import java.util.function.Function;
 import org.apache.kafka.connect.data.SchemaAndValue;
 import org.apache.kafka.connect.data.Struct;
@@ -34,6 +42,7 @@ public class SelectValueMapperTest {
   private static final ColumnName NAME0 = ColumnName.of("apple");
   private static final ColumnName NAME1 = ColumnName.of("cherry");
   private static final ColumnName NAME2 = ColumnName.of("banana");
+  private static final StringLiteral EXPRESSION = new StringLiteral("kumquat");
   private static final GenericRow ROW = new GenericRow(ImmutableList.of(1234, 0, "hotdog"));
 
   @Mock
@@ -43,6 +52,8 @@ public class SelectValueMapperTest {
   @Mock
   private ExpressionMetadata col2;
   @Mock
+  private RowProjector projector;
+  @Mock
   private ProcessingLogger processingLogger;
 
   private SelectValueMapper<?> selectValueMapper;
@@ -62,6 +73,18 @@ public class SelectValueMapperTest {
     );
   }
 
+  private void givenProjector() {
+    selectValueMapper = new SelectValueMapper<>(
+        ImmutableList.of(
+            SelectValueMapper.SelectInfo.of(NAME0, col0),
+            SelectValueMapper.SelectInfo.of(NAME1, col1),
+            SelectValueMapper.SelectInfo.of(NAME2, col2)
+        ),
+        Optional.of(projector),
+        processingLogger
+    );
+  }
+
   private void givenEvaluations(final Object result0, final Object result1, final Object result2) {
     when(col0.evaluate(any())).thenReturn(result0);
     when(col1.evaluate(any())).thenReturn(result1);
@@ -80,6 +103,65 @@ public class SelectValueMapperTest {
     assertThat(result, equalTo(new GenericRow(ImmutableList.of(100, 200, 300))));
   }
 
+  @Test
+  public void shouldEvaluateExpressionsWithProjectorIfPresent() {
+    // Given:
+    givenProjector();
+    when(projector.project(eq(ROW), any())).thenReturn(ImmutableList.of(100, 200, 300));
+
+    // When:
+    final GenericRow result = selectValueMapper.transform(ROW);
+
+    // Then:
+    assertThat(result, equalTo(new GenericRow(ImmutableList.of(100, 200, 300))));
+    verify(col0, never()).evaluate(any());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldWriteProcessingLogOnProjectorError() {
+    // Given:
+    givenProjector();
+    when(col1.getExpression()).thenReturn(
+        new FunctionCall(FunctionName.of("kumquat"), ImmutableList.of())
+    );
+    when(projector.project(eq(ROW), any())).thenAnswer(inv -> {
+      final ErrorHandler errorHandler = inv.getArgument(1);
+      errorHandler.onError(1, new RuntimeException("oops"));
+      return Arrays.asList(100, null, 300);
+    });
+
+    // When:
+    final GenericRow result = selectValueMapper.transform(ROW);
+
+    // Then:
+    assertThat(result, equalTo(new GenericRow(Arrays.asList(100, null, 300))));
+
+    final ArgumentCaptor<Function<ProcessingLogConfig, SchemaAndValue>> captor
+        = ArgumentCaptor.forClass(Function.class);
+    verify(processingLogger).error(captor.capture());
+    final Struct struct = (Struct) captor.getValue()
+        .apply(new ProcessingLogConfig(Collections.emptyMap()))
+        .value();
+    final Struct errorStruct
+        = struct.getStruct(ProcessingLogMessageSchema.RECORD_PROCESSING_ERROR);
+    assertThat(
+        errorStruct.get(ProcessingLogMessageSchema.RECORD_PROCESSING_ERROR_FIELD_MESSAGE),
+        equalTo(
+            "Error computing expression kumquat() "
+                + "for column cherry with index 1: oops")
+    );
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldThrowIfSelectsNotCompiledAndNoProjector() {
+    // When:
+    new SelectValueMapper<>(
+        ImmutableList.of(SelectValueMapper.SelectInfo.of(NAME0, EXPRESSION, SqlTypes.STRING)),
+        processingLogger
+    );
+  }
+
   @Test
   public void shouldHandleNullRows() {
     // When:
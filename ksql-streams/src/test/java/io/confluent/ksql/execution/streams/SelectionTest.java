@@ -96,10 +96,10 @@ public class SelectionTest {
     // Then:
     final List<SelectInfo> selectInfos = mapper.getSelects();
     assertThat(
-        selectInfos.get(0).evaluator.getExpression(),
+        selectInfos.get(0).getExpression(),
         equalTo(EXPRESSION1));
     assertThat(
-        selectInfos.get(1).evaluator.getExpression(),
+        selectInfos.get(1).getExpression(),
         equalTo(EXPRESSION2));
   }
 
@@ -189,7 +189,7 @@ public class StreamAggregateBuilderTest {
   public void init() {
     when(sourceStep.build(any())).thenReturn(KGroupedStreamHolder.of(groupedStream, INPUT_SCHEMA));
     when(queryBuilder.buildKeySerde(any(), any(), any())).thenReturn(keySerde);
-    when(queryBuilder.buildValueSerde(any(), any(), any())).thenReturn(valueSerde);
+    when(queryBuilder.buildStateSerde(any(), any(), any())).thenReturn(valueSerde);
     when(queryBuilder.getFunctionRegistry()).thenReturn(functionRegistry);
     when(aggregateParamsFactory.create(any(), anyInt(), any(), any()))
         .thenReturn(aggregateParams);
@@ -371,7 +371,7 @@ public class StreamAggregateBuilderTest {
     aggregate.build(planBuilder);
 
     // Then:
-    verify(queryBuilder).buildValueSerde(
+    verify(queryBuilder).buildStateSerde(
         VALUE_FORMAT.getFormatInfo(),
         PHYSICAL_AGGREGATE_SCHEMA,
         CTX
@@ -551,7 +551,7 @@ public class StreamAggregateBuilderTest {
 
       // Then:
       verify(queryBuilder)
-          .buildValueSerde(VALUE_FORMAT.getFormatInfo(), PHYSICAL_AGGREGATE_SCHEMA, CTX);
+          .buildStateSerde(VALUE_FORMAT.getFormatInfo(), PHYSICAL_AGGREGATE_SCHEMA, CTX);
     }
   }
 
@@ -22,6 +22,7 @@ import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -29,6 +30,7 @@ import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.execution.builder.KsqlQueryBuilder;
 import io.confluent.ksql.execution.context.QueryContext;
+import io.confluent.ksql.execution.expression.tree.BooleanLiteral;
 import io.confluent.ksql.execution.expression.tree.Expression;
 import io.confluent.ksql.execution.expression.tree.IntegerLiteral;
 import io.confluent.ksql.execution.expression.tree.StringLiteral;
@@ -38,6 +40,7 @@ import io.confluent.ksql.execution.plan.KStreamHolder;
 import io.confluent.ksql.execution.plan.KeySerdeFactory;
 import io.confluent.ksql.execution.plan.PlanBuilder;
 import io.confluent.ksql.execution.plan.SelectExpression;
+import io.confluent.ksql.execution.plan.StreamFilter;
 import io.confluent.ksql.execution.plan.StreamMapValues;
 import io.confluent.ksql.function.FunctionRegistry;
 import io.confluent.ksql.logging.processing.ProcessingLogContext;
@@ -107,7 +110,14 @@ public class StreamMapValuesBuilderTest {
   @Captor
   private ArgumentCaptor<ValueTransformerWithKeySupplier<Struct, GenericRow, GenericRow>> mapperCaptor;
   @Captor
+  private ArgumentCaptor<ValueTransformerWithKeySupplier<Struct, GenericRow, Iterable<GenericRow>>>
+      flatMapperCaptor;
+  @Captor
   private ArgumentCaptor<Named> nameCaptor;
+  @Mock
+  private ExecutionStepProperties filterProperties;
+  @Mock
+  private SqlPredicateFactory sqlPredicateFactory;
 
   @Rule
   public final MockitoRule mockitoRule = MockitoJUnit.rule();
@@ -144,7 +154,7 @@ public class StreamMapValuesBuilderTest {
     );
     planBuilder = new KSPlanBuilder(
         queryBuilder,
-        mock(SqlPredicateFactory.class),
+        sqlPredicateFactory,
         mock(AggregateParamsFactory.class),
         mock(StreamsFactories.class)
     );
@@ -161,9 +171,9 @@ public class StreamMapValuesBuilderTest {
     final SelectValueMapper<?> mapper = (SelectValueMapper) mapperCaptor.getValue().get();
     assertThat(mapper.getSelects(), hasSize(2));
     assertThat(mapper.getSelects().get(0).fieldName, equalTo(ColumnName.of("expr1")));
-    assertThat(mapper.getSelects().get(0).evaluator.getExpression(), equalTo(EXPRESSION1));
+    assertThat(mapper.getSelects().get(0).getExpression(), equalTo(EXPRESSION1));
     assertThat(mapper.getSelects().get(1).fieldName, equalTo(ColumnName.of("expr2")));
-    assertThat(mapper.getSelects().get(1).evaluator.getExpression(), equalTo(EXPRESSION2));
+    assertThat(mapper.getSelects().get(1).getExpression(), equalTo(EXPRESSION2));
   }
 
   @Test
@@ -190,6 +200,42 @@ public class StreamMapValuesBuilderTest {
     assertThat(NamedTestAccessor.getName(nameCaptor.getValue()), is(SELECT_STEP_NAME + "-unique"));
   }
 
+  @Test
+  public void shouldFuseWithSourceFilterIfEnabled() {
+    // Given:
+    final StreamFilter<Struct> filterStep = new StreamFilter<>(
+        filterProperties,
+        sourceStep,
+        new BooleanLiteral("true")
+    );
+    final StreamMapValues<Struct> fusedStep = new StreamMapValues<>(
+        properties,
+        filterStep,
+        SELECT_EXPRESSIONS,
+        SELECT_STEP_NAME
+    );
+    when(filterProperties.getSchema()).thenReturn(SCHEMA);
+    when(filterProperties.getQueryContext()).thenReturn(context);
+    when(ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_FILTER_PROJECTION_FUSED_ENABLE_CONFIG))
+        .thenReturn(true);
+    when(sourceKStream.flatTransformValues(
+        any(ValueTransformerWithKeySupplier.class), any(Named.class)))
+        .thenReturn(resultKStream);
+
+    // When:
+    final KStreamHolder<Struct> result = fusedStep.build(planBuilder);
+
+    // Then:
+    verify(sourceKStream).flatTransformValues(flatMapperCaptor.capture(), nameCaptor.capture());
+    assertThat(flatMapperCaptor.getValue().get(), instanceOf(FilterSelectValueMapper.class));
+    assertThat(NamedTestAccessor.getName(nameCaptor.getValue()), is(SELECT_STEP_NAME + "-unique"));
+    verify(sourceKStream, never()).filter(any());
+    verify(sqlPredicateFactory, never()).create(any(), any(), any(), any(), any());
+    verify(sourceKStream, never()).transformValues(
+        any(ValueTransformerWithKeySupplier.class), any(Named.class));
+    assertThat(result.getStream(), is(resultKStream));
+  }
+
   public void shouldReturnCorrectSchema() {
     // When:
     final KStreamHolder<Struct> result = step.build(planBuilder);
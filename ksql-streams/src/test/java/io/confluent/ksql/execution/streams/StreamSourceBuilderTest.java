@@ -296,6 +296,35 @@ public class StreamSourceBuilderTest {
     verify(queryBuilder).buildValueSerde(valueFormatInfo, PHYSICAL_SCHEMA, ctx);
   }
 
+  @Test
+  public void shouldBuildSourceValueSerdeWithRequiredColumns() {
+    // Given:
+    when(queryBuilder.buildValueSerde(any(), any(), any(), any())).thenReturn(valueSerde);
+    when(keyFormat.getWindowInfo()).thenReturn(Optional.empty());
+    streamSource = new StreamSource(
+        new DefaultExecutionStepProperties(SCHEMA, ctx),
+        TOPIC_NAME,
+        Formats.of(keyFormat, valueFormat, SERDE_OPTIONS),
+        extractionPolicy,
+        TIMESTAMP_IDX,
+        offsetReset,
+        SOURCE_SCHEMA,
+        ALIAS,
+        Optional.of(ImmutableList.of(ColumnName.of("field2")))
+    );
+
+    // When:
+    streamSource.build(planBuilder);
+
+    // Then:
+    verify(queryBuilder).buildValueSerde(
+        valueFormatInfo,
+        PHYSICAL_SCHEMA,
+        ctx,
+        ImmutableList.of(ColumnName.of("field2"))
+    );
+  }
+
   @Test
   public void shouldBuildSourceKeySerdeCorrectly() {
     // Given:
@@ -341,7 +370,8 @@ public class StreamSourceBuilderTest {
             .keyColumn(ColumnName.of("f2"), SqlTypes.BIGINT)
             .valueColumns(SCHEMA.value())
             .build(),
-        ALIAS
+        ALIAS,
+        Optional.empty()
     );
 
     // Then:
@@ -505,7 +535,8 @@ public class StreamSourceBuilderTest {
         TIMESTAMP_IDX,
         offsetReset,
         SOURCE_SCHEMA,
-        ALIAS
+        ALIAS,
+        Optional.empty()
     );
   }
 
@@ -519,7 +550,8 @@ public class StreamSourceBuilderTest {
         TIMESTAMP_IDX,
         offsetReset,
         SOURCE_SCHEMA,
-        ALIAS
+        ALIAS,
+        Optional.empty()
     );
   }
 
@@ -148,7 +148,7 @@ public class TableAggregateBuilderTest {
   @SuppressWarnings("unchecked")
   public void init() {
     when(queryBuilder.buildKeySerde(any(), any(), any())).thenReturn(keySerde);
-    when(queryBuilder.buildValueSerde(any(), any(), any())).thenReturn(valueSerde);
+    when(queryBuilder.buildStateSerde(any(), any(), any())).thenReturn(valueSerde);
     when(queryBuilder.getFunctionRegistry()).thenReturn(functionRegistry);
     when(aggregateParamsFactory.createUndoable(any(), anyInt(), any(), any()))
         .thenReturn(aggregateParams);
@@ -239,7 +239,7 @@ public class TableAggregateBuilderTest {
     aggregate.build(planBuilder);
 
     // Then:
-    verify(queryBuilder).buildValueSerde(
+    verify(queryBuilder).buildStateSerde(
         VALUE_FORMAT.getFormatInfo(),
         PHYSICAL_AGGREGATE_SCHEMA,
         CTX
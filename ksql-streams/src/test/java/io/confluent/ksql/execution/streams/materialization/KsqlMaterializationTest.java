@@ -400,6 +400,64 @@ public class KsqlMaterializationTest {
     assertThat(result.get(2).window(), is(Optional.of(window3)));
   }
 
+  @Test
+  public void shouldCallInnerNonWindowedWithCorrectParamsOnGetAll() {
+    // Given:
+    final MaterializedTable table = materialization.nonWindowed();
+    givenNoopTransforms();
+
+    // When:
+    table.getAll(ImmutableList.of(A_KEY));
+
+    // Then:
+    verify(innerNonWindowed).getAll(ImmutableList.of(A_KEY));
+  }
+
+  @Test
+  public void shouldCallInnerNonWindowedWithCorrectParamsOnRange() {
+    // Given:
+    final MaterializedTable table = materialization.nonWindowed();
+    givenNoopTransforms();
+
+    // When:
+    table.range(Range.closed("a", "z"));
+
+    // Then:
+    verify(innerNonWindowed).range(Range.closed("a", "z"));
+  }
+
+  @Test
+  public void shouldFilterNonWindowedGetAll() {
+    // Given:
+    final MaterializedTable table = materialization.nonWindowed();
+    when(innerNonWindowed.getAll(any())).thenReturn(ImmutableList.of(ROW));
+    givenNoopProject();
+    when(filter.apply(any(), any())).thenReturn(Optional.empty());
+
+    // When:
+    final List<Row> result = table.getAll(ImmutableList.of(A_KEY));
+
+    // Then:
+    assertThat(result, is(empty()));
+  }
+
+  @Test
+  public void shouldReturnSelectTransformedFromNonWindowedRange() {
+    // Given:
+    final MaterializedTable table = materialization.nonWindowed();
+    when(innerNonWindowed.range(any())).thenReturn(ImmutableList.of(ROW));
+    givenNoopFilter();
+    when(project.apply(any(), any())).thenReturn(Optional.of(TRANSFORMED));
+
+    // When:
+    final List<Row> result = table.range(Range.all());
+
+    // Then:
+    assertThat(result, hasSize(1));
+    assertThat(result.get(0).key(), is(A_KEY));
+    assertThat(result.get(0).value(), is(TRANSFORMED));
+  }
+
   private void givenNoopFilter() {
     when(filter.apply(any(), any())).thenAnswer(inv -> Optional.of(inv.getArgument(1)));
   }
@@ -16,27 +16,48 @@
 package io.confluent.ksql.execution.streams.materialization.ks;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.testing.NullPointerTester;
 import com.google.common.testing.NullPointerTester.Visibility;
 import io.confluent.ksql.execution.streams.materialization.Locator.KsqlNode;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.metrics.KafkaMetric;
+import org.apache.kafka.common.metrics.Metrics;
 import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.utils.Time;
+import org.apache.kafka.common.utils.Utils;
 import org.apache.kafka.connect.data.SchemaBuilder;
 import org.apache.kafka.connect.data.Struct;
 import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.KafkaStreams.State;
+import org.apache.kafka.streams.processor.StreamPartitioner;
 import org.apache.kafka.streams.state.HostInfo;
 import org.apache.kafka.streams.state.StreamsMetadata;
+import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.Timeout;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
@@ -45,8 +66,17 @@ import org.mockito.junit.MockitoJUnitRunner;
 public class KsLocatorTest {
 
   private static final String STORE_NAME = "someStoreName";
+  private static final String APPLICATION_ID = "someAppId";
+  private static final String SOURCE_TOPIC = "someTopic";
   private static final URL LOCAL_HOST_URL = localHost();
   private static final Struct SOME_KEY = new Struct(SchemaBuilder.struct().build());
+  private static final byte[] SOME_KEY_BYTES = {1, 2, 3};
+  private static final int NUM_PARTITIONS = 2;
+  private static final int SOME_KEY_PARTITION =
+      Utils.toPositive(Utils.murmur2(SOME_KEY_BYTES)) % NUM_PARTITIONS;
+
+  @Rule
+  public final Timeout timeout = Timeout.seconds(10);
 
   @Mock
   private KafkaStreams kafkaStreams;
@@ -54,12 +84,17 @@ public class KsLocatorTest {
   private Serializer<Struct> keySerializer;
   @Mock
   private HostInfo hostInfo;
+  @Mock
+  private Time time;
+  private final Metrics metrics = new Metrics();
+  private final RebalanceWaits waits = new RebalanceWaits(Optional.empty());
 
   private KsLocator locator;
 
   @Before
   public void setUp() {
-    locator = new KsLocator(STORE_NAME, kafkaStreams, keySerializer, LOCAL_HOST_URL);
+    locator = new KsLocator(STORE_NAME, kafkaStreams, keySerializer, LOCAL_HOST_URL,
+        APPLICATION_ID, Optional.empty(), time, waits);
 
     givenOwnerMetadata(Optional.empty());
 
@@ -67,12 +102,19 @@ public class KsLocatorTest {
     when(hostInfo.port()).thenReturn(2345);
   }
 
+  @After
+  public void tearDown() {
+    metrics.close();
+  }
+
   @Test
   public void shouldThrowNPEs() {
     new NullPointerTester()
         .setDefault(URL.class, LOCAL_HOST_URL)
         .setDefault(KafkaStreams.class, kafkaStreams)
         .setDefault(Serializer.class, keySerializer)
+        .setDefault(Time.class, time)
+        .setDefault(RebalanceWaits.class, waits)
         .testConstructors(KsLocator.class, Visibility.PACKAGE);
   }
 
@@ -82,7 +124,7 @@ public class KsLocatorTest {
     locator.locate(SOME_KEY);
 
     // Then:
-    verify(kafkaStreams).metadataForKey(STORE_NAME, SOME_KEY, keySerializer);
+    verify(kafkaStreams).metadataForKey(eq(STORE_NAME), eq(SOME_KEY), any(StreamPartitioner.class));
   }
 
   @Test
@@ -183,6 +225,276 @@ public class KsLocatorTest {
     assertThat(result.map(KsqlNode::isLocal), is(Optional.of(false)));
   }
 
+  @Test
+  public void shouldReturnAllOwners() {
+    // Given:
+    final StreamsMetadata metadata = mock(StreamsMetadata.class);
+    when(metadata.hostInfo()).thenReturn(hostInfo);
+    when(kafkaStreams.allMetadataForStore(STORE_NAME)).thenReturn(ImmutableList.of(metadata));
+
+    // When:
+    final List<KsqlNode> result = locator.locateAll();
+
+    // Then:
+    assertThat(result, hasSize(1));
+    assertThat(result.get(0).location().getHost(), is(hostInfo.host()));
+    assertThat(result.get(0).location().getPort(), is(hostInfo.port()));
+    assertThat(result.get(0).isLocal(), is(false));
+  }
+
+  @Test
+  public void shouldReturnNoOwnersIfNoneKnown() {
+    // Given:
+    when(kafkaStreams.allMetadataForStore(STORE_NAME)).thenReturn(ImmutableList.of());
+
+    // When:
+    final List<KsqlNode> result = locator.locateAll();
+
+    // Then:
+    assertThat(result, is(ImmutableList.of()));
+  }
+
+  @Test
+  public void shouldLocateSubsequentKeysFromRoutingTable() {
+    // Given:
+    givenOwners(ownerOf(hostInfo, 0, 1));
+    locator.locate(SOME_KEY);
+
+    // When:
+    final Optional<KsqlNode> result = locator.locate(SOME_KEY);
+
+    // Then:
+    verify(kafkaStreams, times(1)).metadataForKey(any(), any(), any(StreamPartitioner.class));
+    assertThat(result.map(node -> node.location().getHost()), is(Optional.of("remoteHost")));
+  }
+
+  @Test
+  public void shouldLocateKeyByPartitionFromRoutingTable() {
+    // Given:
+    final HostInfo otherHost = new HostInfo("otherHost", 2345);
+    givenOwners(
+        ownerOf(hostInfo, SOME_KEY_PARTITION),
+        ownerOf(otherHost, 1 - SOME_KEY_PARTITION)
+    );
+    locator.locate(SOME_KEY);
+
+    // When:
+    final Optional<KsqlNode> result = locator.locate(SOME_KEY);
+
+    // Then:
+    assertThat(result.map(node -> node.location().getHost()), is(Optional.of("remoteHost")));
+  }
+
+  @Test
+  public void shouldNotCacheRoutingTableIfNotAllPartitionsOwned() {
+    // Given:
+    givenOwners(ownerOf(hostInfo, 0));
+    locator.locate(SOME_KEY);
+
+    // When:
+    locator.locate(SOME_KEY);
+
+    // Then:
+    verify(kafkaStreams, times(2)).metadataForKey(any(), any(), any(StreamPartitioner.class));
+  }
+
+  @Test
+  public void shouldDropRoutingTableOnStateChange() {
+    // Given:
+    givenOwners(ownerOf(hostInfo, 0, 1));
+    locator.locate(SOME_KEY);
+
+    // When:
+    locator.onChange(State.REBALANCING, State.RUNNING);
+    locator.locate(SOME_KEY);
+
+    // Then:
+    verify(kafkaStreams, times(2)).metadataForKey(any(), any(), any(StreamPartitioner.class));
+  }
+
+  @Test
+  public void shouldReturnAllOwnersFromRoutingTable() {
+    // Given:
+    givenOwners(ownerOf(hostInfo, 0, 1));
+    locator.locate(SOME_KEY);
+
+    // When:
+    final List<KsqlNode> result = locator.locateAll();
+
+    // Then:
+    verify(kafkaStreams, times(1)).allMetadataForStore(STORE_NAME);
+    assertThat(result, hasSize(1));
+    assertThat(result.get(0).location().getHost(), is("remoteHost"));
+  }
+
+  @Test
+  public void shouldNotWaitIfOwnerKnown() {
+    // Given:
+    givenOwnerMetadata(Optional.of(hostInfo));
+
+    // When:
+    final Optional<KsqlNode> result = locator.locate(SOME_KEY, 1000);
+
+    // Then:
+    assertThat(result.map(node -> node.location().getHost()), is(Optional.of("remoteHost")));
+    assertThat(waits.waits(), is(0L));
+  }
+
+  @Test
+  public void shouldWakeWaitingLookupOnStateChange() throws Exception {
+    // Given:
+    final StreamsMetadata owner = mock(StreamsMetadata.class);
+    when(owner.hostInfo()).thenReturn(hostInfo);
+
+    final AtomicReference<StreamsMetadata> metadata =
+        new AtomicReference<>(StreamsMetadata.NOT_AVAILABLE);
+    when(kafkaStreams.metadataForKey(any(), any(), any(StreamPartitioner.class)))
+        .thenAnswer(inv -> metadata.get());
+
+    final Thread rebalance = new Thread(() -> {
+      while (waits.waiting() == 0) {
+        Thread.yield();
+      }
+      metadata.set(owner);
+      locator.onChange(State.RUNNING, State.REBALANCING);
+    });
+
+    // When:
+    rebalance.start();
+    final Optional<KsqlNode> result = locator.locate(SOME_KEY, Long.MAX_VALUE / 2);
+
+    // Then:
+    rebalance.join();
+    assertThat(result.map(node -> node.location().getHost()), is(Optional.of("remoteHost")));
+    assertThat(waits.waits(), is(1L));
+    assertThat(waits.waiting(), is(0L));
+    assertThat(waits.timeouts(), is(0L));
+  }
+
+  @Test
+  public void shouldReturnEmptyIfOwnerNotKnownWithinTimeout() {
+    // Given:
+    givenOwnerMetadata(Optional.empty());
+    when(time.milliseconds()).thenReturn(0L, 101L);
+
+    // When:
+    final Optional<KsqlNode> result = locator.locate(SOME_KEY, 100);
+
+    // Then:
+    assertThat(result, is(Optional.empty()));
+    assertThat(waits.timeouts(), is(1L));
+    assertThat(waits.waiting(), is(0L));
+  }
+
+  @Test
+  public void shouldWaitForAllOwners() {
+    // Given:
+    when(kafkaStreams.allMetadataForStore(STORE_NAME))
+        .thenReturn(ImmutableList.of())
+        .thenReturn(ImmutableList.of(ownerOf(hostInfo, 0, 1)));
+
+    // When:
+    final List<KsqlNode> result = locator.locateAll(Long.MAX_VALUE / 2);
+
+    // Then:
+    assertThat(result, hasSize(1));
+    assertThat(waits.waits(), is(1L));
+  }
+
+  @Test
+  public void shouldRegisterMetricsOnStart() {
+    // Given:
+    givenLocatorWithMetrics();
+    givenOwners(ownerOf(hostInfo, 0, 1));
+    when(time.milliseconds()).thenReturn(1000L, 1500L);
+
+    // When:
+    locator.onChange(State.REBALANCING, State.CREATED);
+    locator.locate(SOME_KEY);
+    locator.locate(SOME_KEY);
+
+    // Then:
+    assertThat(metricValue("routing-table-refresh-total"), is(1L));
+    assertThat(metricValue("routing-table-miss-total"), is(1L));
+    assertThat(metricValue("routing-table-age-ms"), is(500L));
+  }
+
+  @Test
+  public void shouldReportNoRoutingTableAge() {
+    // Given:
+    givenLocatorWithMetrics();
+
+    // When:
+    locator.onChange(State.REBALANCING, State.CREATED);
+
+    // Then:
+    assertThat(metricValue("routing-table-age-ms"), is(-1L));
+  }
+
+  @Test
+  public void shouldNotRegisterMetricsBeforeStart() {
+    // When:
+    givenLocatorWithMetrics();
+
+    // Then:
+    assertThat(metrics.metric(metricName("routing-table-refresh-total")), is(nullValue()));
+  }
+
+  @Test
+  public void shouldRemoveMetricsOnStop() {
+    // Given:
+    givenLocatorWithMetrics();
+    locator.onChange(State.REBALANCING, State.CREATED);
+
+    // When:
+    locator.onChange(State.NOT_RUNNING, State.PENDING_SHUTDOWN);
+
+    // Then:
+    assertThat(metrics.metric(metricName("routing-table-refresh-total")), is(nullValue()));
+  }
+
+  private void givenLocatorWithMetrics() {
+    locator = new KsLocator(STORE_NAME, kafkaStreams, keySerializer, LOCAL_HOST_URL,
+        APPLICATION_ID, Optional.of(metrics), time, waits);
+  }
+
+  private Object metricValue(final String name) {
+    final KafkaMetric metric = metrics.metric(metricName(name));
+    return metric.metricValue();
+  }
+
+  private MetricName metricName(final String name) {
+    return metrics.metricName(name, "ksql-pull-queries", ImmutableMap.of(
+        "query-application-id", APPLICATION_ID,
+        "store", STORE_NAME
+    ));
+  }
+
+  @SuppressWarnings("unchecked")
+  private void givenOwners(final StreamsMetadata... owners) {
+    when(keySerializer.serialize(SOURCE_TOPIC, SOME_KEY)).thenReturn(SOME_KEY_BYTES);
+    when(kafkaStreams.allMetadataForStore(STORE_NAME)).thenReturn(ImmutableList.copyOf(owners));
+    when(kafkaStreams.metadataForKey(any(), any(), any(StreamPartitioner.class)))
+        .thenAnswer(inv -> {
+          final StreamPartitioner<Struct, ?> partitioner = inv.getArgument(2);
+          partitioner.partition(SOURCE_TOPIC, inv.getArgument(1), null, NUM_PARTITIONS);
+          return owners[0];
+        });
+  }
+
+  private static StreamsMetadata ownerOf(final HostInfo hostInfo, final int... partitions) {
+    final ImmutableSet.Builder<TopicPartition> topicPartitions = ImmutableSet.builder();
+    for (final int partition : partitions) {
+      topicPartitions.add(new TopicPartition(SOURCE_TOPIC, partition));
+    }
+    final Set<TopicPartition> owned = topicPartitions.build();
+
+    final StreamsMetadata metadata = mock(StreamsMetadata.class);
+    when(metadata.hostInfo()).thenReturn(hostInfo);
+    when(metadata.topicPartitions()).thenReturn(owned);
+    return metadata;
+  }
+
   @SuppressWarnings("unchecked")
   private void givenOwnerMetadata(final Optional<HostInfo> hostInfo) {
     final StreamsMetadata metadata = hostInfo
@@ -193,7 +505,7 @@ public class KsLocatorTest {
         })
         .orElse(StreamsMetadata.NOT_AVAILABLE);
 
-    when(kafkaStreams.metadataForKey(any(), any(), any(Serializer.class)))
+    when(kafkaStreams.metadataForKey(any(), any(), any(StreamPartitioner.class)))
         .thenReturn(metadata);
   }
 
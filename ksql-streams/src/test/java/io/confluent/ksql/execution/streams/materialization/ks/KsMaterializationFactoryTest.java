@@ -50,6 +50,7 @@ import org.mockito.junit.MockitoJUnitRunner;
 public class KsMaterializationFactoryTest {
 
   private static final String STORE_NAME = "someStore";
+  private static final String APPLICATION_ID = "someAppId";
   private static final URL DEFAULT_APP_SERVER = buildDefaultAppServer();
 
   private static final LogicalSchema SCHEMA = LogicalSchema.builder()
@@ -87,12 +88,13 @@ public class KsMaterializationFactoryTest {
         materializationFactory
     );
 
-    when(locatorFactory.create(any(), any(), any(), any())).thenReturn(locator);
+    when(locatorFactory.create(any(), any(), any(), any(), any())).thenReturn(locator);
     when(storeFactory.create(any(), any(), any(), any())).thenReturn(stateStore);
     when(materializationFactory.create(any(), any(), any())).thenReturn(materialization);
 
     streamsProperties.clear();
     streamsProperties.put(StreamsConfig.APPLICATION_SERVER_CONFIG, DEFAULT_APP_SERVER.toString());
+    streamsProperties.put(StreamsConfig.APPLICATION_ID_CONFIG, APPLICATION_ID);
   }
 
   @Test
@@ -129,7 +131,8 @@ public class KsMaterializationFactoryTest {
         STORE_NAME,
         kafkaStreams,
         keySerializer,
-        DEFAULT_APP_SERVER
+        DEFAULT_APP_SERVER,
+        APPLICATION_ID
     );
   }
 
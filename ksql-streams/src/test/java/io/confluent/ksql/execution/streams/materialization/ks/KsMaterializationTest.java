@@ -19,14 +19,15 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.verify;
 
 import com.google.common.testing.NullPointerTester;
 import com.google.common.testing.NullPointerTester.Visibility;
-import io.confluent.ksql.execution.streams.materialization.Locator;
 import io.confluent.ksql.execution.streams.materialization.MaterializedTable;
 import io.confluent.ksql.execution.streams.materialization.MaterializedWindowedTable;
 import io.confluent.ksql.model.WindowType;
 import java.util.Optional;
+import org.apache.kafka.streams.KafkaStreams.State;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -37,7 +38,7 @@ import org.mockito.junit.MockitoJUnitRunner;
 public class KsMaterializationTest {
 
   @Mock
-  private Locator locator;
+  private KsLocator locator;
   @Mock
   private KsStateStore stateStore;
   private KsMaterialization materialization;
@@ -50,6 +51,7 @@ public class KsMaterializationTest {
   @Test
   public void shouldThrowNPEs() {
     new NullPointerTester()
+        .setDefault(KsLocator.class, locator)
         .setDefault(KsStateStore.class, stateStore)
         .testConstructors(KsMaterialization.class, Visibility.PACKAGE);
   }
@@ -59,6 +61,16 @@ public class KsMaterializationTest {
     assertThat(materialization.locator(), is(sameInstance(locator)));
   }
 
+  @Test
+  public void shouldPassStateChangesToLocatorAndStore() {
+    // When:
+    materialization.onChange(State.REBALANCING, State.RUNNING);
+
+    // Then:
+    verify(locator).onChange(State.REBALANCING, State.RUNNING);
+    verify(stateStore).onChange(State.REBALANCING, State.RUNNING);
+  }
+
   @Test
   public void shouldReturnWindowType() {
     // Given:
@@ -16,12 +16,17 @@
 package io.confluent.ksql.execution.streams.materialization.ks;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Range;
 import com.google.common.testing.NullPointerTester;
 import com.google.common.testing.NullPointerTester.Visibility;
 import io.confluent.ksql.GenericRow;
@@ -32,8 +37,12 @@ import io.confluent.ksql.execution.util.StructKeyUtil;
 import io.confluent.ksql.name.ColumnName;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
 import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.state.KeyValueIterator;
 import org.apache.kafka.streams.state.QueryableStoreTypes.KeyValueStoreType;
 import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
 import org.junit.Before;
@@ -53,6 +62,12 @@ public class KsMaterializedTableTest {
       .build();
 
   private static final Struct A_KEY = StructKeyUtil.asStructKey("x");
+  private static final Struct KEY_A = StructKeyUtil.asStructKey("a");
+  private static final Struct KEY_B = StructKeyUtil.asStructKey("b");
+  private static final Struct KEY_C = StructKeyUtil.asStructKey("c");
+  private static final GenericRow VALUE_A = new GenericRow("a");
+  private static final GenericRow VALUE_B = new GenericRow("b");
+  private static final GenericRow VALUE_C = new GenericRow("c");
 
   @Rule
   public final ExpectedException expectedException = ExpectedException.none();
@@ -147,4 +162,215 @@ public class KsMaterializedTableTest {
     // Then:
     assertThat(result, is(Optional.of(Row.of(SCHEMA, A_KEY, value))));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void shouldGetAllFromSingleStore() {
+    // Given:
+    when(tableStore.get(KEY_A)).thenReturn(VALUE_A);
+    when(tableStore.get(KEY_C)).thenReturn(VALUE_C);
+
+    // When:
+    final List<Row> result = table.getAll(ImmutableList.of(KEY_A, KEY_B, KEY_C));
+
+    // Then:
+    verify(stateStore).store(any());
+    assertThat(result, contains(
+        Row.of(SCHEMA, KEY_A, VALUE_A),
+        Row.of(SCHEMA, KEY_C, VALUE_C)
+    ));
+  }
+
+  @Test
+  public void shouldThrowIfStoreGetAllFails() {
+    // Given:
+    when(tableStore.get(any())).thenThrow(new MaterializationTimeOutException("Boom"));
+
+    // Then:
+    expectedException.expect(MaterializationException.class);
+    expectedException.expectMessage("Failed to get value from materialized table");
+    expectedException.expectCause(instanceOf(MaterializationTimeOutException.class));
+
+    // When:
+    table.getAll(ImmutableList.of(A_KEY));
+  }
+
+  @Test
+  public void shouldRangeWithCorrectParams() {
+    // Given:
+    givenRange(KEY_A, KEY_C);
+
+    // When:
+    table.range(Range.closed("a", "c"));
+
+    // Then:
+    verify(tableStore).range(KEY_A, KEY_C);
+  }
+
+  @Test
+  public void shouldReturnRowsInClosedRange() {
+    // Given:
+    givenRange(KEY_A, KEY_C);
+
+    // When:
+    final List<Row> result = table.range(Range.closed("a", "c"));
+
+    // Then:
+    assertThat(result, contains(
+        Row.of(SCHEMA, KEY_A, VALUE_A),
+        Row.of(SCHEMA, KEY_B, VALUE_B),
+        Row.of(SCHEMA, KEY_C, VALUE_C)
+    ));
+  }
+
+  @Test
+  public void shouldExcludeOpenEndsOfRange() {
+    // Given:
+    givenRange(KEY_A, KEY_C);
+
+    // When:
+    final List<Row> result = table.range(Range.open("a", "c"));
+
+    // Then:
+    assertThat(result, contains(Row.of(SCHEMA, KEY_B, VALUE_B)));
+  }
+
+  @Test
+  public void shouldScanAllForUnboundedRange() {
+    // Given:
+    when(tableStore.all()).thenReturn(iterator());
+
+    // When:
+    final List<Row> result = table.range(Range.atLeast("b"));
+
+    // Then:
+    verify(tableStore, never()).range(any(), any());
+    assertThat(result, contains(
+        Row.of(SCHEMA, KEY_B, VALUE_B),
+        Row.of(SCHEMA, KEY_C, VALUE_C)
+    ));
+  }
+
+  @Test
+  public void shouldScanAllIfRangeEndpointsOrderDifferentlyAsBytes() {
+    // Given:
+    final Struct supplementary = StructKeyUtil.asStructKey("\uD83D\uDE00");
+    final Struct privateUse = StructKeyUtil.asStructKey("\uE000");
+    when(tableStore.all()).thenReturn(new TestIterator(ImmutableList.of(
+        KeyValue.pair(KEY_B, VALUE_B),
+        KeyValue.pair(privateUse, VALUE_C),
+        KeyValue.pair(supplementary, VALUE_A)
+    )));
+
+    // When:
+    final List<Row> result = table.range(Range.closed("a", "\uE000"));
+
+    // Then:
+    verify(tableStore, never()).range(any(), any());
+    assertThat(result, contains(
+        Row.of(SCHEMA, KEY_B, VALUE_B),
+        Row.of(SCHEMA, privateUse, VALUE_C),
+        Row.of(SCHEMA, supplementary, VALUE_A)
+    ));
+  }
+
+  @Test
+  public void shouldScanAllIfRangeStartsWithSupplementaryCharacter() {
+    // Given:
+    final Struct supplementary = StructKeyUtil.asStructKey("\uD83D\uDE00");
+    final Struct privateUse = StructKeyUtil.asStructKey("\uE000");
+    when(tableStore.all()).thenReturn(new TestIterator(ImmutableList.of(
+        KeyValue.pair(KEY_B, VALUE_B),
+        KeyValue.pair(privateUse, VALUE_C),
+        KeyValue.pair(supplementary, VALUE_A)
+    )));
+
+    // When:
+    final List<Row> result = table.range(Range.closed("\uD83D\uDE00", "\uFFFF"));
+
+    // Then:
+    verify(tableStore, never()).range(any(), any());
+    assertThat(result, contains(
+        Row.of(SCHEMA, privateUse, VALUE_C),
+        Row.of(SCHEMA, supplementary, VALUE_A)
+    ));
+  }
+
+  @Test
+  public void shouldReturnNothingForEmptyRange() {
+    // When:
+    final List<Row> result = table.range(Range.closedOpen("a", "a"));
+
+    // Then:
+    verify(tableStore, never()).all();
+    assertThat(result, is(empty()));
+  }
+
+  @Test
+  public void shouldCloseRangeIterator() {
+    // Given:
+    final TestIterator it = iterator();
+    when(tableStore.all()).thenReturn(it);
+
+    // When:
+    table.range(Range.all());
+
+    // Then:
+    assertThat(it.closed, is(true));
+  }
+
+  @Test
+  public void shouldThrowIfStoreRangeFails() {
+    // Given:
+    when(tableStore.all()).thenThrow(new MaterializationTimeOutException("Boom"));
+
+    // Then:
+    expectedException.expect(MaterializationException.class);
+    expectedException.expectMessage("Failed to scan materialized table");
+    expectedException.expectCause(instanceOf(MaterializationTimeOutException.class));
+
+    // When:
+    table.range(Range.all());
+  }
+
+  private void givenRange(final Struct from, final Struct to) {
+    when(tableStore.range(from, to)).thenReturn(iterator());
+  }
+
+  private static TestIterator iterator() {
+    return new TestIterator(ImmutableList.of(
+        KeyValue.pair(KEY_A, VALUE_A),
+        KeyValue.pair(KEY_B, VALUE_B),
+        KeyValue.pair(KEY_C, VALUE_C)
+    ));
+  }
+
+  private static final class TestIterator implements KeyValueIterator<Struct, GenericRow> {
+
+    private final Iterator<KeyValue<Struct, GenericRow>> it;
+    private boolean closed;
+
+    private TestIterator(final List<KeyValue<Struct, GenericRow>> entries) {
+      this.it = entries.iterator();
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+
+    @Override
+    public Struct peekNextKey() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return it.hasNext();
+    }
+
+    @Override
+    public KeyValue<Struct, GenericRow> next() {
+      return it.next();
+    }
+  }
+}
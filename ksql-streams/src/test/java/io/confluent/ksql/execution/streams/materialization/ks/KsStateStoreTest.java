@@ -34,6 +34,8 @@ import io.confluent.ksql.name.ColumnName;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.schema.ksql.types.SqlTypes;
 import io.confluent.ksql.util.KsqlConfig;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 import org.apache.kafka.streams.KafkaStreams;
 import org.apache.kafka.streams.KafkaStreams.State;
@@ -78,11 +80,12 @@ public class KsStateStoreTest {
   @Mock
   private KsqlConfig ksqlConfig;
 
+  private final RebalanceWaits waits = new RebalanceWaits(Optional.empty());
   private KsStateStore store;
 
   @Before
   public void setUp() {
-    store = new KsStateStore(STORE_NAME, kafkaStreams, SCHEMA, ksqlConfig, clock);
+    store = new KsStateStore(STORE_NAME, kafkaStreams, SCHEMA, ksqlConfig, clock, waits);
 
     when(clock.get()).thenReturn(0L);
     when(kafkaStreams.state()).thenReturn(State.RUNNING);
@@ -97,6 +100,7 @@ public class KsStateStoreTest {
         .setDefault(LogicalSchema.class, SCHEMA)
         .setDefault(Supplier.class, clock)
         .setDefault(KsqlConfig.class, ksqlConfig)
+        .setDefault(RebalanceWaits.class, waits)
         .testConstructors(KsStateStore.class, Visibility.PACKAGE);
   }
 
@@ -119,6 +123,54 @@ public class KsStateStoreTest {
     verify(kafkaStreams, atLeast(3)).state();
   }
 
+  @Test
+  public void shouldWakeOnceRebalanceCompletes() throws Exception {
+    // Given:
+    final AtomicReference<State> state = new AtomicReference<>(State.REBALANCING);
+    when(kafkaStreams.state()).thenAnswer(inv -> state.get());
+    when(ksqlConfig.getLong(KsqlConfig.KSQL_QUERY_PULL_STREAMSTORE_REBALANCING_TIMEOUT_MS_CONFIG))
+        .thenReturn(Long.MAX_VALUE / 2);
+
+    final Thread rebalance = new Thread(() -> {
+      state.set(State.RUNNING);
+      store.onChange(State.RUNNING, State.REBALANCING);
+    });
+
+    // When:
+    rebalance.start();
+    store.store(QueryableStoreTypes.sessionStore());
+
+    // Then:
+    rebalance.join();
+    verify(kafkaStreams).store(any(), any());
+  }
+
+  @Test
+  public void shouldRecordWaitForRebalance() {
+    // Given:
+    when(kafkaStreams.state())
+        .thenReturn(State.REBALANCING)
+        .thenReturn(State.REBALANCING)
+        .thenReturn(State.RUNNING);
+
+    // When:
+    store.store(QueryableStoreTypes.sessionStore());
+
+    // Then:
+    assertThat(waits.waits(), is(1L));
+    assertThat(waits.waiting(), is(0L));
+    assertThat(waits.timeouts(), is(0L));
+  }
+
+  @Test
+  public void shouldNotRecordWaitIfRunning() {
+    // When:
+    store.store(QueryableStoreTypes.sessionStore());
+
+    // Then:
+    assertThat(waits.waits(), is(0L));
+  }
+
   @Test
   public void shouldThrowIfDoesNotFinishRebalanceBeforeTimeout() {
     // Given:
@@ -229,6 +281,6 @@ public class KsStateStoreTest {
         .build();
 
     // When:
-    new KsStateStore(STORE_NAME, kafkaStreams, schema, ksqlConfig, clock);
+    new KsStateStore(STORE_NAME, kafkaStreams, schema, ksqlConfig, clock, waits);
   }
 }
\ No newline at end of file